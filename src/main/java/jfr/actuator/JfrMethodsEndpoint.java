@@ -0,0 +1,134 @@
+package jfr.actuator;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.analysis.MethodStatistic;
+import jfr.live.LiveWindow;
+import jfr.live.WindowStatistic;
+import jfr.live.WindowedStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint Spring Boot Actuator {@code /actuator/jfrmethods}: самые нагруженные методы бинов сейчас.
+ *
+ * <p>Читает статистику {@link WindowedStatistics}, которую наполняет {@link jfr.logging.JfrLoggingServiceImpl}
+ * по завершении корневых вызовов, поэтому не требует записи JFR и выгрузки файлов из пода.
+ * Параметры запроса:</p>
+ * <ul>
+ *     <li>{@code window} — окно {@code 1s}, {@code 1m} или {@code 5m}, по умолчанию {@code 1m};</li>
+ *     <li>{@code sort} — порядок: {@code sum} собственное время, {@code count}, {@code p99}, {@code errors}
+ *     доля ошибок, а также {@code mean}, {@code max}, {@code p50}, {@code p90}, по умолчанию {@code sum};</li>
+ *     <li>{@code limit} — количество методов, по умолчанию {@value #DEFAULT_LIMIT}.</li>
+ * </ul>
+ *
+ * @author Roman_Erzhukov
+ */
+@Endpoint(id = "jfrmethods")
+@RequiredArgsConstructor
+public class JfrMethodsEndpoint {
+    /**
+     * Количество методов по умолчанию.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    @VisibleForTesting
+    final WindowedStatistics statistics;
+
+    /**
+     * Ответ endpoint-а.
+     *
+     * @param window  окно
+     * @param sort    порядок
+     * @param dropped количество событий, отброшенных из-за ограничения количества методов
+     * @param methods методы
+     */
+    public record HotMethods(String window, String sort, long dropped, List<HotMethod> methods) {
+    }
+
+    /**
+     * Статистика метода, время в миллисекундах.
+     *
+     * @param event     источник статистики
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param count     количество вызовов
+     * @param errors    количество вызовов, завершившихся исключением
+     * @param errorRate доля ошибок
+     * @param sum       суммарное собственное время
+     * @param mean      среднее собственное время
+     * @param p99       99-й процентиль собственного времени, оценка сверху
+     * @param max       максимальное собственное время
+     */
+    public record HotMethod(String event, String beanClass, String method, long count, long errors, double errorRate,
+                            double sum, double mean, double p99, double max) {
+    }
+
+    /**
+     * Возвращает самые нагруженные методы.
+     *
+     * @param window окно, или null
+     * @param sort   порядок, или null
+     * @param limit  количество методов, или null
+     */
+    @ReadOperation
+    public HotMethods methods(@Nullable String window, @Nullable String sort,
+                              @Nullable Integer limit) {
+        String windowName = window == null ? "1m" : window;
+        String order = sort == null ? "sum" : sort.toLowerCase(Locale.ROOT);
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        LiveWindow liveWindow;
+        Comparator<WindowStatistic> comparator;
+        try {
+            liveWindow = LiveWindow.of(windowName);
+            comparator = comparator(order);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage(), e);
+        }
+        if (max <= 0) {
+            throw new InvalidEndpointRequestException("Invalid limit: " + max, "limit must be positive");
+        }
+        List<HotMethod> methods = statistics.statistics(liveWindow)
+                .stream()
+                .sorted(comparator)
+                .limit(max)
+                .map(JfrMethodsEndpoint::hotMethod)
+                .toList();
+        return new HotMethods(windowName, order, statistics.dropped(), methods);
+    }
+
+    /**
+     * Возвращает порядок по убыванию показателя.
+     *
+     * @param order показатель
+     * @throws IllegalArgumentException если показатель неизвестен
+     */
+    @VisibleForTesting
+    static Comparator<WindowStatistic> comparator(String order) {
+        if (order.equals("errors")) {
+            return Comparator.comparingDouble(WindowStatistic::errorRate).reversed()
+                    .thenComparing(Comparator.comparingLong(WindowStatistic::errors).reversed())
+                    .thenComparing(s -> s.key().toString());
+        }
+        return Comparator.comparing(WindowStatistic::statistic, MethodStatistic.descending(order));
+    }
+
+    @VisibleForTesting
+    static HotMethod hotMethod(WindowStatistic window) {
+        MethodStatistic statistic = window.statistic();
+        return new HotMethod(statistic.key().event(), statistic.key().beanClass(), statistic.key().method(),
+                statistic.count(), window.errors(), window.errorRate(), millis(statistic.sum()),
+                millis(statistic.mean()), millis(statistic.percentile(99)), millis(statistic.max()));
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
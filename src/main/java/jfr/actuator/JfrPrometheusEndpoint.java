@@ -0,0 +1,28 @@
+package jfr.actuator;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.prometheus.PrometheusStatisticsSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Endpoint Spring Boot Actuator {@code /actuator/jfrprometheus}: статистика методов бинов
+ * в текстовом формате Prometheus для сервисов без Micrometer.
+ *
+ * @author Roman_Erzhukov
+ */
+@Endpoint(id = "jfrprometheus")
+@RequiredArgsConstructor
+public class JfrPrometheusEndpoint {
+    @VisibleForTesting
+    final PrometheusStatisticsSink statistics;
+
+    /**
+     * Возвращает метрики в текстовом формате Prometheus.
+     */
+    @ReadOperation(produces = PrometheusStatisticsSink.CONTENT_TYPE)
+    public String scrape() {
+        return statistics.scrape();
+    }
+}
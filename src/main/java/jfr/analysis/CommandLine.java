@@ -0,0 +1,97 @@
+package jfr.analysis;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Аргументы командной строки {@link JfrAnalysis}: команда, параметры {@code --name value} и файлы.
+ *
+ * @param command команда
+ * @param options параметры
+ * @param files   файлы
+ * @author Roman_Erzhukov
+ */
+record CommandLine(String command, Map<String, String> options, List<Path> files) {
+    /**
+     * Разбирает аргументы.
+     *
+     * @param args аргументы
+     * @throws IllegalArgumentException если у параметра нет значения или не указана команда
+     */
+    static CommandLine parse(String... args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Command is not specified");
+        }
+        var options = new HashMap<String, String>();
+        var files = new ArrayList<Path>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("No value of " + arg);
+                }
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                files.add(Path.of(arg));
+            }
+        }
+        return new CommandLine(args[0], options, files);
+    }
+
+    /**
+     * Возвращает значение параметра.
+     *
+     * @param name         имя параметра
+     * @param defaultValue значение по умолчанию
+     */
+    String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Возвращает целочисленное значение параметра.
+     *
+     * @param name         имя параметра
+     * @param defaultValue значение по умолчанию
+     */
+    int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Возвращает момент времени ISO-8601, или null, если параметр не указан.
+     *
+     * @param name имя параметра
+     */
+    @Nullable
+    Instant instantOption(String name) {
+        String value = options.get(name);
+        return value == null ? null : Instant.parse(value);
+    }
+
+    /**
+     * Возвращает множество значений, перечисленных через запятую.
+     *
+     * @param name имя параметра
+     */
+    Set<String> setOption(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
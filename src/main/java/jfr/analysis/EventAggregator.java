@@ -0,0 +1,38 @@
+package jfr.analysis;
+
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+
+/**
+ * Агрегирует события одного чанка записи Java Flight Recorder, см. {@link RecordingAnalyzer}.
+ *
+ * <p>Чанки читаются параллельно, поэтому реализация не должна иметь изменяемого состояния,
+ * общего для разных вызовов {@link #read(RecordingFile)}.</p>
+ *
+ * @param <R> тип результата
+ * @author Roman_Erzhukov
+ */
+public interface EventAggregator<R> {
+    /**
+     * Возвращает результат для пустой записи.
+     */
+    R empty();
+
+    /**
+     * Читает события чанка.
+     *
+     * @param recording запись, содержащая один или несколько чанков
+     * @return результат по прочитанным событиям
+     * @throws IOException ошибка чтения записи
+     */
+    R read(RecordingFile recording) throws IOException;
+
+    /**
+     * Объединяет результаты разных чанков.
+     *
+     * @param a первый результат
+     * @param b второй результат
+     */
+    R merge(R a, R b);
+}
@@ -0,0 +1,269 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Восстанавливает деревья вызовов методов бинов и строит стеки в формате collapsed stacks
+ * ({@code frame;frame;frame weight}) для flame graph по времени выполнения, а не по CPU.
+ *
+ * <p>Вложенность определяется по интервалам событий одного потока: событие вложено в последнее начатое событие,
+ * интервал которого его содержит. Для {@code MethodInvocation} каждого метода записывается событие самого
+ * длительного вызова со статистикой всех вызовов в пределах корневого, поэтому вся статистика метода
+ * относится к пути самого длительного вызова. Длительность событий без статистики, например {@code FeignEvent},
+ * вычитается из собственного времени родителя, чтобы время не учитывалось дважды.</p>
+ *
+ * <p>Если статистика собрана с ключом по пути вызова ({@code jfr.callPath.depth}), у событий заполнены
+ * {@code pathId} и {@code parentPathId}, и путь кадра строится по ним: каждый путь имеет собственную статистику,
+ * а событие самого длительного вызова не обязано лежать внутри записанного события родителя.</p>
+ *
+ * <p>События одного корневого вызова фиксируются вместе при его завершении, поэтому находятся в одном чанке.
+ * В памяти держатся события одного чанка и накопленные пути.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class FlameGraphAggregator implements EventAggregator<Map<String, Long>> {
+    /**
+     * Ограничение глубины пути, защищает от циклов при совпадении хешей путей.
+     */
+    private static final int MAX_PATH_DEPTH = 1024;
+
+    @VisibleForTesting
+    final Predicate<RecordedEvent> filter;
+    @VisibleForTesting
+    final Weight weight;
+
+    /**
+     * Вес стека.
+     */
+    public enum Weight {
+        /**
+         * Собственное время, нс.
+         */
+        TIME,
+        /**
+         * Количество вызовов.
+         */
+        COUNT;
+
+        /**
+         * Возвращает вес по имени без учёта регистра.
+         *
+         * @param name имя
+         * @throws IllegalArgumentException если вес неизвестен
+         */
+        public static Weight of(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Событие вызова метода.
+     *
+     * @param start        начало, нс от эпохи
+     * @param end          окончание, нс от эпохи
+     * @param name         имя кадра стека
+     * @param time         собственное время, нс
+     * @param count        количество вызовов
+     * @param aggregated   признак события со статистикой вызовов: время уже без учёта вложенных вызовов
+     * @param pathId       идентификатор пути вызова, или 0
+     * @param parentPathId идентификатор пути родительского вызова, или 0
+     */
+    @VisibleForTesting
+    record Frame(long start, long end, String name, long time, long count, boolean aggregated,
+                 long pathId, long parentPathId) {
+        Frame(long start, long end, String name, long time, long count, boolean aggregated) {
+            this(start, end, name, time, count, aggregated, 0, 0);
+        }
+
+        boolean contains(Frame other) {
+            return start <= other.start && other.end <= end;
+        }
+    }
+
+    @Override
+    public Map<String, Long> empty() {
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Long> read(RecordingFile recording) throws IOException {
+        var threads = new HashMap<Long, List<Frame>>();
+        var paths = new HashMap<Long, Frame>();
+        while (recording.hasMoreEvents()) {
+            RecordedEvent event = recording.readEvent();
+            if (!MethodAggregator.isMethodEvent(event) || !filter.test(event)) {
+                continue;
+            }
+            RecordedThread thread = event.getThread();
+            Frame frame = frame(event);
+            threads.computeIfAbsent(thread == null ? -1 : thread.getId(), id -> new ArrayList<>())
+                    .add(frame);
+            if (frame.pathId() != 0) {
+                paths.put(frame.pathId(), frame);
+            }
+        }
+        var stacks = new HashMap<String, Long>();
+        var names = new HashMap<Long, String>();
+        threads.values().forEach(frames -> collapse(frames, paths, names, stacks));
+        return stacks;
+    }
+
+    @Override
+    public Map<String, Long> merge(Map<String, Long> a, Map<String, Long> b) {
+        var result = new HashMap<>(a);
+        b.forEach((stack, value) -> result.merge(stack, value, Long::sum));
+        return result;
+    }
+
+    @VisibleForTesting
+    static Frame frame(RecordedEvent event) {
+        String name = MethodAggregator.key(event).shortName()
+                .replace(';', ':')
+                .replace('\n', ' ');
+        if (event.hasField("count") && event.hasField("sum")) {
+            return new Frame(nanos(event.getStartTime()), nanos(event.getEndTime()), name,
+                    event.getLong("sum"), event.getLong("count"), true,
+                    event.hasField("pathId") ? event.getLong("pathId") : 0,
+                    event.hasField("parentPathId") ? event.getLong("parentPathId") : 0);
+        }
+        return new Frame(nanos(event.getStartTime()), nanos(event.getEndTime()), name,
+                event.getDuration().toNanos(), 1, false);
+    }
+
+    /**
+     * Восстанавливает вложенность событий одного потока и добавляет веса стеков.
+     *
+     * @param frames события потока
+     * @param stacks веса стеков
+     */
+    @VisibleForTesting
+    void collapse(List<Frame> frames, Map<String, Long> stacks) {
+        collapse(frames, Map.of(), new HashMap<>(), stacks);
+    }
+
+    /**
+     * Восстанавливает вложенность событий одного потока и добавляет веса стеков.
+     *
+     * @param frames события потока
+     * @param paths  события с путём вызова по идентификатору пути
+     * @param names  найденные имена путей по идентификатору пути
+     * @param stacks веса стеков
+     */
+    @VisibleForTesting
+    void collapse(List<Frame> frames, Map<Long, Frame> paths, Map<Long, String> names, Map<String, Long> stacks) {
+        frames.sort(Comparator.comparingLong(Frame::start)
+                .thenComparing(Comparator.comparingLong(Frame::end).reversed())
+                .thenComparing(frame -> !frame.aggregated()));
+        Deque<Node> open = new ArrayDeque<>();
+        for (Frame frame : frames) {
+            while (!open.isEmpty() && !open.peek().frame.contains(frame)) {
+                flush(open.pop(), stacks);
+            }
+            Node parent = open.peek();
+            if (parent != null && !frame.aggregated()) {
+                parent.time -= frame.time();
+            }
+            String path = frame.pathId() != 0 ? path(frame, paths, names, 0)
+                    : parent == null ? frame.name() : parent.path + ';' + frame.name();
+            open.push(new Node(frame, path));
+        }
+        while (!open.isEmpty()) {
+            flush(open.pop(), stacks);
+        }
+    }
+
+    /**
+     * Возвращает путь кадра по цепочке родительских путей. Если событие родителя не попало в запись,
+     * путь начинается с кадра.
+     */
+    private static String path(Frame frame, Map<Long, Frame> paths, Map<Long, String> names, int depth) {
+        String path = names.get(frame.pathId());
+        if (path != null) {
+            return path;
+        }
+        Frame parent = frame.parentPathId() == 0 || depth >= MAX_PATH_DEPTH ? null : paths.get(frame.parentPathId());
+        path = parent == null || parent.pathId() == frame.pathId() ? frame.name()
+                : path(parent, paths, names, depth + 1) + ';' + frame.name();
+        names.put(frame.pathId(), path);
+        return path;
+    }
+
+    private void flush(Node node, Map<String, Long> stacks) {
+        long value = weight == Weight.COUNT ? node.frame.count() : Math.max(node.time, 0);
+        if (value > 0) {
+            stacks.merge(node.path, value, Long::sum);
+        }
+    }
+
+    /**
+     * Выводит стеки, отсортированные по имени, в формате collapsed stacks.
+     *
+     * @param stacks  веса стеков
+     * @param divisor делитель веса, например 1000 для вывода времени в микросекундах
+     * @param out     вывод
+     */
+    public static void write(Map<String, Long> stacks, long divisor, PrintWriter out) {
+        new TreeMap<>(stacks).forEach((stack, value) -> {
+            long scaled = value / divisor;
+            if (scaled > 0) {
+                out.print(stack);
+                out.print(' ');
+                out.println(scaled);
+            }
+        });
+    }
+
+    /**
+     * Возвращает делитель веса для единицы измерения времени.
+     *
+     * @param unit ns, us или ms
+     * @throws IllegalArgumentException если единица неизвестна
+     */
+    public static long divisor(String unit) {
+        return switch (unit) {
+            case "ns" -> 1;
+            case "us" -> TimeUnit.MICROSECONDS.toNanos(1);
+            case "ms" -> TimeUnit.MILLISECONDS.toNanos(1);
+            default -> throw new IllegalArgumentException("Unknown unit: " + unit);
+        };
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * TimeUnit.SECONDS.toNanos(1) + instant.getNano();
+    }
+
+    /**
+     * Незавершённый кадр стека.
+     */
+    private static final class Node {
+        final Frame frame;
+        final String path;
+        long time;
+
+        Node(Frame frame, String path) {
+            this.frame = frame;
+            this.path = path;
+            this.time = frame.time();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Анализ записей Java Flight Recorder из командной строки, без Java Mission Control.
+ *
+ * <pre>
+ * java -cp spring-beans-jfr.jar jfr.analysis.JfrAnalysis report [параметры] файл.jfr...
+ *
+ *   --format  text|csv|json         формат отчёта, text
+ *   --sort    sum|count|max|mean|p50|p90|p99, порядок методов, sum
+ *   --top     N                     количество методов, 50
+ *   --events  MethodInvocation,...  типы событий, все события вызовов методов
+ *   --from    2025-01-01T00:00:00Z  начало интервала
+ *   --to      2025-01-01T01:00:00Z  окончание интервала
+ *   --threads N                     количество потоков, по количеству процессоров
+ *
+ * java -cp spring-beans-jfr.jar jfr.analysis.JfrAnalysis diff [параметры] базовый.jfr текущий.jfr
+ * java -cp spring-beans-jfr.jar jfr.analysis.JfrAnalysis diff [параметры] --baseline-from instant --baseline-to instant
+ *     --current-from instant --current-to instant файл.jfr
+ *
+ *   --format       text|csv|json    формат отчёта, text
+ *   --top          N                количество методов, 50
+ *   --show         changed|all      выводить только изменившиеся методы, или все, changed
+ *   --events       MethodInvocation,...  типы событий, все события вызовов методов
+ *   --threshold    20               минимальное относительное изменение, %
+ *   --min-delta-ms 1                минимальное абсолютное изменение, мс
+ *   --min-count    30               минимальное количество вызовов в каждой записи
+ *   --min-z        3                минимальная z-оценка изменения среднего
+ *   --threads      N                количество потоков, по количеству процессоров
+ *
+ * java -cp spring-beans-jfr.jar jfr.analysis.JfrAnalysis flame [параметры] файл.jfr... &gt; bean.folded
+ *
+ *   --weight  time|count            вес стека: собственное время или количество вызовов, time
+ *   --unit    ns|us|ms              единица времени, us
+ *   --events  MethodInvocation,...  типы событий, все события вызовов методов
+ *   --from    2025-01-01T00:00:00Z  начало интервала
+ *   --to      2025-01-01T01:00:00Z  окончание интервала
+ *   --threads N                     количество потоков, по количеству процессоров
+ * </pre>
+ *
+ * <p>Команда {@code flame} выводит стеки в формате collapsed stacks для flamegraph.pl, speedscope и подобных.</p>
+ *
+ * <p>Команда {@code diff} завершается с кодом 3, если найдены регрессии, чтобы её можно было использовать
+ * как условие выкладки.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public final class JfrAnalysis {
+    @VisibleForTesting
+    static final String USAGE = "Usage: JfrAnalysis report [--format text|csv|json] [--sort sum|count|max|mean|p50|p90|p99]"
+            + " [--top N] [--events MethodInvocation,...] [--from instant] [--to instant] [--threads N] file.jfr...\n"
+            + "       JfrAnalysis diff [--format text|csv|json] [--top N] [--show changed|all] [--events ...]"
+            + " [--threshold 20] [--min-delta-ms 1] [--min-count 30] [--min-z 3] [--threads N]"
+            + " (baseline.jfr current.jfr | --baseline-from instant --baseline-to instant"
+            + " --current-from instant --current-to instant file.jfr)\n"
+            + "       JfrAnalysis flame [--weight time|count] [--unit ns|us|ms] [--events MethodInvocation,...]"
+            + " [--from instant] [--to instant] [--threads N] file.jfr...";
+    /**
+     * Код завершения команды diff, если найдены регрессии.
+     */
+    @VisibleForTesting
+    static final int REGRESSION_STATUS = 3;
+
+    private JfrAnalysis() {
+    }
+
+    public static void main(String[] args) {
+        var out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        var err = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+        int status = run(out, err, args);
+        out.flush();
+        err.flush();
+        System.exit(status);
+    }
+
+    /**
+     * Выполняет команду.
+     *
+     * @param out  вывод результата
+     * @param err  вывод ошибок
+     * @param args аргументы командной строки
+     * @return код завершения: 0 — успешно, 1 — ошибка ввода-вывода, 2 — неверные аргументы,
+     * 3 — найдены регрессии
+     */
+    @VisibleForTesting
+    static int run(PrintWriter out, PrintWriter err, String... args) {
+        try {
+            CommandLine commandLine = CommandLine.parse(args);
+            if (commandLine.files().isEmpty()) {
+                throw new IllegalArgumentException("No files specified");
+            }
+            var pool = new ForkJoinPool(commandLine.intOption("threads", Runtime.getRuntime().availableProcessors()));
+            try {
+                var analyzer = new RecordingAnalyzer(pool);
+                int status = switch (commandLine.command()) {
+                    case "report" -> report(analyzer, commandLine, out);
+                    case "diff" -> diff(analyzer, commandLine, out);
+                    case "flame" -> flame(analyzer, commandLine, out);
+                    default -> throw new IllegalArgumentException("Unknown command: " + commandLine.command());
+                };
+                out.flush();
+                return status;
+            } finally {
+                pool.shutdown();
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            err.println("Unable to read recording: " + e);
+            return 1;
+        }
+    }
+
+    @VisibleForTesting
+    static int report(RecordingAnalyzer analyzer, CommandLine commandLine, PrintWriter out) throws IOException {
+        ReportFormat format = ReportFormat.of(commandLine.option("format", "text"));
+        var order = MethodStatistic.descending(commandLine.option("sort", "sum"));
+        int top = commandLine.intOption("top", 50);
+        var aggregator = new MethodAggregator(MethodAggregator.filter(commandLine.setOption("events"),
+                commandLine.instantOption("from"), commandLine.instantOption("to")));
+        MethodReport report = analyzer.analyze(commandLine.files(), aggregator);
+        List<MethodStatistic> rows = report.top(order, top);
+        format.write(report, rows, out);
+        return 0;
+    }
+
+    @VisibleForTesting
+    static int diff(RecordingAnalyzer analyzer, CommandLine commandLine, PrintWriter out) throws IOException {
+        ReportFormat format = ReportFormat.of(commandLine.option("format", "text"));
+        int top = commandLine.intOption("top", 50);
+        boolean all = switch (commandLine.option("show", "changed")) {
+            case "changed" -> false;
+            case "all" -> true;
+            default -> throw new IllegalArgumentException("Unknown show option: " + commandLine.option("show", ""));
+        };
+        var thresholds = new RecordingDiff.Thresholds(
+                Double.parseDouble(commandLine.option("threshold", "20")),
+                Duration.ofMillis(commandLine.intOption("min-delta-ms", 1)),
+                commandLine.intOption("min-count", 30),
+                Double.parseDouble(commandLine.option("min-z", "3")));
+        Set<String> events = commandLine.setOption("events");
+        List<Path> files = commandLine.files();
+        MethodReport baseline;
+        MethodReport current;
+        if (files.size() == 2) {
+            baseline = analyzer.analyze(files.subList(0, 1), new MethodAggregator(MethodAggregator.filter(events,
+                    commandLine.instantOption("from"), commandLine.instantOption("to"))));
+            current = analyzer.analyze(files.subList(1, 2), new MethodAggregator(MethodAggregator.filter(events,
+                    commandLine.instantOption("from"), commandLine.instantOption("to"))));
+        } else if (files.size() == 1 && commandLine.options().containsKey("baseline-to")
+                && commandLine.options().containsKey("current-from")) {
+            baseline = analyzer.analyze(files, new MethodAggregator(MethodAggregator.filter(events,
+                    commandLine.instantOption("baseline-from"), commandLine.instantOption("baseline-to"))));
+            current = analyzer.analyze(files, new MethodAggregator(MethodAggregator.filter(events,
+                    commandLine.instantOption("current-from"), commandLine.instantOption("current-to"))));
+        } else {
+            throw new IllegalArgumentException("Specify two recordings, or one recording with baseline and current windows");
+        }
+        RecordingDiff diff = RecordingDiff.compare(baseline, current, thresholds);
+        List<MethodDiff> rows = diff.methods()
+                .stream()
+                .filter(row -> all || row.change() != MethodDiff.Change.UNCHANGED)
+                .limit(top)
+                .toList();
+        format.writeDiff(diff, rows, out);
+        return diff.regressions().isEmpty() ? 0 : REGRESSION_STATUS;
+    }
+
+    @VisibleForTesting
+    static int flame(RecordingAnalyzer analyzer, CommandLine commandLine, PrintWriter out) throws IOException {
+        var weight = FlameGraphAggregator.Weight.of(commandLine.option("weight", "time"));
+        long divisor = weight == FlameGraphAggregator.Weight.COUNT ? 1
+                : FlameGraphAggregator.divisor(commandLine.option("unit", "us"));
+        var aggregator = new FlameGraphAggregator(MethodAggregator.filter(commandLine.setOption("events"),
+                commandLine.instantOption("from"), commandLine.instantOption("to")), weight);
+        FlameGraphAggregator.write(analyzer.analyze(commandLine.files(), aggregator), divisor, out);
+        return 0;
+    }
+}
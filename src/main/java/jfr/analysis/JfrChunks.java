@@ -0,0 +1,101 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбивает файл Java Flight Recorder на чанки.
+ *
+ * <p>Файл JFR — последовательность независимых чанков. Каждый начинается с заголовка:
+ * сигнатура {@code FLR\0}, версия формата и размер чанка в байтах. Чанк содержит собственные
+ * метаданные и пул констант, поэтому его можно прочитать отдельно от остальных.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public final class JfrChunks {
+    @VisibleForTesting
+    static final int MAGIC = 0x464c5200; // FLR\0
+    @VisibleForTesting
+    static final int HEADER_SIZE = 16;
+
+    private JfrChunks() {
+    }
+
+    /**
+     * Чанк файла.
+     *
+     * @param offset смещение от начала файла, байт
+     * @param size   размер, байт
+     */
+    public record Chunk(long offset, long size) {
+    }
+
+    /**
+     * Возвращает чанки файла.
+     *
+     * @param file файл JFR
+     * @throws IOException если файл не читается или не является файлом JFR
+     */
+    public static List<Chunk> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, file);
+        }
+    }
+
+    @VisibleForTesting
+    static List<Chunk> read(FileChannel channel, Object file) throws IOException {
+        long fileSize = channel.size();
+        var chunks = new ArrayList<Chunk>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long offset = 0;
+        while (offset < fileSize) {
+            header.clear();
+            int read;
+            do {
+                read = channel.read(header, offset + header.position());
+            } while (read >= 0 && header.hasRemaining());
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a JFR chunk at offset " + offset + " of " + file);
+            }
+            long size = header.getLong(8);
+            if (size <= 0 || offset + size > fileSize) { // Чанк ещё пишется: размер не заполнен.
+                size = fileSize - offset;
+            }
+            chunks.add(new Chunk(offset, size));
+            offset += size;
+        }
+        return chunks;
+    }
+
+    /**
+     * Копирует чанк во временный файл, чтобы прочитать его {@link jdk.jfr.consumer.RecordingFile}.
+     *
+     * @param file  файл JFR
+     * @param chunk чанк
+     * @return временный файл, удаляется вызывающим
+     * @throws IOException ошибка ввода-вывода
+     */
+    public static Path extract(Path file, Chunk chunk) throws IOException {
+        Path target = Files.createTempFile("jfr-chunk-", ".jfr");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            long position = chunk.offset();
+            long end = chunk.offset() + chunk.size();
+            while (position < end) {
+                position += in.transferTo(position, end - position, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return target;
+    }
+}
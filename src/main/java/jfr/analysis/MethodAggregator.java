@@ -0,0 +1,148 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jfr.stats.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Собирает статистику методов {@link MethodReport} по событиям вызовов методов бинов.
+ *
+ * <p>Учитываются события с полями {@code beanClass} и {@code method}: {@code MethodInvocation},
+ * {@code FeignEvent}, {@code FeignCall}, {@code QuartzJob} и другие наследники
+ * {@link jfr.event.AbstractMethodEvent}. Для событий со статистикой ({@code count}, {@code sum}, {@code max})
+ * используются её значения, для остальных событий — длительность события.</p>
+ *
+ * <p>Собственное время, без учёта вложенных вызовов, есть только у {@code MethodInvocation}. Для остальных событий
+ * время полное: например, {@code FeignCall} включает все попытки {@code FeignEvent}, а {@code QuartzJob} — вызовы
+ * бинов задачи. Такие методы отмечаются {@link MethodKey#selfTime()} и не входят в {@link MethodReport#sum()}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class MethodAggregator implements EventAggregator<MethodReport> {
+    @VisibleForTesting
+    final Predicate<RecordedEvent> filter;
+
+    /**
+     * Возвращает фильтр событий.
+     *
+     * @param events имена типов событий, или пустое множество для всех событий
+     * @param from   начало интервала включительно, или null
+     * @param to     окончание интервала исключительно, или null
+     */
+    public static Predicate<RecordedEvent> filter(Set<String> events, @Nullable Instant from, @Nullable Instant to) {
+        return event -> (events.isEmpty() || events.contains(event.getEventType().getName()))
+                && (from == null || !event.getStartTime().isBefore(from))
+                && (to == null || event.getStartTime().isBefore(to));
+    }
+
+    /**
+     * Проверяет, является ли событие вызовом метода бина.
+     *
+     * @param event событие
+     */
+    public static boolean isMethodEvent(RecordedEvent event) {
+        return event.hasField("beanClass") && event.hasField("method");
+    }
+
+    /**
+     * Возвращает ключ метода события.
+     *
+     * @param event событие вызова метода бина
+     */
+    public static MethodKey key(RecordedEvent event) {
+        RecordedClass beanClass = event.getClass("beanClass");
+        String method = event.getString("method");
+        return new MethodKey(event.getEventType().getName(),
+                beanClass == null ? "?" : beanClass.getName(),
+                method == null ? "?" : method);
+    }
+
+    @Override
+    public MethodReport empty() {
+        return MethodReport.EMPTY;
+    }
+
+    @Override
+    public MethodReport read(RecordingFile recording) throws IOException {
+        var methods = new HashMap<MethodKey, Accumulator>();
+        long events = 0;
+        Instant start = null;
+        Instant end = null;
+        while (recording.hasMoreEvents()) {
+            RecordedEvent event = recording.readEvent();
+            if (!isMethodEvent(event) || !filter.test(event)) {
+                continue;
+            }
+            events++;
+            methods.computeIfAbsent(key(event), key -> new Accumulator())
+                    .add(event);
+            if (start == null || event.getStartTime().isBefore(start)) {
+                start = event.getStartTime();
+            }
+            if (end == null || event.getEndTime().isAfter(end)) {
+                end = event.getEndTime();
+            }
+        }
+        return new MethodReport(events, start, end, toStatistics(methods));
+    }
+
+    @Override
+    public MethodReport merge(MethodReport a, MethodReport b) {
+        return a.merge(b);
+    }
+
+    private static Map<MethodKey, MethodStatistic> toStatistics(Map<MethodKey, Accumulator> methods) {
+        var result = new HashMap<MethodKey, MethodStatistic>(methods.size() * 2);
+        methods.forEach((key, accumulator) -> result.put(key, accumulator.toStatistic(key)));
+        return result;
+    }
+
+    /**
+     * Накапливает статистику метода в пределах чанка.
+     */
+    @VisibleForTesting
+    static final class Accumulator {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long count;
+        private long sum;
+        private long max;
+
+        void add(RecordedEvent event) {
+            if (event.hasField("count") && event.hasField("sum") && event.hasField("max")) {
+                long n = event.getLong("count");
+                long s = event.getLong("sum");
+                add(n, s, event.getLong("max"));
+            } else {
+                long duration = event.getDuration().toNanos();
+                add(1, duration, duration);
+            }
+        }
+
+        @VisibleForTesting
+        void add(long n, long s, long m) {
+            if (n <= 0) {
+                return;
+            }
+            count += n;
+            sum += s;
+            max = Math.max(max, m);
+            histogram.record(s / n);
+        }
+
+        MethodStatistic toStatistic(MethodKey key) {
+            return new MethodStatistic(key, count, sum, max, histogram.drain());
+        }
+    }
+}
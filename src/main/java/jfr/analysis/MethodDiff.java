@@ -0,0 +1,60 @@
+package jfr.analysis;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Изменение статистики метода между базовой и текущей записями, см. {@link RecordingDiff}.
+ *
+ * @param key          ключ метода
+ * @param baseline     статистика базовой записи, или null, если метод не вызывался
+ * @param current      статистика текущей записи, или null, если метод не вызывался
+ * @param baselineRate количество вызовов в секунду в базовой записи
+ * @param currentRate  количество вызовов в секунду в текущей записи
+ * @param impact       изменение собственного времени метода в секунду записи, нс/с
+ * @param z            z-оценка изменения среднего, 0, если не вычисляется
+ * @param change       вид изменения
+ * @param reason       описание значимых изменений
+ * @author Roman_Erzhukov
+ */
+public record MethodDiff(MethodKey key, @Nullable MethodStatistic baseline, @Nullable MethodStatistic current,
+                         double baselineRate, double currentRate, double impact, double z,
+                         Change change, String reason) {
+    /**
+     * Вид изменения.
+     */
+    public enum Change {
+        /**
+         * Значимо выросло собственное время.
+         */
+        REGRESSION,
+        /**
+         * Метод появился в текущей записи.
+         */
+        NEW,
+        /**
+         * Значимо уменьшилось собственное время.
+         */
+        IMPROVEMENT,
+        /**
+         * Метод отсутствует в текущей записи.
+         */
+        GONE,
+        /**
+         * Значимых изменений нет, или вызовов недостаточно для оценки.
+         */
+        UNCHANGED
+    }
+
+    /**
+     * Возвращает относительное изменение показателя в процентах.
+     *
+     * @param baseline базовое значение
+     * @param current  текущее значение
+     */
+    public static double percent(long baseline, long current) {
+        if (baseline == 0) {
+            return current == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return 100.0 * (current - baseline) / baseline;
+    }
+}
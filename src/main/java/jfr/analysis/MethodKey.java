@@ -0,0 +1,36 @@
+package jfr.analysis;
+
+/**
+ * Ключ статистики вызовов метода в записи Java Flight Recorder.
+ *
+ * @param event     имя типа события, например {@code MethodInvocation}
+ * @param beanClass имя класса бина
+ * @param method    метод
+ * @author Roman_Erzhukov
+ */
+public record MethodKey(String event, String beanClass, String method) {
+    /**
+     * Имя типа события, длительность которого — собственное время метода.
+     */
+    public static final String SELF_TIME_EVENT = "MethodInvocation";
+
+    /**
+     * Проверяет, является ли время события собственным временем метода. Время остальных событий, например
+     * {@code FeignEvent}, {@code FeignCall} и {@code QuartzJob}, — полное, с учётом вложенных вызовов.
+     */
+    public boolean selfTime() {
+        return SELF_TIME_EVENT.equals(event);
+    }
+
+    /**
+     * Возвращает краткое имя: простое имя класса и метод.
+     */
+    public String shortName() {
+        return beanClass.substring(beanClass.lastIndexOf('.') + 1) + '.' + method;
+    }
+
+    @Override
+    public String toString() {
+        return event + ' ' + shortName();
+    }
+}
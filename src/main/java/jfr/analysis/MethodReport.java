@@ -0,0 +1,73 @@
+package jfr.analysis;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика методов по записи Java Flight Recorder, или её части.
+ *
+ * @param events  количество учтённых событий
+ * @param start   время начала первого учтённого события, или null, если событий нет
+ * @param end     время окончания последнего учтённого события, или null, если событий нет
+ * @param methods статистика по методам
+ * @author Roman_Erzhukov
+ */
+public record MethodReport(long events, @Nullable Instant start, @Nullable Instant end,
+                           Map<MethodKey, MethodStatistic> methods) {
+    /**
+     * Пустой отчёт.
+     */
+    public static final MethodReport EMPTY = new MethodReport(0, null, null, Map.of());
+
+    /**
+     * Возвращает сумму отчётов.
+     *
+     * @param other другой отчёт
+     */
+    public MethodReport merge(MethodReport other) {
+        var merged = new HashMap<>(methods);
+        other.methods.forEach((key, statistic) -> merged.merge(key, statistic, MethodStatistic::merge));
+        return new MethodReport(events + other.events, min(start, other.start), max(end, other.end), merged);
+    }
+
+    /**
+     * Возвращает первые методы в указанном порядке.
+     *
+     * @param order порядок
+     * @param limit максимальное количество методов
+     */
+    public List<MethodStatistic> top(Comparator<MethodStatistic> order, int limit) {
+        return methods.values()
+                .stream()
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Возвращает суммарное собственное время всех методов, нс. Полное время событий, отличных от
+     * {@code MethodInvocation}, не учитывается: оно уже включает собственное время вложенных методов.
+     */
+    public long sum() {
+        return methods.values()
+                .stream()
+                .filter(statistic -> statistic.key().selfTime())
+                .mapToLong(MethodStatistic::sum)
+                .sum();
+    }
+
+    @Nullable
+    private static Instant min(@Nullable Instant a, @Nullable Instant b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    @Nullable
+    private static Instant max(@Nullable Instant a, @Nullable Instant b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,93 @@
+package jfr.analysis;
+
+import jfr.stats.LatencyHistogram;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Статистика собственного времени выполнения метода, без учёта вложенных вызовов.
+ *
+ * <p>Гистограмма строится по среднему собственному времени метода в каждом событии, по одному значению на событие:
+ * для корневых и одиночных событий это точное время вызова, для агрегированных событий
+ * {@code MethodInvocation} — среднее в пределах корневого вызова. Поэтому процентили и дисперсия гистограммы
+ * относятся к средним по корневым вызовам, а не к отдельным вызовам метода. Статистика скользящих окон
+ * {@link jfr.live.WindowedStatistics} строит гистограмму по вызовам: максимальное время корневого вызова
+ * отдельным значением, остальные вызовы — их средним временем.</p>
+ *
+ * @param key       ключ метода
+ * @param count     количество вызовов
+ * @param sum       суммарное собственное время, нс
+ * @param max       максимальное собственное время, нс
+ * @param histogram гистограмма среднего собственного времени по корневым вызовам
+ * @author Roman_Erzhukov
+ */
+public record MethodStatistic(MethodKey key, long count, long sum, long max, LatencyHistogram.Snapshot histogram) {
+    /**
+     * Возвращает сумму статистик одного метода.
+     *
+     * @param other другая статистика
+     */
+    public MethodStatistic merge(MethodStatistic other) {
+        return new MethodStatistic(key, count + other.count, sum + other.sum, Math.max(max, other.max),
+                histogram.merge(other.histogram));
+    }
+
+    /**
+     * Возвращает среднее собственное время, нс, или 0, если вызовов нет.
+     */
+    public long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Возвращает количество корневых вызовов, то есть событий, в которых вызывался метод.
+     */
+    public long roots() {
+        return histogram.count();
+    }
+
+    /**
+     * Возвращает среднее по корневым вызовам от среднего собственного времени метода в корневом вызове, нс.
+     */
+    public long rootMean() {
+        return histogram.mean();
+    }
+
+    /**
+     * Возвращает оценку дисперсии среднего собственного времени метода в корневом вызове по гистограмме, нс².
+     */
+    public double variance() {
+        return histogram.variance();
+    }
+
+    /**
+     * Возвращает оценку сверху процентиля среднего собственного времени метода в корневом вызове, нс.
+     *
+     * @param percentile процентиль от 0 до 100
+     */
+    public long percentile(double percentile) {
+        return histogram.percentile(percentile);
+    }
+
+    /**
+     * Возвращает порядок по убыванию указанного показателя.
+     *
+     * @param name показатель: sum, count, max, mean, p50, p90, p99
+     * @throws IllegalArgumentException если показатель неизвестен
+     */
+    public static Comparator<MethodStatistic> descending(String name) {
+        Comparator<MethodStatistic> comparator = switch (name.toLowerCase(Locale.ROOT)) {
+            case "sum" -> Comparator.comparingLong(MethodStatistic::sum);
+            case "count" -> Comparator.comparingLong(MethodStatistic::count);
+            case "max" -> Comparator.comparingLong(MethodStatistic::max);
+            case "mean" -> Comparator.comparingLong(MethodStatistic::mean);
+            case "p50" -> Comparator.comparingLong(s -> s.percentile(50));
+            case "p90" -> Comparator.comparingLong(s -> s.percentile(90));
+            case "p99" -> Comparator.comparingLong(s -> s.percentile(99));
+            default -> throw new IllegalArgumentException("Unknown sort order: " + name);
+        };
+        return comparator.reversed()
+                .thenComparing(s -> s.key().toString());
+    }
+}
@@ -0,0 +1,127 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельно читает записи Java Flight Recorder.
+ *
+ * <p>Файлы разбиваются на чанки {@link JfrChunks}, каждый чанк читается отдельной задачей {@link ForkJoinPool},
+ * результаты чанков объединяются {@link EventAggregator#merge(Object, Object)}.
+ * {@link RecordingFile} читает события по одному, поэтому память ограничена размером результатов
+ * и количеством одновременно читаемых чанков, а не размером записи.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RecordingAnalyzer {
+    @VisibleForTesting
+    final ForkJoinPool pool;
+
+    /**
+     * Чанк файла.
+     *
+     * @param file  файл
+     * @param chunk чанк
+     * @param whole признак единственного чанка в файле: файл читается без копирования
+     */
+    @VisibleForTesting
+    record Part(Path file, JfrChunks.Chunk chunk, boolean whole) {
+    }
+
+    /**
+     * Читает записи.
+     *
+     * @param files      файлы JFR
+     * @param aggregator агрегирует события
+     * @param <R>        тип результата
+     * @return объединённый результат всех чанков
+     * @throws IOException ошибка чтения записи
+     */
+    public <R> R analyze(List<Path> files, EventAggregator<R> aggregator) throws IOException {
+        List<Part> parts = parts(files);
+        if (parts.isEmpty()) {
+            return aggregator.empty();
+        }
+        try {
+            return pool.invoke(new PartTask<>(this, aggregator, parts));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @VisibleForTesting
+    List<Part> parts(List<Path> files) throws IOException {
+        var parts = new ArrayList<Part>();
+        for (Path file : files) {
+            List<JfrChunks.Chunk> chunks = JfrChunks.read(file);
+            chunks.forEach(chunk -> parts.add(new Part(file, chunk, chunks.size() == 1)));
+        }
+        return parts;
+    }
+
+    /**
+     * Читает один чанк.
+     *
+     * @param part       чанк
+     * @param aggregator агрегирует события
+     * @param <R>        тип результата
+     */
+    @VisibleForTesting
+    <R> R read(Part part, EventAggregator<R> aggregator) throws IOException {
+        if (part.whole()) {
+            return read(part.file(), aggregator);
+        }
+        Path chunkFile = JfrChunks.extract(part.file(), part.chunk());
+        try {
+            return read(chunkFile, aggregator);
+        } finally {
+            Files.deleteIfExists(chunkFile);
+        }
+    }
+
+    private static <R> R read(Path file, EventAggregator<R> aggregator) throws IOException {
+        log.debug("read {}", file);
+        try (var recording = new RecordingFile(file)) {
+            return aggregator.read(recording);
+        }
+    }
+
+    /**
+     * Делит чанки пополам, пока не останется один.
+     */
+    @RequiredArgsConstructor
+    private static final class PartTask<R> extends RecursiveTask<R> {
+        private final RecordingAnalyzer analyzer;
+        private final EventAggregator<R> aggregator;
+        private final List<Part> parts;
+
+        @Override
+        protected R compute() {
+            if (parts.size() == 1) {
+                try {
+                    return analyzer.read(parts.get(0), aggregator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = parts.size() / 2;
+            var right = new PartTask<>(analyzer, aggregator, parts.subList(middle, parts.size()));
+            right.fork();
+            R left = new PartTask<>(analyzer, aggregator, parts.subList(0, middle)).compute();
+            return aggregator.merge(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package jfr.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение статистики методов двух записей, или двух интервалов одной записи, для поиска регрессий.
+ *
+ * <p>Эвристики значимости:</p>
+ * <ul>
+ *     <li>метод оценивается, если в обеих записях у него не меньше {@link Thresholds#minCount()} вызовов;</li>
+ *     <li>изменение не меньше {@link Thresholds#minDelta()} по абсолютной величине,
+ *     чтобы не реагировать на шум быстрых методов;</li>
+ *     <li>среднее изменилось не меньше чем на {@link Thresholds#percent()} процентов,
+ *     а z-оценка не меньше {@link Thresholds#minZ()};</li>
+ *     <li>процентили p90 и p99 средних по корневым вызовам изменились не меньше чем на {@link Thresholds#percent()}
+ *     процентов, но и не меньше {@value #HISTOGRAM_ERROR} процентов: меньшие изменения неотличимы из-за погрешности
+ *     гистограммы.</li>
+ * </ul>
+ *
+ * <p>Вызовы метода в одном корневом вызове не независимы: z-оценка считается по корневым вызовам, то есть
+ * по событиям, как разность средних по корневым вызовам, делённая на стандартную ошибку с дисперсиями гистограмм.
+ * Если в одной из записей меньше двух корневых вызовов, дисперсию не оценить, и z-оценка равна 0.</p>
+ *
+ * <p>Количество вызовов сравнивается в пересчёте на секунду записи, так как интервалы могут быть разной длины.</p>
+ *
+ * @param baseline базовая запись
+ * @param current  текущая запись
+ * @param methods  изменения методов: сначала регрессии, затем по убыванию влияния
+ * @author Roman_Erzhukov
+ */
+public record RecordingDiff(MethodReport baseline, MethodReport current, List<MethodDiff> methods) {
+    /**
+     * Относительная погрешность процентилей {@link jfr.stats.LatencyHistogram}, %.
+     */
+    @VisibleForTesting
+    static final double HISTOGRAM_ERROR = 25;
+
+    /**
+     * Пороги значимости изменений.
+     *
+     * @param percent  минимальное относительное изменение, %
+     * @param minDelta минимальное абсолютное изменение
+     * @param minCount минимальное количество вызовов в каждой записи
+     * @param minZ     минимальная z-оценка изменения среднего
+     */
+    public record Thresholds(double percent, Duration minDelta, long minCount, double minZ) {
+        /**
+         * Пороги по умолчанию: 20%, 1 мс, 30 вызовов, z = 3.
+         */
+        public static final Thresholds DEFAULT = new Thresholds(20, Duration.ofMillis(1), 30, 3);
+    }
+
+    /**
+     * Сравнивает записи.
+     *
+     * @param baseline   базовая запись
+     * @param current    текущая запись
+     * @param thresholds пороги значимости
+     */
+    public static RecordingDiff compare(MethodReport baseline, MethodReport current, Thresholds thresholds) {
+        double baselineSeconds = seconds(baseline);
+        double currentSeconds = seconds(current);
+        Set<MethodKey> keys = new HashSet<>(baseline.methods().keySet());
+        keys.addAll(current.methods().keySet());
+        var methods = new ArrayList<MethodDiff>(keys.size());
+        for (MethodKey key : keys) {
+            methods.add(compare(key, baseline.methods().get(key), baselineSeconds,
+                    current.methods().get(key), currentSeconds, thresholds));
+        }
+        methods.sort(Comparator.comparing(MethodDiff::change)
+                .thenComparing(Comparator.comparingDouble((MethodDiff diff) -> Math.abs(diff.impact())).reversed())
+                .thenComparing(diff -> diff.key().toString()));
+        return new RecordingDiff(baseline, current, methods);
+    }
+
+    /**
+     * Возвращает регрессии.
+     */
+    public List<MethodDiff> regressions() {
+        return methods.stream()
+                .filter(diff -> diff.change() == MethodDiff.Change.REGRESSION)
+                .toList();
+    }
+
+    @VisibleForTesting
+    static MethodDiff compare(MethodKey key, @Nullable MethodStatistic baseline, double baselineSeconds,
+                              @Nullable MethodStatistic current, double currentSeconds, Thresholds thresholds) {
+        double baselineRate = baseline == null ? 0 : baseline.count() / baselineSeconds;
+        double currentRate = current == null ? 0 : current.count() / currentSeconds;
+        double impact = (current == null ? 0 : current.sum() / currentSeconds)
+                - (baseline == null ? 0 : baseline.sum() / baselineSeconds);
+        if (baseline == null || current == null) {
+            MethodStatistic present = baseline == null ? current : baseline;
+            boolean enough = present != null && present.count() >= thresholds.minCount();
+            MethodDiff.Change change = !enough ? MethodDiff.Change.UNCHANGED
+                    : baseline == null ? MethodDiff.Change.NEW : MethodDiff.Change.GONE;
+            return new MethodDiff(key, baseline, current, baselineRate, currentRate, impact, 0, change,
+                    enough ? "" : "insufficient calls");
+        }
+        double z = z(baseline, current);
+        if (baseline.count() < thresholds.minCount() || current.count() < thresholds.minCount()) {
+            return new MethodDiff(key, baseline, current, baselineRate, currentRate, impact, z,
+                    MethodDiff.Change.UNCHANGED, "insufficient calls");
+        }
+        long minDelta = thresholds.minDelta().toNanos();
+        var increased = new ArrayList<String>();
+        var decreased = new ArrayList<String>();
+        if (Math.abs(z) >= thresholds.minZ()) {
+            check("mean", baseline.mean(), current.mean(), thresholds.percent(), minDelta, increased, decreased);
+        }
+        double percentileThreshold = Math.max(thresholds.percent(), HISTOGRAM_ERROR);
+        check("root p90", baseline.percentile(90), current.percentile(90), percentileThreshold, minDelta,
+                increased, decreased);
+        check("root p99", baseline.percentile(99), current.percentile(99), percentileThreshold, minDelta,
+                increased, decreased);
+        MethodDiff.Change change = !increased.isEmpty() ? MethodDiff.Change.REGRESSION
+                : !decreased.isEmpty() ? MethodDiff.Change.IMPROVEMENT : MethodDiff.Change.UNCHANGED;
+        return new MethodDiff(key, baseline, current, baselineRate, currentRate, impact, z, change,
+                String.join(", ", change == MethodDiff.Change.IMPROVEMENT ? decreased : increased));
+    }
+
+    private static void check(String name, long baseline, long current, double percent, long minDelta,
+                              List<String> increased, List<String> decreased) {
+        double change = MethodDiff.percent(baseline, current);
+        if (Math.abs(current - baseline) < minDelta || Math.abs(change) < percent) {
+            return;
+        }
+        String description = String.format(Locale.ROOT, "%s %+.0f%%", name, change);
+        (change > 0 ? increased : decreased).add(description);
+    }
+
+    /**
+     * Возвращает z-оценку разности средних по корневым вызовам, или 0, если средние равны
+     * или корневых вызовов меньше двух.
+     */
+    @VisibleForTesting
+    static double z(MethodStatistic baseline, MethodStatistic current) {
+        long delta = current.rootMean() - baseline.rootMean();
+        if (delta == 0 || baseline.roots() < 2 || current.roots() < 2) {
+            return 0;
+        }
+        double error = Math.sqrt(baseline.variance() / baseline.roots() + current.variance() / current.roots());
+        return error == 0 ? Math.copySign(Double.POSITIVE_INFINITY, delta) : delta / error;
+    }
+
+    /**
+     * Возвращает длительность записи в секундах, не меньше 1 секунды.
+     */
+    @VisibleForTesting
+    static double seconds(MethodReport report) {
+        if (report.start() == null || report.end() == null) {
+            return 1;
+        }
+        long nanos = Duration.between(report.start(), report.end()).toNanos();
+        return Math.max(nanos / (double) TimeUnit.SECONDS.toNanos(1), 1);
+    }
+}
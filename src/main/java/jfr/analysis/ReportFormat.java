@@ -0,0 +1,274 @@
+package jfr.analysis;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jspecify.annotations.Nullable;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Формат отчёта по статистике методов.
+ *
+ * <p>В текстовом формате время выводится в миллисекундах, в CSV и JSON — в наносекундах. Время {@code self} —
+ * собственное время метода, {@code total} — полное время события с вложенными вызовами, его доля от суммы
+ * не выводится. Процентили — процентили среднего времени метода в корневом вызове, а не отдельных вызовов.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public enum ReportFormat {
+    TEXT {
+        @Override
+        public void write(MethodReport report, List<MethodStatistic> rows, PrintWriter out) {
+            out.printf(Locale.ROOT, "events=%d, methods=%d, start=%s, end=%s, sum=%s ms%n",
+                    report.events(), report.methods().size(), report.start(), report.end(), millis(report.sum()));
+            int width = rows.stream()
+                    .mapToInt(row -> row.key().toString().length())
+                    .max()
+                    .orElse(0);
+            out.printf(Locale.ROOT, "%-" + Math.max(width, 6) + "s %5s %10s %12s %6s %10s %14s %14s %14s %10s%n",
+                    "method", "time", "count", "sum,ms", "sum,%", "mean,ms", "root p50,ms", "root p90,ms",
+                    "root p99,ms", "max,ms");
+            long total = Math.max(report.sum(), 1);
+            for (MethodStatistic row : rows) {
+                out.printf(Locale.ROOT, "%-" + Math.max(width, 6) + "s %5s %10d %12s %6s %10s %14s %14s %14s %10s%n",
+                        row.key(), time(row), row.count(), millis(row.sum()),
+                        row.key().selfTime() ? String.format(Locale.ROOT, "%.2f", 100.0 * row.sum() / total) : "-",
+                        millis(row.mean()), millis(row.percentile(50)), millis(row.percentile(90)),
+                        millis(row.percentile(99)), millis(row.max()));
+            }
+        }
+
+        @Override
+        public void writeDiff(RecordingDiff diff, List<MethodDiff> rows, PrintWriter out) {
+            out.printf(Locale.ROOT, "baseline: events=%d, start=%s, end=%s%n",
+                    diff.baseline().events(), diff.baseline().start(), diff.baseline().end());
+            out.printf(Locale.ROOT, "current:  events=%d, start=%s, end=%s%n",
+                    diff.current().events(), diff.current().start(), diff.current().end());
+            out.printf(Locale.ROOT, "regressions=%d%n", diff.regressions().size());
+            for (MethodDiff row : rows) {
+                MethodStatistic baseline = row.baseline();
+                MethodStatistic current = row.current();
+                out.printf(Locale.ROOT, "%-11s %s: calls/s %.2f -> %.2f, mean %s -> %s ms, root p90 %s -> %s ms,"
+                                + " root p99 %s -> %s ms, impact %+.3f ms/s, z=%.1f%s%n",
+                        row.change(), row.key(), row.baselineRate(), row.currentRate(),
+                        baseline == null ? "-" : millis(baseline.mean()), current == null ? "-" : millis(current.mean()),
+                        baseline == null ? "-" : millis(baseline.percentile(90)),
+                        current == null ? "-" : millis(current.percentile(90)),
+                        baseline == null ? "-" : millis(baseline.percentile(99)),
+                        current == null ? "-" : millis(current.percentile(99)),
+                        row.impact() / TimeUnit.MILLISECONDS.toNanos(1), row.z(),
+                        row.reason().isEmpty() ? "" : ", " + row.reason());
+            }
+        }
+    },
+    CSV {
+        @Override
+        public void write(MethodReport report, List<MethodStatistic> rows, PrintWriter out) {
+            out.println("event,class,method,time,count,sum,mean,rootP50,rootP90,rootP99,max");
+            for (MethodStatistic row : rows) {
+                out.println(String.join(",", csv(row.key().event()), csv(row.key().beanClass()), csv(row.key().method()),
+                        time(row), String.valueOf(row.count()), String.valueOf(row.sum()), String.valueOf(row.mean()),
+                        String.valueOf(row.percentile(50)), String.valueOf(row.percentile(90)),
+                        String.valueOf(row.percentile(99)), String.valueOf(row.max())));
+            }
+        }
+
+        @Override
+        public void writeDiff(RecordingDiff diff, List<MethodDiff> rows, PrintWriter out) {
+            out.println("change,event,class,method,baselineRate,currentRate,baselineCount,currentCount,"
+                    + "baselineSum,currentSum,baselineMean,currentMean,baselineRootP90,currentRootP90,"
+                    + "baselineRootP99,currentRootP99,impact,z,reason");
+            for (MethodDiff row : rows) {
+                MethodStatistic baseline = row.baseline();
+                MethodStatistic current = row.current();
+                out.println(String.join(",", row.change().name(), csv(row.key().event()), csv(row.key().beanClass()),
+                        csv(row.key().method()), number(row.baselineRate()), number(row.currentRate()),
+                        baseline == null ? "" : String.valueOf(baseline.count()),
+                        current == null ? "" : String.valueOf(current.count()),
+                        baseline == null ? "" : String.valueOf(baseline.sum()),
+                        current == null ? "" : String.valueOf(current.sum()),
+                        baseline == null ? "" : String.valueOf(baseline.mean()),
+                        current == null ? "" : String.valueOf(current.mean()),
+                        baseline == null ? "" : String.valueOf(baseline.percentile(90)),
+                        current == null ? "" : String.valueOf(current.percentile(90)),
+                        baseline == null ? "" : String.valueOf(baseline.percentile(99)),
+                        current == null ? "" : String.valueOf(current.percentile(99)),
+                        number(row.impact()), number(row.z()), csv(row.reason())));
+            }
+        }
+    },
+    JSON {
+        @Override
+        public void write(MethodReport report, List<MethodStatistic> rows, PrintWriter out) {
+            out.print("{\"events\":" + report.events()
+                    + ",\"start\":" + json(report.start() == null ? null : report.start().toString())
+                    + ",\"end\":" + json(report.end() == null ? null : report.end().toString())
+                    + ",\"sum\":" + report.sum()
+                    + ",\"methods\":[");
+            String separator = "";
+            for (MethodStatistic row : rows) {
+                out.print(separator + "{\"event\":" + json(row.key().event())
+                        + ",\"class\":" + json(row.key().beanClass())
+                        + ",\"method\":" + json(row.key().method())
+                        + ",\"time\":" + json(time(row))
+                        + ",\"count\":" + row.count()
+                        + ",\"sum\":" + row.sum()
+                        + ",\"mean\":" + row.mean()
+                        + ",\"rootP50\":" + row.percentile(50)
+                        + ",\"rootP90\":" + row.percentile(90)
+                        + ",\"rootP99\":" + row.percentile(99)
+                        + ",\"max\":" + row.max() + '}');
+                separator = ",";
+            }
+            out.println("]}");
+        }
+
+        @Override
+        public void writeDiff(RecordingDiff diff, List<MethodDiff> rows, PrintWriter out) {
+            out.print("{\"regressions\":" + diff.regressions().size() + ",\"methods\":[");
+            String separator = "";
+            for (MethodDiff row : rows) {
+                out.print(separator + "{\"change\":" + json(row.change().name())
+                        + ",\"event\":" + json(row.key().event())
+                        + ",\"class\":" + json(row.key().beanClass())
+                        + ",\"method\":" + json(row.key().method())
+                        + ",\"baselineRate\":" + jsonNumber(row.baselineRate())
+                        + ",\"currentRate\":" + jsonNumber(row.currentRate())
+                        + ",\"baseline\":" + json(row.baseline())
+                        + ",\"current\":" + json(row.current())
+                        + ",\"impact\":" + jsonNumber(row.impact())
+                        + ",\"z\":" + jsonNumber(row.z())
+                        + ",\"reason\":" + json(row.reason()) + '}');
+                separator = ",";
+            }
+            out.println("]}");
+        }
+    };
+
+    /**
+     * Выводит отчёт.
+     *
+     * @param report отчёт
+     * @param rows   выводимые методы
+     * @param out    вывод
+     */
+    public abstract void write(MethodReport report, List<MethodStatistic> rows, PrintWriter out);
+
+    /**
+     * Выводит сравнение записей.
+     *
+     * @param diff сравнение
+     * @param rows выводимые изменения методов
+     * @param out  вывод
+     */
+    public abstract void writeDiff(RecordingDiff diff, List<MethodDiff> rows, PrintWriter out);
+
+    /**
+     * Возвращает формат по имени без учёта регистра.
+     *
+     * @param name имя формата
+     * @throws IllegalArgumentException если формат неизвестен
+     */
+    public static ReportFormat of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Возвращает вид времени метода: {@code self} — собственное, {@code total} — полное.
+     *
+     * @param statistic статистика метода
+     */
+    static String time(MethodStatistic statistic) {
+        return statistic.key().selfTime() ? "self" : "total";
+    }
+
+    /**
+     * Форматирует наносекунды в миллисекунды.
+     *
+     * @param nanos время, нс
+     */
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Форматирует дробное число.
+     *
+     * @param value число
+     */
+    static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : String.valueOf(value);
+    }
+
+    /**
+     * Форматирует дробное число JSON: бесконечность записывается как null.
+     *
+     * @param value число
+     */
+    static String jsonNumber(double value) {
+        return Double.isFinite(value) ? number(value) : "null";
+    }
+
+    /**
+     * Возвращает объект JSON основных показателей статистики.
+     *
+     * @param statistic статистика, или null
+     */
+    static String json(@Nullable MethodStatistic statistic) {
+        if (statistic == null) {
+            return "null";
+        }
+        return "{\"count\":" + statistic.count()
+                + ",\"roots\":" + statistic.roots()
+                + ",\"sum\":" + statistic.sum()
+                + ",\"mean\":" + statistic.mean()
+                + ",\"rootP50\":" + statistic.percentile(50)
+                + ",\"rootP90\":" + statistic.percentile(90)
+                + ",\"rootP99\":" + statistic.percentile(99)
+                + ",\"max\":" + statistic.max() + '}';
+    }
+
+    /**
+     * Экранирует значение CSV.
+     *
+     * @param value значение
+     */
+    static String csv(String value) {
+        if (StringUtils.containsAny(value, ',', '"', '\n', '\r')) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Возвращает строковый литерал JSON.
+     *
+     * @param value строка, или null
+     */
+    static String json(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        var sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -1,21 +1,50 @@
 package jfr.config;
 
 import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jfr.actuator.JfrMethodsEndpoint;
+import jfr.actuator.JfrPrometheusEndpoint;
 import jfr.event.NonReentrantMethodEvent;
+import jfr.feign.FeignTargetStatistics;
+import jfr.feign.JfrFeignCapability;
 import jfr.feign.JfrFeignRequestInterceptor;
+import jfr.jmx.JfrStatistics;
+import jfr.jsonl.JsonLinesStatisticsSink;
+import jfr.live.LiveStatistics;
+import jfr.live.WindowedStatistics;
+import jfr.logging.AsyncStatisticsPublisher;
+import jfr.logging.DimensionExtractor;
+import jfr.logging.Dimensions;
 import jfr.logging.JfrLoggingServiceImpl;
+import jfr.logging.LoggingConfigRefresher;
+import jfr.logging.StatisticsSink;
+import jfr.micrometer.MicrometerStatisticsSink;
+import jfr.mmap.MappedStatisticsSink;
+import jfr.prometheus.PrometheusStatisticsSink;
 import jfr.quartz.JfrJobFactory;
+import jfr.quartz.JobHistoryWriter;
+import jfr.quartz.QuartzJobStatistics;
+import jfr.summary.SummaryStatisticsSink;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.quartz.SchedulerException;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Clock;
 
 /**
  * Компоненты для записи статистики выполнения методов Spring Bean-ов в JFR.
@@ -31,29 +60,195 @@ public class JfrConfiguration {
     }
 
     @Bean
+    @ConditionalOnBean(DimensionExtractor.class)
+    Dimensions jfrDimensions(DimensionExtractor extractor,
+                             @Value("${jfr.dimensions.maxPerMethod:20}") int maxPerMethod) {
+        return new Dimensions(extractor, maxPerMethod);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "jfr.quartz.enabled", havingValue = "true")
+    JfrJobFactory jfrJobFactory(ListableBeanFactory beanFactory, ObjectProvider<JobHistoryWriter> history) {
+        var jobFactory = new JfrJobFactory(beanFactory, jfrLoggingService(), jfrQuartzJobStatistics());
+        jobFactory.setHistory(history.getIfAvailable());
+        return jobFactory;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = {"jfr.quartz.enabled", "jfr.quartz.history.enabled"}, havingValue = "true")
+    JobHistoryWriter jfrJobHistoryWriter(DataSource dataSource,
+                                         @Value("${jfr.quartz.history.table:" + JobHistoryWriter.DEFAULT_TABLE + "}") String table,
+                                         @Value("${jfr.quartz.history.capacity:10000}") int capacity,
+                                         @Value("${jfr.quartz.history.batchSize:500}") int batchSize) {
+        return new JobHistoryWriter(dataSource, table, capacity, batchSize);
+    }
+
+    @Bean(initMethod = "register", destroyMethod = "close")
     @ConditionalOnProperty(value = "jfr.quartz.enabled", havingValue = "true")
-    JfrJobFactory jfrJobFactory(ListableBeanFactory beanFactory) {
-        return new JfrJobFactory(beanFactory, jfrLoggingService());
+    QuartzJobStatistics jfrQuartzJobStatistics() {
+        return new QuartzJobStatistics(Ticker.systemTicker());
     }
 
+    /**
+     * Перехватчик запросов Feign, если не включена {@link #jfrFeignCapability()}: она записывает те же запросы
+     * точнее, и при обоих включённых каждый запрос записывался бы дважды.
+     */
     @Bean
     @ConditionalOnProperty(value = "jfr.feign.enabled", havingValue = "true")
+    @ConditionalOnProperty(value = "jfr.feign.capability.enabled", havingValue = "false", matchIfMissing = true)
     JfrFeignRequestInterceptor jfrFeignRequestInterceptor() {
         return new JfrFeignRequestInterceptor(jfrLoggingService());
     }
 
+    @Bean
+    @ConditionalOnProperty(value = "jfr.feign.capability.enabled", havingValue = "true")
+    JfrFeignCapability jfrFeignCapability() {
+        return new JfrFeignCapability(jfrLoggingService(), jfrFeignTargetStatistics());
+    }
+
+    @Bean(initMethod = "register", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.feign.capability.enabled", havingValue = "true")
+    FeignTargetStatistics jfrFeignTargetStatistics() {
+        return new FeignTargetStatistics(Ticker.systemTicker());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.live.enabled", havingValue = "true")
+    LiveStatistics jfrLiveStatistics(@Value("${jfr.live.maxMethods:500}") int maxMethods) {
+        return new LiveStatistics(new WindowedStatistics(Clock.systemUTC(), maxMethods));
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "jfr.statistics.enabled", havingValue = "true")
+    WindowedStatistics jfrWindowedStatistics(@Value("${jfr.statistics.maxMethods:500}") int maxMethods) {
+        return new WindowedStatistics(Clock.systemUTC(), maxMethods);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.async.enabled", havingValue = "true")
+    AsyncStatisticsPublisher jfrAsyncStatisticsPublisher(ObjectProvider<StatisticsSink> sinks,
+                                                         @Value("${jfr.async.capacity:16384}") int capacity,
+                                                         @Value("${jfr.async.batchSize:1024}") int batchSize) {
+        return new AsyncStatisticsPublisher(capacity, batchSize, sinks.orderedStream().toList());
+    }
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.jsonl.enabled", havingValue = "true")
+    JsonLinesStatisticsSink jfrJsonLinesStatisticsSink(@Value("${jfr.jsonl.file:jfr-statistics.jsonl}") String file,
+                                                       @Value("${jfr.jsonl.maxFileSize:100MB}") String maxFileSize,
+                                                       @Value("${jfr.jsonl.maxFiles:5}") int maxFiles,
+                                                       @Value("${jfr.jsonl.bufferSize:65536}") int bufferSize) {
+        return new JsonLinesStatisticsSink(Path.of(file), DataSize.parse(maxFileSize).toBytes(), maxFiles, bufferSize,
+                Clock.systemUTC());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.summary.enabled", havingValue = "true")
+    SummaryStatisticsSink jfrSummaryStatisticsSink(@Value("${jfr.summary.intervalSeconds:60}") long intervalSeconds,
+                                                   @Value("${jfr.summary.maxMethods:500}") int maxMethods,
+                                                   @Value("${jfr.summary.top:20}") int top) {
+        return new SummaryStatisticsSink(intervalSeconds, maxMethods, top);
+    }
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.mmap.enabled", havingValue = "true")
+    MappedStatisticsSink jfrMappedStatisticsSink(@Value("${jfr.mmap.file:}") String file,
+                                                 @Value("${jfr.mmap.maxMethods:1000}") int maxMethods) {
+        return new MappedStatisticsSink(file.isEmpty() ? MappedStatisticsSink.defaultFile() : Path.of(file), maxMethods,
+                Clock.systemUTC());
+    }
+
+    @Bean(initMethod = "register", destroyMethod = "close")
+    @ConditionalOnProperty(value = "jfr.jmx.enabled", havingValue = "true")
+    JfrStatistics jfrStatisticsMBean(ObjectProvider<WindowedStatistics> statistics) {
+        return new JfrStatistics(jfrLoggingService(), statistics.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "jfr.prometheus.enabled", havingValue = "true")
+    PrometheusStatisticsSink jfrPrometheusStatisticsSink(@Value("${jfr.prometheus.maxMethods:500}") int maxMethods) {
+        return new PrometheusStatisticsSink(maxMethods, Ticker.systemTicker());
+    }
+
+    /**
+     * Устанавливает {@link JfrJobFactory} в планировщики Quartz.
+     *
+     * <p>Метод статический, а фабрика задач получается только при обработке планировщика, иначе вместе с
+     * постпроцессором заранее создавались бы фабрика, сервис логирования, приёмники статистики и журнал выполнения
+     * с {@link DataSource}, и их не обработали бы остальные постпроцессоры.</p>
+     */
     @Bean
     @ConditionalOnBean(JfrJobFactory.class)
-    public BeanPostProcessor jfrSchedulerFactoryBeanPostProcessor(JfrJobFactory jobFactory) {
+    public static BeanPostProcessor jfrSchedulerFactoryBeanPostProcessor(ObjectProvider<JfrJobFactory> jobFactories) {
         return new BeanPostProcessor() {
             @Override
             public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
                 if (bean instanceof SchedulerFactoryBean factoryBean) {
+                    JfrJobFactory jobFactory = jobFactories.getObject();
                     log.info("{} setJobFactory {}", beanName, jobFactory);
                     factoryBean.setJobFactory(jobFactory);
                 }
                 return bean;
             }
+
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
+                if (bean instanceof SchedulerFactoryBean factoryBean) {
+                    JfrJobFactory jobFactory = jobFactories.getObject();
+                    try {
+                        factoryBean.getScheduler().getListenerManager().addTriggerListener(jobFactory);
+                    } catch (SchedulerException e) {
+                        log.warn("{} addTriggerListener {}", beanName, jobFactory, e);
+                    }
+                }
+                return bean;
+            }
         };
     }
+
+    /**
+     * Компоненты Spring Boot Actuator, если он подключен.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class JfrActuatorConfiguration {
+        @Bean
+        @ConditionalOnProperty(value = "jfr.statistics.enabled", havingValue = "true")
+        JfrMethodsEndpoint jfrMethodsEndpoint(WindowedStatistics statistics) {
+            return new JfrMethodsEndpoint(statistics);
+        }
+
+        @Bean
+        @ConditionalOnProperty(value = "jfr.prometheus.enabled", havingValue = "true")
+        JfrPrometheusEndpoint jfrPrometheusEndpoint(PrometheusStatisticsSink statistics) {
+            return new JfrPrometheusEndpoint(statistics);
+        }
+    }
+
+    /**
+     * Публикация статистики методов в Micrometer, если он подключен.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class JfrMicrometerConfiguration {
+        @Bean(destroyMethod = "close")
+        @ConditionalOnProperty(value = "jfr.micrometer.enabled", havingValue = "true")
+        MicrometerStatisticsSink jfrMicrometerStatisticsSink(MeterRegistry registry,
+                                                             @Value("${jfr.micrometer.maxMethods:500}") int maxMethods,
+                                                             ObjectProvider<Dimensions> dimensions) {
+            return new MicrometerStatisticsSink(registry, maxMethods, dimensions.getIfAvailable() != null);
+        }
+    }
+
+    /**
+     * Обновление настроек при изменении окружения Spring Cloud, если он подключен.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.cloud.context.environment.EnvironmentChangeEvent")
+    static class JfrRefreshConfiguration {
+        @Bean
+        LoggingConfigRefresher jfrLoggingConfigRefresher(JfrLoggingServiceImpl<?> jfrLoggingService) {
+            return new LoggingConfigRefresher(jfrLoggingService);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Событие логического вызова метода клиента Feign, включая все повторные попытки.
+ *
+ * <p>Каждая попытка записывается отдельным {@link FeignRequestEvent} с номером {@link FeignRequestEvent#attempt}.
+ * Длительность логического вызова включает паузы между попытками, поэтому повторы видны как затраты.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("FeignCall")
+@Label("Feign Call")
+@StackTrace(false)
+public final class FeignCallEvent extends NonReentrantMethodEvent {
+    /**
+     * Количество попыток выполнения запроса.
+     */
+    public int attempts;
+
+    /**
+     * Суммарное время пауз между попытками.
+     */
+    @Timespan
+    public long backoff;
+
+    /**
+     * HTTP-статус ответа последней попытки, или 0, если ответ не получен.
+     */
+    public int status;
+
+    /**
+     * Класс исключения, если вызов завершился ошибкой.
+     */
+    public Class<?> exception;
+
+    /**
+     * Сообщение исключения, если вызов завершился ошибкой.
+     */
+    public String message;
+}
@@ -0,0 +1,32 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие десериализации ответа Feign-запроса.
+ *
+ * <p>Дополняет {@link FeignRequestEvent}: позволяет отличить медленную десериализацию большого ответа
+ * от медленного сервера.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("FeignDecode")
+@Label("Feign Decode")
+@StackTrace(false)
+public final class FeignDecodeEvent extends AbstractMethodEvent {
+    /**
+     * Тип результата.
+     */
+    public String type;
+
+    /**
+     * Количество байт ответа, прочитанных при десериализации.
+     */
+    @DataAmount
+    public long size;
+}
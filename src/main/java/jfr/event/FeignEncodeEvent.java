@@ -0,0 +1,31 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие сериализации тела Feign-запроса.
+ *
+ * <p>Дополняет {@link FeignRequestEvent}: позволяет отличить медленную сериализацию от медленного сервера.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("FeignEncode")
+@Label("Feign Encode")
+@StackTrace(false)
+public final class FeignEncodeEvent extends AbstractMethodEvent {
+    /**
+     * Тип тела запроса.
+     */
+    public String type;
+
+    /**
+     * Размер сериализованного тела запроса.
+     */
+    @DataAmount
+    public long size;
+}
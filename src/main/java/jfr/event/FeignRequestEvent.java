@@ -2,6 +2,7 @@ package jfr.event;
 
 import feign.Client;
 import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
 import jdk.jfr.Label;
 import jdk.jfr.Name;
 import jdk.jfr.StackTrace;
@@ -19,6 +20,38 @@ import java.util.function.Predicate;
 @Label("Feign Request")
 @StackTrace(false)
 public final class FeignRequestEvent extends NonReentrantMethodEvent implements Predicate<LoggingJoinPoint> {
+    /**
+     * Номер попытки в рамках логического вызова {@link FeignCallEvent}, начиная с 1, или 0, если неизвестен.
+     */
+    public int attempt;
+
+    /**
+     * HTTP-статус ответа, или 0, если ответ не получен.
+     */
+    public int status;
+
+    /**
+     * Размер тела запроса.
+     */
+    @DataAmount
+    public long requestSize;
+
+    /**
+     * Размер тела ответа, или -1, если неизвестен.
+     */
+    @DataAmount
+    public long responseSize;
+
+    /**
+     * Класс исключения, если ответ не получен.
+     */
+    public Class<?> exception;
+
+    /**
+     * Сообщение исключения, если ответ не получен.
+     */
+    public String message;
+
     @Override
     public boolean test(LoggingJoinPoint joinPoint) {
         return Client.class.isAssignableFrom(joinPoint.targetClass());
@@ -0,0 +1,99 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Периодическое событие статистики запросов Feign по клиенту и хосту.
+ *
+ * <p>Описывает запросы, завершённые с предыдущей записи события, независимо от порогов регистрации вызовов.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("FeignTargetStatistics")
+@Label("Feign Target Statistics")
+@StackTrace(false)
+@Period("10 s")
+public final class FeignTargetStatisticsEvent extends Event {
+    /**
+     * Интерфейс клиента Feign.
+     */
+    @Label("client")
+    public Class<?> client;
+
+    /**
+     * Хост сервиса.
+     */
+    public String host;
+
+    /**
+     * Количество запросов.
+     */
+    public long count;
+
+    /**
+     * Количество запросов, завершившихся без ответа.
+     */
+    public long errors;
+
+    /**
+     * Количество ответов со статусом 1xx.
+     */
+    public long status1xx;
+
+    /**
+     * Количество ответов со статусом 2xx.
+     */
+    public long status2xx;
+
+    /**
+     * Количество ответов со статусом 3xx.
+     */
+    public long status3xx;
+
+    /**
+     * Количество ответов со статусом 4xx.
+     */
+    public long status4xx;
+
+    /**
+     * Количество ответов со статусом 5xx.
+     */
+    public long status5xx;
+
+    /**
+     * Средняя длительность запроса.
+     */
+    @Timespan
+    public long mean;
+
+    /**
+     * Медиана длительности запроса.
+     */
+    @Timespan
+    public long p50;
+
+    /**
+     * 90-й процентиль длительности запроса.
+     */
+    @Timespan
+    public long p90;
+
+    /**
+     * 99-й процентиль длительности запроса.
+     */
+    @Timespan
+    public long p99;
+
+    /**
+     * Максимальная длительность запроса.
+     */
+    @Timespan
+    public long max;
+}
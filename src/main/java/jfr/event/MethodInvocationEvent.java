@@ -13,6 +13,9 @@ import jdk.jfr.Timespan;
  * время начала/окончания самого длительного вызова.
  * Из суммарного времени родительских вызовов исключается время вложенных дочерних.</p>
  *
+ * <p>Если включена статистика по путям вызовов, {@code jfr.callPath.depth}, статистика группируется
+ * по пути вызова от корневого метода, а {@link #pathId} и {@link #parentPathId} позволяют восстановить дерево вызовов.</p>
+ *
  * @author Roman_Erzhukov
  */
 @Category("Spring")
@@ -48,4 +51,16 @@ public final class MethodInvocationEvent extends AbstractMethodEvent {
      */
     @Timespan
     public long min;
+
+    /**
+     * Хеш пути вызова от корневого метода, или 0, если статистика по путям вызовов выключена.
+     */
+    @Label("Path Id")
+    public long pathId;
+
+    /**
+     * Хеш пути вызова родительского метода, или 0 для корневого вызова.
+     */
+    @Label("Parent Path Id")
+    public long parentPathId;
 }
@@ -1,9 +1,28 @@
 package jfr.event;
 
+import jdk.jfr.Label;
+
 /**
  * Метод не допускающий вложенные вызовы.
  *
  * @author Roman_Erzhukov
  */
 public abstract class NonReentrantMethodEvent extends AbstractMethodEvent {
+    /**
+     * Класс бина корневого вызова, в рамках которого выполняется метод.
+     */
+    @Label("root class")
+    public Class<?> rootClass;
+
+    /**
+     * Корневой вызов, в рамках которого выполняется метод.
+     */
+    @Label("root method")
+    public String rootMethod;
+
+    /**
+     * Поток корневого вызова, если событие завершается в другом потоке.
+     */
+    @Label("caller thread")
+    public Thread callerThread;
 }
@@ -0,0 +1,59 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Событие выполнения задачи Quartz.
+ *
+ * <p>Длительность события — время выполнения задачи. {@link #method} — ключ задачи {@code JobKey}.
+ * Задержка срабатывания и занятость пула потоков показывают, что задача запущена позже расписания
+ * из-за нехватки потоков.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("QuartzJob")
+@Label("Quartz Job")
+@StackTrace(false)
+public final class QuartzJobEvent extends AbstractMethodEvent {
+    /**
+     * Ключ триггера.
+     */
+    @Label("trigger")
+    public String triggerKey;
+
+    /**
+     * Задержка срабатывания триггера относительно расписания.
+     */
+    @Timespan
+    public long fireDelay;
+
+    /**
+     * Пропущено ли срабатывание триггера по расписанию (misfire).
+     */
+    public boolean misfire;
+
+    /**
+     * Размер пула потоков планировщика, или -1, если неизвестен.
+     */
+    public int poolSize;
+
+    /**
+     * Количество выполняемых задач, включая эту, в момент запуска.
+     */
+    public int poolBusy;
+
+    /**
+     * Класс исключения, если задача завершилась ошибкой.
+     */
+    public Class<?> exception;
+
+    /**
+     * Сообщение исключения, если задача завершилась ошибкой.
+     */
+    public String message;
+}
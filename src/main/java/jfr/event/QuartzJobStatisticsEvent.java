@@ -0,0 +1,85 @@
+package jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Периодическое событие статистики выполнения задачи Quartz по ключу задачи.
+ *
+ * <p>Описывает выполнения, завершённые с предыдущей записи события.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Category("Spring")
+@Name("QuartzJobStatistics")
+@Label("Quartz Job Statistics")
+@StackTrace(false)
+@Period("10 s")
+public final class QuartzJobStatisticsEvent extends Event {
+    /**
+     * Класс задачи.
+     */
+    @Label("class")
+    public Class<?> jobClass;
+
+    /**
+     * Ключ задачи.
+     */
+    public String jobKey;
+
+    /**
+     * Количество выполнений.
+     */
+    public long count;
+
+    /**
+     * Количество выполнений, завершившихся ошибкой.
+     */
+    public long errors;
+
+    /**
+     * Количество пропущенных срабатываний (misfire).
+     */
+    public long misfires;
+
+    /**
+     * Средняя задержка срабатывания.
+     */
+    @Timespan
+    public long fireDelayMean;
+
+    /**
+     * 99-й процентиль задержки срабатывания.
+     */
+    @Timespan
+    public long fireDelayP99;
+
+    /**
+     * Максимальная задержка срабатывания.
+     */
+    @Timespan
+    public long fireDelayMax;
+
+    /**
+     * Среднее время выполнения.
+     */
+    @Timespan
+    public long runTimeMean;
+
+    /**
+     * 99-й процентиль времени выполнения.
+     */
+    @Timespan
+    public long runTimeP99;
+
+    /**
+     * Максимальное время выполнения.
+     */
+    @Timespan
+    public long runTimeMax;
+}
@@ -0,0 +1,75 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.event.FeignCallEvent;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Логический вызов метода клиента Feign в текущем потоке.
+ *
+ * <p>Связывает попытки выполнения запроса {@link JfrFeignClient} и паузы между ними {@link JfrFeignRetryer}
+ * с событием логического вызова {@link JfrFeignMethodHandler}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+final class FeignCall {
+    @VisibleForTesting
+    static final ThreadLocal<FeignCall> current = new ThreadLocal<>();
+
+    @VisibleForTesting
+    final FeignCallEvent event;
+    /**
+     * Вызов, в рамках которого начат текущий, или null.
+     */
+    @Nullable
+    @VisibleForTesting
+    final FeignCall prev;
+    @VisibleForTesting
+    int attempts;
+    @VisibleForTesting
+    long backoffNanos;
+
+    /**
+     * Начинает логический вызов в текущем потоке.
+     *
+     * @param event событие вызова
+     * @return вызов
+     */
+    static FeignCall begin(FeignCallEvent event) {
+        var call = new FeignCall(event, current.get());
+        current.set(call);
+        return call;
+    }
+
+    /**
+     * Возвращает логический вызов текущего потока, или null.
+     */
+    @Nullable
+    static FeignCall current() {
+        return current.get();
+    }
+
+    /**
+     * Завершает логический вызов в текущем потоке и переносит в событие счётчики попыток.
+     */
+    void end() {
+        if (prev == null) {
+            current.remove();
+        } else {
+            current.set(prev);
+        }
+        event.attempts = attempts;
+        event.backoff = backoffNanos;
+    }
+
+    /**
+     * Регистрирует очередную попытку выполнения запроса.
+     *
+     * @return номер попытки, начиная с 1
+     */
+    int attempt() {
+        return ++attempts;
+    }
+}
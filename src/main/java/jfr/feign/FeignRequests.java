@@ -0,0 +1,135 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import jfr.event.FeignRequestEvent;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Общие методы описания запросов Feign для событий Java Flight Recorder.
+ *
+ * @author Roman_Erzhukov
+ */
+final class FeignRequests {
+    /**
+     * Имена запросов по шаблону URL метода клиента.
+     *
+     * <p>{@link MethodMetadata} не переопределяет equals, поэтому ключи сравниваются по ссылке.
+     * Слабые ссылки не удерживают метаданные пересозданных клиентов.</p>
+     */
+    private static final LoadingCache<MethodMetadata, String> names = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(FeignRequests::newName));
+
+    private FeignRequests() {
+    }
+
+    /**
+     * Возвращает интерфейс клиента Feign.
+     *
+     * @param template шаблон запроса, или null
+     * @param fallback класс, если клиент не известен
+     */
+    static Class<?> targetClass(@Nullable RequestTemplate template, Class<?> fallback) {
+        Target<?> target = template == null ? null : template.feignTarget();
+        return target == null ? fallback : target.type();
+    }
+
+    /**
+     * Возвращает цель клиента Feign, или null, если запрос создан не клиентом Feign.
+     *
+     * @param request запрос
+     */
+    @Nullable
+    static Target<?> target(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template == null ? null : template.feignTarget();
+    }
+
+    /**
+     * Возвращает краткое имя запроса по шаблону URL, например {@code GET /users/{id}}.
+     *
+     * <p>Значения переменных пути и параметры запроса в имя не попадают,
+     * поэтому количество имён ограничено количеством методов клиентов.</p>
+     *
+     * @param request запрос
+     */
+    static String name(Request request) {
+        String name = name(request.requestTemplate());
+        return name != null ? name : request.httpMethod() + " " + request.url();
+    }
+
+    /**
+     * Возвращает краткое имя запроса по шаблону URL, например {@code GET /users/{id}}.
+     *
+     * @param template шаблон запроса, или null
+     * @return имя, или null, если шаблон создан не клиентом Feign
+     */
+    @Nullable
+    static String name(@Nullable RequestTemplate template) {
+        MethodMetadata metadata = template == null ? null : template.methodMetadata();
+        return metadata == null ? null : names.getUnchecked(metadata);
+    }
+
+    @VisibleForTesting
+    static String newName(MethodMetadata metadata) {
+        RequestTemplate template = metadata.template();
+        return template.method() + " " + template.path();
+    }
+
+    /**
+     * Заполняет событие по запросу перед его выполнением.
+     *
+     * @param event    событие
+     * @param request  запрос
+     * @param fallback класс, если клиент не известен
+     */
+    static void request(FeignRequestEvent event, Request request, Class<?> fallback) {
+        event.beanClass = targetClass(request.requestTemplate(), fallback);
+        event.method = name(request);
+        event.requestSize = request.length();
+    }
+
+    /**
+     * Заполняет событие по ответу.
+     *
+     * @param event    событие
+     * @param response ответ
+     */
+    static void response(FeignRequestEvent event, Response response) {
+        event.status = response.status();
+        event.responseSize = responseSize(response);
+    }
+
+    /**
+     * Заполняет событие по ошибке выполнения запроса.
+     *
+     * @param event событие
+     * @param t     ошибка
+     */
+    static void failure(FeignRequestEvent event, Throwable t) {
+        event.exception = t.getClass();
+        event.message = t.getMessage();
+    }
+
+    /**
+     * Возвращает размер тела ответа, или -1, если неизвестен.
+     *
+     * @param response ответ
+     */
+    static long responseSize(Response response) {
+        Response.Body body = response.body();
+        if (body == null) {
+            return 0;
+        }
+        Integer length = body.length();
+        return length == null ? -1 : length;
+    }
+}
@@ -0,0 +1,152 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import feign.Target;
+import jdk.jfr.FlightRecorder;
+import jfr.event.FeignTargetStatisticsEvent;
+import jfr.stats.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика запросов Feign по клиенту и хосту сервиса.
+ *
+ * <p>Обновляется без блокировок при каждом запросе, независимо от порогов регистрации вызовов,
+ * и периодически записывается в Java Flight Recorder событиями {@link FeignTargetStatisticsEvent}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class FeignTargetStatistics implements Runnable, Closeable {
+    /**
+     * Статистика по {@link Target}: цели сравниваются по интерфейсу, имени и URL клиента.
+     */
+    @VisibleForTesting
+    final Map<Target<?>, TargetStatistic> targets = new ConcurrentHashMap<>();
+    @VisibleForTesting
+    final Ticker ticker;
+
+    /**
+     * Подключает периодическую запись статистики в Java Flight Recorder.
+     */
+    public void register() {
+        FlightRecorder.addPeriodicEvent(FeignTargetStatisticsEvent.class, this);
+    }
+
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(this);
+    }
+
+    /**
+     * Возвращает время начала запроса для {@link #record(Target, int, long)}.
+     */
+    public long start() {
+        return ticker.read();
+    }
+
+    /**
+     * Регистрирует завершение запроса.
+     *
+     * @param target цель клиента Feign, или null, если неизвестна
+     * @param status HTTP-статус ответа, или 0, если ответ не получен
+     * @param start  время начала запроса, см. {@link #start()}
+     */
+    public void record(@Nullable Target<?> target, int status, long start) {
+        if (target != null) {
+            targets.computeIfAbsent(target, TargetStatistic::new)
+                    .record(status, ticker.read() - start);
+        }
+    }
+
+    /**
+     * Записывает статистику в Java Flight Recorder и обнуляет её.
+     */
+    @Override
+    public void run() {
+        targets.values().forEach(TargetStatistic::commit);
+    }
+
+    /**
+     * Статистика одной цели клиента Feign.
+     */
+    @VisibleForTesting
+    static final class TargetStatistic {
+        @VisibleForTesting
+        final Class<?> client;
+        @VisibleForTesting
+        final String host;
+        @VisibleForTesting
+        final LatencyHistogram latency = new LatencyHistogram();
+        /**
+         * Счётчики запросов без ответа и ответов 1xx–5xx.
+         */
+        @VisibleForTesting
+        final LongAdder[] statuses = new LongAdder[6];
+
+        @VisibleForTesting
+        TargetStatistic(Target<?> target) {
+            client = target.type();
+            host = host(target.url());
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = new LongAdder();
+            }
+        }
+
+        @VisibleForTesting
+        void record(int status, long nanos) {
+            latency.record(nanos);
+            statuses[status >= 100 && status < 600 ? status / 100 : 0].increment();
+        }
+
+        @VisibleForTesting
+        void commit() {
+            LatencyHistogram.Snapshot snapshot = latency.drain();
+            long[] counts = new long[statuses.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = statuses[i].sumThenReset();
+            }
+            if (snapshot.count() == 0) {
+                return;
+            }
+            var event = new FeignTargetStatisticsEvent();
+            event.client = client;
+            event.host = host;
+            event.count = snapshot.count();
+            event.errors = counts[0];
+            event.status1xx = counts[1];
+            event.status2xx = counts[2];
+            event.status3xx = counts[3];
+            event.status4xx = counts[4];
+            event.status5xx = counts[5];
+            event.mean = snapshot.mean();
+            event.p50 = snapshot.percentile(50);
+            event.p90 = snapshot.percentile(90);
+            event.p99 = snapshot.percentile(99);
+            event.max = snapshot.max();
+            event.commit();
+        }
+
+        /**
+         * Возвращает хост из URL клиента, или URL, если хост не определён.
+         *
+         * @param url URL клиента
+         */
+        @VisibleForTesting
+        static String host(String url) {
+            try {
+                String host = URI.create(url).getHost();
+                return host == null ? url : host;
+            } catch (IllegalArgumentException e) {
+                return url;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import feign.Target;
+import jfr.event.FeignRequestEvent;
+import jfr.logging.AsyncCall;
+import jfr.logging.NonReentrantLoggingService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Обёртывает {@link AsyncClient} Feign для записи асинхронных запросов в Java Flight Recorder.
+ *
+ * <p>Событие создаётся для каждого запроса и завершается, когда завершается {@link CompletableFuture} ответа,
+ * в каком бы потоке это ни произошло. Парные вызовы before/afterReturning в одном потоке здесь невозможны,
+ * поэтому корневой вызов и поток, из которого отправлен запрос, записываются в событие в момент отправки.</p>
+ *
+ * <p>Время запроса, завершившегося до окончания корневого вызова, попадает в статистику корневого вызова,
+ * в лог и получателям, см. {@link AsyncCall}.</p>
+ *
+ * <p>Каждый запрос, даже если событие не записывается, учитывается в {@link FeignTargetStatistics}.</p>
+ *
+ * @param <C> тип контекста запроса
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignAsyncClient<C> implements AsyncClient<C> {
+    @VisibleForTesting
+    final AsyncClient<C> delegate;
+    @VisibleForTesting
+    final NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    @VisibleForTesting
+    final FeignTargetStatistics statistics;
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        FeignRequestEvent event = newEvent();
+        if (event.isEnabled()) {
+            FeignRequests.request(event, request, delegate.getClass());
+            event.callerThread = Thread.currentThread();
+            loggingService.attachRoot(event);
+            event.begin();
+        } else {
+            event = null;
+        }
+        AsyncCall call = loggingService.beginAsync();
+        Target<?> target = FeignRequests.target(request);
+        long start = statistics.start();
+        CompletableFuture<Response> future;
+        try {
+            future = delegate.execute(request, options, requestContext);
+        } catch (Throwable t) {
+            complete(event, call, request, target, start, null, t);
+            throw t;
+        }
+        FeignRequestEvent e = event;
+        return future.whenComplete((response, t) -> complete(e, call, request, target, start, response, t));
+    }
+
+    @VisibleForTesting
+    void complete(@Nullable FeignRequestEvent event, @Nullable AsyncCall call, Request request, @Nullable Target<?> target,
+                  long start, @Nullable Response response, @Nullable Throwable t) {
+        statistics.record(target, t == null ? response.status() : 0, start);
+        if (call != null) {
+            call.complete(FeignRequests.targetClass(request.requestTemplate(), delegate.getClass()), FeignRequests.name(request),
+                    t != null);
+        }
+        if (event == null) {
+            return;
+        }
+        if (t == null) {
+            FeignRequests.response(event, response);
+        } else {
+            FeignRequests.failure(event, t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+        }
+        event.commit();
+    }
+
+    @VisibleForTesting
+    FeignRequestEvent newEvent() {
+        return new FeignRequestEvent();
+    }
+}
@@ -0,0 +1,58 @@
+package jfr.feign;
+
+import com.google.common.base.Ticker;
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.InvocationHandlerFactory;
+import feign.Retryer;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import jfr.event.FeignRequestEvent;
+import jfr.logging.NonReentrantLoggingService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Подключает к клиентам Feign запись запросов в Java Flight Recorder, см. {@link JfrFeignClient}, {@link JfrFeignAsyncClient},
+ * а также сериализации и десериализации, см. {@link JfrFeignEncoder}, {@link JfrFeignDecoder},
+ * и логических вызовов с повторными попытками, см. {@link JfrFeignMethodHandler}, {@link JfrFeignRetryer}.
+ *
+ * <p>Spring Cloud OpenFeign применяет компоненты {@link Capability} ко всем клиентам.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignCapability implements Capability {
+    private final NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    private final FeignTargetStatistics statistics;
+
+    @Override
+    public Client enrich(Client client) {
+        return new JfrFeignClient(client, loggingService, statistics);
+    }
+
+    @Override
+    public AsyncClient<Object> enrich(AsyncClient<Object> client) {
+        return new JfrFeignAsyncClient<>(client, loggingService, statistics);
+    }
+
+    @Override
+    public Retryer enrich(Retryer retryer) {
+        return new JfrFeignRetryer(retryer, Ticker.systemTicker());
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return new JfrFeignInvocationHandlerFactory(invocationHandlerFactory, loggingService);
+    }
+
+    @Override
+    public Encoder enrich(Encoder encoder) {
+        return new JfrFeignEncoder(encoder);
+    }
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return new JfrFeignDecoder(decoder);
+    }
+}
@@ -0,0 +1,83 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import jfr.event.FeignRequestEvent;
+import jfr.logging.NonReentrantLoggingService;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+
+/**
+ * Обёртывает {@link Client} Feign для записи запросов в Java Flight Recorder.
+ *
+ * <p>В отличие от {@link JfrFeignRequestInterceptor} измеряет только время выполнения запроса клиентом
+ * и регистрирует в том числе запросы, завершившиеся ошибкой соединения или таймаутом.
+ * Не зависит от парных вызовов before/afterReturning, поэтому не требует корневого вызова бизнес-метода.
+ * Если корневой вызов есть, записывает его в событие.
+ * В рамках логического вызова {@link JfrFeignMethodHandler} записывает номер попытки, а в событие логического вызова —
+ * количество попыток и статус ответа, даже если события отдельных запросов выключены.</p>
+ *
+ * <p>Каждый запрос, даже если событие не записывается, учитывается в {@link FeignTargetStatistics}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignClient implements Client {
+    @VisibleForTesting
+    final Client delegate;
+    @VisibleForTesting
+    final NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    @VisibleForTesting
+    final FeignTargetStatistics statistics;
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        FeignRequestEvent event = newEvent();
+        if (!event.isEnabled()) {
+            event = null;
+        }
+        FeignCall call = FeignCall.current();
+        int attempt = 0;
+        if (call != null) {
+            attempt = call.attempt();
+            call.event.method = FeignRequests.name(request);
+        }
+        if (event != null) {
+            FeignRequests.request(event, request, delegate.getClass());
+            loggingService.attachRoot(event);
+            event.attempt = attempt;
+            event.begin();
+        }
+        long start = statistics.start();
+        int status = 0;
+        try {
+            Response response = delegate.execute(request, options);
+            status = response.status();
+            if (event != null) {
+                FeignRequests.response(event, response);
+            }
+            if (call != null) {
+                call.event.status = status;
+            }
+            return response;
+        } catch (Throwable t) {
+            if (event != null) {
+                FeignRequests.failure(event, t);
+            }
+            throw t;
+        } finally {
+            statistics.record(FeignRequests.target(request), status, start);
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    FeignRequestEvent newEvent() {
+        return new FeignRequestEvent();
+    }
+}
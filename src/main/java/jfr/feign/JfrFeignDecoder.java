@@ -0,0 +1,53 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingInputStream;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import jfr.event.FeignDecodeEvent;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Обёртывает {@link Decoder} Feign для записи длительности десериализации ответа в Java Flight Recorder.
+ *
+ * <p>Размер ответа считается по фактически прочитанным байтам, поэтому известен и для ответов без Content-Length.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignDecoder implements Decoder {
+    @VisibleForTesting
+    final Decoder delegate;
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        FeignDecodeEvent event = newEvent();
+        Response.Body body = response.body();
+        if (!event.isEnabled() || body == null) {
+            return delegate.decode(response, type);
+        }
+        Request request = response.request();
+        event.beanClass = FeignRequests.targetClass(request.requestTemplate(), delegate.getClass());
+        event.method = FeignRequests.name(request);
+        event.type = type.getTypeName();
+        var in = new CountingInputStream(body.asInputStream());
+        event.begin();
+        try {
+            return delegate.decode(response.toBuilder()
+                    .body(in, body.length())
+                    .build(), type);
+        } finally {
+            event.size = in.getCount();
+            event.commit();
+        }
+    }
+
+    @VisibleForTesting
+    FeignDecodeEvent newEvent() {
+        return new FeignDecodeEvent();
+    }
+}
@@ -0,0 +1,47 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import jfr.event.FeignEncodeEvent;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Type;
+
+/**
+ * Обёртывает {@link Encoder} Feign для записи длительности сериализации тела запроса в Java Flight Recorder.
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignEncoder implements Encoder {
+    @VisibleForTesting
+    final Encoder delegate;
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        FeignEncodeEvent event = newEvent();
+        if (!event.isEnabled()) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        event.beanClass = FeignRequests.targetClass(template, delegate.getClass());
+        String name = FeignRequests.name(template);
+        event.method = name != null ? name : template.method() + " " + template.url();
+        event.type = bodyType.getTypeName();
+        event.begin();
+        try {
+            delegate.encode(object, bodyType, template);
+            byte[] body = template.body();
+            event.size = body == null ? 0 : body.length;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @VisibleForTesting
+    FeignEncodeEvent newEvent() {
+        return new FeignEncodeEvent();
+    }
+}
@@ -0,0 +1,36 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import feign.InvocationHandlerFactory;
+import feign.Target;
+import jfr.logging.NonReentrantLoggingService;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Обёртывает обработчики методов клиента Feign {@link JfrFeignMethodHandler}-ом.
+ *
+ * <p>Методы по умолчанию интерфейса клиента не выполняют запросов сами и не обёртываются.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignInvocationHandlerFactory implements InvocationHandlerFactory {
+    @VisibleForTesting
+    final InvocationHandlerFactory delegate;
+    @VisibleForTesting
+    final NonReentrantLoggingService<?> loggingService;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
+        Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch.size() * 2);
+        dispatch.forEach((method, handler) -> handlers.put(method, method.isDefault() ? handler :
+                new JfrFeignMethodHandler(handler, target.type(), method.getName(), loggingService)));
+        return delegate.create(target, handlers);
+    }
+}
@@ -0,0 +1,77 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import feign.InvocationHandlerFactory.MethodHandler;
+import jfr.event.FeignCallEvent;
+import jfr.logging.NonReentrantLoggingService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Обёртывает {@link MethodHandler} метода клиента Feign для записи логического вызова {@link FeignCallEvent}.
+ *
+ * <p>Логический вызов включает все попытки выполнения запроса и паузы между ними.</p>
+ *
+ * <p>Метод асинхронного клиента ({@code AsyncFeign}) возвращает {@link CompletableFuture}: событие завершается
+ * вместе с ним, в каком бы потоке это ни произошло. Попытки и паузы асинхронного клиента выполняются
+ * вне потока вызова и в событие не попадают.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignMethodHandler implements MethodHandler {
+    @VisibleForTesting
+    final MethodHandler delegate;
+    @VisibleForTesting
+    final Class<?> targetClass;
+    @VisibleForTesting
+    final String name;
+    @VisibleForTesting
+    final NonReentrantLoggingService<?> loggingService;
+
+    @Override
+    public Object invoke(Object[] argv) throws Throwable {
+        FeignCallEvent event = newEvent();
+        if (!event.isEnabled()) {
+            return delegate.invoke(argv);
+        }
+        event.beanClass = targetClass;
+        event.method = name;
+        loggingService.attachRoot(event);
+        FeignCall call = FeignCall.begin(event);
+        event.begin();
+        Object result;
+        try {
+            result = delegate.invoke(argv);
+        } catch (Throwable t) {
+            call.end();
+            complete(event, t);
+            throw t;
+        }
+        call.end();
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((r, t) -> complete(event, t));
+        } else {
+            complete(event, null);
+        }
+        return result;
+    }
+
+    @VisibleForTesting
+    static void complete(FeignCallEvent event, @Nullable Throwable t) {
+        if (t != null) {
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            event.exception = cause.getClass();
+            event.message = cause.getMessage();
+        }
+        event.commit();
+    }
+
+    @VisibleForTesting
+    FeignCallEvent newEvent() {
+        return new FeignCallEvent();
+    }
+}
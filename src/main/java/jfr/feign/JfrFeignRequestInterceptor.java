@@ -1,5 +1,8 @@
 package jfr.feign;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import feign.InvocationContext;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
@@ -8,6 +11,7 @@ import feign.ResponseInterceptor;
 import feign.Target;
 import jfr.event.FeignRequestEvent;
 import jfr.logging.LoggingJoinPoint;
+import jfr.logging.NonReentrantHandle;
 import jfr.logging.NonReentrantLoggingService;
 import org.springframework.core.log.LogMessage;
 
@@ -16,10 +20,25 @@ import java.util.List;
 /**
  * Перехватывает запросы Feign для записи в Java Flight Recorder.
  *
+ * <p>Ответ завершает именно тот вызов, который начат для его запроса, см. {@link NonReentrantHandle},
+ * поэтому перекрывающиеся запросы в одном потоке, например, из fallback, не путаются между собой.</p>
+ *
  * @author Roman_Erzhukov
  */
 public class JfrFeignRequestInterceptor implements RequestInterceptor, ResponseInterceptor {
     private final NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    /**
+     * Незавершённые вызовы по шаблону запроса, ключи сравниваются по ссылке.
+     *
+     * <p>Feign передаёт в {@link #apply(RequestTemplate)} тот же шаблон, из которого создаёт запрос ответа.
+     * Дескриптор ссылается на шаблон через точку вызова, поэтому и ключи, и значения слабые: запрос без ответа,
+     * например, при ошибке соединения, удаляется, когда завершается его корневой вызов.</p>
+     */
+    @VisibleForTesting
+    final Cache<RequestTemplate, NonReentrantHandle> handles = CacheBuilder.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build();
 
     public JfrFeignRequestInterceptor(NonReentrantLoggingService<FeignRequestEvent> loggingService) {
         this.loggingService = loggingService;
@@ -28,18 +47,28 @@ public class JfrFeignRequestInterceptor implements RequestInterceptor, ResponseI
     @Override
     public void apply(RequestTemplate template) {
         Target<?> target = template.feignTarget();
-        var name = LogMessage.of(() ->
-                template.method() + ' ' + target.url() + ' ' + template.url());
+        Object name = FeignRequests.name(template);
+        if (name == null) {
+            name = LogMessage.of(() -> template.method() + ' ' + target.url() + ' ' + template.url());
+        }
         var method = LogMessage.of(() -> template.request()
                 .toString());
-        loggingService.before(LoggingJoinPoint.of(target.type(), name, method, List.of()), new FeignRequestEvent());
+        NonReentrantHandle handle = loggingService.before(LoggingJoinPoint.of(target.type(), name, method, List.of()),
+                new FeignRequestEvent());
+        if (handle != null) {
+            handles.put(template, handle);
+        }
     }
 
     @Override
     @SuppressWarnings("resource")
     public Object intercept(InvocationContext context, Chain chain) throws Exception {
         Response response = context.response();
-        loggingService.afterReturning(FeignRequestEvent.class, response.status());
+        RequestTemplate template = response.request().requestTemplate();
+        NonReentrantHandle handle = template == null ? null : handles.asMap().remove(template);
+        if (handle != null) {
+            loggingService.afterReturning(handle, response.status());
+        }
         return chain.next(context);
     }
 }
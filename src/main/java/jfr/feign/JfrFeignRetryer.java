@@ -0,0 +1,43 @@
+package jfr.feign;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import feign.RetryableException;
+import feign.Retryer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Обёртывает {@link Retryer} Feign для учёта пауз между попытками в логическом вызове {@link FeignCall}.
+ *
+ * <p>Feign клонирует {@link Retryer} для каждого вызова метода клиента, поэтому клон обёртывается заново.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class JfrFeignRetryer implements Retryer {
+    @VisibleForTesting
+    final Retryer delegate;
+    @VisibleForTesting
+    final Ticker ticker;
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        FeignCall call = FeignCall.current();
+        if (call == null) {
+            delegate.continueOrPropagate(e);
+            return;
+        }
+        long start = ticker.read();
+        try {
+            delegate.continueOrPropagate(e);
+        } finally {
+            call.backoffNanos += ticker.read() - start;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("MethodDoesntCallSuperMethod")
+    public Retryer clone() {
+        return new JfrFeignRetryer(delegate.clone(), ticker);
+    }
+}
@@ -0,0 +1,211 @@
+package jfr.jmx;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.analysis.MethodStatistic;
+import jfr.live.LiveWindow;
+import jfr.live.WindowStatistic;
+import jfr.live.WindowedStatistics;
+import jfr.logging.JfrLoggingServiceImpl;
+import jfr.logging.LoggingConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * MBean {@value #OBJECT_NAME}: настройки {@link JfrLoggingServiceImpl} и статистика методов бинов.
+ *
+ * <p>Изменение настроек заменяет {@link LoggingConfig} сервиса целиком одной записью volatile-поля,
+ * вызовы читают новые настройки без блокировок. Статистика методов берётся из {@link WindowedStatistics},
+ * если она включена, и возвращается снимком {@link TabularData}, который собирается по методам,
+ * не останавливая регистрацию вызовов. Время в наносекундах.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JfrStatistics implements JfrStatisticsMBean, Closeable {
+    /**
+     * Имя MBean.
+     */
+    public static final String OBJECT_NAME = "jfr:type=JfrStatistics";
+
+    @VisibleForTesting
+    static final CompositeType METHOD_TYPE;
+    @VisibleForTesting
+    static final TabularType METHODS_TYPE;
+    private static final String[] ITEMS = {
+            "event", "beanClass", "method", "count", "errors", "errorRate", "sum", "mean", "p99", "max"
+    };
+
+    static {
+        try {
+            METHOD_TYPE = new CompositeType("MethodStatistic", "Bean method statistic, nanoseconds", ITEMS,
+                    new String[]{"Event", "Bean class", "Method", "Invocations", "Invocations completed with an exception",
+                            "Error rate", "Total execution time excluding nested methods", "Mean execution time",
+                            "99th percentile of execution time, upper estimate", "Max execution time"},
+                    new OpenType<?>[]{SimpleType.STRING, SimpleType.STRING, SimpleType.STRING, SimpleType.LONG,
+                            SimpleType.LONG, SimpleType.DOUBLE, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                            SimpleType.LONG});
+            METHODS_TYPE = new TabularType("MethodStatistics", "Bean method statistics", METHOD_TYPE,
+                    new String[]{"event", "beanClass", "method"});
+        } catch (OpenDataException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @VisibleForTesting
+    final JfrLoggingServiceImpl<?> service;
+    @VisibleForTesting
+    final @Nullable WindowedStatistics statistics;
+
+    /**
+     * Регистрирует MBean в платформенном {@link MBeanServer}.
+     *
+     * @throws JMException если регистрация не удалась
+     */
+    public void register() throws JMException {
+        server().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    @Override
+    public void close() {
+        try {
+            server().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            log.warn("unregister {}", OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public long getThresholdNanos() {
+        return service.getConfig().getThresholdNanos();
+    }
+
+    @Override
+    public void setThresholdNanos(long thresholdNanos) {
+        service.updateConfig(config -> config.withThresholdNanos(thresholdNanos));
+    }
+
+    @Override
+    public int getSampling() {
+        return service.getConfig().getSampling();
+    }
+
+    @Override
+    public void setSampling(int sampling) {
+        service.updateConfig(config -> config.withSampling(sampling));
+    }
+
+    @Override
+    public int getCallPathDepth() {
+        return service.getConfig().getCallPathDepth();
+    }
+
+    @Override
+    public void setCallPathDepth(int callPathDepth) {
+        service.updateConfig(config -> config.withCallPathDepth(callPathDepth));
+    }
+
+    @Override
+    public boolean isLogErrorEnabled() {
+        return service.getConfig().isLogErrorEnabled();
+    }
+
+    @Override
+    public void setLogErrorEnabled(boolean logErrorEnabled) {
+        service.updateConfig(config -> config.withLogErrorEnabled(logErrorEnabled));
+    }
+
+    @Override
+    public String getInclude() {
+        return service.getConfig().getInclude();
+    }
+
+    @Override
+    public void setInclude(String include) {
+        service.updateConfig(config -> config.withPatterns(nonNull(include), config.getExclude()));
+    }
+
+    @Override
+    public String getExclude() {
+        return service.getConfig().getExclude();
+    }
+
+    @Override
+    public void setExclude(String exclude) {
+        service.updateConfig(config -> config.withPatterns(config.getInclude(), nonNull(exclude)));
+    }
+
+    @Override
+    public boolean reloadConfig() {
+        return service.refreshConfig();
+    }
+
+    @Override
+    public TabularData getMethods() {
+        return methods(LiveWindow.MINUTE);
+    }
+
+    @Override
+    public long getDropped() {
+        return statistics == null ? 0 : statistics.dropped();
+    }
+
+    @Override
+    public TabularData methods(String window) {
+        return methods(LiveWindow.of(window));
+    }
+
+    @Override
+    public void resetStatistics() {
+        if (statistics != null) {
+            statistics.reset();
+        }
+    }
+
+    @VisibleForTesting
+    TabularData methods(LiveWindow window) {
+        var result = new TabularDataSupport(METHODS_TYPE);
+        List<WindowStatistic> methods = statistics == null ? List.of() : statistics.statistics(window);
+        for (WindowStatistic method : methods) {
+            result.put(compositeData(method));
+        }
+        return result;
+    }
+
+    @VisibleForTesting
+    static CompositeDataSupport compositeData(WindowStatistic window) {
+        MethodStatistic statistic = window.statistic();
+        try {
+            return new CompositeDataSupport(METHOD_TYPE, ITEMS, new Object[]{
+                    statistic.key().event(), statistic.key().beanClass(), statistic.key().method(),
+                    statistic.count(), window.errors(), window.errorRate(), statistic.sum(), statistic.mean(),
+                    statistic.percentile(99), statistic.max()});
+        } catch (OpenDataException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String nonNull(@Nullable String pattern) {
+        return pattern == null ? "" : pattern;
+    }
+
+    private static MBeanServer server() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+}
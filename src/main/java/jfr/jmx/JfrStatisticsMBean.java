@@ -0,0 +1,112 @@
+package jfr.jmx;
+
+import javax.management.openmbean.TabularData;
+
+/**
+ * Управление регистрацией вызовов методов бинов и статистика вызовов через JMX.
+ *
+ * @author Roman_Erzhukov
+ * @see JfrStatistics
+ */
+public interface JfrStatisticsMBean {
+    /**
+     * Возвращает пороговую длительность для записи в JFR, нс.
+     */
+    long getThresholdNanos();
+
+    /**
+     * Устанавливает пороговую длительность для записи в JFR, нс.
+     *
+     * @param thresholdNanos пороговая длительность
+     */
+    void setThresholdNanos(long thresholdNanos);
+
+    /**
+     * Возвращает частоту записи корневых вызовов в JFR: один из {@code sampling}.
+     */
+    int getSampling();
+
+    /**
+     * Устанавливает частоту записи корневых вызовов в JFR: один из {@code sampling}.
+     *
+     * @param sampling частота, 1 — все вызовы
+     */
+    void setSampling(int sampling);
+
+    /**
+     * Возвращает максимальную глубину пути вызова для статистики по путям, или 0.
+     */
+    int getCallPathDepth();
+
+    /**
+     * Устанавливает максимальную глубину пути вызова для статистики по путям.
+     *
+     * @param callPathDepth глубина, 0 — статистика по методам
+     */
+    void setCallPathDepth(int callPathDepth);
+
+    /**
+     * Возвращает признак записи stacktrace-ов ошибок.
+     */
+    boolean isLogErrorEnabled();
+
+    /**
+     * Устанавливает признак записи stacktrace-ов ошибок.
+     *
+     * @param logErrorEnabled признак
+     */
+    void setLogErrorEnabled(boolean logErrorEnabled);
+
+    /**
+     * Возвращает регулярное выражение для регистрируемых классов бинов, или пустую строку.
+     */
+    String getInclude();
+
+    /**
+     * Устанавливает регулярное выражение для регистрируемых классов бинов.
+     *
+     * @param include регулярное выражение, или пустая строка
+     */
+    void setInclude(String include);
+
+    /**
+     * Возвращает регулярное выражение для нерегистрируемых классов бинов, или пустую строку.
+     */
+    String getExclude();
+
+    /**
+     * Устанавливает регулярное выражение для нерегистрируемых классов бинов.
+     *
+     * @param exclude регулярное выражение, или пустая строка
+     */
+    void setExclude(String exclude);
+
+    /**
+     * Перечитывает настройки из свойств {@code jfr.*} окружения Spring, отменяя изменения через JMX.
+     *
+     * @return применены ли настройки, false — если свойства недопустимы
+     */
+    boolean reloadConfig();
+
+    /**
+     * Возвращает статистику методов в минутном окне.
+     */
+    TabularData getMethods();
+
+    /**
+     * Возвращает количество событий, отброшенных из-за ограничения количества методов.
+     */
+    long getDropped();
+
+    /**
+     * Возвращает статистику методов в окне.
+     *
+     * @param window окно {@code 1s}, {@code 1m} или {@code 5m}
+     */
+    TabularData methods(String window);
+
+    /**
+     * Удаляет накопленную статистику методов.
+     */
+    void resetStatistics();
+}
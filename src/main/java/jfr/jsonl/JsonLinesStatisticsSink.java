@@ -0,0 +1,355 @@
+package jfr.jsonl;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.logging.AsyncStatisticsPublisher;
+import jfr.logging.StatisticsSink;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пишет статистику вызовов методов бинов в файл в формате JSON Lines: одна строка на метод корневого вызова.
+ *
+ * <pre>{"ts":1735689600000,"class":"a.Service","method":"find","path":"1f","count":2,"sum":5000000,"min":2000000,"max":3000000,"errors":1}</pre>
+ *
+ * <p>Время в наносекундах, {@code ts} — миллисекунды UTC, {@code dimension} — значение измерения,
+ * только для вызовов с измерением, {@code path} — хеш пути вызова, только если включена статистика по путям.
+ * Строки кодируются в UTF-8 сразу в переиспользуемый direct {@link ByteBuffer} без промежуточных строк,
+ * имя класса кодируется один раз. Буфер записывается в {@link FileChannel}
+ * по {@link #flush()}, если заполнен наполовину или прошла {@value #FLUSH_MILLIS} мс с прошлой записи,
+ * поэтому без {@link AsyncStatisticsPublisher} в потоке корневого вызова запись в файл выполняется редко.
+ * Когда файл превышает {@link #maxFileSize}, он переименовывается в {@code <file>.1}, предыдущие — со сдвигом
+ * номера, хранится не более {@link #maxFiles} старых файлов.</p>
+ *
+ * <p>Ошибки записи пишутся в лог, содержимое буфера отбрасывается и учитывается в {@link #dropped()}.
+ * Старый файл закрывается только после открытия нового, поэтому при ошибке замены запись продолжается
+ * в старый файл, а замена повторяется при следующей записи. Если файл не открыт из-за ошибки,
+ * он открывается заново при следующей записи.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class JsonLinesStatisticsSink implements StatisticsSink, Closeable {
+    @VisibleForTesting
+    static final long FLUSH_MILLIS = 1000;
+    /**
+     * Верхняя оценка длины строки без имени класса и метода.
+     */
+    private static final int FIXED_LENGTH = 256;
+    private static final byte[] HEX = bytes("0123456789abcdef");
+    private static final byte[] TS = bytes("{\"ts\":");
+    private static final byte[] METHOD = bytes(",\"method\":\"");
+    private static final byte[] DIMENSION = bytes("\",\"dimension\":\"");
+    private static final byte[] PATH = bytes("\",\"path\":\"");
+    private static final byte[] COUNT = bytes("\",\"count\":");
+    private static final byte[] SUM = bytes(",\"sum\":");
+    private static final byte[] MIN = bytes(",\"min\":");
+    private static final byte[] MAX = bytes(",\"max\":");
+    private static final byte[] ERRORS = bytes(",\"errors\":");
+    private static final byte[] END = bytes("}\n");
+
+    @VisibleForTesting
+    final Path file;
+    @VisibleForTesting
+    final long maxFileSize;
+    @VisibleForTesting
+    final int maxFiles;
+    @VisibleForTesting
+    final ByteBuffer buffer;
+    private final Clock clock;
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * Закодированное {@code ,"class":"<имя класса>"}.
+     */
+    private final ClassValue<byte[]> classNames = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(Class<?> type) {
+            ByteBuffer out = ByteBuffer.allocate(FIXED_LENGTH + type.getName().length() * 6);
+            out.put(bytes(",\"class\":\""));
+            putString(out, type.getName());
+            out.put((byte) '"');
+            byte[] result = new byte[out.position()];
+            out.flip().get(result);
+            return result;
+        }
+    };
+
+    @VisibleForTesting
+    @Nullable
+    FileChannel channel;
+    @VisibleForTesting
+    long size;
+    @VisibleForTesting
+    long writtenAt;
+    /**
+     * Количество строк в буфере.
+     */
+    @VisibleForTesting
+    int lines;
+    private boolean closed;
+
+    /**
+     * Создаёт получатель статистики.
+     *
+     * @param file        файл
+     * @param maxFileSize размер файла в байтах, после которого он заменяется новым
+     * @param maxFiles    количество хранимых старых файлов
+     * @param bufferSize  размер буфера в байтах
+     * @param clock       часы для {@code ts}
+     */
+    public JsonLinesStatisticsSink(Path file, long maxFileSize, int maxFiles, int bufferSize, Clock clock) {
+        if (maxFileSize < 1 || maxFiles < 1 || bufferSize < FIXED_LENGTH * 2) {
+            throw new IllegalArgumentException("Invalid maxFileSize " + maxFileSize + ", maxFiles " + maxFiles
+                    + " or bufferSize " + bufferSize);
+        }
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.clock = clock;
+    }
+
+    /**
+     * Открывает файл для дописывания.
+     *
+     * @throws IOException если файл не удалось открыть
+     */
+    public synchronized void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        channel = opened;
+        size = opened.size();
+        writtenAt = clock.millis();
+    }
+
+    /**
+     * Возвращает количество строк, не записанных из-за слишком длинного имени класса, метода или измерения
+     * или из-за ошибки записи в файл.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public synchronized void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min,
+                                    long max, int errors) {
+        byte[] className = classNames.get(beanClass);
+        String name = StatisticsSink.name(method);
+        String dimension = StatisticsSink.dimension(method);
+        int length = FIXED_LENGTH + className.length + name.length() * 6
+                + (dimension == null ? 0 : dimension.length() * 6);
+        if (length > buffer.capacity()) {
+            dropped.increment();
+            return;
+        }
+        if (length > buffer.remaining()) {
+            write();
+        }
+        putLong(buffer.put(TS), clock.millis());
+        putString(buffer.put(className).put(METHOD), name);
+        if (dimension != null) {
+            putString(buffer.put(DIMENSION), dimension);
+        }
+        if (pathId != 0) {
+            putHex(buffer.put(PATH), pathId);
+        }
+        putLong(buffer.put(COUNT), count);
+        putLong(buffer.put(SUM), sum);
+        putLong(buffer.put(MIN), min);
+        putLong(buffer.put(MAX), max);
+        putLong(buffer.put(ERRORS), errors);
+        buffer.put(END);
+        lines++;
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (buffer.position() > 0
+                && (buffer.position() >= buffer.capacity() / 2 || clock.millis() - writtenAt >= FLUSH_MILLIS)) {
+            write();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        write();
+        closed = true;
+        FileChannel opened = channel;
+        if (opened != null) {
+            channel = null;
+            try {
+                opened.close();
+            } catch (IOException e) {
+                log.warn("close {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Записывает буфер в файл, при необходимости открывая файл заново или заменяя его новым.
+     */
+    @VisibleForTesting
+    void write() {
+        writtenAt = clock.millis();
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            FileChannel opened = channel;
+            if (opened == null) {
+                if (closed) {
+                    throw new IOException("Closed");
+                }
+                open();
+                opened = channel;
+            }
+            if (size > 0 && size + buffer.remaining() > maxFileSize) {
+                try {
+                    opened = rotate(opened);
+                } catch (IOException e) {
+                    log.warn("rotate {}", file, e);
+                }
+            }
+            while (buffer.hasRemaining()) {
+                size += opened.write(buffer);
+            }
+        } catch (IOException e) {
+            dropped.add(lines);
+            log.warn("write {}", file, e);
+        } finally {
+            buffer.clear();
+            lines = 0;
+        }
+    }
+
+    /**
+     * Заменяет файл новым. Старый файл закрывается после открытия нового, при ошибке остаётся открытым.
+     *
+     * @param opened открытый файл
+     * @return новый файл
+     * @throws IOException если файл не удалось заменить
+     */
+    @VisibleForTesting
+    FileChannel rotate(FileChannel opened) throws IOException {
+        for (int i = maxFiles - 1; i > 0; i--) {
+            Path source = archive(i);
+            if (Files.exists(source)) {
+                Files.move(source, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // Файл уже перемещён, если прошлая замена не смогла открыть новый.
+        if (Files.exists(file)) {
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        FileChannel created = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel = created;
+        size = 0;
+        try {
+            opened.close();
+        } catch (IOException e) {
+            log.warn("close {}", archive(1), e);
+        }
+        return created;
+    }
+
+    @VisibleForTesting
+    Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    /**
+     * Пишет число в десятичном виде.
+     *
+     * @param out   буфер
+     * @param value число
+     */
+    @VisibleForTesting
+    static ByteBuffer putLong(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+        } else {
+            value = -value;
+        }
+        // Цифры отрицательного числа, чтобы не переполнять Long.MIN_VALUE.
+        int start = out.position();
+        do {
+            out.put((byte) ('0' - value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = out.position() - 1; i < j; i++, j--) {
+            byte digit = out.get(i);
+            out.put(i, out.get(j));
+            out.put(j, digit);
+        }
+        return out;
+    }
+
+    /**
+     * Пишет число в шестнадцатеричном виде без ведущих нулей, как {@link Long#toHexString(long)}.
+     *
+     * @param out   буфер
+     * @param value число
+     */
+    @VisibleForTesting
+    static ByteBuffer putHex(ByteBuffer out, long value) {
+        int shift = Math.max(60 - Long.numberOfLeadingZeros(value) / 4 * 4, 0);
+        for (; shift >= 0; shift -= 4) {
+            out.put(HEX[(int) (value >>> shift) & 0xf]);
+        }
+        return out;
+    }
+
+    /**
+     * Пишет содержимое строки JSON в UTF-8 с экранированием, без кавычек.
+     *
+     * @param out   буфер
+     * @param value строка
+     */
+    @VisibleForTesting
+    static ByteBuffer putString(ByteBuffer out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put(HEX[c >> 4]).put(HEX[c & 0xf]);
+            } else if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xf0 | code >> 18)).put((byte) (0x80 | code >> 12 & 0x3f))
+                        .put((byte) (0x80 | code >> 6 & 0x3f)).put((byte) (0x80 | code & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+            }
+        }
+        return out;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,112 @@
+package jfr.live;
+
+import com.google.common.annotations.VisibleForTesting;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import jfr.analysis.MethodAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статистика вызовов методов в скользящих окнах {@link LiveWindow} по событиям Java Flight Recorder
+ * текущего процесса, без сохранения и разбора файлов записи.
+ *
+ * <p>Открывает {@link RecordingStream} и подписывается на события {@value #METHOD_INVOCATION} и
+ * {@value #FEIGN_EVENT}. Подписка включает эти события, даже если запись JFR не запущена.
+ * {@code MethodInvocation} записываются только для корневых вызовов длительнее {@code jfr.thresholdNanos},
+ * поэтому статистика окон описывает медленные запросы, а не все вызовы.</p>
+ *
+ * <p>Статистика накапливается в {@link WindowedStatistics} с ограниченной памятью.
+ * Буфер потока на диске хранится не дольше {@link #MAX_AGE}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LiveStatistics implements Closeable {
+    /**
+     * Событие вызова метода бина.
+     */
+    public static final String METHOD_INVOCATION = "MethodInvocation";
+    /**
+     * Событие Feign-запроса.
+     */
+    public static final String FEIGN_EVENT = "FeignEvent";
+    /**
+     * Максимальный возраст данных потока событий на диске.
+     */
+    static final Duration MAX_AGE = Duration.ofSeconds(10);
+
+    @VisibleForTesting
+    final WindowedStatistics statistics;
+    @VisibleForTesting
+    @Nullable RecordingStream stream;
+
+    /**
+     * Запускает поток событий.
+     */
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream recordingStream = newRecordingStream();
+        recordingStream.setMaxAge(MAX_AGE);
+        for (String event : Set.of(METHOD_INVOCATION, FEIGN_EVENT)) {
+            recordingStream.enable(event);
+            recordingStream.onEvent(event, this::accept);
+        }
+        recordingStream.onError(e -> log.warn("RecordingStream error", e));
+        recordingStream.startAsync();
+        stream = recordingStream;
+        log.info("LiveStatistics started");
+    }
+
+    @VisibleForTesting
+    RecordingStream newRecordingStream() {
+        return new RecordingStream();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * Возвращает статистику методов в скользящих окнах.
+     */
+    public WindowedStatistics statistics() {
+        return statistics;
+    }
+
+    @VisibleForTesting
+    void accept(RecordedEvent event) {
+        if (!MethodAggregator.isMethodEvent(event)) {
+            return;
+        }
+        long count = 1;
+        long sum = event.getDuration().toNanos();
+        long max = sum;
+        if (event.hasField("count") && event.hasField("sum")) {
+            count = event.getLong("count");
+            sum = event.getLong("sum");
+            max = event.hasField("max") ? event.getLong("max") : sum;
+        }
+        boolean error = event.hasField("exception") && event.getClass("exception") != null
+                || event.hasField("status") && event.getInt("status") >= 500;
+        statistics.record(MethodAggregator.key(event), nanos(event.getEndTime()), count, sum, max, error ? 1 : 0);
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * TimeUnit.SECONDS.toNanos(1) + instant.getNano();
+    }
+}
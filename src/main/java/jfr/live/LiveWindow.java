@@ -0,0 +1,71 @@
+package jfr.live;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Скользящее окно статистики {@link LiveStatistics}.
+ *
+ * <p>Окно делится на интервалы, статистика окна — сумма последних {@link #slots()} интервалов,
+ * включая текущий незавершённый, поэтому граница окна сдвигается с точностью до одного интервала.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public enum LiveWindow {
+    /**
+     * Последняя секунда, интервалы по 250 мс.
+     */
+    SECOND(Duration.ofSeconds(1), 4),
+    /**
+     * Последняя минута, интервалы по 5 с.
+     */
+    MINUTE(Duration.ofMinutes(1), 12),
+    /**
+     * Последние 5 минут, интервалы по 30 с.
+     */
+    FIVE_MINUTES(Duration.ofMinutes(5), 10);
+
+    private final Duration length;
+    private final int slots;
+
+    LiveWindow(Duration length, int slots) {
+        this.length = length;
+        this.slots = slots;
+    }
+
+    /**
+     * Возвращает длительность окна.
+     */
+    public Duration length() {
+        return length;
+    }
+
+    /**
+     * Возвращает количество интервалов окна.
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Возвращает длительность интервала, нс.
+     */
+    public long slotNanos() {
+        return length.toNanos() / slots;
+    }
+
+    /**
+     * Возвращает окно по имени: {@code 1s}, {@code 1m}, {@code 5m} или имени константы без учёта регистра.
+     *
+     * @param name имя
+     * @throws IllegalArgumentException если окно неизвестно
+     */
+    public static LiveWindow of(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "1s" -> SECOND;
+            case "1m" -> MINUTE;
+            case "5m" -> FIVE_MINUTES;
+            default -> valueOf(name.toUpperCase(Locale.ROOT));
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package jfr.live;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.analysis.MethodKey;
+import jfr.analysis.MethodStatistic;
+import jfr.stats.LatencyHistogram;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Скользящее окно статистики одного метода: кольцо интервалов фиксированной длительности.
+ *
+ * <p>Интервал переиспользуется, когда время события переходит в интервал с тем же номером по модулю размера кольца,
+ * гистограмма создаётся при первом событии интервала. Поэтому память ограничена количеством интервалов,
+ * а у редко вызываемых методов гистограммы большинства интервалов не создаются.</p>
+ *
+ * <p>Записывают поток {@link LiveStatistics} и потоки корневых вызовов через {@link WindowedStatistics},
+ * читают потоки запросов статистики. Счётчики интервала неблокирующие: их обновление и чтение не берут блокировок.
+ * Блокировку интервала берёт только запись, переводящая его на новый интервал времени, один раз за интервал:
+ * она обнуляет счётчики и только затем публикует новый номер интервала, поэтому записи нового интервала
+ * не теряются. Читатель может увидеть счётчики интервала, обновлённые не одновременно.</p>
+ *
+ * <p>В гистограмму записывается отдельным значением максимальное время вызова, остальные вызовы корневого вызова —
+ * их средним временем. Поэтому количество значений равно количеству вызовов, а максимум не сглаживается
+ * средним и попадает в p99.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+final class RollingWindow {
+    @VisibleForTesting
+    final long slotNanos;
+    @VisibleForTesting
+    final Slot[] slots;
+
+    RollingWindow(LiveWindow window) {
+        this.slotNanos = window.slotNanos();
+        this.slots = new Slot[window.slots()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Регистрирует вызовы метода.
+     *
+     * @param time   время события, нс от эпохи
+     * @param count  количество вызовов
+     * @param sum    суммарное собственное время, нс
+     * @param max    максимальное собственное время, нс
+     * @param errors количество ошибок
+     */
+    void record(long time, long count, long sum, long max, long errors) {
+        if (count <= 0) {
+            return;
+        }
+        long epoch = time / slotNanos;
+        Slot slot = slots[(int) Math.floorMod(epoch, slots.length)];
+        if (slot.epoch != epoch && !slot.advance(epoch)) {
+            return;
+        }
+        slot.count.add(count);
+        slot.sum.add(sum);
+        slot.max.accumulate(max);
+        if (errors != 0) {
+            slot.errors.add(errors);
+        }
+        LatencyHistogram histogram = slot.histogram;
+        histogram.record(max);
+        if (count > 1) {
+            histogram.record((sum - max) / (count - 1), count - 1);
+        }
+    }
+
+    /**
+     * Возвращает статистику окна, или null, если вызовов в окне не было.
+     *
+     * @param key метод
+     * @param now текущее время, нс от эпохи
+     */
+    @Nullable WindowStatistic statistic(MethodKey key, long now) {
+        long last = now / slotNanos;
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        long errors = 0;
+        LatencyHistogram.Snapshot histogram = null;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch;
+            if (epoch == Long.MIN_VALUE || epoch <= last - slots.length || epoch > last) {
+                continue;
+            }
+            count += slot.count.sum();
+            sum += slot.sum.sum();
+            max = Math.max(max, slot.max.get());
+            errors += slot.errors.sum();
+            LatencyHistogram.Snapshot snapshot = slot.histogram.snapshot();
+            histogram = histogram == null ? snapshot : histogram.merge(snapshot);
+        }
+        return histogram == null || count == 0 ? null
+                : new WindowStatistic(new MethodStatistic(key, count, sum, max, histogram), errors);
+    }
+
+    /**
+     * Возвращает время начала последнего интервала с вызовами, нс от эпохи, или {@link Long#MIN_VALUE}.
+     */
+    long lastTime() {
+        long epoch = Long.MIN_VALUE;
+        for (Slot slot : slots) {
+            epoch = Math.max(epoch, slot.epoch);
+        }
+        return epoch == Long.MIN_VALUE ? epoch : epoch * slotNanos;
+    }
+
+    /**
+     * Интервал окна.
+     */
+    @VisibleForTesting
+    static final class Slot {
+        /**
+         * Номер интервала времени, или {@link Long#MIN_VALUE}, если вызовов не было.
+         */
+        volatile long epoch = Long.MIN_VALUE;
+        final LongAdder count = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final LongAdder errors = new LongAdder();
+        /**
+         * Гистограмма, создаётся при первом переходе до публикации {@link #epoch}.
+         */
+        @Nullable LatencyHistogram histogram;
+
+        /**
+         * Переводит интервал на новый интервал времени.
+         *
+         * @param epoch номер интервала времени события
+         * @return false, если интервал уже перешёл на более поздний интервал времени и событие устарело
+         */
+        synchronized boolean advance(long epoch) {
+            if (this.epoch > epoch) {
+                return false;
+            }
+            if (this.epoch < epoch) {
+                if (histogram == null) {
+                    histogram = new LatencyHistogram();
+                } else {
+                    histogram.drain();
+                }
+                count.reset();
+                sum.reset();
+                max.reset();
+                errors.reset();
+                this.epoch = epoch;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package jfr.live;
+
+import jfr.analysis.MethodKey;
+import jfr.analysis.MethodStatistic;
+
+/**
+ * Статистика метода в скользящем окне.
+ *
+ * @param statistic статистика собственного времени выполнения
+ * @param errors    количество вызовов, завершившихся ошибкой
+ * @author Roman_Erzhukov
+ */
+public record WindowStatistic(MethodStatistic statistic, long errors) {
+    /**
+     * Возвращает ключ метода.
+     */
+    public MethodKey key() {
+        return statistic.key();
+    }
+
+    /**
+     * Возвращает долю вызовов, завершившихся ошибкой, от 0 до 1.
+     */
+    public double errorRate() {
+        return statistic.count() == 0 ? 0 : (double) errors / statistic.count();
+    }
+}
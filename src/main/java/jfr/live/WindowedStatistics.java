@@ -0,0 +1,167 @@
+package jfr.live;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.analysis.MethodKey;
+import jfr.logging.StatisticsSink;
+import jfr.stats.MethodTable;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика вызовов методов в скользящих окнах {@link LiveWindow}.
+ *
+ * <p>Наполняется событиями JFR через {@link LiveStatistics}, или напрямую из
+ * {@link jfr.logging.JfrLoggingServiceImpl} как {@link StatisticsSink}: тогда учитываются все вызовы,
+ * независимо от порога записи в JFR, с временем завершения корневого вызова.</p>
+ *
+ * <p>Память ограничена: не больше {@link #maxMethods} методов, у каждого по кольцу интервалов на окно,
+ * гистограмма интервала создаётся при первом событии в нём. Методы без вызовов дольше самого длинного окна
+ * вытесняются, когда место заканчивается, события новых методов сверх ограничения отбрасываются
+ * и учитываются в {@link #dropped()}.</p>
+ *
+ * <p>Ключи методов {@link StatisticsSink} берутся из {@link MethodTable} и создаются один раз на метод,
+ * поэтому приём статистики в потоке корневого вызова не создаёт объектов. Методы сверх {@link #maxMethods}
+ * учитываются как {@value MethodTable#OTHER}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public class WindowedStatistics implements StatisticsSink {
+    private static final LiveWindow[] WINDOWS = LiveWindow.values();
+    private static final LiveWindow LONGEST = LiveWindow.FIVE_MINUTES;
+
+    @VisibleForTesting
+    final Clock clock;
+    @VisibleForTesting
+    final int maxMethods;
+    @VisibleForTesting
+    final Map<MethodKey, RollingWindow[]> methods = new ConcurrentHashMap<>();
+    @VisibleForTesting
+    final MethodTable<MethodKey> keys;
+    @VisibleForTesting
+    final LongAdder dropped = new LongAdder();
+    @VisibleForTesting
+    volatile long evictedAt;
+
+    /**
+     * Создаёт статистику.
+     *
+     * @param clock      часы
+     * @param maxMethods максимальное количество методов
+     */
+    public WindowedStatistics(Clock clock, int maxMethods) {
+        this.clock = clock;
+        this.maxMethods = maxMethods;
+        this.keys = new MethodTable<>(maxMethods,
+                (beanClass, method, dimension) -> new MethodKey(LiveStatistics.METHOD_INVOCATION, beanClass,
+                        StatisticsSink.name(method, dimension)));
+    }
+
+    /**
+     * Возвращает статистику методов, вызывавшихся в окне.
+     *
+     * @param window окно
+     */
+    public List<WindowStatistic> statistics(LiveWindow window) {
+        long now = now();
+        var result = new ArrayList<WindowStatistic>(methods.size());
+        methods.forEach((key, windows) -> {
+            WindowStatistic statistic = windows[window.ordinal()].statistic(key, now);
+            if (statistic != null) {
+                result.add(statistic);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Возвращает статистику метода в окне, или null, если метод в окне не вызывался.
+     *
+     * @param key    метод
+     * @param window окно
+     */
+    public @Nullable WindowStatistic statistic(MethodKey key, LiveWindow window) {
+        RollingWindow[] windows = methods.get(key);
+        return windows == null ? null : windows[window.ordinal()].statistic(key, now());
+    }
+
+    /**
+     * Возвращает количество событий, отброшенных из-за ограничения количества методов.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Удаляет накопленную статистику всех методов.
+     */
+    public void reset() {
+        methods.clear();
+        dropped.reset();
+    }
+
+    @Override
+    public void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors) {
+        record(keys.get(beanClass, method), now(), count, sum, max, errors);
+    }
+
+    /**
+     * Регистрирует вызовы метода.
+     *
+     * @param key    метод
+     * @param time   время события, нс от эпохи
+     * @param count  количество вызовов
+     * @param sum    суммарное собственное время, нс
+     * @param max    максимальное собственное время, нс
+     * @param errors количество ошибок
+     */
+    public void record(MethodKey key, long time, long count, long sum, long max, long errors) {
+        RollingWindow[] windows = methods.get(key);
+        if (windows == null) {
+            if (methods.size() >= maxMethods && !evict(time)) {
+                dropped.increment();
+                return;
+            }
+            windows = methods.computeIfAbsent(key, k -> newWindows());
+        }
+        for (RollingWindow window : windows) {
+            window.record(time, count, sum, max, errors);
+        }
+    }
+
+    /**
+     * Вытесняет методы без вызовов в самом длинном окне, не чаще раза в интервал минутного окна.
+     *
+     * @param now текущее время, нс от эпохи
+     * @return есть ли место для нового метода
+     */
+    @VisibleForTesting
+    boolean evict(long now) {
+        if (now - evictedAt >= LiveWindow.MINUTE.slotNanos()) {
+            evictedAt = now;
+            long idle = now - LONGEST.length().toNanos();
+            methods.values().removeIf(windows -> windows[LONGEST.ordinal()].lastTime() < idle);
+        }
+        return methods.size() < maxMethods;
+    }
+
+    private long now() {
+        Instant instant = clock.instant();
+        return instant.getEpochSecond() * TimeUnit.SECONDS.toNanos(1) + instant.getNano();
+    }
+
+    private static RollingWindow[] newWindows() {
+        var windows = new RollingWindow[WINDOWS.length];
+        for (LiveWindow window : WINDOWS) {
+            windows[window.ordinal()] = new RollingWindow(window);
+        }
+        return windows;
+    }
+}
@@ -0,0 +1,36 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Асинхронный вызов, начатый в корневом вызове и завершающийся в другом потоке,
+ * см. {@link NonReentrantLoggingService#beginAsync()}.
+ *
+ * <p>Время вызова, завершившегося до окончания корневого вызова, попадает в его статистику: в лог и получателям.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class AsyncCall {
+    @VisibleForTesting
+    final AsyncStatistics statistics;
+    @VisibleForTesting
+    final Ticker ticker;
+    @VisibleForTesting
+    final long start;
+
+    /**
+     * Завершает вызов. Потокобезопасен.
+     *
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param failed    завершился ли вызов ошибкой
+     * @return учтён ли вызов в статистике корневого вызова; false — корневой вызов уже завершён
+     */
+    public boolean complete(Class<?> beanClass, Object method, boolean failed) {
+        return statistics.record(beanClass, method, ticker.read() - start, failed);
+    }
+}
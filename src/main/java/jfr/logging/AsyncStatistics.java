@@ -0,0 +1,57 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Статистика асинхронных вызовов корневого вызова, завершающихся в других потоках, см. {@link AsyncCall}.
+ *
+ * <p>{@link LoggingContext} не потокобезопасен, поэтому вызовы накапливаются здесь под блокировкой
+ * и переносятся в статистику контекста по окончании корневого вызова. Вызовы, завершившиеся позже, не учитываются.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+final class AsyncStatistics {
+    @VisibleForTesting
+    final HashMap<LoggingContext.Key, LoggingStatistic> statistics = new HashMap<>();
+    /**
+     * Завершён ли корневой вызов.
+     */
+    @VisibleForTesting
+    boolean closed;
+
+    /**
+     * Учитывает завершённый асинхронный вызов.
+     *
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param time      время выполнения, нс
+     * @param failed    завершился ли вызов ошибкой
+     * @return учтён ли вызов; false — корневой вызов уже завершён
+     */
+    synchronized boolean record(Class<?> beanClass, Object method, long time, boolean failed) {
+        if (closed) {
+            return false;
+        }
+        LoggingStatistic statistic = statistics.computeIfAbsent(LoggingContext.Key.of(beanClass, method),
+                key -> new LoggingStatistic());
+        statistic.add(time);
+        if (failed) {
+            statistic.addError();
+        }
+        return true;
+    }
+
+    /**
+     * Переносит статистику в статистику корневого вызова, последующие вызовы не учитываются.
+     *
+     * @param target статистика корневого вызова
+     */
+    synchronized void drainTo(Map<LoggingContext.Key, LoggingStatistic> target) {
+        closed = true;
+        statistics.forEach((key, statistic) -> target.computeIfAbsent(key, k -> new LoggingStatistic()).merge(statistic));
+        statistics.clear();
+    }
+}
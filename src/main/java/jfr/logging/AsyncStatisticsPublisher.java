@@ -0,0 +1,313 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронная передача статистики корневых вызовов в лог и получателям {@link StatisticsSink}.
+ *
+ * <p>По завершении корневого вызова бизнес-поток только копирует статистику методов в кольцевой буфер
+ * примитивных массивов: захватывает непрерывный диапазон ячеек одним CAS, заполняет их и публикует
+ * порядковые номера ячеек. Блокировок, форматирования строк и ввода-вывода на этом пути нет.
+ * Если места в буфере нет, статистика корневого вызова отбрасывается и учитывается в {@link #dropped()},
+ * бизнес-поток не ждёт.</p>
+ *
+ * <p>Единственный поток-потребитель забирает корневые вызовы пачками до {@link #batchSize} ячеек,
+ * форматирует строку статистики для лога, если он был включён при вызове, передаёт статистику методов
+ * получателям и вызывает {@link StatisticsSink#flush()} после каждой пачки. События JFR записываются
+ * в бизнес-потоке, как и раньше: событие хранит поток, в котором было записано.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class AsyncStatisticsPublisher implements Runnable, Closeable {
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @VisibleForTesting
+    final int capacity;
+    @VisibleForTesting
+    final int batchSize;
+    @VisibleForTesting
+    final List<StatisticsSink> sinks;
+    private final int mask;
+
+    /**
+     * Порядковый номер ячейки, опубликованной в ней последней, плюс один; 0 — ячейка пуста.
+     */
+    private final AtomicLongArray sequences;
+    /**
+     * Заголовок корневого вызова: количество следующих за ним ячеек методов, или -1 для ячейки метода.
+     */
+    private final int[] sizes;
+    private final @Nullable Object[] loggers;
+    private final @Nullable Object[] args;
+    private final @Nullable Object[] beanClasses;
+    private final @Nullable Object[] methods;
+    private final long[] pathIds;
+    private final int[] counts;
+    private final long[] sums;
+    private final long[] mins;
+    private final long[] maxs;
+    private final int[] errors;
+
+    /**
+     * Следующая свободная ячейка, изменяется производителями.
+     */
+    @VisibleForTesting
+    final AtomicLong tail = new AtomicLong();
+    /**
+     * Следующая ячейка для потребителя.
+     */
+    @VisibleForTesting
+    final AtomicLong head = new AtomicLong();
+    @VisibleForTesting
+    final LongAdder dropped = new LongAdder();
+    @VisibleForTesting
+    volatile boolean running;
+    @VisibleForTesting
+    @Nullable
+    Thread consumer;
+
+    /**
+     * Создаёт буфер.
+     *
+     * @param capacity  количество ячеек, округляется вверх до степени двойки
+     * @param batchSize максимальное количество ячеек в пачке
+     * @param sinks     получатели статистики
+     */
+    public AsyncStatisticsPublisher(int capacity, int batchSize, List<StatisticsSink> sinks) {
+        if (capacity < 2 || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " or batchSize " + batchSize);
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.batchSize = batchSize;
+        this.sinks = sinks;
+        mask = this.capacity - 1;
+        sequences = new AtomicLongArray(this.capacity);
+        sizes = new int[this.capacity];
+        loggers = new Object[this.capacity];
+        args = new Object[this.capacity];
+        beanClasses = new Object[this.capacity];
+        methods = new Object[this.capacity];
+        pathIds = new long[this.capacity];
+        counts = new int[this.capacity];
+        sums = new long[this.capacity];
+        mins = new long[this.capacity];
+        maxs = new long[this.capacity];
+        errors = new int[this.capacity];
+    }
+
+    /**
+     * Запускает поток-потребитель.
+     */
+    public synchronized void start() {
+        if (consumer == null) {
+            running = true;
+            consumer = new Thread(this, "jfr-statistics-publisher");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+    }
+
+    /**
+     * Останавливает поток-потребитель, дождавшись передачи опубликованной статистики.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumer = null;
+        }
+    }
+
+    /**
+     * Возвращает количество корневых вызовов, статистика которых отброшена из-за заполненного буфера.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Публикует статистику корневого вызова.
+     *
+     * @param logger     лог корневого вызова, или null, если DEBUG выключен
+     * @param beanClass  класс бина корневого вызова
+     * @param method     метод корневого вызова
+     * @param args       аргументы корневого вызова для лога, или null
+     * @param statistics статистика методов
+     * @return опубликована ли статистика, false — буфер заполнен
+     */
+    public boolean offer(@Nullable Logger logger, Class<?> beanClass, Object method, @Nullable List<?> args,
+                         Map<LoggingContext.Key, LoggingStatistic> statistics) {
+        int size = statistics.size();
+        long start = claim(size + 1);
+        if (start < 0) {
+            dropped.increment();
+            return false;
+        }
+        int index = (int) start & mask;
+        sizes[index] = size;
+        loggers[index] = logger;
+        this.args[index] = args;
+        beanClasses[index] = beanClass;
+        methods[index] = method;
+        long position = start;
+        for (Map.Entry<LoggingContext.Key, LoggingStatistic> entry : statistics.entrySet()) {
+            LoggingContext.Key key = entry.getKey();
+            LoggingStatistic statistic = entry.getValue();
+            index = (int) ++position & mask;
+            sizes[index] = -1;
+            beanClasses[index] = key.beanClass();
+            methods[index] = key.method();
+            pathIds[index] = key.pathId();
+            counts[index] = statistic.getCount();
+            sums[index] = statistic.getSum();
+            mins[index] = statistic.getMin();
+            maxs[index] = statistic.getMax();
+            errors[index] = statistic.getErrors();
+        }
+        for (long i = start; i <= position; i++) {
+            sequences.lazySet((int) i & mask, i + 1);
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+        }
+        while (drain() > 0) {
+            log.trace("run: drain on close");
+        }
+    }
+
+    /**
+     * Передаёт получателям пачку опубликованных корневых вызовов.
+     *
+     * @return количество обработанных ячеек
+     */
+    @VisibleForTesting
+    int drain() {
+        long position = head.get();
+        long end = position;
+        while (end - position < batchSize && sequences.get((int) end & mask) == end + 1) {
+            int size = sizes[(int) end & mask];
+            long last = end + size;
+            if (sequences.get((int) last & mask) != last + 1) {
+                break; // Производитель ещё заполняет ячейки корневого вызова.
+            }
+            process(end, size);
+            end = last + 1;
+        }
+        if (end == position) {
+            return 0;
+        }
+        for (StatisticsSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                log.warn("flush {}", sink, e);
+            }
+        }
+        for (long i = position; i < end; i++) {
+            int index = (int) i & mask;
+            loggers[index] = null;
+            args[index] = null;
+            beanClasses[index] = null;
+            methods[index] = null;
+        }
+        head.set(end);
+        return (int) (end - position);
+    }
+
+    /**
+     * Возвращает первую ячейку захваченного диапазона, или -1, если места нет.
+     *
+     * @param size количество ячеек
+     */
+    private long claim(int size) {
+        if (size > capacity) {
+            return -1;
+        }
+        while (true) {
+            long start = tail.get();
+            if (start + size - head.get() > capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(start, start + size)) {
+                return start;
+            }
+        }
+    }
+
+    private void process(long start, int size) {
+        int root = (int) start & mask;
+        if (loggers[root] instanceof Logger logger) {
+            try {
+                logger.debug("{} {} {} statistics: {}", ((Class<?>) beanClasses[root]).getSimpleName(), methods[root],
+                        args[root], format(start, size));
+            } catch (RuntimeException e) {
+                log.warn("debug {}", methods[root], e);
+            }
+        }
+        for (StatisticsSink sink : sinks) {
+            for (long i = start + 1; i <= start + size; i++) {
+                int index = (int) i & mask;
+                try {
+                    sink.accept((Class<?>) beanClasses[index], methods[index], pathIds[index], counts[index],
+                            sums[index], mins[index], maxs[index], errors[index]);
+                } catch (RuntimeException e) {
+                    log.warn("accept {}", sink, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Форматирует статистику корневого вызова так же, как {@link LoggingContext#toStatistics()}.
+     */
+    @VisibleForTesting
+    String format(long start, int size) {
+        var sb = new StringBuilder();
+        Integer[] order = new Integer[size];
+        long time = 0;
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) (start + 1 + i) & mask;
+            time += sums[order[i]];
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> sums[i]).reversed());
+        sb.append(DurationFormatUtils.formatDurationHMS(time / 1000_000));
+        for (int index : order) {
+            LoggingStatistic.appendTo(sb, (Class<?>) beanClasses[index], methods[index], counts[index], sums[index],
+                    mins[index], maxs[index], errors[index]);
+            if (pathIds[index] != 0) {
+                sb.append(", path=").append(Long.toHexString(pathIds[index]));
+            }
+        }
+        return sb.toString();
+    }
+}
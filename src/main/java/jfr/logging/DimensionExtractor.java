@@ -0,0 +1,28 @@
+package jfr.logging;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Извлекает измерение вызова метода бина: например, арендатора, маршрут HTTP или выбранный аргумент.
+ *
+ * <p>Статистика метода с измерением учитывается отдельно для каждого значения в логе и у получателей
+ * {@link StatisticsSink}: методом вызова становится {@link DimensionalMethod}. События JFR не меняются.
+ * Количество значений на метод ограничено {@link Dimensions}, остальные учитываются как
+ * {@value Dimensions#OTHER}.</p>
+ *
+ * <p>Вызывается в начале каждого вызова каждого регистрируемого метода, поэтому должен быть быстрым
+ * и не создавать лишних объектов.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@FunctionalInterface
+public interface DimensionExtractor {
+    /**
+     * Возвращает значение измерения вызова.
+     *
+     * @param joinPoint точка вызова
+     * @return значение, или null, если у вызова нет измерения
+     */
+    @Nullable
+    String extract(LoggingJoinPoint joinPoint);
+}
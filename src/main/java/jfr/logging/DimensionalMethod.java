@@ -0,0 +1,18 @@
+package jfr.logging;
+
+/**
+ * Метод бина со значением измерения, см. {@link DimensionExtractor}.
+ *
+ * <p>Экземпляры создаются {@link Dimensions} один раз на метод и значение, поэтому сравниваются быстро
+ * и пригодны как ключ статистики.</p>
+ *
+ * @param method    метод, как его возвращает {@link LoggingJoinPoint#method()}
+ * @param dimension значение измерения
+ * @author Roman_Erzhukov
+ */
+public record DimensionalMethod(Object method, String dimension) {
+    @Override
+    public String toString() {
+        return method + "[" + dimension + "]";
+    }
+}
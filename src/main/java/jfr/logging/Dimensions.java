@@ -0,0 +1,113 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Значения измерений методов бинов с ограниченным количеством значений на метод.
+ *
+ * <p>Для каждого метода хранится не больше {@link #maxPerMethod} значений, остальные значения
+ * учитываются как {@value #OTHER}. Поэтому количество ключей статистики в {@link LoggingContext}
+ * и у получателей {@link StatisticsSink} растёт не больше чем в {@code maxPerMethod + 1} раз.
+ * Поиск известного значения не создаёт объектов: {@link ClassValue} хранит таблицу методов класса,
+ * таблица метода — {@link DimensionalMethod} по значению.</p>
+ *
+ * <p>Исключение из {@link DimensionExtractor} не прерывает вызов: вызов учитывается без измерения,
+ * первое исключение пишется в лог.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class Dimensions {
+    /**
+     * Значение измерения для значений сверх ограничения.
+     */
+    public static final String OTHER = "other";
+
+    @VisibleForTesting
+    final DimensionExtractor extractor;
+    @VisibleForTesting
+    final int maxPerMethod;
+    @VisibleForTesting
+    final ClassValue<Map<Object, MethodDimensions>> methods = new ClassValue<>() {
+        @Override
+        protected Map<Object, MethodDimensions> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    /**
+     * Создаёт измерения.
+     *
+     * @param extractor    извлекает значение измерения вызова
+     * @param maxPerMethod максимальное количество значений на метод
+     */
+    public Dimensions(DimensionExtractor extractor, int maxPerMethod) {
+        if (maxPerMethod < 1) {
+            throw new IllegalArgumentException("Invalid maxPerMethod " + maxPerMethod);
+        }
+        this.extractor = extractor;
+        this.maxPerMethod = maxPerMethod;
+    }
+
+    /**
+     * Значения измерения метода.
+     */
+    @VisibleForTesting
+    static class MethodDimensions {
+        final Map<String, DimensionalMethod> values = new ConcurrentHashMap<>();
+        final DimensionalMethod other;
+
+        MethodDimensions(Object method) {
+            other = new DimensionalMethod(method, OTHER);
+        }
+    }
+
+    /**
+     * Возвращает метод вызова для ключа статистики: {@link LoggingJoinPoint#method()}, если у вызова нет измерения,
+     * иначе {@link DimensionalMethod}.
+     *
+     * @param targetClass класс бина
+     * @param joinPoint   точка вызова
+     */
+    public Object method(Class<?> targetClass, LoggingJoinPoint joinPoint) {
+        Object method = joinPoint.method();
+        String value = extract(joinPoint);
+        if (value == null) {
+            return method;
+        }
+        MethodDimensions dimensions = methods.get(targetClass).computeIfAbsent(method, MethodDimensions::new);
+        DimensionalMethod result = dimensions.values.get(value);
+        if (result != null) {
+            return result;
+        }
+        synchronized (dimensions) {
+            result = dimensions.values.get(value);
+            if (result == null) {
+                if (dimensions.values.size() >= maxPerMethod) {
+                    return dimensions.other;
+                }
+                result = new DimensionalMethod(method, value);
+                dimensions.values.put(value, result);
+            }
+            return result;
+        }
+    }
+
+    private @Nullable String extract(LoggingJoinPoint joinPoint) {
+        try {
+            return extractor.extract(joinPoint);
+        } catch (RuntimeException e) {
+            if (failed.compareAndSet(false, true)) {
+                log.warn("extract {}", joinPoint, e);
+            }
+            return null;
+        }
+    }
+}
@@ -8,10 +8,16 @@ import jfr.event.NonReentrantMethodEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Регистрирует в лог и журнал Java Flight Recorder статистику времени выполнения бизнес-метода.
@@ -21,7 +27,8 @@ import java.util.function.Function;
  */
 @Slf4j
 @RequiredArgsConstructor
-public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> implements JfrLoggingService, NonReentrantLoggingService<E> {
+public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> implements JfrLoggingService, NonReentrantLoggingService<E>,
+        EnvironmentAware {
     @VisibleForTesting
     static final ThreadLocal<LoggingContext> context = new ThreadLocal<>();
 
@@ -29,22 +36,122 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
     private final Function<Class<?>, Logger> loggerFactory;
 
     /**
-     * Позволяет включать дополнительную запись stacktrace-ов ошибок.
+     * Текущие настройки, заменяются целиком, см. {@link #updateConfig(UnaryOperator)}.
      *
-     * <p>Обычно нет необходимости включать.
-     * За логирование исключения отвечает перехвативший её код, получится двойная запись в лог.
-     * Может помочь, если код подавляет исключения.</p>
+     * <p>Читаются один раз при начале корневого вызова, вложенные вызовы берут настройки из {@link LoggingContext}.</p>
      */
-    @Value("${jfr.logErrorEnabled:false}")
     @VisibleForTesting
-    boolean logErrorEnabled;
+    volatile LoggingConfig config = LoggingConfig.DEFAULT;
 
     /**
-     * Устанавливает пороговую длительность для записи в JFR, нс.
+     * Получатели статистики и асинхронная передача из контекста Spring, или null вне Spring.
+     *
+     * <p>Получаются при первом вызове, см. {@link #getSinks()}: сервис создаётся рано, а получатели зависят
+     * от других компонентов, например, {@code MeterRegistry}, которые должны быть обработаны до них.</p>
+     */
+    @Autowired(required = false)
+    @Nullable
+    @VisibleForTesting
+    ObjectProvider<StatisticsSink> sinkProvider;
+    @Autowired(required = false)
+    @Nullable
+    @VisibleForTesting
+    ObjectProvider<AsyncStatisticsPublisher> publisherProvider;
+
+    /**
+     * Получатели статистики вызовов по завершении корневого вызова, см. {@link StatisticsSink},
+     * или null, если ещё не получены.
+     *
+     * <p>Если получатели есть, статистика собирается, даже когда выключены и лог, и запись JFR.</p>
      */
-    @Value("${jfr.thresholdNanos:10000000}")
+    @Nullable
     @VisibleForTesting
-    long thresholdNanos;
+    volatile List<StatisticsSink> sinks;
+
+    /**
+     * Асинхронная передача статистики в лог и получателям, или null, если статистика передаётся в потоке вызова.
+     *
+     * <p>Получается вместе с {@link #sinks}.</p>
+     */
+    @Nullable
+    @VisibleForTesting
+    AsyncStatisticsPublisher publisher;
+
+    /**
+     * Измерения вызовов, или null, если статистика только по методам.
+     */
+    @Autowired(required = false)
+    @Nullable
+    @VisibleForTesting
+    Dimensions dimensions;
+
+    @Nullable
+    @VisibleForTesting
+    Environment environment;
+
+    /**
+     * Читает настройки из свойств {@code jfr.*}.
+     *
+     * @param environment окружение Spring
+     * @throws IllegalArgumentException если настройки недопустимы
+     */
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+        setConfig(LoggingConfig.of(environment));
+    }
+
+    /**
+     * Перечитывает настройки из свойств {@code jfr.*} окружения Spring.
+     *
+     * <p>Недопустимые значения не применяются: остаются текущие настройки, ошибка записывается в лог.</p>
+     *
+     * @return применены ли новые настройки
+     */
+    public boolean refreshConfig() {
+        Environment environment = this.environment;
+        if (environment == null) {
+            return false;
+        }
+        LoggingConfig refreshed;
+        try {
+            refreshed = LoggingConfig.of(environment);
+        } catch (RuntimeException e) {
+            log.warn("refreshConfig: invalid jfr.* properties, keeping {}", config, e);
+            return false;
+        }
+        setConfig(refreshed);
+        return true;
+    }
+
+    /**
+     * Возвращает текущие настройки.
+     */
+    public LoggingConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Заменяет настройки: новые корневые вызовы используют их сразу, начатые дорабатывают со старыми.
+     *
+     * @param config настройки
+     */
+    public synchronized void setConfig(LoggingConfig config) {
+        log.info("setConfig {}", config);
+        this.config = config;
+    }
+
+    /**
+     * Изменяет настройки атомарно относительно других изменений.
+     *
+     * @param update возвращает новые настройки по текущим
+     * @return новые настройки
+     */
+    public synchronized LoggingConfig updateConfig(UnaryOperator<LoggingConfig> update) {
+        LoggingConfig updated = update.apply(config);
+        setConfig(updated);
+        return updated;
+    }
 
     @Override
     public Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -80,9 +187,11 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
     }
 
     @Override
-    public void before(LoggingJoinPoint joinPoint, E event) {
+    @Nullable
+    public NonReentrantHandle before(LoggingJoinPoint joinPoint, E event) {
         log.trace("before {} {}", joinPoint, event);
-        doBefore(joinPoint, false, event, log);
+        LoggingContext context = doBefore(joinPoint, false, event, log);
+        return context == null ? null : context.nonReentrant;
     }
 
     @VisibleForTesting
@@ -91,7 +200,8 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
         LoggingContext current = getContext();
         boolean debugEnabled = logger.isDebugEnabled();
         boolean eventEnabled = event.isEnabled();
-        if (!debugEnabled && !eventEnabled || current == null && !methodInvocationEvent) { // Первым вызовом обязан идти MethodInvocationEvent.
+        boolean collect = debugEnabled || eventEnabled || !getSinks().isEmpty();
+        if (!collect || current == null && !methodInvocationEvent) { // Первым вызовом обязан идти MethodInvocationEvent.
             // NonReentrantMethodEvent предназначен для случаев, когда невозможно обеспечить гарантию вызова afterReturning/afterThrowable.
             // Когда вызова afterReturning/afterThrowable нет, то очистка контекста может
             // не выполниться вовсе, что приведёт к утечке памяти. Лучше не записывать в лог и JFR вовсе, чем вызвать утечку.
@@ -100,17 +210,22 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
                     joinPoint, event, debugEnabled, eventEnabled, current);
             return null;
         }
-        LoggingContext context = current != null ? current : createContext(joinPoint);
+        LoggingConfig config = current != null ? current.getConfig() : this.config;
         Class<?> targetClass = joinPoint.targetClass();
+        if (!config.includes(targetClass)) {
+            log.trace("doBefore - end {} {}: excluded {} => null", joinPoint, event, targetClass);
+            return null;
+        }
+        LoggingContext context = current != null ? current : createContext(joinPoint, config);
         var callback = new LoggingCallback(
                 joinPoint,
                 eventEnabled ? event : null,
                 debugEnabled ? loggerFactory.apply(targetClass) : null,
-                logErrorEnabled,
+                config.isLogErrorEnabled(),
                 joinPoint.name()
                         .toString(),
                 targetClass,
-                joinPoint.method());
+                dimensions == null ? joinPoint.method() : dimensions.method(targetClass, joinPoint));
         if (methodInvocationEvent) {
             context.before(callback, ticker);
         } else {
@@ -124,8 +239,23 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
     }
 
     @VisibleForTesting
-    LoggingContext createContext(LoggingJoinPoint joinPoint) {
-        return new LoggingContext(joinPoint, thresholdNanos);
+    LoggingContext createContext(LoggingJoinPoint joinPoint, LoggingConfig config) {
+        return new LoggingContext(joinPoint, config, config.sample(), getSinks(), publisher);
+    }
+
+    /**
+     * Возвращает получателей статистики, при первом вызове получает их и {@link #publisher} из контекста Spring.
+     */
+    @VisibleForTesting
+    List<StatisticsSink> getSinks() {
+        List<StatisticsSink> result = sinks;
+        if (result == null) {
+            if (publisherProvider != null) {
+                publisher = publisherProvider.getIfAvailable();
+            }
+            result = sinks = sinkProvider == null ? List.of() : sinkProvider.orderedStream().toList();
+        }
+        return result;
     }
 
     @Override
@@ -137,6 +267,15 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
         }
     }
 
+    @Override
+    public void afterReturning(@Nullable NonReentrantHandle handle, Object retVal) {
+        LoggingContext context = getContext();
+        log.trace("afterReturning handle={} context={}", handle, context);
+        if (context != null && handle instanceof NonReentrantCallback nonReentrant) {
+            context.afterReturningNonReentrant(nonReentrant, retVal);
+        }
+    }
+
     @VisibleForTesting
     void doAfterReturning(LoggingContext context, LoggingJoinPoint joinPoint, Object retVal) {
         log.trace("doAfterReturning {} {}", joinPoint, context);
@@ -154,6 +293,15 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
         }
     }
 
+    @Override
+    public void afterThrowing(@Nullable NonReentrantHandle handle, Throwable cause) {
+        LoggingContext context = getContext();
+        log.trace("afterThrowing handle={} context={}", handle, context);
+        if (context != null && handle instanceof NonReentrantCallback nonReentrant) {
+            context.afterThrowingNonReentrant(nonReentrant, cause);
+        }
+    }
+
     @VisibleForTesting
     void doAfterThrowing(LoggingContext context, LoggingJoinPoint joinPoint, Throwable cause) {
         log.trace("doAfterThrowing {} {}", context, joinPoint);
@@ -162,6 +310,21 @@ public final class JfrLoggingServiceImpl<E extends NonReentrantMethodEvent> impl
         }
     }
 
+    @Override
+    public void attachRoot(NonReentrantMethodEvent event) {
+        LoggingContext context = getContext();
+        if (context != null) {
+            context.attachRoot(event);
+        }
+    }
+
+    @Override
+    @Nullable
+    public AsyncCall beginAsync() {
+        LoggingContext context = getContext();
+        return context == null ? null : context.beginAsync(ticker);
+    }
+
     @VisibleForTesting
     LoggingContext getContext() {
         return context.get();
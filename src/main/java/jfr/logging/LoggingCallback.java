@@ -44,6 +44,26 @@ final class LoggingCallback {
     @Nullable
     @VisibleForTesting
     LoggingCallback prev;
+    /**
+     * Хеш пути вызова от корневого метода, или 0, если статистика по путям вызовов выключена.
+     */
+    @VisibleForTesting
+    long pathId;
+    /**
+     * Хеш пути родительского вызова, или 0.
+     */
+    @VisibleForTesting
+    long parentPathId;
+    /**
+     * Хеш пути, который продолжают вложенные вызовы: глубже предельной глубины путь не растёт.
+     */
+    @VisibleForTesting
+    long prefixId;
+    /**
+     * Глубина вызова, 0 для корневого.
+     */
+    @VisibleForTesting
+    int depth;
     @VisibleForTesting
     Stopwatch stopwatch;
     @VisibleForTesting
@@ -63,6 +83,46 @@ final class LoggingCallback {
         beginLogger();
     }
 
+    /**
+     * Вычисляет путь вызова.
+     *
+     * <p>Путь хранится в кадре одним хешем: хеш вложенного вызова вычисляется по хешу родителя и методу
+     * без обхода стека. Вызовы глубже {@code maxDepth} продолжают путь предка на предельной глубине,
+     * поэтому количество путей ограничено и при рекурсии.</p>
+     *
+     * @param prev     предыдущий обработчик, или null для корневого вызова
+     * @param maxDepth максимальная глубина пути
+     */
+    public void enterPath(@Nullable LoggingCallback prev, int maxDepth) {
+        long methodId = 31L * targetClass.getName().hashCode() + name.hashCode();
+        if (prev == null) {
+            depth = 0;
+            parentPathId = 0;
+        } else {
+            depth = prev.depth + 1;
+            parentPathId = prev.prefixId;
+        }
+        pathId = pathId(parentPathId, methodId);
+        prefixId = depth < maxDepth ? pathId : parentPathId;
+    }
+
+    /**
+     * Возвращает хеш пути вложенного вызова, не равный 0.
+     *
+     * @param parentPathId хеш пути родителя, или 0
+     * @param methodId     хеш метода
+     */
+    @VisibleForTesting
+    static long pathId(long parentPathId, long methodId) {
+        long h = parentPathId * 0x9E3779B97F4A7C15L + methodId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
     /**
      * Выполняется в случае успешного выполнения бизнес-метода.
      *
@@ -73,7 +133,7 @@ final class LoggingCallback {
     public LoggingCallback afterReturning(LoggingContext context, Object retVal) {
         if (stopwatch != null) {
             var e = (MethodInvocationEvent) event;
-            stop(context, e);
+            stop(context, e, false);
             logSuccess(retVal);
             return after(context, e);
         }
@@ -102,7 +162,7 @@ final class LoggingCallback {
     public LoggingCallback afterThrowing(LoggingContext context, Throwable thrown) {
         if (stopwatch != null) {
             var e = (MethodInvocationEvent) event;
-            stop(context, e);
+            stop(context, e, true);
             logFailure(thrown);
             return after(context, e);
         }
@@ -143,6 +203,10 @@ final class LoggingCallback {
         if (event != null) {
             event.beanClass = targetClass;
             event.method = name;
+            if (event instanceof MethodInvocationEvent e) {
+                e.pathId = pathId;
+                e.parentPathId = parentPathId;
+            }
             event.begin();
         }
         log.trace("beginEvent {} - end", event);
@@ -157,7 +221,7 @@ final class LoggingCallback {
     }
 
     @VisibleForTesting
-    void stop(LoggingContext context, MethodInvocationEvent event) {
+    void stop(LoggingContext context, MethodInvocationEvent event, boolean failed) {
         if (stopwatch == null || !stopwatch.isRunning()) {
             return;
         }
@@ -165,8 +229,11 @@ final class LoggingCallback {
         if (prev != null) {
             prev.resume();
         }
-        context.getStatistic(targetClass, method)
-                .update(stopwatch, event);
+        LoggingStatistic statistic = context.getStatistic(targetClass, method, pathId);
+        statistic.update(stopwatch, event);
+        if (failed) {
+            statistic.addError();
+        }
     }
 
     @VisibleForTesting
@@ -202,8 +269,12 @@ final class LoggingCallback {
 
     @VisibleForTesting
     void collectStatistic(LoggingContext context, MethodInvocationEvent event) {
-        if (logger != null) {
-            logger.debug("{} {} {} statistics: {}", targetClass.getSimpleName(), method, args, context.toStatistics());
+        context.mergeAsync();
+        if (!context.publishAsync(logger, targetClass, method, args)) {
+            if (logger != null) {
+                logger.debug("{} {} {} statistics: {}", targetClass.getSimpleName(), method, args, context.toStatistics());
+            }
+            context.publish();
         }
         if (event != null) {
             context.commit(event);
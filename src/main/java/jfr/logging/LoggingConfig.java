@@ -0,0 +1,195 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Неизменяемые настройки {@link JfrLoggingServiceImpl}.
+ *
+ * <p>Сервис читает настройки одним чтением volatile-поля в начале корневого вызова, вложенные вызовы
+ * используют те же настройки. Изменение настроек во время работы заменяет объект целиком, поэтому корневой вызов
+ * видит согласованные значения от начала до конца.</p>
+ *
+ * <p>Фильтры {@code include} и {@code exclude} — регулярные выражения для имени класса бина, пустая строка —
+ * без фильтра. Результат проверки класса кешируется в {@link ClassValue} этого объекта настроек.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Getter
+@ToString
+public final class LoggingConfig {
+    /**
+     * Настройки по умолчанию.
+     */
+    public static final LoggingConfig DEFAULT = new LoggingConfig(false, 10_000_000, 0, 1, "", "");
+
+    /**
+     * Позволяет включать дополнительную запись stacktrace-ов ошибок.
+     *
+     * <p>Обычно нет необходимости включать.
+     * За логирование исключения отвечает перехвативший её код, получится двойная запись в лог.
+     * Может помочь, если код подавляет исключения.</p>
+     */
+    private final boolean logErrorEnabled;
+    /**
+     * Пороговая длительность для записи в JFR, нс.
+     */
+    private final long thresholdNanos;
+    /**
+     * Максимальная глубина пути вызова для статистики по путям, 0 — статистика по методам.
+     *
+     * <p>Позволяет различать время метода, вызванного из разных родителей, ценой большего количества событий.</p>
+     */
+    private final int callPathDepth;
+    /**
+     * Записывать в JFR события {@code MethodInvocation} одного из {@code sampling} корневых вызовов, 1 — все.
+     *
+     * <p>Лог и получатели статистики {@link StatisticsSink} получают все вызовы.</p>
+     */
+    private final int sampling;
+    /**
+     * Регулярное выражение для имён классов бинов, которые регистрируются, или пустая строка.
+     */
+    private final String include;
+    /**
+     * Регулярное выражение для имён классов бинов, которые не регистрируются, или пустая строка.
+     */
+    private final String exclude;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final @Nullable Pattern includePattern;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final @Nullable Pattern excludePattern;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final ClassValue<Boolean> included = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return matches(type.getName());
+        }
+    };
+
+    /**
+     * Создаёт настройки.
+     *
+     * @param logErrorEnabled включает запись stacktrace-ов ошибок
+     * @param thresholdNanos  пороговая длительность для записи в JFR, нс
+     * @param callPathDepth   максимальная глубина пути вызова, или 0
+     * @param sampling        записывать в JFR один из {@code sampling} корневых вызовов
+     * @param include         регулярное выражение для регистрируемых классов, или пустая строка
+     * @param exclude         регулярное выражение для нерегистрируемых классов, или пустая строка
+     * @throws IllegalArgumentException если значение недопустимо
+     */
+    public LoggingConfig(boolean logErrorEnabled, long thresholdNanos, int callPathDepth, int sampling,
+                         String include, String exclude) {
+        if (thresholdNanos < 0) {
+            throw new IllegalArgumentException("Negative thresholdNanos: " + thresholdNanos);
+        }
+        if (callPathDepth < 0) {
+            throw new IllegalArgumentException("Negative callPathDepth: " + callPathDepth);
+        }
+        if (sampling < 1) {
+            throw new IllegalArgumentException("sampling must be positive: " + sampling);
+        }
+        this.logErrorEnabled = logErrorEnabled;
+        this.thresholdNanos = thresholdNanos;
+        this.callPathDepth = callPathDepth;
+        this.sampling = sampling;
+        this.include = include;
+        this.exclude = exclude;
+        includePattern = include.isEmpty() ? null : Pattern.compile(include);
+        excludePattern = exclude.isEmpty() ? null : Pattern.compile(exclude);
+    }
+
+    /**
+     * Читает настройки из свойств {@code jfr.*}.
+     *
+     * @param properties свойства
+     */
+    public static LoggingConfig of(PropertyResolver properties) {
+        return new LoggingConfig(
+                properties.getProperty("jfr.logErrorEnabled", Boolean.class, DEFAULT.logErrorEnabled),
+                properties.getProperty("jfr.thresholdNanos", Long.class, DEFAULT.thresholdNanos),
+                properties.getProperty("jfr.callPath.depth", Integer.class, DEFAULT.callPathDepth),
+                properties.getProperty("jfr.sampling", Integer.class, DEFAULT.sampling),
+                properties.getProperty("jfr.include", DEFAULT.include),
+                properties.getProperty("jfr.exclude", DEFAULT.exclude));
+    }
+
+    /**
+     * Проверяет, регистрируются ли вызовы методов бина.
+     *
+     * @param beanClass класс бина
+     */
+    public boolean includes(Class<?> beanClass) {
+        return includePattern == null && excludePattern == null || included.get(beanClass);
+    }
+
+    /**
+     * Решает, записывать ли в JFR очередной корневой вызов.
+     */
+    public boolean sample() {
+        return sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0;
+    }
+
+    /**
+     * Возвращает копию с другим признаком записи stacktrace-ов ошибок.
+     *
+     * @param logErrorEnabled включает запись stacktrace-ов ошибок
+     */
+    public LoggingConfig withLogErrorEnabled(boolean logErrorEnabled) {
+        return new LoggingConfig(logErrorEnabled, thresholdNanos, callPathDepth, sampling, include, exclude);
+    }
+
+    /**
+     * Возвращает копию с другим порогом записи в JFR.
+     *
+     * @param thresholdNanos пороговая длительность для записи в JFR, нс
+     */
+    public LoggingConfig withThresholdNanos(long thresholdNanos) {
+        return new LoggingConfig(logErrorEnabled, thresholdNanos, callPathDepth, sampling, include, exclude);
+    }
+
+    /**
+     * Возвращает копию с другой глубиной пути вызова.
+     *
+     * @param callPathDepth максимальная глубина пути вызова, или 0
+     */
+    public LoggingConfig withCallPathDepth(int callPathDepth) {
+        return new LoggingConfig(logErrorEnabled, thresholdNanos, callPathDepth, sampling, include, exclude);
+    }
+
+    /**
+     * Возвращает копию с другой частотой записи корневых вызовов в JFR.
+     *
+     * @param sampling записывать в JFR один из {@code sampling} корневых вызовов
+     */
+    public LoggingConfig withSampling(int sampling) {
+        return new LoggingConfig(logErrorEnabled, thresholdNanos, callPathDepth, sampling, include, exclude);
+    }
+
+    /**
+     * Возвращает копию с другими фильтрами классов бинов.
+     *
+     * @param include регулярное выражение для регистрируемых классов, или пустая строка
+     * @param exclude регулярное выражение для нерегистрируемых классов, или пустая строка
+     */
+    public LoggingConfig withPatterns(String include, String exclude) {
+        return new LoggingConfig(logErrorEnabled, thresholdNanos, callPathDepth, sampling, include, exclude);
+    }
+
+    @VisibleForTesting
+    boolean matches(String className) {
+        return (includePattern == null || includePattern.matcher(className).matches())
+                && (excludePattern == null || !excludePattern.matcher(className).matches());
+    }
+}
@@ -0,0 +1,36 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Перечитывает настройки {@link JfrLoggingServiceImpl} при изменении свойств {@code jfr.*} в окружении Spring Cloud:
+ * {@code /actuator/refresh}, {@code /actuator/env}, обновление Spring Cloud Config или Kubernetes ConfigMap.
+ *
+ * <p>Новые настройки применяются к следующим корневым вызовам без перезапуска приложения.
+ * Изменения, сделанные через JMX, действуют до следующего изменения свойств {@code jfr.*}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoggingConfigRefresher implements ApplicationListener<EnvironmentChangeEvent> {
+    /**
+     * Префикс свойств настроек.
+     */
+    public static final String PREFIX = "jfr.";
+
+    @VisibleForTesting
+    final JfrLoggingServiceImpl<?> service;
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX))) {
+            log.debug("onApplicationEvent {}", event.getKeys());
+            service.refreshConfig();
+        }
+    }
+}
@@ -6,15 +6,18 @@ import com.google.common.base.Ticker;
 import jfr.event.AbstractMethodEvent;
 import jfr.event.MethodInvocationEvent;
 import jfr.event.NonReentrantMethodEvent;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.springframework.core.log.LogMessage;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Predicate;
@@ -28,10 +31,32 @@ import java.util.function.Predicate;
 @ToString(onlyExplicitlyIncluded = true)
 @RequiredArgsConstructor
 final class LoggingContext {
+    /**
+     * Максимальное количество незавершённых вызовов методов, не допускающих вложенные вызовы.
+     *
+     * <p>Вызов, для которого не пришло завершение, например, запрос Feign с ошибкой соединения, остаётся в списке
+     * до конца корневого вызова. При превышении ограничения самый старый незавершённый вызов вытесняется без записи,
+     * поэтому длинный корневой вызов не накапливает их неограниченно, а обход списка при выходе из метода
+     * остаётся коротким.</p>
+     */
+    @VisibleForTesting
+    static final int MAX_NON_REENTRANT = 16;
+
+    /**
+     * Ключ статистики.
+     *
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param pathId    хеш пути вызова, или 0, если статистика по путям вызовов выключена
+     */
     @VisibleForTesting
-    record Key(Class<?> beanClass, Object method) {
+    record Key(Class<?> beanClass, Object method, long pathId) {
         static Key of(Class<?> beanClass, Object method) {
-            return new Key(beanClass, method);
+            return new Key(beanClass, method, 0);
+        }
+
+        static Key of(Class<?> beanClass, Object method, long pathId) {
+            return new Key(beanClass, method, pathId);
         }
     }
 
@@ -42,12 +67,54 @@ final class LoggingContext {
     final Logger logger;
     @VisibleForTesting
     final long thresholdNanos;
+    /**
+     * Максимальная глубина пути вызова для статистики по путям, или 0, если статистика по методам.
+     */
+    @VisibleForTesting
+    final int callPathDepth;
+    /**
+     * Получатели статистики по завершении корневого вызова.
+     */
+    @VisibleForTesting
+    final List<StatisticsSink> sinks;
+    /**
+     * Настройки, прочитанные при начале корневого вызова, вложенные вызовы используют их же.
+     */
+    @Getter
+    @VisibleForTesting
+    final LoggingConfig config;
+    /**
+     * Асинхронная передача статистики в лог и получателям, или null, если статистика передаётся в потоке вызова.
+     */
+    @Nullable
+    @VisibleForTesting
+    final AsyncStatisticsPublisher publisher;
     @VisibleForTesting
     final HashMap<Key, LoggingStatistic> statistics = new HashMap<>();
+    /**
+     * Статистика асинхронных вызовов, завершающихся в других потоках, или null, если их не было.
+     */
+    @Nullable
+    @VisibleForTesting
+    AsyncStatistics async;
+
+    /**
+     * Последний начатый незавершённый вызов метода, не допускающего вложенные вызовы, или null.
+     */
+    @Nullable
     @VisibleForTesting
-    final HashMap<Class<? extends AbstractMethodEvent>, LoggingCallback> callbackByNoReentrantEventClass = new HashMap<>();
+    NonReentrantCallback nonReentrant;
+    /**
+     * Самый старый незавершённый вызов метода, не допускающего вложенные вызовы, или null.
+     */
+    @Nullable
     @VisibleForTesting
-    final HashMap<Class<? extends AbstractMethodEvent>, Predicate<LoggingJoinPoint>> predicateByNoReentrantEventClass = new HashMap<>();
+    NonReentrantCallback oldestNonReentrant;
+    /**
+     * Количество незавершённых вызовов в списке.
+     */
+    @VisibleForTesting
+    int nonReentrantCount;
 
     @ToString.Include
     @VisibleForTesting
@@ -56,11 +123,16 @@ final class LoggingContext {
     /**
      * Создаёт контекст регистрации событий выполнения методов.
      *
-     * @param joinPoint      точка вызова
-     * @param thresholdNanos пороговая длительность для записи в JFR, нс
+     * @param joinPoint точка вызова
+     * @param config    настройки
+     * @param sampled   записывать ли события корневого вызова в JFR, см. {@link LoggingConfig#sample()}
+     * @param sinks     получатели статистики по завершении корневого вызова
+     * @param publisher асинхронная передача статистики, или null
      */
-    public LoggingContext(LoggingJoinPoint joinPoint, long thresholdNanos) {
-        this(Objects.requireNonNullElse(joinPoint.identityPoint(), joinPoint), log, thresholdNanos);
+    public LoggingContext(LoggingJoinPoint joinPoint, LoggingConfig config, boolean sampled, List<StatisticsSink> sinks,
+                          @Nullable AsyncStatisticsPublisher publisher) {
+        this(Objects.requireNonNullElse(joinPoint.identityPoint(), joinPoint), log,
+                sampled ? config.getThresholdNanos() : Long.MAX_VALUE, config.getCallPathDepth(), sinks, config, publisher);
     }
 
     /**
@@ -71,6 +143,9 @@ final class LoggingContext {
      */
     public void before(LoggingCallback callback, Ticker ticker) {
         log.trace("before {} {}", this, callback);
+        if (callPathDepth > 0) {
+            callback.enterPath(this.callback, callPathDepth);
+        }
         callback.before(this.callback, ticker);
         this.callback = callback;
     }
@@ -80,15 +155,19 @@ final class LoggingContext {
      *
      * @param callback выполняет регистрацию
      * @param event    событие
+     * @return незавершённый вызов
      */
     @SuppressWarnings("unchecked")
-    public void beforeNonReentrant(LoggingCallback callback, AbstractMethodEvent event) {
+    public NonReentrantCallback beforeNonReentrant(LoggingCallback callback, AbstractMethodEvent event) {
         log.trace("beforeNonReentrant {} {} - start", this, event);
         callback.before(null, null);
-        callbackByNoReentrantEventClass.put(event.getClass(), callback);
-        if (event instanceof Predicate<?> predicate) {
-            predicateByNoReentrantEventClass.put(event.getClass(), (Predicate<LoggingJoinPoint>) predicate);
+        if (event instanceof NonReentrantMethodEvent e) {
+            attachRoot(e);
         }
+        var nonReentrant = new NonReentrantCallback(callback, event.getClass(),
+                event instanceof Predicate<?> predicate ? (Predicate<LoggingJoinPoint>) predicate : null);
+        link(nonReentrant);
+        return nonReentrant;
     }
 
     /**
@@ -106,15 +185,29 @@ final class LoggingContext {
     /**
      * Выполняется после успешного завершения метода.
      *
+     * <p>Завершает последний начатый вызов с указанным классом события.</p>
+     *
      * @param eventClass класс события JFR
      * @param retVal     результат метода
      */
     public void afterReturningNonReentrant(Class<? extends NonReentrantMethodEvent> eventClass, Object retVal) {
         log.trace("afterReturningNonReentrant {} {}", this, eventClass);
-        LoggingCallback callback = callbackByNoReentrantEventClass.remove(eventClass);
-        predicateByNoReentrantEventClass.remove(eventClass);
-        if (callback != null) {
-            callback.afterReturning(this, retVal);
+        NonReentrantCallback nonReentrant = findNonReentrant(eventClass);
+        if (nonReentrant != null) {
+            afterReturningNonReentrant(nonReentrant, retVal);
+        }
+    }
+
+    /**
+     * Выполняется после успешного завершения метода.
+     *
+     * @param nonReentrant незавершённый вызов
+     * @param retVal       результат метода
+     */
+    public void afterReturningNonReentrant(NonReentrantCallback nonReentrant, Object retVal) {
+        log.trace("afterReturningNonReentrant {} {}", this, nonReentrant);
+        if (unlink(nonReentrant)) {
+            nonReentrant.callback.afterReturning(this, retVal);
         }
     }
 
@@ -131,17 +224,31 @@ final class LoggingContext {
     }
 
     /**
-     * Выполняется после успешного завершения метода.
+     * Выполняется после ошибки выполнения метода.
+     *
+     * <p>Завершает последний начатый вызов с указанным классом события.</p>
      *
      * @param eventClass класс события JFR
      * @param cause      причина ошибки
      */
     public void afterThrowingNonReentrant(Class<? extends NonReentrantMethodEvent> eventClass, Throwable cause) {
         log.trace("afterThrowingNonReentrant {} {}", this, eventClass);
-        LoggingCallback callback = callbackByNoReentrantEventClass.remove(eventClass);
-        predicateByNoReentrantEventClass.remove(eventClass);
-        if (callback != null) {
-            callback.afterThrowing(this, cause);
+        NonReentrantCallback nonReentrant = findNonReentrant(eventClass);
+        if (nonReentrant != null) {
+            afterThrowingNonReentrant(nonReentrant, cause);
+        }
+    }
+
+    /**
+     * Выполняется после ошибки выполнения метода.
+     *
+     * @param nonReentrant незавершённый вызов
+     * @param cause        причина ошибки
+     */
+    public void afterThrowingNonReentrant(NonReentrantCallback nonReentrant, Throwable cause) {
+        log.trace("afterThrowingNonReentrant {} {}", this, nonReentrant);
+        if (unlink(nonReentrant)) {
+            nonReentrant.callback.afterThrowing(this, cause);
         }
     }
 
@@ -169,21 +276,100 @@ final class LoggingContext {
     @VisibleForTesting
     void tryAfterNoReentrant(LoggingJoinPoint joinPoint) {
         log.trace("tryAfterNoReentrant {} - start", joinPoint);
-        predicateByNoReentrantEventClass.entrySet()
-                .removeIf(entry -> {
-                    Predicate<LoggingJoinPoint> predicate = entry.getValue();
-                    if (!predicate.test(joinPoint)) {
-                        log.trace("tryAfterNoReentrant {} test {} = false", joinPoint, entry);
-                        return false;
-                    }
-                    Class<? extends AbstractMethodEvent> eventClass = entry.getKey();
-                    LoggingCallback callback = callbackByNoReentrantEventClass.remove(eventClass);
-                    log.trace("tryAfterNoReentrant {}, test {} = true, callback = {}", joinPoint, eventClass, callback);
-                    if (callback != null) {
-                        callback.afterReturning(LoggingContext.this, null);
-                    }
-                    return true;
-                });
+        NonReentrantCallback nonReentrant = this.nonReentrant;
+        while (nonReentrant != null) {
+            NonReentrantCallback next = nonReentrant.next;
+            Predicate<LoggingJoinPoint> predicate = nonReentrant.predicate;
+            if (predicate != null && predicate.test(joinPoint)) {
+                log.trace("tryAfterNoReentrant {}, test {} = true", joinPoint, nonReentrant);
+                afterReturningNonReentrant(nonReentrant, null);
+            }
+            nonReentrant = next;
+        }
+    }
+
+    @Nullable
+    @VisibleForTesting
+    NonReentrantCallback findNonReentrant(Class<? extends AbstractMethodEvent> eventClass) {
+        NonReentrantCallback nonReentrant = this.nonReentrant;
+        while (nonReentrant != null && nonReentrant.eventClass != eventClass) {
+            nonReentrant = nonReentrant.next;
+        }
+        return nonReentrant;
+    }
+
+    @VisibleForTesting
+    void link(NonReentrantCallback nonReentrant) {
+        if (nonReentrantCount >= MAX_NON_REENTRANT && oldestNonReentrant != null) {
+            log.debug("link {}: more than {} non-reentrant calls, evict {}", this, MAX_NON_REENTRANT, oldestNonReentrant);
+            unlink(oldestNonReentrant);
+        }
+        nonReentrant.context = this;
+        nonReentrant.prev = null;
+        nonReentrant.next = this.nonReentrant;
+        if (this.nonReentrant != null) {
+            this.nonReentrant.prev = nonReentrant;
+        } else {
+            oldestNonReentrant = nonReentrant;
+        }
+        this.nonReentrant = nonReentrant;
+        nonReentrantCount++;
+    }
+
+    /**
+     * Исключает вызов из списка незавершённых.
+     *
+     * @param nonReentrant незавершённый вызов
+     * @return false, если вызов уже завершён, или начат в другом контексте
+     */
+    @VisibleForTesting
+    boolean unlink(NonReentrantCallback nonReentrant) {
+        if (nonReentrant.context != this) {
+            return false;
+        }
+        NonReentrantCallback prev = nonReentrant.prev;
+        NonReentrantCallback next = nonReentrant.next;
+        if (prev == null) {
+            this.nonReentrant = next;
+        } else {
+            prev.next = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        } else {
+            oldestNonReentrant = prev;
+        }
+        nonReentrantCount--;
+        nonReentrant.context = null;
+        nonReentrant.prev = null;
+        nonReentrant.next = null;
+        return true;
+    }
+
+    /**
+     * Заполняет в событии корневой вызов.
+     *
+     * @param event событие
+     */
+    public void attachRoot(NonReentrantMethodEvent event) {
+        LoggingCallback root = root();
+        if (root != null) {
+            event.rootClass = root.targetClass;
+            event.rootMethod = root.name;
+        }
+    }
+
+    /**
+     * Возвращает корневой вызов, или null, если вызовов нет.
+     */
+    @Nullable
+    @VisibleForTesting
+    LoggingCallback root() {
+        LoggingCallback root = callback;
+        while (root != null && root.prev != null) {
+            root = root.prev;
+        }
+        return root;
     }
 
     @VisibleForTesting
@@ -196,10 +382,33 @@ final class LoggingContext {
      *
      * @param clazz  класс Spring-бина
      * @param method метод
+     * @param pathId хеш пути вызова, или 0, если статистика по путям вызовов выключена
      * @return {@link LoggingStatistic}
      */
-    public LoggingStatistic getStatistic(Class<?> clazz, Object method) {
-        return statistics.computeIfAbsent(Key.of(clazz, method), key -> new LoggingStatistic());
+    public LoggingStatistic getStatistic(Class<?> clazz, Object method, long pathId) {
+        return statistics.computeIfAbsent(Key.of(clazz, method, pathId), key -> new LoggingStatistic());
+    }
+
+    /**
+     * Начинает асинхронный вызов, который завершится в другом потоке.
+     *
+     * @param ticker источник времени
+     * @return {@link AsyncCall}
+     */
+    public AsyncCall beginAsync(Ticker ticker) {
+        if (async == null) {
+            async = new AsyncStatistics();
+        }
+        return new AsyncCall(async, ticker, ticker.read());
+    }
+
+    /**
+     * Переносит в статистику асинхронные вызовы, завершившиеся к окончанию корневого вызова.
+     */
+    public void mergeAsync() {
+        if (async != null) {
+            async.drainTo(statistics);
+        }
     }
 
     /**
@@ -222,6 +431,46 @@ final class LoggingContext {
                 .forEach(LoggingStatistic::commit);
     }
 
+    /**
+     * Передаёт статистику всех методов получателям. Исключение получателя пишется в лог и не прерывает вызов,
+     * как в {@link AsyncStatisticsPublisher}.
+     */
+    public void publish() {
+        for (StatisticsSink sink : sinks) {
+            statistics.forEach((key, statistic) -> {
+                try {
+                    statistic.publish(sink, key.beanClass(), key.method(), key.pathId());
+                } catch (RuntimeException e) {
+                    log.warn("accept {}", sink, e);
+                }
+            });
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                log.warn("flush {}", sink, e);
+            }
+        }
+    }
+
+    /**
+     * Передаёт статистику в лог и получателям через {@link AsyncStatisticsPublisher}, если он есть.
+     *
+     * @param logger    лог корневого вызова, или null, если DEBUG выключен
+     * @param beanClass класс бина корневого вызова
+     * @param method    метод корневого вызова
+     * @param args      аргументы корневого вызова, или null
+     * @return передана ли статистика асинхронно; false — нужно передать в потоке вызова
+     */
+    public boolean publishAsync(@Nullable Logger logger, Class<?> beanClass, Object method, @Nullable List<?> args) {
+        if (publisher == null) {
+            return false;
+        }
+        if (logger != null || !sinks.isEmpty()) {
+            publisher.offer(logger, beanClass, method, args, statistics);
+        }
+        return true;
+    }
+
     /**
      * Статистика для логирования.
      */
@@ -236,7 +485,12 @@ final class LoggingContext {
             statistics.entrySet()
                     .stream()
                     .sorted(Comparator.<Map.Entry<Key, LoggingStatistic>>comparingLong(e -> e.getValue().getSum()).reversed())
-                    .forEach(p -> p.getValue().appendTo(sb, p.getKey().beanClass(), p.getKey().method()));
+                    .forEach(p -> {
+                        p.getValue().appendTo(sb, p.getKey().beanClass(), p.getKey().method());
+                        if (p.getKey().pathId() != 0) {
+                            sb.append(", path=").append(Long.toHexString(p.getKey().pathId()));
+                        }
+                    });
             return sb.toString();
         });
     }
@@ -41,6 +41,11 @@ class LoggingStatistic {
      */
     private long sum;
 
+    /**
+     * Количество вызовов, завершившихся исключением.
+     */
+    private int errors;
+
     /**
      * Событие с максимальным временем выполнения.
      */
@@ -64,6 +69,52 @@ class LoggingStatistic {
         sum += time;
     }
 
+    /**
+     * Учитывает вызов, время которого измерено без {@link LoggingCallback}, например, асинхронный.
+     *
+     * @param time время выполнения, нс
+     */
+    public void add(long time) {
+        count++;
+        min = Math.min(time, min);
+        max = Math.max(time, max);
+        sum += time;
+    }
+
+    /**
+     * Добавляет статистику другого набора вызовов, событие с максимальным временем не меняется.
+     *
+     * @param other статистика
+     */
+    public void merge(LoggingStatistic other) {
+        count += other.count;
+        min = Math.min(other.min, min);
+        max = Math.max(other.max, max);
+        sum += other.sum;
+        errors += other.errors;
+    }
+
+    /**
+     * Учитывает вызов, завершившийся исключением.
+     */
+    public void addError() {
+        errors++;
+    }
+
+    /**
+     * Передаёт статистику получателю.
+     *
+     * @param sink      получатель
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param pathId    хеш пути вызова, или 0
+     */
+    public void publish(StatisticsSink sink, Class<?> beanClass, Object method, long pathId) {
+        if (count > 0) {
+            sink.accept(beanClass, method, pathId, count, sum, min, max, errors);
+        }
+    }
+
     /**
      * Пишет статистику в журнал Java Flight Recorder.
      */
@@ -80,6 +131,23 @@ class LoggingStatistic {
     }
 
     public void appendTo(StringBuilder sb, Class<?> clazz, Object method) {
+        appendTo(sb, clazz, method, count, sum, min, max, errors);
+    }
+
+    /**
+     * Добавляет строку статистики метода для лога.
+     *
+     * @param sb     буфер
+     * @param clazz  класс бина
+     * @param method метод
+     * @param count  количество вызовов
+     * @param sum    суммарное время, нс
+     * @param min    минимальное время, нс
+     * @param max    максимальное время, нс
+     * @param errors количество ошибок
+     */
+    static void appendTo(StringBuilder sb, Class<?> clazz, Object method, int count, long sum, long min, long max,
+                         int errors) {
         sb.append("\n\t")
                 .append("class=").append(clazz.getSimpleName())
                 .append(", method=").append(method)
@@ -88,6 +156,9 @@ class LoggingStatistic {
                 .append(", min=").append(formatTime(min))
                 .append(", avg=").append(formatTime(sum / count))
                 .append(", max=").append(formatTime(max));
+        if (errors > 0) {
+            sb.append(", errors=").append(errors);
+        }
     }
 
     private static String formatTime(long time) {
@@ -0,0 +1,48 @@
+package jfr.logging;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.event.AbstractMethodEvent;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Незавершённый вызов метода, не допускающего вложенные вызовы.
+ *
+ * <p>Элемент двусвязного списка незавершённых вызовов {@link LoggingContext}:
+ * добавление и удаление выполняются без поиска и без выделения памяти под элементы коллекций.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+final class NonReentrantCallback implements NonReentrantHandle {
+    @VisibleForTesting
+    final LoggingCallback callback;
+    @VisibleForTesting
+    final Class<? extends AbstractMethodEvent> eventClass;
+    /**
+     * Проверяет, завершает ли вызов метода незавершённый вызов, или null.
+     */
+    @Nullable
+    @VisibleForTesting
+    final Predicate<LoggingJoinPoint> predicate;
+
+    /**
+     * Контекст, в списке которого находится вызов, или null, если вызов уже завершён.
+     */
+    @Nullable
+    @VisibleForTesting
+    LoggingContext context;
+    @Nullable
+    @VisibleForTesting
+    NonReentrantCallback prev;
+    @Nullable
+    @VisibleForTesting
+    NonReentrantCallback next;
+
+    @Override
+    public String toString() {
+        return "NonReentrantCallback{eventClass=" + eventClass.getSimpleName() + ", callback=" + callback + '}';
+    }
+}
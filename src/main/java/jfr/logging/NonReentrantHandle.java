@@ -0,0 +1,14 @@
+package jfr.logging;
+
+import jfr.event.NonReentrantMethodEvent;
+
+/**
+ * Дескриптор незавершённого вызова, возвращается {@link NonReentrantLoggingService#before(LoggingJoinPoint, NonReentrantMethodEvent)}.
+ *
+ * <p>Позволяет завершить конкретный вызов, когда в одном потоке одновременно выполняются несколько вызовов
+ * с одинаковым классом события.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public interface NonReentrantHandle {
+}
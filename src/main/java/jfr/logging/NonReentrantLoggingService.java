@@ -1,6 +1,7 @@
 package jfr.logging;
 
 import jfr.event.NonReentrantMethodEvent;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Регистрирует в лог и журнал Java Flight Recorder статистику времени выполнения бизнес-метода.
@@ -11,7 +12,8 @@ import jfr.event.NonReentrantMethodEvent;
  * <p>@link LoggingService#proceed(ProceedingJoinPoint)} и {@link JfrLoggingService#proceedCallback(LoggingJoinPoint, JoinPointCallback)}
  * обеспечивают гарантию завершающих вызов внутри своей реализации. Если не порядок вызовов не будет соблюдаться, возникнет утечка памяти.</p>
  *
- * <p>Тут пришлось пожертвовать возможностью повторного вхождения в метод.</p>
+ * <p>Тут пришлось пожертвовать возможностью повторного вхождения в метод.
+ * Одновременно незавершённых вызовов может быть несколько, каждый завершается по своему {@link NonReentrantHandle}.</p>
  *
  * @param <E> тип события
  * @author Roman_Erzhukov
@@ -22,12 +24,32 @@ public interface NonReentrantLoggingService<E extends NonReentrantMethodEvent> {
      *
      * @param joinPoint вызываемая операция
      * @param event     событие метода
+     * @return дескриптор незавершённого вызова, или null, если вызов не регистрируется
      */
-    void before(LoggingJoinPoint joinPoint, E event);
+    @Nullable
+    NonReentrantHandle before(LoggingJoinPoint joinPoint, E event);
 
     /**
      * Выполняется после успешного завершения метода.
      *
+     * @param handle дескриптор вызова, полученный от {@link #before(LoggingJoinPoint, NonReentrantMethodEvent)}, или null
+     * @param retVal результат выполнения метода
+     */
+    void afterReturning(@Nullable NonReentrantHandle handle, Object retVal);
+
+    /**
+     * Выполняется после ошибочного завершения метода.
+     *
+     * @param handle дескриптор вызова, полученный от {@link #before(LoggingJoinPoint, NonReentrantMethodEvent)}, или null
+     * @param cause  причина ошибки
+     */
+    void afterThrowing(@Nullable NonReentrantHandle handle, Throwable cause);
+
+    /**
+     * Выполняется после успешного завершения метода.
+     *
+     * <p>Завершает последний начатый незавершённый вызов с указанным классом события.</p>
+     *
      * @param eventClass класс события
      * @param retVal     результат выполнения метода
      */
@@ -36,8 +58,30 @@ public interface NonReentrantLoggingService<E extends NonReentrantMethodEvent> {
     /**
      * Выполняется после ошибочного завершения метода.
      *
+     * <p>Завершает последний начатый незавершённый вызов с указанным классом события.</p>
+     *
      * @param eventClass класс события
      * @param cause      причина ошибки
      */
     void afterThrowing(Class<E> eventClass, Throwable cause);
+
+    /**
+     * Заполняет в событии корневой вызов текущего потока, см. {@link NonReentrantMethodEvent#rootClass}.
+     *
+     * <p>Нужно для событий, которые регистрируются без {@link #before(LoggingJoinPoint, NonReentrantMethodEvent)},
+     * например, завершаются в другом потоке.</p>
+     *
+     * @param event событие
+     */
+    void attachRoot(NonReentrantMethodEvent event);
+
+    /**
+     * Начинает в корневом вызове текущего потока асинхронный вызов, который завершится в другом потоке.
+     *
+     * <p>Время вызова, завершившегося до окончания корневого вызова, попадает в его статистику, см. {@link AsyncCall}.</p>
+     *
+     * @return асинхронный вызов, или null, если корневого вызова нет
+     */
+    @Nullable
+    AsyncCall beginAsync();
 }
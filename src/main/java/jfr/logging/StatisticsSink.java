@@ -0,0 +1,72 @@
+package jfr.logging;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Получатель статистики вызовов методов из {@link JfrLoggingServiceImpl}.
+ *
+ * <p>Вызывается по завершении корневого вызова, по одному разу на каждый метод, вызванный в его пределах:
+ * в потоке корневого вызова, или в потоке {@link AsyncStatisticsPublisher} пачками, если он включён.
+ * Поэтому реализация должна быть потокобезопасной, а без {@link AsyncStatisticsPublisher} ещё и быстрой,
+ * без ввода-вывода. Статистика передаётся независимо от порога {@code jfr.thresholdNanos},
+ * уровня логирования и записи JFR.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public interface StatisticsSink {
+    /**
+     * Принимает статистику метода в пределах одного корневого вызова.
+     *
+     * @param beanClass класс бина
+     * @param method    метод, {@link Method} для методов бинов
+     * @param pathId    хеш пути вызова, или 0, если статистика по путям вызовов выключена
+     * @param count     количество вызовов
+     * @param sum       суммарное время выполнения без учёта вложенных методов, нс
+     * @param min       минимальное время выполнения, нс
+     * @param max       максимальное время выполнения, нс
+     * @param errors    количество вызовов, завершившихся исключением
+     */
+    void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors);
+
+    /**
+     * Вызывается после пачки статистики: после корневого вызова, или после пачки корневых вызовов
+     * в {@link AsyncStatisticsPublisher}. Позволяет выполнять ввод-вывод пачками.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Возвращает имя метода: имя метода Java без параметров, или строковое представление.
+     * Для {@link DimensionalMethod} — имя метода без значения измерения, см. {@link #dimension(Object)}.
+     *
+     * @param method метод
+     */
+    static String name(Object method) {
+        if (method instanceof DimensionalMethod dimensional) {
+            method = dimensional.method();
+        }
+        return method instanceof Method m ? m.getName() : String.valueOf(method);
+    }
+
+    /**
+     * Возвращает значение измерения {@link DimensionalMethod}, или null, если у вызова нет измерения.
+     *
+     * @param method метод
+     */
+    static @Nullable String dimension(Object method) {
+        return method instanceof DimensionalMethod dimensional ? dimensional.dimension() : null;
+    }
+
+    /**
+     * Возвращает имя метода со значением измерения для получателей без отдельного поля измерения:
+     * {@code find[tenant]}.
+     *
+     * @param method    имя метода
+     * @param dimension значение измерения, или null
+     */
+    static String name(String method, @Nullable String dimension) {
+        return dimension == null ? method : method + '[' + dimension + ']';
+    }
+}
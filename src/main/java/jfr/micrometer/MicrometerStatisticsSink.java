@@ -0,0 +1,162 @@
+package jfr.micrometer;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.TimeWindowMax;
+import jfr.logging.StatisticsSink;
+import jfr.stats.MethodTable;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Публикует статистику вызовов методов бинов в Micrometer.
+ *
+ * <p>На каждый метод регистрируются функциональные метры, которые читают счётчики метода при сборе метрик:</p>
+ * <ul>
+ *     <li>{@value #SELF_TIME} — таймер собственного времени без учёта вложенных методов;</li>
+ *     <li>{@value #MAX_TIME} — максимальное собственное время в скользящем окне {@link TimeWindowMax}
+ *     длительностью {@link DistributionStatisticConfig#DEFAULT} {@code expiry}, как у таймеров Micrometer:
+ *     чтение не сбрасывает значение, поэтому несколько реестров или сборщиков метрик видят один и тот же
+ *     максимум;</li>
+ *     <li>{@value #ERRORS} — количество вызовов, завершившихся исключением.</li>
+ * </ul>
+ * <p>Теги {@code class} и {@code method}. Если включён тег {@code dimension}, он есть у всех метров
+ * со значением измерения вызова или {@value #NO_DIMENSION}, чтобы набор ключей тегов метра не зависел от вызова,
+ * а значения измерения не попадали в тег {@code method}. Метры регистрируются один раз при первом вызове метода,
+ * дальше вызов обновляет только счётчики {@link LongAdder}, найденные в {@link MethodTable} без создания объектов
+ * и без поиска по тегам в реестре. Статистика приходит от {@link jfr.logging.JfrLoggingServiceImpl}
+ * одним пакетом на метод по завершении корневого вызова, а не на каждый вложенный вызов.</p>
+ *
+ * <p>Количество методов ограничено: вызовы остальных методов учитываются в метрах
+ * с тегами {@value MethodTable#OTHER}. Пути вызовов не различаются.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public class MicrometerStatisticsSink implements StatisticsSink, Closeable {
+    /**
+     * Таймер собственного времени метода.
+     */
+    public static final String SELF_TIME = "jfr.method.self";
+    /**
+     * Максимальное собственное время метода.
+     */
+    public static final String MAX_TIME = "jfr.method.self.max";
+    /**
+     * Счётчик вызовов, завершившихся исключением.
+     */
+    public static final String ERRORS = "jfr.method.errors";
+    /**
+     * Значение тега {@code dimension} для вызовов без измерения.
+     */
+    public static final String NO_DIMENSION = "none";
+
+    @VisibleForTesting
+    final MeterRegistry registry;
+    @VisibleForTesting
+    final boolean dimensionTag;
+    @VisibleForTesting
+    final MethodTable<Meters> methods;
+    @VisibleForTesting
+    final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Создаёт получатель статистики.
+     *
+     * @param registry     реестр метрик
+     * @param maxMethods   максимальное количество методов
+     * @param dimensionTag добавлять ли тег {@code dimension}: нужен, если статистика делится по измерениям
+     */
+    public MicrometerStatisticsSink(MeterRegistry registry, int maxMethods, boolean dimensionTag) {
+        this.registry = registry;
+        this.dimensionTag = dimensionTag;
+        this.methods = new MethodTable<>(maxMethods, this::register);
+    }
+
+    /**
+     * Счётчики метода, которые читают зарегистрированные метры.
+     */
+    @VisibleForTesting
+    static class Meters {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final TimeWindowMax maxNanos;
+        final LongAdder errors = new LongAdder();
+
+        Meters(Clock clock) {
+            maxNanos = new TimeWindowMax(clock, DistributionStatisticConfig.DEFAULT);
+        }
+
+        void add(int count, long sum, long max, int errors) {
+            this.count.add(count);
+            totalNanos.add(sum);
+            maxNanos.record(max);
+            if (errors > 0) {
+                this.errors.add(errors);
+            }
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double totalNanos() {
+            return totalNanos.sum();
+        }
+
+        double maxNanos() {
+            return maxNanos.poll();
+        }
+
+        double errors() {
+            return errors.sum();
+        }
+    }
+
+    @Override
+    public void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors) {
+        if (count > 0) {
+            methods.get(beanClass, method).add(count, sum, max, errors);
+        }
+    }
+
+    /**
+     * Удаляет зарегистрированные метры из реестра.
+     */
+    @Override
+    public void close() {
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meters register(String beanClass, String method, @Nullable String dimension) {
+        var result = new Meters(registry.config().clock());
+        String[] tags = dimensionTag
+                ? new String[]{"class", beanClass, "method", method, "dimension",
+                        dimension == null ? NO_DIMENSION : dimension}
+                : new String[]{"class", beanClass, "method", StatisticsSink.name(method, dimension)};
+        meters.add(FunctionTimer.builder(SELF_TIME, result, Meters::count, Meters::totalNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Bean method execution time excluding nested bean methods")
+                .register(registry));
+        meters.add(TimeGauge.builder(MAX_TIME, result, TimeUnit.NANOSECONDS, Meters::maxNanos)
+                .tags(tags)
+                .description("Bean method max execution time excluding nested bean methods in a time window")
+                .register(registry));
+        meters.add(FunctionCounter.builder(ERRORS, result, Meters::errors)
+                .tags(tags)
+                .description("Bean method invocations completed with an exception")
+                .register(registry));
+        return result;
+    }
+}
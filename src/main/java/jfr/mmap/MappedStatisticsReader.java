@@ -0,0 +1,216 @@
+package jfr.mmap;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static jfr.mmap.MappedStatisticsSink.COUNT_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.ERRORS_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.HEADER_SIZE;
+import static jfr.mmap.MappedStatisticsSink.INT;
+import static jfr.mmap.MappedStatisticsSink.LONG;
+import static jfr.mmap.MappedStatisticsSink.MAGIC;
+import static jfr.mmap.MappedStatisticsSink.MAGIC_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.MAX_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.MIN_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.NAME_LENGTH_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.NAME_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.PID_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.SEQUENCE_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.SLOTS_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.SLOT_SIZE_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.START_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.STATE_CLOSED;
+import static jfr.mmap.MappedStatisticsSink.STATE_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.SUM_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.USED_OFFSET;
+import static jfr.mmap.MappedStatisticsSink.VERSION;
+import static jfr.mmap.MappedStatisticsSink.VERSION_OFFSET;
+
+/**
+ * Читает статистику методов бинов из файла {@link MappedStatisticsSink} работающего или завершившегося процесса.
+ *
+ * <pre>
+ * java -cp spring-beans-jfr.jar:commons-lang3.jar jfr.mmap.MappedStatisticsReader [--top N] файл
+ *
+ *   --top N  количество методов по убыванию собственного времени, 50
+ * </pre>
+ *
+ * <p>Ячейку, которую не удалось прочитать согласованно за {@value #MAX_WAIT_NANOS} нс, например, если процесс
+ * аварийно завершился во время записи, читатель берёт как есть и отмечает {@code *}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public final class MappedStatisticsReader {
+    @VisibleForTesting
+    static final String USAGE = "Usage: MappedStatisticsReader [--top N] file";
+    @VisibleForTesting
+    static final long MAX_WAIT_NANOS = 100_000_000;
+
+    private MappedStatisticsReader() {
+    }
+
+    /**
+     * Содержимое файла.
+     *
+     * @param pid     идентификатор процесса
+     * @param start   время запуска
+     * @param closed  закрыт ли файл при остановке приложения
+     * @param methods статистика методов
+     */
+    public record Snapshot(long pid, Instant start, boolean closed, List<MappedMethod> methods) {
+    }
+
+    /**
+     * Накопленная статистика метода, время в наносекундах.
+     *
+     * @param name   {@code класс#метод}
+     * @param count  количество вызовов
+     * @param sum    собственное время
+     * @param min    минимальное время
+     * @param max    максимальное время
+     * @param errors количество вызовов, завершившихся исключением
+     * @param torn   значения могут быть несогласованными: запись не завершилась
+     */
+    public record MappedMethod(String name, long count, long sum, long min, long max, long errors, boolean torn) {
+    }
+
+    public static void main(String[] args) {
+        var out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        var err = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+        int status = run(out, err, args);
+        out.flush();
+        err.flush();
+        System.exit(status);
+    }
+
+    /**
+     * Выполняет команду.
+     *
+     * @param out  вывод результата
+     * @param err  вывод ошибок
+     * @param args аргументы командной строки
+     * @return код завершения: 0 — успешно, 1 — ошибка ввода-вывода, 2 — неверные аргументы
+     */
+    @VisibleForTesting
+    static int run(PrintWriter out, PrintWriter err, String... args) {
+        try {
+            int top = 50;
+            Path file = null;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--top") && i + 1 < args.length) {
+                    top = Integer.parseInt(args[++i]);
+                } else if (file == null && !args[i].startsWith("--")) {
+                    file = Path.of(args[i]);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (file == null) {
+                throw new IllegalArgumentException("No file specified");
+            }
+            write(read(file), top, out);
+            out.flush();
+            return 0;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            err.println("Unable to read statistics: " + e);
+            return 1;
+        }
+    }
+
+    /**
+     * Читает файл.
+     *
+     * @param file файл
+     * @throws IOException если файл не удалось прочитать или это не файл статистики
+     */
+    public static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a statistics file: " + file);
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @VisibleForTesting
+    static Snapshot read(ByteBuffer buffer) throws IOException {
+        if ((int) INT.getAcquire(buffer, MAGIC_OFFSET) != MAGIC || (int) INT.get(buffer, VERSION_OFFSET) != VERSION) {
+            throw new IOException("Unsupported statistics file");
+        }
+        int slots = (int) INT.get(buffer, SLOTS_OFFSET);
+        int slotSize = (int) INT.get(buffer, SLOT_SIZE_OFFSET);
+        int used = Math.min((int) INT.getAcquire(buffer, USED_OFFSET), slots);
+        if ((long) HEADER_SIZE + (long) slots * slotSize > buffer.capacity()) {
+            throw new IOException("Truncated statistics file");
+        }
+        var methods = new ArrayList<MappedMethod>(used);
+        for (int i = 0; i < used; i++) {
+            methods.add(method(buffer, HEADER_SIZE + i * slotSize, slotSize));
+        }
+        return new Snapshot((long) LONG.get(buffer, PID_OFFSET),
+                Instant.ofEpochMilli((long) LONG.get(buffer, START_OFFSET)),
+                (int) INT.getAcquire(buffer, STATE_OFFSET) == STATE_CLOSED, methods);
+    }
+
+    /**
+     * Читает ячейку метода под защитой seqlock.
+     */
+    @VisibleForTesting
+    static MappedMethod method(ByteBuffer buffer, int slot, int slotSize) {
+        int length = Math.min((int) INT.get(buffer, slot + NAME_LENGTH_OFFSET), slotSize - NAME_OFFSET);
+        byte[] name = new byte[Math.max(length, 0)];
+        buffer.get(slot + NAME_OFFSET, name);
+        long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+        while (true) {
+            long before = (long) LONG.getAcquire(buffer, slot + SEQUENCE_OFFSET);
+            long count = (long) LONG.get(buffer, slot + COUNT_OFFSET);
+            long sum = (long) LONG.get(buffer, slot + SUM_OFFSET);
+            long min = (long) LONG.get(buffer, slot + MIN_OFFSET);
+            long max = (long) LONG.get(buffer, slot + MAX_OFFSET);
+            long errors = (long) LONG.get(buffer, slot + ERRORS_OFFSET);
+            VarHandle.loadLoadFence();
+            long after = (long) LONG.get(buffer, slot + SEQUENCE_OFFSET);
+            boolean consistent = before == after && (before & 1) == 0;
+            if (consistent || System.nanoTime() - deadline > 0) {
+                return new MappedMethod(new String(name, StandardCharsets.UTF_8), count, sum, min, max, errors, !consistent);
+            }
+            Thread.yield();
+        }
+    }
+
+    @VisibleForTesting
+    static void write(Snapshot snapshot, int top, PrintWriter out) {
+        out.printf("pid %d, started %s, %s, %d methods%n", snapshot.pid(), snapshot.start(),
+                snapshot.closed() ? "closed" : "running or crashed", snapshot.methods().size());
+        out.printf("%12s %10s %12s %12s %12s %8s  %s%n", "total", "calls", "avg", "min", "max", "errors", "method");
+        List<MappedMethod> methods = new ArrayList<>(snapshot.methods());
+        methods.sort(Comparator.comparingLong(MappedMethod::sum).reversed());
+        for (MappedMethod method : methods.subList(0, Math.min(top, methods.size()))) {
+            out.printf("%12s %10d %12s %12s %12s %8d  %s%s%n", formatTime(method.sum()), method.count(),
+                    formatTime(method.count() == 0 ? 0 : method.sum() / method.count()), formatTime(method.min()),
+                    formatTime(method.max()), method.errors(), method.name(), method.torn() ? " *" : "");
+        }
+    }
+
+    private static String formatTime(long nanos) {
+        return DurationFormatUtils.formatDurationHMS(Math.max(nanos, 0) / 1000_000);
+    }
+}
@@ -0,0 +1,250 @@
+package jfr.mmap;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.logging.StatisticsSink;
+import jfr.stats.MethodTable;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+
+/**
+ * Хранит накопленную статистику методов бинов в файле, отображённом в память, в формате с фиксированной
+ * разметкой, как {@code hsperfdata}. Внешняя программа {@link MappedStatisticsReader} читает статистику
+ * работающего процесса без подключения к JVM, а последние значения остаются в файле после аварийного
+ * завершения JVM.
+ *
+ * <p>Разметка, little-endian: заголовок {@value #HEADER_SIZE} байт, затем {@code slots} ячеек по
+ * {@value #SLOT_SIZE} байт. Ячейка метода содержит счётчик версии seqlock, накопленные количество вызовов,
+ * собственное время, минимум, максимум и количество ошибок, и имя {@code класс#метод} в UTF-8,
+ * для вызовов с измерением — {@code класс#метод[значение]}.</p>
+ *
+ * <p>Запись в ячейку захватывает её переводом версии в нечётное значение через CAS, изменяет счётчики
+ * обычными записями {@link VarHandle} и освобождает ячейку записью следующего чётного значения
+ * с семантикой release. Читатель повторяет чтение ячейки, пока версия до и после чтения не совпадёт
+ * и не будет чётной. Ячейка выделяется при первом вызове метода: имя записывается до увеличения
+ * количества занятых ячеек в заголовке. Ячейки, выделенные до {@link #open()} или до повторного открытия,
+ * записываются в новый файл при открытии. Методы и значения измерения сверх {@code maxMethods} ячеек
+ * учитываются в ячейке {@value MethodTable#OTHER}. Статистика путей вызова не различается.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class MappedStatisticsSink implements StatisticsSink, Closeable {
+    /**
+     * Сигнатура файла, {@code JFRM}.
+     */
+    static final int MAGIC = 0x4A46524D;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 256;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_CLOSED = 2;
+
+    // Заголовок.
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOTS_OFFSET = 8;
+    static final int SLOT_SIZE_OFFSET = 12;
+    static final int USED_OFFSET = 16;
+    static final int STATE_OFFSET = 20;
+    static final int PID_OFFSET = 24;
+    static final int START_OFFSET = 32;
+
+    // Ячейка метода.
+    static final int SEQUENCE_OFFSET = 0;
+    static final int COUNT_OFFSET = 8;
+    static final int SUM_OFFSET = 16;
+    static final int MIN_OFFSET = 24;
+    static final int MAX_OFFSET = 32;
+    static final int ERRORS_OFFSET = 40;
+    static final int NAME_LENGTH_OFFSET = 48;
+    static final int NAME_OFFSET = 52;
+    static final int MAX_NAME_LENGTH = SLOT_SIZE - NAME_OFFSET;
+
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    @VisibleForTesting
+    final Path file;
+    @VisibleForTesting
+    final int slots;
+    @VisibleForTesting
+    final MethodTable<Integer> methods;
+    private final Clock clock;
+    @VisibleForTesting
+    @Nullable
+    MappedByteBuffer buffer;
+    /**
+     * Имена {@code класс#метод} занятых ячеек в UTF-8.
+     */
+    private final byte[][] names;
+    /**
+     * Количество занятых ячеек, изменяется только при создании значения в {@link MethodTable}.
+     */
+    private int used;
+
+    /**
+     * Создаёт получатель статистики.
+     *
+     * @param file       файл
+     * @param maxMethods максимальное количество методов, остальные учитываются как {@value MethodTable#OTHER}
+     * @param clock      часы для времени запуска в заголовке
+     */
+    public MappedStatisticsSink(Path file, int maxMethods, Clock clock) {
+        if (maxMethods < 1) {
+            throw new IllegalArgumentException("Invalid maxMethods " + maxMethods);
+        }
+        this.file = file;
+        this.slots = maxMethods + 1;
+        this.names = new byte[slots][];
+        this.methods = new MethodTable<>(maxMethods, maxMethods, this::allocate);
+        this.clock = clock;
+    }
+
+    /**
+     * Возвращает файл по умолчанию: {@code jfr-statistics-<pid>} во временном каталоге.
+     */
+    public static Path defaultFile() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "jfr-statistics-" + ProcessHandle.current().pid());
+    }
+
+    /**
+     * Создаёт файл заново и отображает его в память.
+     *
+     * @throws IOException если файл не удалось создать
+     */
+    public synchronized void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) slots * SLOT_SIZE);
+            INT.set(mapped, VERSION_OFFSET, VERSION);
+            INT.set(mapped, SLOTS_OFFSET, slots);
+            INT.set(mapped, SLOT_SIZE_OFFSET, SLOT_SIZE);
+            INT.set(mapped, STATE_OFFSET, STATE_RUNNING);
+            LONG.set(mapped, PID_OFFSET, ProcessHandle.current().pid());
+            LONG.set(mapped, START_OFFSET, clock.millis());
+            for (int i = 0; i < used; i++) {
+                putName(mapped, i);
+            }
+            INT.set(mapped, USED_OFFSET, used);
+            INT.setRelease(mapped, MAGIC_OFFSET, MAGIC);
+            buffer = mapped;
+        }
+    }
+
+    @Override
+    public void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null || count <= 0) {
+            return;
+        }
+        int slot = methods.get(beanClass, method);
+        long sequence = lock(mapped, slot);
+        long previous = (long) LONG.get(mapped, slot + COUNT_OFFSET);
+        LONG.set(mapped, slot + COUNT_OFFSET, previous + count);
+        LONG.set(mapped, slot + SUM_OFFSET, (long) LONG.get(mapped, slot + SUM_OFFSET) + sum);
+        if (previous == 0 || min < (long) LONG.get(mapped, slot + MIN_OFFSET)) {
+            LONG.set(mapped, slot + MIN_OFFSET, min);
+        }
+        if (max > (long) LONG.get(mapped, slot + MAX_OFFSET)) {
+            LONG.set(mapped, slot + MAX_OFFSET, max);
+        }
+        if (errors > 0) {
+            LONG.set(mapped, slot + ERRORS_OFFSET, (long) LONG.get(mapped, slot + ERRORS_OFFSET) + errors);
+        }
+        LONG.setRelease(mapped, slot + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    /**
+     * Отмечает файл закрытым и сбрасывает его на диск. Файл не удаляется.
+     */
+    @Override
+    public synchronized void close() {
+        MappedByteBuffer mapped = buffer;
+        if (mapped != null) {
+            buffer = null;
+            INT.setRelease(mapped, STATE_OFFSET, STATE_CLOSED);
+            mapped.force();
+        }
+    }
+
+    /**
+     * Захватывает ячейку, переводя версию в нечётное значение.
+     *
+     * @return чётная версия ячейки до захвата
+     */
+    private static long lock(MappedByteBuffer mapped, int slot) {
+        while (true) {
+            long sequence = (long) LONG.getVolatile(mapped, slot + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0 && LONG.compareAndSet(mapped, slot + SEQUENCE_OFFSET, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Занимает следующую ячейку и записывает в неё имя метода.
+     * Вызывается {@link MethodTable} под блокировкой, не больше {@link #slots} раз.
+     * Если файл не открыт, имя записывается при открытии.
+     *
+     * @param beanClass имя класса бина
+     * @param method    имя метода
+     * @param dimension значение измерения, или null
+     * @return смещение ячейки
+     */
+    private synchronized Integer allocate(String beanClass, String method, @Nullable String dimension) {
+        int index = used;
+        names[index] = (beanClass + '#' + StatisticsSink.name(method, dimension)).getBytes(StandardCharsets.UTF_8);
+        used++;
+        MappedByteBuffer mapped = buffer;
+        if (mapped != null) {
+            putName(mapped, index);
+            INT.setRelease(mapped, USED_OFFSET, used);
+        }
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    private void putName(MappedByteBuffer mapped, int index) {
+        int slot = HEADER_SIZE + index * SLOT_SIZE;
+        byte[] name = names[index];
+        int length = truncate(name, MAX_NAME_LENGTH);
+        mapped.put(slot + NAME_OFFSET, name, 0, length);
+        INT.set(mapped, slot + NAME_LENGTH_OFFSET, length);
+    }
+
+    /**
+     * Возвращает длину не больше {@code maxLength}, не разрывающую символ UTF-8.
+     *
+     * @param utf8      строка в UTF-8
+     * @param maxLength максимальная длина
+     */
+    @VisibleForTesting
+    static int truncate(byte[] utf8, int maxLength) {
+        if (utf8.length <= maxLength) {
+            return utf8.length;
+        }
+        int length = maxLength;
+        while (length > 0 && (utf8[length] & 0xc0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+}
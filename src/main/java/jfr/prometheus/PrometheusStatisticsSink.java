@@ -0,0 +1,245 @@
+package jfr.prometheus;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import jfr.logging.StatisticsSink;
+import jfr.stats.MethodTable;
+import jfr.stats.WindowMax;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накапливает статистику вызовов методов бинов и выводит её в текстовом формате Prometheus без Micrometer.
+ *
+ * <p>Метрики с метками {@code class} и {@code method}, и {@code dimension} для вызовов с измерением:</p>
+ * <ul>
+ *     <li>{@value #SELF_TIME} — гистограмма собственного времени без учёта вложенных методов, секунды;</li>
+ *     <li>{@value #MAX_TIME} — максимальное собственное время в скользящем окне {@link WindowMax}, секунды;</li>
+ *     <li>{@value #ERRORS} — количество вызовов, завершившихся исключением.</li>
+ * </ul>
+ *
+ * <p>Счётчики метода — {@link LongAdder}, найденные в {@link MethodTable} без создания объектов,
+ * метки метода экранируются один раз при первом вызове. {@link #scrape()} пишет значения счётчиков
+ * в переиспользуемый буфер, числа выводятся без промежуточных строк, поэтому сбор метрик не создаёт объектов
+ * на метод, кроме итогового текста. Статистика приходит по завершении корневого вызова: максимальное время метода
+ * в корневом вызове попадает в интервал гистограммы отдельным значением, остальные вызовы — по их среднему времени,
+ * поэтому выбросы видны и в гистограмме, и в максимуме.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public class PrometheusStatisticsSink implements StatisticsSink {
+    /**
+     * Гистограмма собственного времени метода.
+     */
+    public static final String SELF_TIME = "jfr_method_self_seconds";
+    /**
+     * Счётчик вызовов, завершившихся исключением.
+     */
+    public static final String ERRORS = "jfr_method_errors_total";
+    /**
+     * Максимальное собственное время метода в скользящем окне.
+     */
+    public static final String MAX_TIME = "jfr_method_self_max_seconds";
+    /**
+     * Тип содержимого ответа.
+     */
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    /**
+     * Верхние границы интервалов гистограммы, нс.
+     */
+    @VisibleForTesting
+    static final long[] BOUNDS = {
+            100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000,
+            10_000_000, 25_000_000, 50_000_000,
+            100_000_000, 250_000_000, 500_000_000,
+            1_000_000_000, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String[] LE = new String[BOUNDS.length];
+
+    static {
+        var builder = new StringBuilder();
+        for (int i = 0; i < BOUNDS.length; i++) {
+            builder.setLength(0);
+            appendSeconds(builder.append(",le=\""), BOUNDS[i]);
+            LE[i] = builder.append("\"}").toString();
+        }
+    }
+
+    @VisibleForTesting
+    final MethodTable<Counters> methods;
+    @VisibleForTesting
+    final StringBuilder buffer = new StringBuilder(1 << 16);
+
+    /**
+     * Создаёт получатель статистики.
+     *
+     * @param maxMethods максимальное количество методов, остальные учитываются с метками {@value MethodTable#OTHER}
+     * @param ticker     часы окна максимального времени, нс
+     */
+    public PrometheusStatisticsSink(int maxMethods, Ticker ticker) {
+        this.methods = new MethodTable<>(maxMethods, (beanClass, method, dimension) -> new Counters(beanClass, method, dimension,
+                ticker));
+    }
+
+    /**
+     * Счётчики метода.
+     */
+    @VisibleForTesting
+    static class Counters {
+        /**
+         * Экранированные метки метода без фигурных скобок.
+         */
+        final String labels;
+        /**
+         * Количество вызовов по интервалам гистограммы, последний — свыше всех границ.
+         */
+        final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        final LongAdder sum = new LongAdder();
+        final WindowMax max;
+        final LongAdder errors = new LongAdder();
+
+        Counters(String beanClass, String method, @Nullable String dimension, Ticker ticker) {
+            var builder = new StringBuilder("class=\"");
+            escape(builder, beanClass).append("\",method=\"");
+            escape(builder, method).append('"');
+            if (dimension != null) {
+                escape(builder.append(",dimension=\""), dimension).append('"');
+            }
+            labels = builder.toString();
+            max = new WindowMax(ticker);
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void add(int count, long sum, long max, int errors) {
+            buckets[bucket(max)].increment();
+            if (count > 1) {
+                buckets[bucket((sum - max) / (count - 1))].add(count - 1);
+            }
+            this.sum.add(sum);
+            this.max.record(max);
+            if (errors > 0) {
+                this.errors.add(errors);
+            }
+        }
+    }
+
+    @Override
+    public void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors) {
+        if (count > 0) {
+            methods.get(beanClass, method).add(count, sum, max, errors);
+        }
+    }
+
+    /**
+     * Возвращает метрики в текстовом формате Prometheus.
+     */
+    public synchronized String scrape() {
+        buffer.setLength(0);
+        write(buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Пишет метрики в текстовом формате Prometheus.
+     *
+     * @param out буфер
+     */
+    @VisibleForTesting
+    void write(StringBuilder out) {
+        List<Counters> values = methods.values();
+        out.append("# HELP ").append(SELF_TIME)
+                .append(" Bean method execution time excluding nested bean methods\n")
+                .append("# TYPE ").append(SELF_TIME).append(" histogram\n");
+        for (Counters counters : values) {
+            long cumulative = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                cumulative += counters.buckets[i].sum();
+                sample(out, SELF_TIME, "_bucket{", counters.labels, LE[i]).append(cumulative).append('\n');
+            }
+            cumulative += counters.buckets[BOUNDS.length].sum();
+            sample(out, SELF_TIME, "_bucket{", counters.labels, ",le=\"+Inf\"}").append(cumulative).append('\n');
+            appendSeconds(sample(out, SELF_TIME, "_sum{", counters.labels, "}"), counters.sum.sum()).append('\n');
+            sample(out, SELF_TIME, "_count{", counters.labels, "}").append(cumulative).append('\n');
+        }
+        out.append("# HELP ").append(MAX_TIME)
+                .append(" Bean method max execution time excluding nested bean methods in a time window\n")
+                .append("# TYPE ").append(MAX_TIME).append(" gauge\n");
+        for (Counters counters : values) {
+            appendSeconds(sample(out, MAX_TIME, "{", counters.labels, "}"), counters.max.poll()).append('\n');
+        }
+        out.append("# HELP ").append(ERRORS).append(" Bean method invocations completed with an exception\n")
+                .append("# TYPE ").append(ERRORS).append(" counter\n");
+        for (Counters counters : values) {
+            sample(out, ERRORS, "{", counters.labels, "}").append(counters.errors.sum()).append('\n');
+        }
+    }
+
+    /**
+     * Возвращает номер интервала гистограммы.
+     *
+     * @param nanos длительность, нс
+     */
+    @VisibleForTesting
+    static int bucket(long nanos) {
+        int i = 0;
+        while (i < BOUNDS.length && nanos > BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Пишет длительность в секундах без промежуточных строк.
+     *
+     * @param out   буфер
+     * @param nanos неотрицательная длительность, нс
+     */
+    @VisibleForTesting
+    static StringBuilder appendSeconds(StringBuilder out, long nanos) {
+        out.append(nanos / NANOS_PER_SECOND);
+        long fraction = nanos % NANOS_PER_SECOND;
+        if (fraction != 0) {
+            out.append('.');
+            for (long digit = NANOS_PER_SECOND / 10; digit > fraction; digit /= 10) {
+                out.append('0');
+            }
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+            }
+            out.append(fraction);
+        }
+        return out;
+    }
+
+    /**
+     * Экранирует значение метки.
+     *
+     * @param out   буфер
+     * @param value значение
+     */
+    @VisibleForTesting
+    static StringBuilder escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+
+    private static StringBuilder sample(StringBuilder out, String name, String suffix, String labels, String end) {
+        return out.append(name).append(suffix).append(labels).append(end).append(' ');
+    }
+}
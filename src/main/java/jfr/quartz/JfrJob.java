@@ -0,0 +1,98 @@
+package jfr.quartz;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.logging.JoinPointCallback;
+import jfr.logging.LoggingJoinPoint;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import java.util.List;
+
+/**
+ * Обёртка задачи Quartz, создаваемая {@link JfrJobFactory} на каждое срабатывание.
+ *
+ * <p>Одновременно является точкой вызова и обратным вызовом для
+ * {@link jfr.logging.JfrLoggingService#proceedCallback(LoggingJoinPoint, JoinPointCallback)},
+ * чтобы не создавать для выполнения задачи дополнительные объекты.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+final class JfrJob implements Job, LoggingJoinPoint, JoinPointCallback {
+    @VisibleForTesting
+    final JfrJobFactory factory;
+    @VisibleForTesting
+    final Job job;
+    @VisibleForTesting
+    final JobKey jobKey;
+    /**
+     * Ключ задачи, пишется в лог и JFR и является методом в статистике, чтобы задачи одного класса
+     * с разными {@link JobKey} учитывались отдельно.
+     */
+    @VisibleForTesting
+    final String name;
+    @VisibleForTesting
+    final TriggerKey triggerKey;
+    /**
+     * Время срабатывания триггера, мс, или время создания задачи перед выполнением, если неизвестно.
+     */
+    @VisibleForTesting
+    final long fireTime;
+    @VisibleForTesting
+    final long fireDelay;
+    @VisibleForTesting
+    final boolean misfire;
+    @VisibleForTesting
+    final JfrJobFactory.Pool pool;
+
+    @Nullable
+    @VisibleForTesting
+    JobExecutionContext context;
+
+    @Override
+    public void execute(JobExecutionContext context) {
+        this.context = context;
+        factory.execute(this);
+    }
+
+    @Override
+    public Object proceed() throws JobExecutionException {
+        job.execute(context);
+        return null;
+    }
+
+    @Override
+    public Object identityPoint() {
+        return null;
+    }
+
+    @Override
+    public Class<?> targetClass() {
+        return job.getClass();
+    }
+
+    @Override
+    public Object name() {
+        return name;
+    }
+
+    @Override
+    public Object method() {
+        return name;
+    }
+
+    @Override
+    public List<Object> args() {
+        return List.of(context);
+    }
+
+    @Override
+    public String toString() {
+        return "JfrJob{job=" + job + ", name=" + name + '}';
+    }
+}
@@ -1,45 +1,242 @@
 package jfr.quartz;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import jfr.event.QuartzJobEvent;
 import jfr.logging.JfrLoggingService;
-import jfr.logging.LoggingJoinPoint;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
+import org.quartz.SchedulerMetaData;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerListener;
 import org.quartz.spi.JobFactory;
 import org.quartz.spi.TriggerFiredBundle;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.scheduling.quartz.SpringBeanJobFactory;
 
-import java.util.List;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Обёртывает задачи Quartz Java Flight Recorder-ом.
  *
+ * <p>Кроме времени выполнения записывает событие {@link QuartzJobEvent} с задержкой срабатывания триггера,
+ * признаком пропуска срабатывания (misfire) и занятостью пула потоков планировщика,
+ * а также обновляет статистику {@link QuartzJobStatistics}. Статистика вызовов группируется по ключу задачи.</p>
+ *
+ * <p>Пропуски срабатываний отслеживаются как {@link TriggerListener}, если фабрика зарегистрирована в планировщике.</p>
+ *
+ * <p>Срабатывания бывают тысячами в минуту, поэтому фабрика Spring и имена задач кешируются,
+ * а на каждое срабатывание создаётся единственная обёртка {@link JfrJob}.</p>
+ *
+ * <p>Если задан {@link JobHistoryWriter}, выполнения асинхронно записываются в журнал в базе данных.</p>
+ *
  * @author Roman_Erzhukov
  */
+@Slf4j
 @RequiredArgsConstructor
-public class JfrJobFactory implements JobFactory {
+public class JfrJobFactory implements JobFactory, TriggerListener {
     private final ListableBeanFactory beanFactory;
     private final JfrLoggingService loggingService;
+    private final QuartzJobStatistics statistics;
+
+    /**
+     * Журнал выполнения задач, или null, если не ведётся.
+     */
+    @Nullable
+    @Setter
+    private JobHistoryWriter history;
+
+    /**
+     * Максимальное количество ключей в {@link #names} и {@link #misfired}: при превышении они очищаются,
+     * поэтому разовые задачи и удалённые триггеры не накапливаются.
+     */
+    @VisibleForTesting
+    static final int MAX_KEYS = 1000;
+
+    /**
+     * Триггеры, срабатывание которых пропущено, до их следующего срабатывания.
+     */
+    @VisibleForTesting
+    final Set<TriggerKey> misfired = ConcurrentHashMap.newKeySet();
+    /**
+     * Имена задач по ключу, чтобы не создавать строку при каждом срабатывании.
+     */
+    @VisibleForTesting
+    final Map<JobKey, String> names = new ConcurrentHashMap<>();
+    /**
+     * Фабрика задач Spring, определяется при первом срабатывании.
+     */
+    @VisibleForTesting
+    volatile JobFactory delegate;
+    /**
+     * Пулы потоков планировщиков.
+     */
+    @VisibleForTesting
+    final Map<Scheduler, Pool> pools = new ConcurrentHashMap<>();
 
     @Override
     public Job newJob(TriggerFiredBundle bundle, Scheduler scheduler) throws SchedulerException {
-        JobFactory delegate = beanFactory.getBean(SpringBeanJobFactory.class);
-        Job job = delegate.newJob(bundle, scheduler);
-        return context -> {
-            String execute = "execute";
-            var joinPoint = LoggingJoinPoint.of(null, job.getClass(), execute, execute, List.of(context));
+        Job job = getDelegate().newJob(bundle, scheduler);
+        JobKey jobKey = bundle.getJobDetail().getKey();
+        TriggerKey triggerKey = bundle.getTrigger().getKey();
+        Date fireTime = bundle.getFireTime();
+        return new JfrJob(this, job, jobKey, name(jobKey), triggerKey,
+                fireTime == null ? System.currentTimeMillis() : fireTime.getTime(),
+                fireDelay(fireTime, bundle.getScheduledFireTime()),
+                misfired.remove(triggerKey),
+                pools.computeIfAbsent(scheduler, Pool::of));
+    }
+
+    /**
+     * Возвращает имя задачи из кеша.
+     *
+     * @param jobKey ключ задачи
+     */
+    @VisibleForTesting
+    String name(JobKey jobKey) {
+        String result = names.get(jobKey);
+        if (result == null) {
+            result = jobKey.toString();
+            if (names.size() >= MAX_KEYS) {
+                names.clear();
+            }
+            names.put(jobKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает фабрику задач Spring, которой делегируется создание задач.
+     */
+    @VisibleForTesting
+    JobFactory getDelegate() {
+        JobFactory result = delegate;
+        if (result == null) {
+            result = delegate = beanFactory.getBean(SpringBeanJobFactory.class);
+        }
+        return result;
+    }
+
+    @VisibleForTesting
+    void execute(JfrJob job) {
+        QuartzJobEvent event = newEvent();
+        boolean enabled = event.isEnabled();
+        Pool pool = job.pool;
+        int busy = pool.busy.incrementAndGet();
+        Class<?> jobClass = job.targetClass();
+        if (enabled) {
+            event.beanClass = jobClass;
+            event.method = job.name;
+            event.triggerKey = job.triggerKey.toString();
+            event.fireDelay = job.fireDelay;
+            event.misfire = job.misfire;
+            event.poolSize = pool.size;
+            event.poolBusy = busy;
+            event.begin();
+        }
+        long start = statistics.start();
+        boolean failed = true;
+        try {
+            loggingService.proceedCallback(job, job);
+            failed = false;
+        } catch (Throwable t) {
+            if (enabled) {
+                event.exception = t.getClass();
+                event.message = t.getMessage();
+            }
+            Throwables.throwIfUnchecked(t);
+            throw new RuntimeException(t.getMessage(), t);
+        } finally {
+            pool.busy.decrementAndGet();
+            long runTime = statistics.record(job.jobKey, jobClass, job.fireDelay, job.misfire, failed, start);
+            if (history != null) {
+                history.offer(new JobHistoryRecord(pool.schedulerName(), pool.instanceId(), job.jobKey, job.triggerKey,
+                        jobClass, job.fireTime, job.fireDelay, runTime, job.misfire, failed));
+            }
+            if (enabled) {
+                event.commit();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    QuartzJobEvent newEvent() {
+        return new QuartzJobEvent();
+    }
+
+    /**
+     * Возвращает задержку срабатывания относительно расписания, нс.
+     *
+     * @param fireTime          время срабатывания, или null
+     * @param scheduledFireTime время срабатывания по расписанию, или null
+     */
+    @VisibleForTesting
+    static long fireDelay(Date fireTime, Date scheduledFireTime) {
+        if (fireTime == null || scheduledFireTime == null) {
+            return 0;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(fireTime.getTime() - scheduledFireTime.getTime(), 0));
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getName();
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        if (misfired.size() >= MAX_KEYS) {
+            log.debug("triggerMisfired {}: more than {} misfired triggers, clear", trigger.getKey(), MAX_KEYS);
+            misfired.clear();
+        }
+        misfired.add(trigger.getKey());
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context, Trigger.CompletedExecutionInstruction triggerInstructionCode) {
+    }
+
+    /**
+     * Пул потоков планировщика.
+     *
+     * @param schedulerName имя планировщика, или null, если неизвестно
+     * @param instanceId    идентификатор экземпляра планировщика в кластере, или null, если неизвестен
+     * @param size          размер пула, или -1, если неизвестен
+     * @param busy          количество выполняемых задач
+     */
+    @VisibleForTesting
+    record Pool(String schedulerName, String instanceId, int size, AtomicInteger busy) {
+        static Pool of(Scheduler scheduler) {
             try {
-                loggingService.proceedCallback(joinPoint, () -> {
-                    job.execute(context);
-                    return null;
-                });
-            } catch (Throwable t) {
-                Throwables.throwIfUnchecked(t);
-                throw new RuntimeException(t.getMessage(), t);
+                SchedulerMetaData metaData = scheduler.getMetaData();
+                return new Pool(metaData.getSchedulerName(), metaData.getSchedulerInstanceId(),
+                        metaData.getThreadPoolSize(), new AtomicInteger());
+            } catch (SchedulerException | RuntimeException e) {
+                log.warn("Unable to get metadata of {}", scheduler, e);
+                return new Pool(null, null, -1, new AtomicInteger());
             }
-        };
+        }
     }
 }
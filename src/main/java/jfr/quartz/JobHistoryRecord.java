@@ -0,0 +1,24 @@
+package jfr.quartz;
+
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+/**
+ * Запись журнала выполнения задачи Quartz, см. {@link JobHistoryWriter}.
+ *
+ * @param schedulerName имя планировщика, или null, если неизвестно
+ * @param instanceId    идентификатор экземпляра планировщика в кластере, или null, если неизвестен
+ * @param jobKey        ключ задачи
+ * @param triggerKey    ключ триггера
+ * @param jobClass      класс задачи
+ * @param fireTime      время срабатывания триггера, или начала выполнения, если неизвестно, мс
+ * @param fireDelay     задержка срабатывания относительно расписания, нс
+ * @param runTime       время выполнения, нс
+ * @param misfire       пропущено ли срабатывание по расписанию
+ * @param failed        завершилось ли выполнение ошибкой
+ * @author Roman_Erzhukov
+ */
+public record JobHistoryRecord(String schedulerName, String instanceId, JobKey jobKey, TriggerKey triggerKey,
+                               Class<?> jobClass, long fireTime, long fireDelay, long runTime,
+                               boolean misfire, boolean failed) {
+}
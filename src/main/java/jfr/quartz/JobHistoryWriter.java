@@ -0,0 +1,169 @@
+package jfr.quartz;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронно записывает журнал выполнения задач Quartz в таблицу базы данных.
+ *
+ * <p>В кластере Quartz задачи выполняются на разных узлах, и файлы JFR каждого узла дают неполную картину.
+ * Журнал в базе данных JDBC JobStore позволяет анализировать задержки и время выполнения задач по всему кластеру.</p>
+ *
+ * <p>Потоки Quartz только кладут записи в ограниченную очередь и никогда не блокируются:
+ * при переполнении очереди запись отбрасывается и учитывается в {@link #getDropped()}.
+ * Единственный фоновый поток пишет записи пакетами через {@link PreparedStatement#addBatch()}.
+ * Ошибки записи в базу данных пишутся в лог, пакет отбрасывается.</p>
+ *
+ * <p>Таблица создаётся скриптом {@code jfr/quartz/jfr_job_history.sql}.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class JobHistoryWriter implements Closeable {
+    /**
+     * Имя таблицы по умолчанию.
+     */
+    public static final String DEFAULT_TABLE = "JFR_JOB_HISTORY";
+
+    private static final long POLL_MILLIS = 1000;
+    private static final long CLOSE_MILLIS = 10_000;
+
+    @VisibleForTesting
+    final DataSource dataSource;
+    @VisibleForTesting
+    final String insert;
+    @VisibleForTesting
+    final int batchSize;
+    @VisibleForTesting
+    final BlockingQueue<JobHistoryRecord> queue;
+    @VisibleForTesting
+    final Thread thread;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Создаёт журнал.
+     *
+     * @param dataSource источник соединений, обычно тот же, что у JDBC JobStore
+     * @param table      имя таблицы
+     * @param capacity   максимальное количество записей в очереди
+     * @param batchSize  максимальное количество записей в пакете
+     */
+    public JobHistoryWriter(DataSource dataSource, String table, int capacity, int batchSize) {
+        this.dataSource = dataSource;
+        this.insert = "insert into " + table + " (SCHED_NAME, INSTANCE_ID, JOB_GROUP, JOB_NAME, TRIGGER_GROUP, TRIGGER_NAME," +
+                " JOB_CLASS, FIRE_TIME, FIRE_DELAY, RUN_TIME, MISFIRE, FAILED) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "jfr-job-history");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Запускает фоновую запись.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Останавливает фоновую запись, дописав накопленные записи.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(CLOSE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} job history records not written", queue.size());
+        }
+    }
+
+    /**
+     * Добавляет запись в очередь без блокировки.
+     *
+     * @param record запись
+     * @return false, если очередь переполнена и запись отброшена
+     */
+    public boolean offer(JobHistoryRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает количество отброшенных записей.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @VisibleForTesting
+    void run() {
+        List<JobHistoryRecord> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                JobHistoryRecord first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Unable to write {} job history records", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void write(List<JobHistoryRecord> batch) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (JobHistoryRecord record : batch) {
+                statement.setString(1, record.schedulerName());
+                statement.setString(2, record.instanceId());
+                statement.setString(3, record.jobKey().getGroup());
+                statement.setString(4, record.jobKey().getName());
+                statement.setString(5, record.triggerKey().getGroup());
+                statement.setString(6, record.triggerKey().getName());
+                statement.setString(7, record.jobClass().getName());
+                statement.setTimestamp(8, new Timestamp(record.fireTime()));
+                statement.setLong(9, record.fireDelay());
+                statement.setLong(10, record.runTime());
+                statement.setBoolean(11, record.misfire());
+                statement.setBoolean(12, record.failed());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to write {} job history records", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package jfr.quartz;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import jdk.jfr.FlightRecorder;
+import jfr.event.QuartzJobStatisticsEvent;
+import jfr.stats.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import org.quartz.JobKey;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика выполнения задач Quartz по ключу задачи.
+ *
+ * <p>Обновляется без блокировок при каждом выполнении, независимо от порогов регистрации вызовов,
+ * и периодически записывается в Java Flight Recorder событиями {@link QuartzJobStatisticsEvent}.
+ * Статистика задачи, не выполнявшейся весь период, удаляется, поэтому разовые задачи и задачи
+ * со сгенерированными ключами не накапливаются. Выполнение, завершившееся одновременно с удалением,
+ * может не попасть в статистику.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@RequiredArgsConstructor
+public class QuartzJobStatistics implements Runnable, Closeable {
+    @VisibleForTesting
+    final Map<JobKey, JobStatistic> jobs = new ConcurrentHashMap<>();
+    @VisibleForTesting
+    final Ticker ticker;
+
+    /**
+     * Подключает периодическую запись статистики в Java Flight Recorder.
+     */
+    public void register() {
+        FlightRecorder.addPeriodicEvent(QuartzJobStatisticsEvent.class, this);
+    }
+
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(this);
+    }
+
+    /**
+     * Возвращает время начала выполнения для {@link #record(JobKey, Class, long, boolean, boolean, long)}.
+     */
+    public long start() {
+        return ticker.read();
+    }
+
+    /**
+     * Регистрирует завершение выполнения задачи.
+     *
+     * @param jobKey    ключ задачи
+     * @param jobClass  класс задачи
+     * @param fireDelay задержка срабатывания триггера, нс
+     * @param misfire   пропущено ли срабатывание по расписанию
+     * @param failed    завершилось ли выполнение ошибкой
+     * @param start     время начала выполнения, см. {@link #start()}
+     * @return время выполнения, нс
+     */
+    public long record(JobKey jobKey, Class<?> jobClass, long fireDelay, boolean misfire, boolean failed, long start) {
+        long runTime = ticker.read() - start;
+        jobs.computeIfAbsent(jobKey, key -> new JobStatistic(key, jobClass))
+                .record(fireDelay, runTime, misfire, failed);
+        return runTime;
+    }
+
+    /**
+     * Записывает статистику в Java Flight Recorder и обнуляет её, удаляя задачи без выполнений за период.
+     */
+    @Override
+    public void run() {
+        jobs.forEach((jobKey, statistic) -> {
+            if (!statistic.commit() && jobs.remove(jobKey, statistic)) {
+                // Выполнения, записанные до удаления.
+                statistic.commit();
+            }
+        });
+    }
+
+    /**
+     * Статистика одной задачи.
+     */
+    @VisibleForTesting
+    static final class JobStatistic {
+        @VisibleForTesting
+        final String jobKey;
+        @VisibleForTesting
+        final Class<?> jobClass;
+        @VisibleForTesting
+        final LatencyHistogram fireDelay = new LatencyHistogram();
+        @VisibleForTesting
+        final LatencyHistogram runTime = new LatencyHistogram();
+        @VisibleForTesting
+        final LongAdder errors = new LongAdder();
+        @VisibleForTesting
+        final LongAdder misfires = new LongAdder();
+
+        @VisibleForTesting
+        JobStatistic(JobKey jobKey, Class<?> jobClass) {
+            this.jobKey = jobKey.toString();
+            this.jobClass = jobClass;
+        }
+
+        @VisibleForTesting
+        void record(long fireDelayNanos, long runTimeNanos, boolean misfire, boolean failed) {
+            fireDelay.record(fireDelayNanos);
+            runTime.record(runTimeNanos);
+            if (misfire) {
+                misfires.increment();
+            }
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        /**
+         * Записывает событие и обнуляет статистику.
+         *
+         * @return были ли выполнения
+         */
+        @VisibleForTesting
+        boolean commit() {
+            LatencyHistogram.Snapshot delays = fireDelay.drain();
+            LatencyHistogram.Snapshot runs = runTime.drain();
+            long errorCount = errors.sumThenReset();
+            long misfireCount = misfires.sumThenReset();
+            if (runs.count() == 0) {
+                return false;
+            }
+            var event = new QuartzJobStatisticsEvent();
+            event.jobClass = jobClass;
+            event.jobKey = jobKey;
+            event.count = runs.count();
+            event.errors = errorCount;
+            event.misfires = misfireCount;
+            event.fireDelayMean = delays.mean();
+            event.fireDelayP99 = delays.percentile(99);
+            event.fireDelayMax = delays.max();
+            event.runTimeMean = runs.mean();
+            event.runTimeP99 = runs.percentile(99);
+            event.runTimeMax = runs.max();
+            event.commit();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package jfr.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма длительностей с неблокирующим обновлением.
+ *
+ * <p>Интервалы логарифмические: каждая степень двойки делится на {@value #SUB_BUCKETS} интервала,
+ * поэтому относительная погрешность процентилей не превышает 25%, а память постоянна.</p>
+ *
+ * <p>{@link #drain()} возвращает накопленные значения и обнуляет гистограмму, поэтому каждый снимок
+ * описывает интервал между вызовами. Обновления, выполняемые одновременно со снимком, могут попасть
+ * в разные поля разных снимков, но не теряются.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public final class LatencyHistogram {
+    @VisibleForTesting
+    static final int SUB_BUCKETS = 4;
+    @VisibleForTesting
+    static final int BUCKETS = (Long.SIZE - 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Регистрирует длительность.
+     *
+     * @param nanos длительность, нс
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Регистрирует несколько одинаковых длительностей.
+     *
+     * @param nanos длительность, нс
+     * @param times количество
+     */
+    public void record(long nanos, long times) {
+        if (times <= 0) {
+            return;
+        }
+        long value = Math.max(nanos, 0);
+        counts.addAndGet(bucket(value), times);
+        sum.add(value * times);
+        max.accumulate(value);
+    }
+
+    /**
+     * Возвращает накопленные значения и обнуляет гистограмму.
+     */
+    public Snapshot drain() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                buckets[i] = counts.getAndSet(i, 0);
+                count += buckets[i];
+            }
+        }
+        return new Snapshot(buckets, count, sum.sumThenReset(), max.getThenReset());
+    }
+
+    /**
+     * Возвращает накопленные значения, не обнуляя гистограмму.
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts.get(i);
+            count += buckets[i];
+        }
+        return new Snapshot(buckets, count, sum.sum(), max.get());
+    }
+
+    /**
+     * Возвращает номер интервала.
+     *
+     * @param value неотрицательное значение
+     */
+    @VisibleForTesting
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return (exponent - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Возвращает верхнюю границу интервала включительно.
+     *
+     * @param bucket номер интервала
+     */
+    @VisibleForTesting
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int next = bucket + 1;
+        int exponent = next / SUB_BUCKETS + 1;
+        long lower = (long) (SUB_BUCKETS + next % SUB_BUCKETS) << (exponent - 2);
+        return lower - 1;
+    }
+
+    /**
+     * Снимок гистограммы.
+     *
+     * @param counts количество значений по интервалам
+     * @param count  количество значений
+     * @param sum    сумма значений, нс
+     * @param max    максимальное значение, нс
+     */
+    public record Snapshot(long[] counts, long count, long sum, long max) {
+        /**
+         * Возвращает среднее значение, нс, или 0, если значений нет.
+         */
+        public long mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Возвращает оценку дисперсии по серединам интервалов, нс², или 0, если значений меньше двух.
+         */
+        public double variance() {
+            if (count < 2) {
+                return 0;
+            }
+            double mean = (double) sum / count;
+            double squares = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    long lower = i == 0 ? 0 : upperBound(i - 1) + 1;
+                    double deviation = (lower + (double) Math.min(upperBound(i), max)) / 2 - mean;
+                    squares += counts[i] * deviation * deviation;
+                }
+            }
+            return squares / (count - 1);
+        }
+
+        /**
+         * Возвращает сумму снимков.
+         *
+         * @param other другой снимок
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] buckets = counts.clone();
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.counts[i];
+            }
+            return new Snapshot(buckets, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+
+        /**
+         * Возвращает оценку процентиля сверху, нс, или 0, если значений нет.
+         *
+         * @param percentile процентиль от 0 до 100
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package jfr.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.logging.Dimensions;
+import jfr.logging.StatisticsSink;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Значения, созданные по одному на метод бина, с ограниченным количеством методов.
+ *
+ * <p>Поиск по классу бина и методу не создаёт объектов: {@link ClassValue} хранит таблицу методов класса,
+ * ключ таблицы — сам метод. Значение создаётся один раз на класс, имя метода {@link StatisticsSink#name(Object)}
+ * и значение измерения {@link StatisticsSink#dimension(Object)}: перегруженные методы с одним именем получают
+ * одно значение, иначе получатели публиковали бы их под одинаковыми метками. Ограничение {@link #maxMethods}
+ * считает класс и имя метода, а не значения измерения: их количество на метод ограничивает {@link Dimensions}.
+ * Получатели с фиксированным местом задают ещё и ограничение {@link #maxValues} количества всех значений,
+ * с учётом значений измерения. Методы и значения измерения сверх ограничений получают общее значение,
+ * созданное для класса и метода {@value #OTHER} без измерения.</p>
+ *
+ * @param <V> тип значения
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class MethodTable<V> {
+    /**
+     * Класс и метод общего значения для методов сверх ограничения.
+     */
+    public static final String OTHER = "other";
+
+    @VisibleForTesting
+    final int maxMethods;
+    /**
+     * Максимальное количество значений без общего, с учётом значений измерения.
+     */
+    @VisibleForTesting
+    final int maxValues;
+    @VisibleForTesting
+    final Factory<V> factory;
+    @VisibleForTesting
+    final ClassValue<Map<Object, V>> methods = new ClassValue<>() {
+        @Override
+        protected Map<Object, V> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    /**
+     * Имена методов класса, учтённые в ограничении {@link #maxMethods}.
+     */
+    @VisibleForTesting
+    final ClassValue<Set<String>> names = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            return ConcurrentHashMap.newKeySet();
+        }
+    };
+    @VisibleForTesting
+    final List<V> values = new CopyOnWriteArrayList<>();
+    @VisibleForTesting
+    volatile @Nullable V other;
+    private volatile int size;
+
+    /**
+     * Создаёт таблицу без ограничения количества значений измерения.
+     *
+     * @param maxMethods максимальное количество методов
+     * @param factory    создаёт значение метода
+     */
+    public MethodTable(int maxMethods, Factory<V> factory) {
+        this(maxMethods, Integer.MAX_VALUE, factory);
+    }
+
+    /**
+     * Создаёт таблицу.
+     *
+     * @param maxMethods максимальное количество методов
+     * @param maxValues  максимальное количество значений без общего, с учётом значений измерения
+     * @param factory    создаёт значение метода
+     */
+    public MethodTable(int maxMethods, int maxValues, Factory<V> factory) {
+        this.maxMethods = maxMethods;
+        this.maxValues = maxValues;
+        this.factory = factory;
+    }
+
+    /**
+     * Создаёт значение метода.
+     *
+     * @param <V> тип значения
+     */
+    @FunctionalInterface
+    public interface Factory<V> {
+        /**
+         * Создаёт значение по имени класса бина, имени метода и значению измерения.
+         *
+         * @param beanClass имя класса бина
+         * @param method    имя метода
+         * @param dimension значение измерения, или null
+         */
+        V create(String beanClass, String method, @Nullable String dimension);
+    }
+
+    /**
+     * Ключ значения метода с измерением.
+     */
+    private record DimensionKey(String method, String dimension) {
+    }
+
+    /**
+     * Возвращает значение метода, создавая его при первом обращении.
+     *
+     * @param beanClass класс бина
+     * @param method    метод
+     */
+    public V get(Class<?> beanClass, Object method) {
+        Map<Object, V> classMethods = methods.get(beanClass);
+        V result = classMethods.get(method);
+        if (result != null) {
+            return result;
+        }
+        String name = StatisticsSink.name(method);
+        String dimension = StatisticsSink.dimension(method);
+        result = other;
+        if (result == null || names.get(beanClass).contains(name)) {
+            Object key = dimension == null ? name : new DimensionKey(name, dimension);
+            result = classMethods.get(key);
+            if (result == null) {
+                result = create(beanClass, classMethods, key, name, dimension);
+            }
+        }
+        if (method instanceof Method || dimension != null) {
+            classMethods.putIfAbsent(method, result);
+        }
+        return result;
+    }
+
+    private synchronized V create(Class<?> beanClass, Map<Object, V> classMethods, Object key, String name,
+                                  @Nullable String dimension) {
+        V result = classMethods.get(key);
+        if (result == null) {
+            Set<String> classNames = names.get(beanClass);
+            boolean counted = classNames.contains(name);
+            if (!counted && size >= maxMethods || values.size() - (other == null ? 0 : 1) >= maxValues) {
+                return other();
+            }
+            if (!counted) {
+                classNames.add(name);
+                size++;
+            }
+            result = factory.create(beanClass.getName(), name, dimension);
+            classMethods.put(key, result);
+            values.add(result);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает все созданные значения, включая общее, в порядке создания.
+     */
+    public List<V> values() {
+        return values;
+    }
+
+    /**
+     * Возвращает количество методов со своими значениями, без учёта значений измерения.
+     */
+    public int size() {
+        return size;
+    }
+
+    private V other() {
+        V result = other;
+        if (result == null) {
+            log.warn("More than {} methods or {} values, the rest are published as \"{}\"", maxMethods, maxValues,
+                    OTHER);
+            result = factory.create(OTHER, OTHER, null);
+            values.add(result);
+            other = result;
+        }
+        return result;
+    }
+}
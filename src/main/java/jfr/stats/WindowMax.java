@@ -0,0 +1,116 @@
+package jfr.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Максимальное значение в скользящем окне времени с неблокирующим обновлением, без Micrometer.
+ *
+ * <p>Повторяет {@code TimeWindowMax} Micrometer: кольцо из {@link #DEFAULT_BUFFERS} максимумов, каждый из которых
+ * покрывает окно {@link #DEFAULT_EXPIRY}, а начинается на {@code expiry / buffers} позже предыдущего. Значение
+ * записывается во все максимумы кольца, читается самый старый. Поэтому чтение не сбрасывает значение:
+ * несколько сборщиков метрик видят один и тот же максимум, а выброс остаётся виден
+ * не меньше {@code expiry * (buffers - 1) / buffers}.</p>
+ *
+ * <p>Кольцо поворачивает один поток, одновременные обновления и чтения не ждут его.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+public final class WindowMax {
+    /**
+     * Длительность окна, как {@code DistributionStatisticConfig.DEFAULT} Micrometer.
+     */
+    public static final Duration DEFAULT_EXPIRY = Duration.ofMinutes(2);
+    /**
+     * Количество максимумов в кольце, как {@code DistributionStatisticConfig.DEFAULT} Micrometer.
+     */
+    public static final int DEFAULT_BUFFERS = 3;
+
+    private final Ticker ticker;
+    @VisibleForTesting
+    final long rotateNanos;
+    private final AtomicLongArray ring;
+    private final AtomicBoolean rotating = new AtomicBoolean();
+    @VisibleForTesting
+    volatile int current;
+    @VisibleForTesting
+    volatile long rotatedAt;
+
+    /**
+     * Создаёт максимум с окном {@link #DEFAULT_EXPIRY} из {@link #DEFAULT_BUFFERS} максимумов.
+     *
+     * @param ticker часы, нс
+     */
+    public WindowMax(Ticker ticker) {
+        this(ticker, DEFAULT_EXPIRY, DEFAULT_BUFFERS);
+    }
+
+    /**
+     * Создаёт максимум.
+     *
+     * @param ticker  часы, нс
+     * @param expiry  длительность окна
+     * @param buffers количество максимумов в кольце
+     */
+    public WindowMax(Ticker ticker, Duration expiry, int buffers) {
+        if (buffers < 1 || expiry.toNanos() < buffers) {
+            throw new IllegalArgumentException("Invalid expiry " + expiry + " or buffers " + buffers);
+        }
+        this.ticker = ticker;
+        this.rotateNanos = expiry.toNanos() / buffers;
+        this.ring = new AtomicLongArray(buffers);
+        this.rotatedAt = ticker.read();
+    }
+
+    /**
+     * Регистрирует значение.
+     *
+     * @param value неотрицательное значение
+     */
+    public void record(long value) {
+        rotate();
+        for (int i = 0; i < ring.length(); i++) {
+            ring.accumulateAndGet(i, value, Math::max);
+        }
+    }
+
+    /**
+     * Возвращает максимальное значение в окне, или 0, если значений не было.
+     */
+    public long poll() {
+        rotate();
+        return ring.get(current);
+    }
+
+    private void rotate() {
+        long now = ticker.read();
+        if (now - rotatedAt < rotateNanos || !rotating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long elapsed = now - rotatedAt;
+            if (elapsed >= rotateNanos * ring.length()) {
+                for (int i = 0; i < ring.length(); i++) {
+                    ring.set(i, 0);
+                }
+                rotatedAt = now;
+                return;
+            }
+            int i = current;
+            long rotated = rotatedAt;
+            while (now - rotated >= rotateNanos) {
+                ring.set(i, 0);
+                i = (i + 1) % ring.length();
+                rotated += rotateNanos;
+            }
+            current = i;
+            rotatedAt = rotated;
+        } finally {
+            rotating.set(false);
+        }
+    }
+}
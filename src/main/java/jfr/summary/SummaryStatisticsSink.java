@@ -0,0 +1,190 @@
+package jfr.summary;
+
+import com.google.common.annotations.VisibleForTesting;
+import jfr.logging.StatisticsSink;
+import jfr.stats.MethodTable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накапливает статистику методов бинов по всем корневым вызовам за интервал и раз в интервал пишет в лог
+ * одну сводную таблицу уровня INFO: методы с наибольшим суммарным собственным временем.
+ *
+ * <p>Заменяет построчную статистику каждого корневого вызова на уровне DEBUG: объём лога не зависит
+ * от количества вызовов. Счётчики метода — {@link LongAdder} из {@link MethodTable}, приём статистики
+ * не создаёт объектов и не блокирует бизнес-потоки. Счётчики обнуляются при выводе сводки, поэтому вызовы,
+ * завершившиеся во время вывода, могут попасть в следующий интервал, но не теряются.
+ * Если за интервал не было вызовов, сводка не пишется.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@Slf4j
+public class SummaryStatisticsSink implements StatisticsSink, Closeable {
+    @VisibleForTesting
+    final long intervalSeconds;
+    @VisibleForTesting
+    final int top;
+    @VisibleForTesting
+    final MethodTable<Counters> methods;
+    @VisibleForTesting
+    @Nullable
+    ScheduledExecutorService scheduler;
+    /**
+     * Начало текущего интервала, {@link System#nanoTime()}.
+     */
+    @VisibleForTesting
+    long intervalStart = System.nanoTime();
+
+    /**
+     * Создаёт получатель статистики.
+     *
+     * @param intervalSeconds интервал сводки, секунды
+     * @param maxMethods      максимальное количество методов, остальные учитываются как {@value MethodTable#OTHER}
+     * @param top             количество методов в сводке
+     */
+    public SummaryStatisticsSink(long intervalSeconds, int maxMethods, int top) {
+        if (intervalSeconds < 1 || top < 1) {
+            throw new IllegalArgumentException("Invalid intervalSeconds " + intervalSeconds + " or top " + top);
+        }
+        this.intervalSeconds = intervalSeconds;
+        this.top = top;
+        this.methods = new MethodTable<>(maxMethods, Counters::new);
+    }
+
+    /**
+     * Счётчики метода за интервал.
+     */
+    @VisibleForTesting
+    static class Counters {
+        final String beanClass;
+        final String method;
+        final LongAdder count = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Counters(String beanClass, String method, @Nullable String dimension) {
+            this.beanClass = beanClass.substring(beanClass.lastIndexOf('.') + 1);
+            this.method = StatisticsSink.name(method, dimension);
+        }
+
+        Summary reset() {
+            return new Summary(this, count.sumThenReset(), sum.sumThenReset(), max.getThenReset(),
+                    errors.sumThenReset());
+        }
+    }
+
+    /**
+     * Статистика метода за интервал.
+     */
+    @VisibleForTesting
+    record Summary(Counters counters, long count, long sum, long max, long errors) {
+    }
+
+    /**
+     * Запускает периодический вывод сводки.
+     */
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "jfr-statistics-summary");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Останавливает периодический вывод и пишет сводку за неполный интервал.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            report();
+        }
+    }
+
+    @Override
+    public void accept(Class<?> beanClass, Object method, long pathId, int count, long sum, long min, long max, int errors) {
+        if (count > 0) {
+            Counters counters = methods.get(beanClass, method);
+            counters.count.add(count);
+            counters.sum.add(sum);
+            counters.max.accumulate(max);
+            if (errors > 0) {
+                counters.errors.add(errors);
+            }
+        }
+    }
+
+    /**
+     * Пишет сводку за интервал и обнуляет счётчики.
+     */
+    @VisibleForTesting
+    void report() {
+        try {
+            String summary = summary();
+            if (summary != null) {
+                log.info("{}", summary);
+            }
+        } catch (RuntimeException e) {
+            log.warn("report", e);
+        }
+    }
+
+    /**
+     * Возвращает сводку за интервал и обнуляет счётчики, или null, если вызовов не было.
+     */
+    @VisibleForTesting
+    @Nullable
+    synchronized String summary() {
+        long now = System.nanoTime();
+        long elapsed = now - intervalStart;
+        intervalStart = now;
+        List<Summary> summaries = new ArrayList<>();
+        long count = 0;
+        long sum = 0;
+        for (Counters counters : methods.values()) {
+            Summary summary = counters.reset();
+            if (summary.count() > 0) {
+                summaries.add(summary);
+                count += summary.count();
+                sum += summary.sum();
+            }
+        }
+        if (summaries.isEmpty()) {
+            return null;
+        }
+        summaries.sort(Comparator.comparingLong(Summary::sum).reversed());
+        var sb = new StringBuilder()
+                .append("Bean methods for ").append(formatTime(elapsed)).append(": ")
+                .append(summaries.size()).append(" methods, ").append(count).append(" calls, total ")
+                .append(formatTime(sum))
+                .append(String.format("\n\t%12s %10s %12s %12s %8s  %s", "total", "calls", "avg", "max", "errors",
+                        "method"));
+        for (Summary summary : summaries.subList(0, Math.min(top, summaries.size()))) {
+            sb.append(String.format("\n\t%12s %10d %12s %12s %8d  %s.%s", formatTime(summary.sum()), summary.count(),
+                    formatTime(summary.sum() / summary.count()), formatTime(summary.max()), summary.errors(),
+                    summary.counters().beanClass, summary.counters().method));
+        }
+        return sb.toString();
+    }
+
+    private static String formatTime(long nanos) {
+        return DurationFormatUtils.formatDurationHMS(nanos / 1000_000);
+    }
+}
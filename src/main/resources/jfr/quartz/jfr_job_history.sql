@@ -0,0 +1,19 @@
+-- Журнал выполнения задач Quartz, см. jfr.quartz.JobHistoryWriter.
+-- Времена FIRE_DELAY и RUN_TIME в наносекундах.
+create table JFR_JOB_HISTORY
+(
+    SCHED_NAME    varchar(120),
+    INSTANCE_ID   varchar(200),
+    JOB_GROUP     varchar(200) not null,
+    JOB_NAME      varchar(200) not null,
+    TRIGGER_GROUP varchar(200) not null,
+    TRIGGER_NAME  varchar(200) not null,
+    JOB_CLASS     varchar(250) not null,
+    FIRE_TIME     timestamp    not null,
+    FIRE_DELAY    bigint       not null,
+    RUN_TIME      bigint       not null,
+    MISFIRE       boolean      not null,
+    FAILED        boolean      not null
+);
+
+create index IDX_JFR_JOB_HISTORY_JOB on JFR_JOB_HISTORY (JOB_GROUP, JOB_NAME, FIRE_TIME);
@@ -0,0 +1,107 @@
+package jfr.actuator;
+
+import jfr.analysis.MethodKey;
+import jfr.analysis.MethodStatistic;
+import jfr.live.LiveWindow;
+import jfr.live.WindowStatistic;
+import jfr.live.WindowedStatistics;
+import jfr.stats.LatencyHistogram;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Тесты для {@link JfrMethodsEndpoint}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrMethodsEndpointTest {
+    @Mock
+    WindowedStatistics statistics;
+
+    WindowStatistic slow = statistic("slow", 10, 50_000_000, 0);
+    WindowStatistic frequent = statistic("frequent", 1000, 10_000_000, 10);
+    WindowStatistic failing = statistic("failing", 4, 4_000_000, 2);
+
+    @ParameterizedTest
+    @CsvSource({"sum,slow", "count,frequent", "p99,slow", "errors,failing", "ERRORS,failing"})
+    void methods(String sort, String expected) {
+        var subj = new JfrMethodsEndpoint(statistics);
+        doReturn(List.of(frequent, slow, failing)).when(statistics).statistics(LiveWindow.FIVE_MINUTES);
+        long dropped = uid();
+        doReturn(dropped).when(statistics).dropped();
+
+        JfrMethodsEndpoint.HotMethods actual = subj.methods("5m", sort, 1);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("window", actual.window(), "5m")
+                .add("sort", actual.sort(), sort.toLowerCase())
+                .add("dropped", actual.dropped(), dropped)
+        ));
+        assertThat(actual.methods()).singleElement()
+                .extracting(JfrMethodsEndpoint.HotMethod::method)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void methodsDefaults() {
+        var subj = new JfrMethodsEndpoint(statistics);
+        doReturn(List.of(frequent, slow, failing)).when(statistics).statistics(LiveWindow.MINUTE);
+
+        JfrMethodsEndpoint.HotMethods actual = subj.methods(null, null, null);
+
+        assertThat(actual.window()).isEqualTo("1m");
+        assertThat(actual.sort()).isEqualTo("sum");
+        assertThat(actual.methods())
+                .extracting(JfrMethodsEndpoint.HotMethod::method)
+                .containsExactly("slow", "frequent", "failing");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1h,sum,1", "1m,name,1", "1m,sum,0"})
+    void methodsInvalid(String window, String sort, int limit) {
+        var subj = new JfrMethodsEndpoint(statistics);
+        lenient().doReturn(List.of()).when(statistics).statistics(LiveWindow.MINUTE);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> subj.methods(window, sort, limit));
+    }
+
+    @Test
+    void hotMethod() {
+        JfrMethodsEndpoint.HotMethod actual = JfrMethodsEndpoint.hotMethod(failing);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("event", actual.event(), "MethodInvocation")
+                .add("beanClass", actual.beanClass(), "a.Service")
+                .add("method", actual.method(), "failing")
+                .add("count", actual.count(), 4L)
+                .add("errors", actual.errors(), 2L)
+                .add("errorRate", actual.errorRate(), 0.5)
+                .add("sum", actual.sum(), 4.0)
+                .add("mean", actual.mean(), 1.0)
+                .add("max", actual.max(), 1.0)
+        ));
+    }
+
+    static WindowStatistic statistic(String method, long count, long sum, long errors) {
+        var histogram = new LatencyHistogram();
+        histogram.record(sum / count, count);
+        var key = new MethodKey("MethodInvocation", "a.Service", method);
+        return new WindowStatistic(new MethodStatistic(key, count, sum, sum / count, histogram.drain()), errors);
+    }
+}
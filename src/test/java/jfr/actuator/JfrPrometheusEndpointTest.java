@@ -0,0 +1,32 @@
+package jfr.actuator;
+
+import jfr.prometheus.PrometheusStatisticsSink;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Тесты для {@link JfrPrometheusEndpoint}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrPrometheusEndpointTest {
+    @Mock
+    PrometheusStatisticsSink statistics;
+
+    @Test
+    void scrape() {
+        var subj = new JfrPrometheusEndpoint(statistics);
+        String expected = uidS();
+        doReturn(expected).when(statistics).scrape();
+
+        assertThat(subj.scrape()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,157 @@
+package jfr.analysis;
+
+import jfr.event.FeignRequestEvent;
+import jfr.event.MethodInvocationEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для {@link FlameGraphAggregator}.
+ *
+ * @author Roman_Erzhukov
+ */
+@Tag("recording")
+public class FlameGraphAggregatorTest {
+    FlameGraphAggregator subj = new FlameGraphAggregator(event -> true, FlameGraphAggregator.Weight.TIME);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void collapse() {
+        var frames = new ArrayList<>(List.of(
+                new FlameGraphAggregator.Frame(30, 40, "B.sibling", 10, 1, true),
+                new FlameGraphAggregator.Frame(10, 20, "B.child", 25, 3, true),
+                new FlameGraphAggregator.Frame(0, 100, "A.root", 50, 1, true),
+                new FlameGraphAggregator.Frame(12, 18, "C.GET /x", 6, 1, false),
+                new FlameGraphAggregator.Frame(200, 300, "A.root", 100, 1, true)));
+        var stacks = new HashMap<String, Long>();
+
+        subj.collapse(frames, stacks);
+
+        assertThat(stacks).containsOnly(
+                entry("A.root", 150L),
+                entry("A.root;B.child", 19L),
+                entry("A.root;B.child;C.GET /x", 6L),
+                entry("A.root;B.sibling", 10L));
+    }
+
+    @Test
+    void collapseCount() {
+        subj = new FlameGraphAggregator(event -> true, FlameGraphAggregator.Weight.COUNT);
+        var frames = new ArrayList<>(List.of(
+                new FlameGraphAggregator.Frame(0, 100, "A.root", 50, 1, true),
+                new FlameGraphAggregator.Frame(10, 20, "B.child", 25, 3, true),
+                new FlameGraphAggregator.Frame(12, 18, "C.GET /x", 60, 1, false)));
+        var stacks = new HashMap<String, Long>();
+
+        subj.collapse(frames, stacks);
+
+        assertThat(stacks).containsOnly(
+                entry("A.root", 1L),
+                entry("A.root;B.child", 3L),
+                entry("A.root;B.child;C.GET /x", 1L));
+    }
+
+    @Test
+    void collapsePaths() {
+        var parent1 = new FlameGraphAggregator.Frame(0, 100, "A.first", 50, 1, true, 1, 0);
+        var parent2 = new FlameGraphAggregator.Frame(200, 300, "A.second", 60, 1, true, 2, 0);
+        var child1 = new FlameGraphAggregator.Frame(210, 220, "B.child", 5, 2, true, 3, 1);
+        var child2 = new FlameGraphAggregator.Frame(230, 290, "B.child", 40, 1, true, 4, 2);
+        var frames = new ArrayList<>(List.of(parent1, parent2, child1, child2));
+        Map<Long, FlameGraphAggregator.Frame> paths = Map.of(1L, parent1, 2L, parent2, 3L, child1, 4L, child2);
+        var stacks = new HashMap<String, Long>();
+
+        subj.collapse(frames, paths, new HashMap<>(), stacks);
+
+        assertThat(stacks).containsOnly(
+                entry("A.first", 50L),
+                entry("A.first;B.child", 5L),
+                entry("A.second", 60L),
+                entry("A.second;B.child", 40L));
+    }
+
+    @Test
+    void read() throws IOException {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"), () -> {
+            var root = invocation("root");
+            var child = invocation("child");
+            var feign = new FeignRequestEvent();
+            feign.beanClass = getClass();
+            feign.method = "GET /users";
+            feign.begin();
+            feign.end();
+            feign.commit();
+            child.end();
+            root.end();
+            commit(root, 1, 5_000);
+            commit(child, 2, 7_000_000);
+        });
+        var pool = new ForkJoinPool(1);
+        try {
+            Map<String, Long> actual = new RecordingAnalyzer(pool).analyze(List.of(file), subj);
+
+            assertThat(actual).containsKeys("FlameGraphAggregatorTest.root",
+                    "FlameGraphAggregatorTest.root;FlameGraphAggregatorTest.child");
+            assertThat(actual.get("FlameGraphAggregatorTest.root")).isEqualTo(5_000L);
+            assertThat(actual.keySet()).allMatch(stack -> stack.startsWith("FlameGraphAggregatorTest.root"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void merge() {
+        Map<String, Long> actual = subj.merge(Map.of("a", 1L, "a;b", 2L), Map.of("a", 3L, "c", 4L));
+
+        assertThat(actual).containsOnly(entry("a", 4L), entry("a;b", 2L), entry("c", 4L));
+    }
+
+    @Test
+    void write() {
+        var out = new StringWriter();
+
+        FlameGraphAggregator.write(Map.of("b;c", 2_500L, "a", 1_000L, "tiny", 999L), 1_000, new PrintWriter(out, true));
+
+        assertThat(out.toString().lines()).containsExactly("a 1", "b;c 2");
+    }
+
+    @Test
+    void divisor() {
+        assertThat(FlameGraphAggregator.divisor("ns")).isEqualTo(1L);
+        assertThat(FlameGraphAggregator.divisor("us")).isEqualTo(1_000L);
+        assertThat(FlameGraphAggregator.divisor("ms")).isEqualTo(1_000_000L);
+        assertThrows(IllegalArgumentException.class, () -> FlameGraphAggregator.divisor("s"));
+    }
+
+    MethodInvocationEvent invocation(String method) {
+        var event = new MethodInvocationEvent();
+        event.beanClass = getClass();
+        event.method = method;
+        event.begin();
+        return event;
+    }
+
+    static void commit(MethodInvocationEvent event, int count, long sum) {
+        event.count = count;
+        event.sum = sum;
+        event.max = sum;
+        event.commit();
+    }
+}
@@ -0,0 +1,166 @@
+package jfr.analysis;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link JfrAnalysis}.
+ *
+ * @author Roman_Erzhukov
+ */
+@Tag("recording")
+public class JfrAnalysisTest {
+    StringWriter out = new StringWriter();
+    StringWriter err = new StringWriter();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reportText() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "slow", 1, 9_000_000, 9_000_000);
+            TestRecordings.invocation(getClass(), "fast", 2, 2_000_000, 1_000_000);
+        });
+
+        int actual = run("report", "--top", "1", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString())
+                .startsWith("events=2, methods=2,")
+                .contains("MethodInvocation JfrAnalysisTest.slow")
+                .contains("9.000")
+                .doesNotContain("fast");
+        assertThat(err.toString()).isEmpty();
+    }
+
+    @Test
+    void reportCsv() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 2, 2_000, 1_500));
+
+        int actual = run("report", "--format", "csv", "--sort", "count", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString().lines()).containsExactly(
+                "event,class,method,time,count,sum,mean,rootP50,rootP90,rootP99,max",
+                "MethodInvocation," + getClass().getName() + ",run,self,2,2000,1000,1000,1000,1000,1500");
+    }
+
+    @Test
+    void reportJson() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 1, 100, 100));
+
+        int actual = run("report", "--format", "json", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString())
+                .startsWith("{\"events\":1,")
+                .contains("\"method\":\"run\",\"time\":\"self\",\"count\":1,\"sum\":100,");
+    }
+
+    @Test
+    void diff() {
+        Path baseline = TestRecordings.record(dir.resolve("baseline.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "slow", 1, 1_000_000, 1_000_000);
+            TestRecordings.invocation(getClass(), "slow", 1, 1_000_000, 1_000_000);
+            TestRecordings.invocation(getClass(), "stable", 1, 1_000_000, 1_000_000);
+        });
+        Path current = TestRecordings.record(dir.resolve("current.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "slow", 1, 5_000_000, 5_000_000);
+            TestRecordings.invocation(getClass(), "slow", 1, 5_000_000, 5_000_000);
+            TestRecordings.invocation(getClass(), "stable", 1, 1_000_000, 1_000_000);
+        });
+
+        int actual = run("diff", "--min-count", "1", baseline.toString(), current.toString());
+
+        assertThat(actual).isEqualTo(JfrAnalysis.REGRESSION_STATUS);
+        assertThat(out.toString())
+                .contains("regressions=1")
+                .contains("REGRESSION  MethodInvocation JfrAnalysisTest.slow")
+                .contains("mean +400%, root p90 +400%")
+                .doesNotContain("stable");
+    }
+
+    @Test
+    void diffNoRegressions() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 1, 1_000_000, 1_000_000));
+
+        int actual = run("diff", "--format", "json", "--show", "all", file.toString(), file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString())
+                .startsWith("{\"regressions\":0,")
+                .contains("\"change\":\"UNCHANGED\"")
+                .contains("\"reason\":\"insufficient calls\"");
+    }
+
+    @Test
+    void diffWindows() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 1, 1_000_000, 1_000_000));
+
+        int actual = run("diff", "--format", "csv", "--baseline-from", "2000-01-01T00:00:00Z",
+                "--baseline-to", "2000-01-02T00:00:00Z", "--current-from", "2000-01-02T00:00:00Z", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString().lines()).hasSize(1);
+    }
+
+    @Test
+    void flame() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 3, 3_000_000, 1_000_000));
+
+        int actual = run("flame", "--unit", "ms", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString().lines()).containsExactly("JfrAnalysisTest.run 3");
+    }
+
+    @Test
+    void flameCount() {
+        Path file = TestRecordings.record(dir.resolve("test.jfr"),
+                () -> TestRecordings.invocation(getClass(), "run", 3, 3_000_000, 1_000_000));
+
+        int actual = run("flame", "--weight", "count", "--unit", "ignored", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString().lines()).containsExactly("JfrAnalysisTest.run 3");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "report", "unknown test.jfr", "report --format xml test.jfr", "report --sort name test.jfr",
+            "report --from yesterday test.jfr", "report test.jfr --top", "diff test.jfr", "diff a.jfr b.jfr c.jfr",
+            "diff --show some a.jfr b.jfr", "diff --threshold many a.jfr b.jfr", "flame --weight size a.jfr",
+            "flame --unit s a.jfr"})
+    void runInvalidArguments(String args) {
+        int actual = run(args.isEmpty() ? new String[0] : args.split(" "));
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(err.toString()).contains(JfrAnalysis.USAGE);
+    }
+
+    @Test
+    void runNotFound() {
+        int actual = run("report", dir.resolve("absent.jfr").toString());
+
+        assertThat(actual).isEqualTo(1);
+        assertThat(err.toString()).startsWith("Unable to read recording:");
+    }
+
+    int run(String... args) {
+        return JfrAnalysis.run(new PrintWriter(out), new PrintWriter(err, true), args);
+    }
+}
@@ -0,0 +1,68 @@
+package jfr.analysis;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для {@link JfrChunks}.
+ *
+ * @author Roman_Erzhukov
+ */
+@Tag("recording")
+public class JfrChunksTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void read() throws IOException {
+        Path first = TestRecordings.record(dir.resolve("first.jfr"),
+                () -> TestRecordings.invocation(getClass(), "first", 1, 10, 10));
+        Path second = TestRecordings.record(dir.resolve("second.jfr"),
+                () -> TestRecordings.invocation(getClass(), "second", 1, 10, 10));
+        Path file = TestRecordings.concat(dir.resolve("both.jfr"), first, second);
+
+        List<JfrChunks.Chunk> actual = JfrChunks.read(file);
+
+        long firstSize = Files.size(first);
+        assertThat(JfrChunks.read(first)).containsExactly(new JfrChunks.Chunk(0, firstSize));
+        assertThat(actual).startsWith(new JfrChunks.Chunk(0, firstSize));
+        assertThat(actual.stream().mapToLong(JfrChunks.Chunk::size).sum()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void readNotJfr() throws IOException {
+        Path file = Files.writeString(dir.resolve("text.jfr"), "not a flight recording");
+
+        var e = assertThrows(IOException.class, () -> JfrChunks.read(file));
+
+        assertThat(e).hasMessageStartingWith("Not a JFR chunk at offset 0");
+    }
+
+    @Test
+    void extract() throws IOException {
+        Path first = TestRecordings.record(dir.resolve("first.jfr"),
+                () -> TestRecordings.invocation(getClass(), "first", 1, 10, 10));
+        Path second = TestRecordings.record(dir.resolve("second.jfr"),
+                () -> TestRecordings.invocation(getClass(), "second", 1, 10, 10));
+        Path file = TestRecordings.concat(dir.resolve("both.jfr"), first, second);
+        long firstSize = Files.size(first);
+
+        Path actual = JfrChunks.extract(file, new JfrChunks.Chunk(firstSize, Files.size(file) - firstSize));
+        try {
+            byte[] all = Files.readAllBytes(file);
+            assertThat(Files.readAllBytes(actual)).isEqualTo(Arrays.copyOfRange(all, (int) firstSize, all.length));
+        } finally {
+            Files.delete(actual);
+        }
+    }
+}
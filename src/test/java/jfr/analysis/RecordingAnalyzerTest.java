@@ -0,0 +1,124 @@
+package jfr.analysis;
+
+import jfr.event.FeignRequestEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для {@link RecordingAnalyzer} и {@link MethodAggregator}.
+ *
+ * @author Roman_Erzhukov
+ */
+@Tag("recording")
+public class RecordingAnalyzerTest {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    RecordingAnalyzer subj = new RecordingAnalyzer(pool);
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void analyze() throws IOException {
+        Path first = TestRecordings.record(dir.resolve("first.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "hello", 3, 3_000, 2_000);
+            TestRecordings.invocation(getClass(), "world", 1, 500, 500);
+        });
+        Path second = TestRecordings.record(dir.resolve("second.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "hello", 1, 7_000, 7_000);
+            var event = new FeignRequestEvent();
+            event.beanClass = getClass();
+            event.method = "GET /users/{id}";
+            event.commit();
+        });
+        Path file = TestRecordings.concat(dir.resolve("both.jfr"), first, second);
+
+        MethodReport actual = subj.analyze(List.of(file), new MethodAggregator(event -> true));
+
+        assertThat(subj.parts(List.of(file))).hasSizeGreaterThan(1);
+        assertThat(actual.events()).isEqualTo(4L);
+        assertThat(actual.methods()).hasSize(3);
+        MethodStatistic hello = actual.methods().get(new MethodKey("MethodInvocation", getClass().getName(), "hello"));
+        assertThat(hello).is(matching(matcher -> matcher
+                .add("count", hello.count(), 4L)
+                .add("sum", hello.sum(), 10_000L)
+                .add("max", hello.max(), 7_000L)
+                .add("mean", hello.mean(), 2_500L)
+        ));
+        assertThat(hello.percentile(50)).isLessThan(2_000L);
+        assertThat(hello.percentile(100)).isEqualTo(7_000L);
+        MethodStatistic feign = actual.methods().get(new MethodKey("FeignEvent", getClass().getName(), "GET /users/{id}"));
+        assertThat(feign.count()).isEqualTo(1L);
+        assertThat(feign.key().selfTime()).isFalse();
+        assertThat(actual.sum()).isEqualTo(10_500L);
+    }
+
+    @Test
+    void analyzeFilter() throws IOException {
+        Path file = TestRecordings.record(dir.resolve("first.jfr"), () -> {
+            TestRecordings.invocation(getClass(), "hello", 3, 3_000, 2_000);
+            var event = new FeignRequestEvent();
+            event.beanClass = getClass();
+            event.method = "GET /users";
+            event.commit();
+        });
+
+        MethodReport actual = subj.analyze(List.of(file),
+                new MethodAggregator(MethodAggregator.filter(Set.of("FeignEvent"), null, null)));
+
+        assertThat(actual.methods().keySet())
+                .containsExactly(new MethodKey("FeignEvent", getClass().getName(), "GET /users"));
+    }
+
+    @Test
+    void analyzeEmpty() throws IOException {
+        MethodReport actual = subj.analyze(List.of(), new MethodAggregator(event -> true));
+
+        assertThat(actual).isSameAs(MethodReport.EMPTY);
+    }
+
+    @Test
+    void analyzeNotJfr() throws IOException {
+        Path file = Files.writeString(dir.resolve("text.jfr"), "not a flight recording");
+
+        assertThrows(IOException.class, () -> subj.analyze(List.of(file), new MethodAggregator(event -> true)));
+    }
+
+    @Test
+    void accumulator() {
+        var accumulator = new MethodAggregator.Accumulator();
+        accumulator.add(2, 3_000, 2_500);
+        accumulator.add(0, 0, 0);
+        accumulator.add(1, 100, 100);
+        var key = new MethodKey("MethodInvocation", "a.b.Service", "run");
+
+        MethodStatistic actual = accumulator.toStatistic(key);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("key", actual.key(), key)
+                .add("count", actual.count(), 3L)
+                .add("sum", actual.sum(), 3_100L)
+                .add("max", actual.max(), 2_500L)
+                .add("roots", actual.roots(), 2L)
+                .add("rootMean", actual.rootMean(), 800L)
+        ));
+        assertThat(key.shortName()).isEqualTo("Service.run");
+    }
+}
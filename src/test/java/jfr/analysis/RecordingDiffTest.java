@@ -0,0 +1,145 @@
+package jfr.analysis;
+
+import jfr.stats.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Тесты для {@link RecordingDiff}.
+ *
+ * @author Roman_Erzhukov
+ */
+public class RecordingDiffTest {
+    static final RecordingDiff.Thresholds THRESHOLDS = RecordingDiff.Thresholds.DEFAULT;
+    static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    MethodKey stable = new MethodKey("MethodInvocation", "a.Service", "stable");
+    MethodKey slow = new MethodKey("MethodInvocation", "a.Service", "slow");
+    MethodKey fast = new MethodKey("MethodInvocation", "a.Service", "fast");
+    MethodKey added = new MethodKey("MethodInvocation", "a.Service", "added");
+    MethodKey removed = new MethodKey("MethodInvocation", "a.Service", "removed");
+    MethodKey rare = new MethodKey("MethodInvocation", "a.Service", "rare");
+
+    @Test
+    void compare() {
+        var baseline = new MethodReport(500, START, START.plusSeconds(10), Map.of(
+                stable, statistic(stable, 100, 10_000_000),
+                slow, statistic(slow, 100, 10_000_000),
+                fast, statistic(fast, 100, 10_000_000),
+                removed, statistic(removed, 100, 1_000_000),
+                rare, statistic(rare, 5, 1_000_000)));
+        var current = new MethodReport(700, START.plusSeconds(100), START.plusSeconds(120), Map.of(
+                stable, statistic(stable, 200, 10_000_000),
+                slow, statistic(slow, 200, 20_000_000),
+                fast, statistic(fast, 200, 5_000_000),
+                added, statistic(added, 100, 1_000_000),
+                rare, statistic(rare, 5, 50_000_000)));
+
+        RecordingDiff actual = RecordingDiff.compare(baseline, current, THRESHOLDS);
+
+        assertThat(actual.methods())
+                .extracting(MethodDiff::key, MethodDiff::change)
+                .containsExactly(
+                        tuple(slow, MethodDiff.Change.REGRESSION),
+                        tuple(added, MethodDiff.Change.NEW),
+                        tuple(fast, MethodDiff.Change.IMPROVEMENT),
+                        tuple(removed, MethodDiff.Change.GONE),
+                        tuple(rare, MethodDiff.Change.UNCHANGED),
+                        tuple(stable, MethodDiff.Change.UNCHANGED));
+        MethodDiff regression = actual.regressions().get(0);
+        assertThat(regression).is(matching(matcher -> matcher
+                .add("key", regression.key(), slow)
+                .add("baselineRate", regression.baselineRate(), 10.0)
+                .add("currentRate", regression.currentRate(), 10.0)
+                .add("impact", regression.impact(), 100_000_000.0)
+                .add("reason", regression.reason(), "mean +100%, root p90 +100%, root p99 +100%")
+        ));
+        assertThat(regression.z()).isGreaterThan(THRESHOLDS.minZ());
+        assertThat(actual.methods().get(4).reason()).isEqualTo("insufficient calls");
+    }
+
+    @Test
+    void compareBelowMinDelta() {
+        MethodDiff actual = RecordingDiff.compare(fast, statistic(fast, 100, 100_000), 1,
+                statistic(fast, 100, 200_000), 1, THRESHOLDS);
+
+        assertThat(actual.change()).isEqualTo(MethodDiff.Change.UNCHANGED);
+        assertThat(actual.reason()).isEmpty();
+    }
+
+    @Test
+    void compareBelowPercent() {
+        MethodDiff actual = RecordingDiff.compare(slow, statistic(slow, 1000, 100_000_000), 1,
+                statistic(slow, 1000, 110_000_000), 1,
+                new RecordingDiff.Thresholds(20, Duration.ZERO, 30, 0));
+
+        assertThat(actual.change()).isEqualTo(MethodDiff.Change.UNCHANGED);
+    }
+
+    @Test
+    void z() {
+        assertThat(RecordingDiff.z(statistic(slow, 100, 1000), statistic(slow, 100, 1000))).isZero();
+        assertThat(RecordingDiff.z(statistic(slow, 100, 1000), statistic(slow, 100, 2000))).isPositive();
+        assertThat(RecordingDiff.z(statistic(slow, 100, 2000), statistic(slow, 100, 1000))).isNegative();
+    }
+
+    @Test
+    void zRoots() {
+        double actual = RecordingDiff.z(statistic(slow, 100, 1000), statistic(slow, 100, 2000));
+
+        assertThat(RecordingDiff.z(statistic(slow, 100, 10, 1000), statistic(slow, 100, 10, 2000)))
+                .isPositive()
+                .isLessThan(actual);
+        assertThat(RecordingDiff.z(statistic(slow, 100, 1, 1000), statistic(slow, 100, 10, 2000))).isZero();
+    }
+
+    @Test
+    void compareFewRoots() {
+        MethodDiff actual = RecordingDiff.compare(slow, statistic(slow, 1000, 1, 10_000_000), 1,
+                statistic(slow, 1000, 1, 11_000_000), 1, new RecordingDiff.Thresholds(5, Duration.ZERO, 30, 3));
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("change", actual.change(), MethodDiff.Change.UNCHANGED)
+                .add("z", actual.z(), 0.0)
+        ));
+    }
+
+    @Test
+    void seconds() {
+        assertThat(RecordingDiff.seconds(MethodReport.EMPTY)).isEqualTo(1.0);
+        assertThat(RecordingDiff.seconds(new MethodReport(1, START, START.plusMillis(10), Map.of()))).isEqualTo(1.0);
+        assertThat(RecordingDiff.seconds(new MethodReport(1, START, START.plusSeconds(30), Map.of()))).isEqualTo(30.0);
+    }
+
+    @Test
+    void percent() {
+        assertThat(MethodDiff.percent(0, 0)).isZero();
+        assertThat(MethodDiff.percent(0, 1)).isInfinite();
+        assertThat(MethodDiff.percent(100, 150)).isEqualTo(50.0);
+        assertThat(MethodDiff.percent(100, 50)).isEqualTo(-50.0);
+    }
+
+    /**
+     * Возвращает статистику: каждый вызов корневой, половина вызовов на 10% быстрее среднего, половина на 10% медленнее.
+     */
+    static MethodStatistic statistic(MethodKey key, long count, long mean) {
+        return statistic(key, count, count, mean);
+    }
+
+    /**
+     * Возвращает статистику: половина корневых вызовов на 10% быстрее среднего, половина на 10% медленнее.
+     */
+    static MethodStatistic statistic(MethodKey key, long count, long roots, long mean) {
+        var histogram = new LatencyHistogram();
+        histogram.record(mean - mean / 10, roots / 2);
+        histogram.record(mean + mean / 10, roots - roots / 2);
+        return new MethodStatistic(key, count, count * mean, mean + mean / 10, histogram.drain());
+    }
+}
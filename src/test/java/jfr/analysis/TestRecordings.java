@@ -0,0 +1,76 @@
+package jfr.analysis;
+
+import jdk.jfr.Recording;
+import jfr.event.FeignRequestEvent;
+import jfr.event.MethodInvocationEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Создаёт записи Java Flight Recorder для тестов.
+ *
+ * @author Roman_Erzhukov
+ */
+final class TestRecordings {
+    private TestRecordings() {
+    }
+
+    /**
+     * Записывает события, которые генерирует действие, в файл.
+     *
+     * @param file   файл
+     * @param action генерирует события
+     */
+    static Path record(Path file, Runnable action) {
+        try (var recording = new Recording()) {
+            recording.enable(MethodInvocationEvent.class);
+            recording.enable(FeignRequestEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Объединяет файлы в один файл из нескольких чанков.
+     *
+     * @param target результат
+     * @param files  файлы
+     */
+    static Path concat(Path target, Path... files) throws IOException {
+        for (Path file : files) {
+            Files.write(target, Files.readAllBytes(file), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return target;
+    }
+
+    /**
+     * Записывает агрегированное событие {@link MethodInvocationEvent}.
+     *
+     * @param beanClass класс бина
+     * @param method    метод
+     * @param count     количество вызовов
+     * @param sum       суммарное время, нс
+     * @param max       максимальное время, нс
+     */
+    static void invocation(Class<?> beanClass, String method, int count, long sum, long max) {
+        var event = new MethodInvocationEvent();
+        event.beanClass = beanClass;
+        event.method = method;
+        event.begin();
+        event.count = count;
+        event.sum = sum;
+        event.max = max;
+        event.min = sum / count;
+        event.avg = sum / count;
+        event.commit();
+    }
+}
@@ -0,0 +1,105 @@
+package jfr.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jfr.feign.JfrFeignCapability;
+import jfr.feign.JfrFeignRequestInterceptor;
+import jfr.micrometer.MicrometerStatisticsSink;
+import jfr.quartz.JfrJobFactory;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link JfrConfiguration}.
+ *
+ * @author Roman_Erzhukov
+ */
+public class JfrConfigurationTest {
+    ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(JfrConfiguration.class);
+
+    @ParameterizedTest
+    @CsvSource({
+            "false, false, false, false",
+            "true, false, true, false",
+            "false, true, false, true",
+            "true, true, false, true"})
+    void feign(boolean interceptorEnabled, boolean capabilityEnabled, boolean hasInterceptor, boolean hasCapability) {
+        runner.withPropertyValues("jfr.feign.enabled=" + interceptorEnabled,
+                        "jfr.feign.capability.enabled=" + capabilityEnabled)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBeansOfType(JfrFeignRequestInterceptor.class)).hasSize(hasInterceptor ? 1 : 0);
+                    assertThat(context.getBeansOfType(JfrFeignCapability.class)).hasSize(hasCapability ? 1 : 0);
+                });
+    }
+
+    @Test
+    void quartz() {
+        runner.withPropertyValues("jfr.quartz.enabled=true")
+                .withUserConfiguration(QuartzConfiguration.class)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    JfrJobFactory jobFactory = context.getBean(JfrJobFactory.class);
+                    var scheduler = context.getBean(SchedulerFactoryBean.class).getScheduler();
+                    assertThat(scheduler.getListenerManager().getTriggerListener(jobFactory.getName())).isSameAs(jobFactory);
+                    // Постпроцессор не создаёт фабрику задач и её зависимости раньше остальных постпроцессоров
+                    assertThat(context.getBean(Processed.class).beanNames)
+                            .contains("jfrJobFactory", "jfrLoggingService", "jfrQuartzJobStatistics");
+                });
+    }
+
+    @Test
+    void quartzMicrometer() {
+        runner.withPropertyValues("jfr.quartz.enabled=true", "jfr.micrometer.enabled=true")
+                .withUserConfiguration(QuartzConfiguration.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    // Приёмники статистики создаются после всех постпроцессоров
+                    assertThat(context.getBean(Processed.class).beanNames)
+                            .contains("jfrMicrometerStatisticsSink", "meterRegistry");
+                    assertThat(context).hasSingleBean(MicrometerStatisticsSink.class);
+                });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class QuartzConfiguration {
+        @Bean
+        static Processed processed() {
+            return new Processed();
+        }
+
+        @Bean
+        SchedulerFactoryBean schedulerFactoryBean() {
+            var factoryBean = new SchedulerFactoryBean();
+            factoryBean.setAutoStartup(false);
+            return factoryBean;
+        }
+    }
+
+    /**
+     * Запоминает имена обработанных бинов.
+     */
+    static class Processed implements BeanPostProcessor {
+        final Set<String> beanNames = new HashSet<>();
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+            beanNames.add(beanName);
+            return bean;
+        }
+    }
+}
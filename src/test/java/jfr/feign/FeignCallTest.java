@@ -0,0 +1,61 @@
+package jfr.feign;
+
+import jfr.event.FeignCallEvent;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link FeignCall}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class FeignCallTest {
+    @AfterEach
+    void reset() {
+        FeignCall.current.remove();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void beginEnd(boolean hasPrev) {
+        var prev = hasPrev ? FeignCall.begin(new FeignCallEvent()) : null;
+        var event = new FeignCallEvent();
+
+        FeignCall actual = FeignCall.begin(event);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("event", actual.event, event)
+                .add("prev", actual.prev, prev)
+                .add("current", FeignCall.current(), actual)
+        ));
+
+        actual.attempts = uid();
+        actual.backoffNanos = uid();
+
+        actual.end();
+
+        assertThat(event).is(matching(matcher -> matcher
+                .add("attempts", event.attempts, actual.attempts)
+                .add("backoff", event.backoff, actual.backoffNanos)
+                .add("current", FeignCall.current(), prev)
+        ));
+    }
+
+    @Test
+    void attempt() {
+        var subj = new FeignCall(new FeignCallEvent(), null);
+
+        assertThat(subj.attempt()).isEqualTo(1);
+        assertThat(subj.attempt()).isEqualTo(2);
+        assertThat(subj.attempts).isEqualTo(2);
+    }
+}
@@ -0,0 +1,105 @@
+package jfr.feign;
+
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import jfr.event.FeignRequestEvent;
+import jfr.test.junit.MethodSourceHelper;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Тесты для {@link FeignRequests}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class FeignRequestsTest implements MethodSourceHelper {
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void targetClass(boolean hasTemplate, boolean hasTarget) {
+        var template = mock(RequestTemplate.class);
+        Target<?> target = mock(Target.class);
+        doReturn(hasTarget ? target : null).when(template).feignTarget();
+        doReturn(FeignRequestEvent.class).when(target).type();
+
+        Class<?> actual = FeignRequests.targetClass(hasTemplate ? template : null, getClass());
+
+        assertThat(actual).isEqualTo(hasTemplate && hasTarget ? FeignRequestEvent.class : getClass());
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans")
+    void name(boolean hasMetadata) {
+        var request = mock(Request.class);
+        var template = mock(RequestTemplate.class);
+        doReturn(template).when(request).requestTemplate();
+        var metadata = newMetadata("/users/{id}/orders");
+        doReturn(hasMetadata ? metadata : null).when(template).methodMetadata();
+        doReturn(Request.HttpMethod.DELETE).when(request).httpMethod();
+        String url = uidS();
+        doReturn(url).when(request).url();
+
+        String actual = FeignRequests.name(request);
+
+        assertThat(actual).isEqualTo(hasMetadata ? "DELETE /users/{id}/orders" : "DELETE " + url);
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void nameTemplate(boolean hasTemplate, boolean hasMetadata) {
+        var template = mock(RequestTemplate.class);
+        var metadata = newMetadata("/users/{id}");
+        doReturn(hasMetadata ? metadata : null).when(template).methodMetadata();
+
+        String actual = FeignRequests.name(hasTemplate ? template : null);
+        String again = FeignRequests.name(hasTemplate ? template : null);
+
+        assertThat(actual).isEqualTo(hasTemplate && hasMetadata ? "DELETE /users/{id}" : null);
+        assertThat(again).isSameAs(actual);
+    }
+
+    @Test
+    void newName() {
+        var metadata = newMetadata("/users/{id}?expand={expand}");
+
+        String actual = FeignRequests.newName(metadata);
+
+        assertThat(actual).isEqualTo("DELETE /users/{id}");
+    }
+
+    static MethodMetadata newMetadata(String uri) {
+        var template = new RequestTemplate();
+        template.method(Request.HttpMethod.DELETE);
+        template.uri(uri);
+        var metadata = mock(MethodMetadata.class);
+        lenient().doReturn(template).when(metadata).template();
+        return metadata;
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void responseSize(boolean hasBody, boolean hasLength) {
+        var response = mock(Response.class);
+        var body = mock(Response.Body.class);
+        doReturn(hasBody ? body : null).when(response).body();
+        int length = uid();
+        doReturn(hasLength ? length : null).when(body).length();
+
+        long actual = FeignRequests.responseSize(response);
+
+        assertThat(actual).isEqualTo(!hasBody ? 0 : hasLength ? length : -1);
+    }
+}
@@ -0,0 +1,112 @@
+package jfr.feign;
+
+import com.google.common.base.Ticker;
+import feign.Target;
+import jfr.stats.LatencyHistogram;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Тесты для {@link FeignTargetStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class FeignTargetStatisticsTest {
+    FeignTargetStatistics subj;
+
+    @Mock
+    Ticker ticker;
+
+    @BeforeEach
+    void setUp() {
+        subj = new FeignTargetStatistics(ticker);
+    }
+
+    @Test
+    void start() {
+        long expected = uid();
+        doReturn(expected).when(ticker).read();
+
+        assertThat(subj.start()).isEqualTo(expected);
+    }
+
+    @Test
+    void recordNoTarget() {
+        subj.record(null, uid(), uid());
+
+        assertThat(subj.targets).isEmpty();
+        verifyNoInteractions(ticker);
+    }
+
+    @Test
+    void record() {
+        Target<?> target = new Target.HardCodedTarget<>(FeignTargetStatisticsTest.class, "http://host:8080/api");
+        long start = uid();
+        long duration = uid();
+        doReturn(start + duration).when(ticker).read();
+
+        subj.record(target, 200, start);
+        subj.record(new Target.HardCodedTarget<>(FeignTargetStatisticsTest.class, "http://host:8080/api"), 0, start);
+
+        assertThat(subj.targets).hasSize(1);
+        var actual = subj.targets.get(target);
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("client", actual.client, FeignTargetStatisticsTest.class)
+                .add("host", actual.host, "host")
+                .add("statuses", Arrays.stream(actual.statuses).map(LongAdder::sum).toList(), List.of(1L, 0L, 1L, 0L, 0L, 0L))
+        ));
+        LatencyHistogram.Snapshot snapshot = actual.latency.drain();
+        assertThat(snapshot).is(matching(matcher -> matcher
+                .add("count", snapshot.count(), 2L)
+                .add("max", snapshot.max(), duration)
+        ));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0,0", "99,0", "100,1", "204,2", "302,3", "404,4", "503,5", "599,5", "600,0"})
+    void recordStatus(int status, int index) {
+        var actual = new FeignTargetStatistics.TargetStatistic(new Target.HardCodedTarget<>(getClass(), "http://host"));
+
+        actual.record(status, uid());
+
+        for (int i = 0; i < actual.statuses.length; i++) {
+            assertThat(actual.statuses[i].sum()).as("statuses[%d]", i).isEqualTo(i == index ? 1L : 0L);
+        }
+    }
+
+    @Test
+    void commit() {
+        var actual = new FeignTargetStatistics.TargetStatistic(new Target.HardCodedTarget<>(getClass(), "http://host"));
+        actual.record(200, uid());
+        actual.record(500, uid());
+
+        actual.commit();
+
+        assertThat(actual.latency.drain().count()).isZero();
+        assertThat(Arrays.stream(actual.statuses).mapToLong(LongAdder::sum).sum()).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"http://host:8080/api,host", "https://host.domain,host.domain", "http://service,service", "service,service",
+            "'http://bad host',http://bad host"})
+    void host(String url, String expected) {
+        assertThat(FeignTargetStatistics.TargetStatistic.host(url)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,221 @@
+package jfr.feign;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import jfr.event.FeignRequestEvent;
+import jfr.logging.AsyncCall;
+import jfr.logging.NonReentrantLoggingService;
+import jfr.test.junit.MethodSourceHelper;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link JfrFeignAsyncClient}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignAsyncClientTest {
+    JfrFeignAsyncClient<Object> subj;
+
+    @Mock
+    AsyncClient<Object> delegate;
+    @Mock
+    NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    @Mock
+    FeignTargetStatistics statistics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        subj = mock(JfrFeignAsyncClient.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(delegate, loggingService, statistics));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void execute(boolean enabled, Throwable thrown) {
+        var event = mock(FeignRequestEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(enabled).when(event).isEnabled();
+        var request = newRequest();
+        Target<?> target = request.requestTemplate().feignTarget();
+        var options = new Request.Options();
+        Optional<Object> requestContext = Optional.of(uidS());
+        var call = mock(AsyncCall.class);
+        doReturn(call).when(loggingService).beginAsync();
+        long start = uid();
+        doReturn(start).when(statistics).start();
+        var future = new CompletableFuture<Response>();
+        var response = mock(Response.class);
+        doReturn(future).when(delegate).execute(request, options, requestContext);
+
+        CompletableFuture<Response> actual = subj.execute(request, options, requestContext);
+
+        if (enabled) {
+            assertThat(event).is(matching(matcher -> matcher
+                    .add("beanClass", event.beanClass, getClass())
+                    .add("method", event.method, "PATCH " + request.url())
+                    .add("callerThread", event.callerThread, Thread.currentThread())
+            ));
+        }
+        assertThat(actual).isNotDone();
+        var inOrder = inOrder(event, delegate, loggingService, statistics);
+        inOrder.verify(event).isEnabled();
+        if (enabled) {
+            inOrder.verify(loggingService).attachRoot(event);
+            inOrder.verify(event).begin();
+        }
+        inOrder.verify(loggingService).beginAsync();
+        inOrder.verify(statistics).start();
+        inOrder.verify(delegate).execute(request, options, requestContext);
+        verifyNoMoreInteractions(event, delegate, loggingService, statistics);
+
+        FeignRequestEvent expectedEvent = enabled ? event : null;
+        doNothing().when(subj).complete(expectedEvent, call, request, target, start, thrown == null ? response : null, thrown);
+        if (thrown == null) {
+            future.complete(response);
+        } else {
+            future.completeExceptionally(thrown);
+        }
+
+        assertThat(actual).isDone();
+        verify(subj).complete(expectedEvent, call, request, target, start, thrown == null ? response : null, thrown);
+        verifyNoMoreInteractions(event, statistics, call);
+    }
+
+    static Stream<Arguments> execute() {
+        return MethodSourceHelper.join(MethodSourceHelper.booleans(),
+                Stream.of(null, new IOException(uidS()), new RuntimeException(uidS())));
+    }
+
+    @Test
+    void executeThrown() {
+        var event = mock(FeignRequestEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        var request = newRequest();
+        Target<?> target = request.requestTemplate().feignTarget();
+        var options = new Request.Options();
+        Optional<Object> requestContext = Optional.empty();
+        var call = mock(AsyncCall.class);
+        doReturn(call).when(loggingService).beginAsync();
+        long start = uid();
+        doReturn(start).when(statistics).start();
+        var thrown = new IllegalStateException(uidS());
+        doThrow(thrown).when(delegate).execute(request, options, requestContext);
+        doNothing().when(subj).complete(event, call, request, target, start, null, thrown);
+
+        var actual = assertThrows(IllegalStateException.class, () -> subj.execute(request, options, requestContext));
+
+        assertThat(actual).isSameAs(thrown);
+        var inOrder = inOrder(event, delegate, loggingService, statistics, subj);
+        inOrder.verify(event).isEnabled();
+        inOrder.verify(loggingService).attachRoot(event);
+        inOrder.verify(event).begin();
+        inOrder.verify(loggingService).beginAsync();
+        inOrder.verify(statistics).start();
+        inOrder.verify(delegate).execute(request, options, requestContext);
+        inOrder.verify(subj).complete(event, call, request, target, start, null, thrown);
+        verifyNoMoreInteractions(event, delegate, loggingService, statistics);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void complete(boolean enabled, boolean hasCall, Throwable thrown, Throwable expected) {
+        var event = mock(FeignRequestEvent.class);
+        var call = mock(AsyncCall.class);
+        var request = hasCall ? newRequest() : mock(Request.class);
+        Target<?> target = mock(Target.class);
+        long start = uid();
+        var response = mock(Response.class);
+        int status = uid();
+        var body = mock(Response.Body.class);
+        int responseSize = uid();
+        if (thrown == null) {
+            doReturn(status).when(response).status();
+            if (enabled) {
+                doReturn(body).when(response).body();
+                doReturn(responseSize).when(body).length();
+            }
+        }
+
+        subj.complete(enabled ? event : null, hasCall ? call : null, request, target, start, thrown == null ? response : null,
+                thrown);
+
+        verify(statistics).record(target, thrown == null ? status : 0, start);
+        if (hasCall) {
+            verify(call).complete(getClass(), "PATCH " + request.url(), thrown != null);
+        }
+        if (enabled) {
+            assertThat(event).is(matching(matcher -> matcher
+                    .add("status", event.status, thrown == null ? status : 0)
+                    .add("responseSize", event.responseSize, thrown == null ? (long) responseSize : 0L)
+                    .add("exception", event.exception, expected == null ? null : expected.getClass())
+                    .add("message", event.message, expected == null ? null : expected.getMessage())
+            ));
+            verify(event).commit();
+        }
+        verifyNoMoreInteractions(event, statistics, call);
+    }
+
+    static Stream<Arguments> complete() {
+        var e = new IOException(uidS());
+        var r = new RuntimeException(uidS());
+        var empty = new CompletionException(null);
+        return MethodSourceHelper.join(MethodSourceHelper.booleans2(), Stream.of(
+                Arguments.of(null, null),
+                Arguments.of(e, e),
+                Arguments.of(new CompletionException(e), e),
+                Arguments.of(r, r),
+                Arguments.of(empty, empty)
+        ));
+    }
+
+    Request newRequest() {
+        var request = mock(Request.class);
+        var template = mock(RequestTemplate.class);
+        doReturn(template).when(request).requestTemplate();
+        Target<?> target = mock(Target.class);
+        doReturn(target).when(template).feignTarget();
+        lenient().doReturn(getClass()).when(target).type();
+        lenient().doReturn(Request.HttpMethod.PATCH).when(request).httpMethod();
+        lenient().doReturn(uidS()).when(request).url();
+        lenient().doReturn(uid()).when(request).length();
+        return request;
+    }
+}
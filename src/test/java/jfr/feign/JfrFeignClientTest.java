@@ -0,0 +1,202 @@
+package jfr.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import jfr.event.FeignCallEvent;
+import jfr.event.FeignRequestEvent;
+import jfr.logging.NonReentrantLoggingService;
+import jfr.test.junit.MethodSourceHelper;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.stream.Stream;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link JfrFeignClient}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignClientTest {
+    JfrFeignClient subj;
+
+    @Mock
+    Client delegate;
+    @Mock
+    NonReentrantLoggingService<FeignRequestEvent> loggingService;
+    @Mock
+    FeignTargetStatistics statistics;
+
+    @AfterEach
+    void reset() {
+        FeignCall.current.remove();
+    }
+
+    @BeforeEach
+    void setUp() {
+        subj = mock(JfrFeignClient.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(delegate, loggingService, statistics));
+    }
+
+    @Test
+    void executeDisabled() throws IOException {
+        var event = mock(FeignRequestEvent.class);
+        doReturn(event).when(subj).newEvent();
+        var request = mock(Request.class);
+        var options = new Request.Options();
+        var expected = mock(Response.class);
+        int status = uid();
+        doReturn(status).when(expected).status();
+        doReturn(expected).when(delegate).execute(request, options);
+        long start = uid();
+        doReturn(start).when(statistics).start();
+
+        Response actual = subj.execute(request, options);
+
+        assertThat(actual).isSameAs(expected);
+        verify(event).isEnabled();
+        verify(statistics).record(null, status, start);
+        verifyNoMoreInteractions(event, expected, loggingService, statistics);
+    }
+
+    /**
+     * События запросов выключены, событие логического вызова включено: попытки и статус всё равно учитываются.
+     */
+    @Test
+    void executeCallOnly() throws IOException {
+        var callEvent = new FeignCallEvent();
+        FeignCall call = FeignCall.begin(callEvent);
+        var event = mock(FeignRequestEvent.class);
+        doReturn(event).when(subj).newEvent();
+        var request = mock(Request.class);
+        doReturn(Request.HttpMethod.GET).when(request).httpMethod();
+        String url = uidS();
+        doReturn(url).when(request).url();
+        var options = new Request.Options();
+        var response = mock(Response.class);
+        int status = uid();
+        doReturn(status).when(response).status();
+        var thrown = new IOException(uidS());
+        doThrow(thrown).doReturn(response).when(delegate).execute(request, options);
+
+        assertThat(assertThrows(IOException.class, () -> subj.execute(request, options))).isSameAs(thrown);
+        Response actual = subj.execute(request, options);
+        call.end();
+
+        assertThat(actual).isSameAs(response);
+        assertThat(callEvent).is(matching(matcher -> matcher
+                .add("method", callEvent.method, "GET " + url)
+                .add("attempts", callEvent.attempts, 2)
+                .add("status", callEvent.status, status)
+        ));
+        verify(event, times(2)).isEnabled();
+        verifyNoMoreInteractions(event, loggingService);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void execute(boolean hasCall, Throwable thrown) throws IOException {
+        var callEvent = new FeignCallEvent();
+        var call = hasCall ? FeignCall.begin(callEvent) : null;
+        int attempts = uid();
+        if (hasCall) {
+            call.attempts = attempts;
+        }
+        var event = mock(FeignRequestEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        var request = mock(Request.class);
+        var template = mock(RequestTemplate.class);
+        doReturn(template).when(request).requestTemplate();
+        Target<?> target = mock(Target.class);
+        doReturn(target).when(template).feignTarget();
+        doReturn(getClass()).when(target).type();
+        doReturn(Request.HttpMethod.PATCH).when(request).httpMethod();
+        String url = uidS();
+        doReturn(url).when(request).url();
+        int requestSize = uid();
+        doReturn(requestSize).when(request).length();
+        var options = new Request.Options();
+        long start = uid();
+        doReturn(start).when(statistics).start();
+        var response = mock(Response.class);
+        int status = uid();
+        var body = mock(Response.Body.class);
+        int responseSize = uid();
+        if (thrown == null) {
+            doReturn(status).when(response).status();
+            doReturn(body).when(response).body();
+            doReturn(responseSize).when(body).length();
+            doReturn(response).when(delegate).execute(request, options);
+        } else {
+            doThrow(thrown).when(delegate).execute(request, options);
+        }
+
+        if (thrown == null) {
+            Response actual = subj.execute(request, options);
+            assertThat(actual).isSameAs(response);
+        } else {
+            var t = assertThrows(Throwable.class, () -> subj.execute(request, options));
+            assertThat(t).isSameAs(thrown);
+        }
+
+        assertThat(event).is(matching(matcher -> matcher
+                .add("beanClass", event.beanClass, getClass())
+                .add("method", event.method, "PATCH " + url)
+                .add("requestSize", event.requestSize, (long) requestSize)
+                .add("status", event.status, thrown == null ? status : 0)
+                .add("responseSize", event.responseSize, thrown == null ? (long) responseSize : 0L)
+                .add("exception", event.exception, thrown == null ? null : thrown.getClass())
+                .add("message", event.message, thrown == null ? null : thrown.getMessage())
+                .add("attempt", event.attempt, hasCall ? attempts + 1 : 0)
+        ));
+        assertThat(callEvent).is(matching(matcher -> matcher
+                .add("method", callEvent.method, hasCall ? "PATCH " + url : null)
+                .add("status", callEvent.status, hasCall && thrown == null ? status : 0)
+        ));
+        var inOrder = inOrder(event, delegate, loggingService, statistics);
+        inOrder.verify(event).isEnabled();
+        inOrder.verify(loggingService).attachRoot(event);
+        inOrder.verify(event).begin();
+        inOrder.verify(statistics).start();
+        inOrder.verify(delegate).execute(request, options);
+        inOrder.verify(statistics).record(target, thrown == null ? status : 0, start);
+        inOrder.verify(event).commit();
+        verifyNoMoreInteractions(event, delegate, loggingService, statistics);
+    }
+
+    static Stream<Arguments> execute() {
+        return MethodSourceHelper.join(MethodSourceHelper.booleans(),
+                Stream.of(null, new SocketTimeoutException(uidS()), new IOException(uidS()), new RuntimeException(uidS())));
+    }
+}
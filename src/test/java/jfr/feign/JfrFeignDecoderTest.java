@@ -0,0 +1,123 @@
+package jfr.feign;
+
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import jfr.event.FeignDecodeEvent;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link JfrFeignDecoder}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignDecoderTest {
+    JfrFeignDecoder subj;
+
+    @Mock
+    Decoder delegate;
+
+    @BeforeEach
+    void setUp() {
+        subj = mock(JfrFeignDecoder.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(delegate));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void decodeDisabled(boolean enabled) throws IOException {
+        var event = mock(FeignDecodeEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(enabled).when(event).isEnabled();
+        var response = newResponse(enabled ? null : uidS());
+        Type type = String.class;
+        Object expected = uidS();
+        doReturn(expected).when(delegate).decode(response, type);
+
+        Object actual = subj.decode(response, type);
+
+        assertThat(actual).isEqualTo(expected);
+        verify(delegate).decode(response, type);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void decode(int read) throws IOException {
+        var event = mock(FeignDecodeEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        String content = uidS() + uidS();
+        var response = newResponse(content);
+        Type type = String.class;
+        Object expected = uidS();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int size = read == 0 ? 0 : read == 1 ? uid(bytes.length) : bytes.length;
+        doAnswer(inv -> {
+            Response actual = inv.getArgument(0);
+            assertThat(actual.status()).isEqualTo(response.status());
+            assertThat(actual.body().length()).isEqualTo(bytes.length);
+            assertThat(actual.body().asInputStream().readNBytes(size)).hasSize(size);
+            return expected;
+        }).when(delegate).decode(any(), eq(type));
+
+        Object actual = subj.decode(response, type);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(event).is(matching(matcher -> matcher
+                .add("beanClass", event.beanClass, delegate.getClass())
+                .add("method", event.method, "GET " + response.request().url())
+                .add("type", event.type, String.class.getName())
+                .add("size", event.size, (long) size)
+        ));
+        var inOrder = inOrder(event, delegate);
+        inOrder.verify(event).isEnabled();
+        inOrder.verify(event).begin();
+        inOrder.verify(delegate).decode(any(), eq(type));
+        inOrder.verify(event).commit();
+        verifyNoMoreInteractions(event, delegate);
+    }
+
+    static Response newResponse(String content) {
+        var request = Request.create(Request.HttpMethod.GET, "http://localhost/" + uidS(), Map.of(), null, null, null);
+        var builder = Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of());
+        if (content != null) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            builder.body(new ByteArrayInputStream(bytes), bytes.length);
+        }
+        return builder.build();
+    }
+}
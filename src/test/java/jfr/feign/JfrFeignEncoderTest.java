@@ -0,0 +1,112 @@
+package jfr.feign;
+
+import feign.RequestTemplate;
+import feign.Target;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import jfr.event.FeignEncodeEvent;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Type;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link JfrFeignEncoder}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignEncoderTest {
+    JfrFeignEncoder subj;
+
+    @Mock
+    Encoder delegate;
+
+    @BeforeEach
+    void setUp() {
+        subj = mock(JfrFeignEncoder.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(delegate));
+    }
+
+    @Test
+    void encodeDisabled() {
+        var event = mock(FeignEncodeEvent.class);
+        doReturn(event).when(subj).newEvent();
+        Object object = uidS();
+        Type bodyType = String.class;
+        var template = mock(RequestTemplate.class);
+
+        subj.encode(object, bodyType, template);
+
+        verify(event).isEnabled();
+        verify(delegate).encode(object, bodyType, template);
+        verifyNoMoreInteractions(event, delegate, template);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void encode(boolean failed) {
+        var event = mock(FeignEncodeEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        Object object = uidS();
+        Type bodyType = String.class;
+        var template = mock(RequestTemplate.class);
+        Target<?> target = mock(Target.class);
+        doReturn(target).when(template).feignTarget();
+        doReturn(getClass()).when(target).type();
+        String method = uidS();
+        doReturn(method).when(template).method();
+        String url = uidS();
+        doReturn(url).when(template).url();
+        byte[] body = new byte[uid(100)];
+        var thrown = new EncodeException(uidS());
+        if (failed) {
+            doThrow(thrown).when(delegate).encode(object, bodyType, template);
+        } else {
+            doReturn(body).when(template).body();
+        }
+
+        if (failed) {
+            var t = assertThrows(EncodeException.class, () -> subj.encode(object, bodyType, template));
+            assertThat(t).isSameAs(thrown);
+        } else {
+            subj.encode(object, bodyType, template);
+        }
+
+        assertThat(event).is(matching(matcher -> matcher
+                .add("beanClass", event.beanClass, getClass())
+                .add("method", event.method, method + " " + url)
+                .add("type", event.type, String.class.getName())
+                .add("size", event.size, failed ? 0L : (long) body.length)
+        ));
+        var inOrder = inOrder(event, delegate);
+        inOrder.verify(event).isEnabled();
+        inOrder.verify(event).begin();
+        inOrder.verify(delegate).encode(object, bodyType, template);
+        inOrder.verify(event).commit();
+        verifyNoMoreInteractions(event, delegate);
+    }
+}
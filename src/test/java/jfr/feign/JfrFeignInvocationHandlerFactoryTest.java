@@ -0,0 +1,87 @@
+package jfr.feign;
+
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import jfr.logging.NonReentrantLoggingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Тесты для {@link JfrFeignInvocationHandlerFactory}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(MockitoExtension.class)
+public class JfrFeignInvocationHandlerFactoryTest {
+    JfrFeignInvocationHandlerFactory subj;
+
+    @Mock
+    InvocationHandlerFactory delegate;
+    @Mock
+    NonReentrantLoggingService<?> loggingService;
+    @Captor
+    ArgumentCaptor<Map<Method, MethodHandler>> handlersCaptor;
+
+    interface TestClient {
+        String get();
+
+        default String getDefault() {
+            return get();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        subj = new JfrFeignInvocationHandlerFactory(delegate, loggingService);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void create() throws NoSuchMethodException {
+        Target target = mock(Target.class);
+        doReturn(TestClient.class).when(target).type();
+        Method get = TestClient.class.getMethod("get");
+        Method getDefault = TestClient.class.getMethod("getDefault");
+        var handler = mock(MethodHandler.class, "handler");
+        var defaultHandler = mock(MethodHandler.class, "defaultHandler");
+        Map<Method, MethodHandler> dispatch = new LinkedHashMap<>();
+        dispatch.put(get, handler);
+        dispatch.put(getDefault, defaultHandler);
+        var expected = mock(InvocationHandler.class);
+        doReturn(expected).when(delegate).create(same(target), any());
+
+        InvocationHandler actual = subj.create(target, dispatch);
+
+        assertThat(actual).isSameAs(expected);
+        verify(delegate).create(same(target), handlersCaptor.capture());
+        Map<Method, MethodHandler> handlers = handlersCaptor.getValue();
+        assertThat(handlers.get(getDefault)).isSameAs(defaultHandler);
+        assertThat(handlers.get(get)).isInstanceOf(JfrFeignMethodHandler.class);
+        var methodHandler = (JfrFeignMethodHandler) handlers.get(get);
+        assertThat(methodHandler).is(matching(matcher -> matcher
+                .add("delegate", methodHandler.delegate, handler)
+                .add("targetClass", methodHandler.targetClass, TestClient.class)
+                .add("name", methodHandler.name, "get")
+                .add("loggingService", methodHandler.loggingService, loggingService)
+        ));
+    }
+}
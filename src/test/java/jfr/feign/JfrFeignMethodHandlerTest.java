@@ -0,0 +1,159 @@
+package jfr.feign;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import jfr.event.FeignCallEvent;
+import jfr.logging.NonReentrantLoggingService;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link JfrFeignMethodHandler}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignMethodHandlerTest {
+    JfrFeignMethodHandler subj;
+
+    @Mock
+    MethodHandler delegate;
+    @Mock
+    NonReentrantLoggingService<?> loggingService;
+    String name;
+
+    @BeforeEach
+    void setUp() {
+        name = uidS();
+        subj = mock(JfrFeignMethodHandler.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(delegate, getClass(), name, loggingService));
+    }
+
+    @AfterEach
+    void reset() {
+        FeignCall.current.remove();
+    }
+
+    @Test
+    void invokeDisabled() throws Throwable {
+        var event = mock(FeignCallEvent.class);
+        doReturn(event).when(subj).newEvent();
+        Object[] argv = {uidS()};
+        Object expected = uidS();
+        doReturn(expected).when(delegate).invoke(argv);
+
+        Object actual = subj.invoke(argv);
+
+        assertThat(actual).isSameAs(expected);
+        verify(event).isEnabled();
+        verifyNoMoreInteractions(event, loggingService);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void invoke(Throwable thrown) throws Throwable {
+        var event = mock(FeignCallEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        Object[] argv = {uidS()};
+        Object expected = uidS();
+        int attempts = uid();
+        long backoff = uid();
+        doAnswer(invocation -> {
+            FeignCall call = FeignCall.current();
+            assertThat(call.event).isSameAs(event);
+            call.attempts = attempts;
+            call.backoffNanos = backoff;
+            if (thrown != null) {
+                throw thrown;
+            }
+            return expected;
+        }).when(delegate).invoke(argv);
+
+        if (thrown == null) {
+            Object actual = subj.invoke(argv);
+            assertThat(actual).isSameAs(expected);
+        } else {
+            var t = assertThrows(Throwable.class, () -> subj.invoke(argv));
+            assertThat(t).isSameAs(thrown);
+        }
+
+        assertThat(event).is(matching(matcher -> matcher
+                .add("beanClass", event.beanClass, getClass())
+                .add("method", event.method, name)
+                .add("attempts", event.attempts, attempts)
+                .add("backoff", event.backoff, backoff)
+                .add("exception", event.exception, thrown == null ? null : thrown.getClass())
+                .add("message", event.message, thrown == null ? null : thrown.getMessage())
+        ));
+        assertThat(FeignCall.current()).isNull();
+        var inOrder = inOrder(event, delegate, loggingService);
+        inOrder.verify(event).isEnabled();
+        inOrder.verify(loggingService).attachRoot(event);
+        inOrder.verify(event).begin();
+        inOrder.verify(delegate).invoke(argv);
+        inOrder.verify(event).commit();
+        verifyNoMoreInteractions(event, delegate, loggingService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void invokeAsync(boolean failed) throws Throwable {
+        var event = mock(FeignCallEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(true).when(event).isEnabled();
+        Object[] argv = {uidS()};
+        var future = new CompletableFuture<>();
+        doReturn(future).when(delegate).invoke(argv);
+
+        Object actual = subj.invoke(argv);
+
+        assertThat(actual).isSameAs(future);
+        assertThat(FeignCall.current()).isNull();
+        verify(event, never()).commit();
+        var thrown = new IOException(uidS());
+        if (failed) {
+            future.completeExceptionally(new CompletionException(thrown));
+        } else {
+            future.complete(uidS());
+        }
+        assertThat(event).is(matching(matcher -> matcher
+                .add("exception", event.exception, failed ? IOException.class : null)
+                .add("message", event.message, failed ? thrown.getMessage() : null)
+        ));
+        verify(event).commit();
+    }
+
+    static Stream<Throwable> invoke() {
+        return Stream.of(null, new IOException(uidS()), new RuntimeException(uidS()));
+    }
+}
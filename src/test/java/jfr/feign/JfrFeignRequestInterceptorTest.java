@@ -1,6 +1,7 @@
 package jfr.feign;
 
 import feign.InvocationContext;
+import feign.MethodMetadata;
 import feign.Request;
 import feign.RequestTemplate;
 import feign.Response;
@@ -8,10 +9,13 @@ import feign.ResponseInterceptor;
 import feign.Target;
 import jfr.event.FeignRequestEvent;
 import jfr.logging.LoggingJoinPoint;
+import jfr.logging.NonReentrantHandle;
 import jfr.logging.NonReentrantLoggingService;
 import jfr.test.junit.UidExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -24,11 +28,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.typeCompatibleWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -45,28 +52,36 @@ public class JfrFeignRequestInterceptorTest {
     @Mock
     NonReentrantLoggingService<FeignRequestEvent> loggingService;
 
-    @Test
-    void apply() {
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void apply(boolean hasMetadata) {
         var template = mock(RequestTemplate.class);
         Target<?> target = mock(Target.class);
         doReturn(target).when(template).feignTarget();
         doReturn(FeignRequestEvent.class).when(target).type();
         String targetUrl = uidS();
-        doReturn(targetUrl).when(target).url();
+        lenient().doReturn(targetUrl).when(target).url();
         String method = uidS();
-        doReturn(method).when(template).method();
+        lenient().doReturn(method).when(template).method();
         String templateUrl = uidS();
-        doReturn(templateUrl).when(template).url();
+        lenient().doReturn(templateUrl).when(template).url();
+        var metadataTemplate = new RequestTemplate();
+        metadataTemplate.method(Request.HttpMethod.PUT);
+        metadataTemplate.uri("/items/{id}");
+        var metadata = mock(MethodMetadata.class);
+        lenient().doReturn(metadataTemplate).when(metadata).template();
+        doReturn(hasMetadata ? metadata : null).when(template).methodMetadata();
         var request = mock(Request.class);
         doReturn(request).when(template).request();
+        Class<?> nameClass = hasMetadata ? String.class : LogMessage.class;
         doAnswer(inv -> {
             LoggingJoinPoint actual = inv.getArgument(0);
             assertThat(actual).is(matching(matcher -> matcher
                     .add("identityPoint", actual.identityPoint(), null)
                     .add("targetClass", actual.targetClass(), FeignRequestEvent.class)
                     .add("name", actual.name(), this, (a, e) -> matcher
-                            .add("class", a.getClass(), typeCompatibleWith(LogMessage.class))
-                            .add("toString", a.toString(), method + " " + targetUrl + " " + templateUrl))
+                            .add("class", a.getClass(), typeCompatibleWith(nameClass))
+                            .add("toString", a.toString(), hasMetadata ? "PUT /items/{id}" : method + " " + targetUrl + " " + templateUrl))
                     .add("method", actual.method(), this, (a, e) -> matcher
                             .add("class", a.getClass(), typeCompatibleWith(LogMessage.class))
                             .add("toString", a.toString(), request.toString()))
@@ -78,7 +93,11 @@ public class JfrFeignRequestInterceptorTest {
         subj.apply(template);
 
         verify(loggingService).before(any(), isA(FeignRequestEvent.class));
-        verifyNoMoreInteractions(loggingService, template, target, request);
+        verify(template).feignTarget();
+        verify(template).methodMetadata();
+        verify(target).type();
+        verifyNoMoreInteractions(loggingService, request);
+        assertThat(subj.handles.asMap()).isEmpty();
     }
 
     @Test
@@ -86,11 +105,12 @@ public class JfrFeignRequestInterceptorTest {
             "resource",
             "ResultOfMethodCallIgnored"})
     void intercept() throws Exception {
-        var context = mock(InvocationContext.class);
-        var response = mock(Response.class);
-        doReturn(response).when(context).response();
+        var template = template();
+        var handle = mock(NonReentrantHandle.class);
+        doReturn(handle).when(loggingService).before(any(), any());
+        subj.apply(template);
         int status = uid();
-        doReturn(status).when(response).status();
+        var context = context(template, status);
         var chain = mock(ResponseInterceptor.Chain.class);
         Object expected = uidS();
         doReturn(expected).when(chain).next(context);
@@ -98,11 +118,87 @@ public class JfrFeignRequestInterceptorTest {
         Object actual = subj.intercept(context, chain);
 
         assertThat(actual).isEqualTo(expected);
-        var inOrder = inOrder(loggingService, context, response, chain);
-        inOrder.verify(context).response();
-        inOrder.verify(response).status();
-        inOrder.verify(loggingService).afterReturning(FeignRequestEvent.class, status);
+        var inOrder = inOrder(loggingService, chain);
+        inOrder.verify(loggingService).afterReturning(handle, status);
         inOrder.verify(chain).next(context);
-        verifyNoMoreInteractions(loggingService, context, response, chain);
+        assertThat(subj.handles.asMap()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings({
+            "resource",
+            "ResultOfMethodCallIgnored"})
+    void interceptNotStarted() throws Exception {
+        var context = context(template(), uid());
+        var chain = mock(ResponseInterceptor.Chain.class);
+
+        subj.intercept(context, chain);
+
+        verify(chain).next(context);
+        verifyNoMoreInteractions(loggingService);
+    }
+
+    @Test
+    @SuppressWarnings("resource")
+    void interceptInterleaved() throws Exception {
+        var first = template();
+        var second = template();
+        var firstHandle = mock(NonReentrantHandle.class);
+        var secondHandle = mock(NonReentrantHandle.class);
+        doReturn(firstHandle, secondHandle).when(loggingService).before(any(), any());
+        var chain = mock(ResponseInterceptor.Chain.class);
+        int firstStatus = uid();
+        int secondStatus = uid();
+
+        subj.apply(first);
+        subj.apply(second);
+        subj.intercept(context(first, firstStatus), chain);
+        subj.intercept(context(second, secondStatus), chain);
+
+        var inOrder = inOrder(loggingService);
+        inOrder.verify(loggingService).afterReturning(firstHandle, firstStatus);
+        inOrder.verify(loggingService).afterReturning(secondHandle, secondStatus);
+        verify(loggingService, never()).afterReturning(eq(FeignRequestEvent.class), any());
+    }
+
+    /**
+     * Запрос завершился ошибкой без ответа, fallback вызывает другой клиент Feign.
+     */
+    @Test
+    @SuppressWarnings("resource")
+    void interceptFallback() throws Exception {
+        var failed = template();
+        var fallback = template();
+        var failedHandle = mock(NonReentrantHandle.class);
+        var fallbackHandle = mock(NonReentrantHandle.class);
+        doReturn(failedHandle, fallbackHandle).when(loggingService).before(any(), any());
+        int status = uid();
+
+        subj.apply(failed);
+        subj.apply(fallback);
+        subj.intercept(context(fallback, status), mock(ResponseInterceptor.Chain.class));
+
+        verify(loggingService).afterReturning(fallbackHandle, status);
+        verify(loggingService, never()).afterReturning(eq(failedHandle), any());
+        assertThat(subj.handles.asMap()).containsOnlyKeys(failed);
+    }
+
+    static RequestTemplate template() {
+        var template = mock(RequestTemplate.class);
+        Target<?> target = mock(Target.class);
+        lenient().doReturn(target).when(template).feignTarget();
+        lenient().doReturn(FeignRequestEvent.class).when(target).type();
+        return template;
+    }
+
+    static InvocationContext context(RequestTemplate template, int status) {
+        var context = mock(InvocationContext.class);
+        var response = mock(Response.class);
+        var request = mock(Request.class);
+        doReturn(response).when(context).response();
+        doReturn(request).when(response).request();
+        doReturn(template).when(request).requestTemplate();
+        lenient().doReturn(status).when(response).status();
+        return context;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package jfr.feign;
+
+import com.google.common.base.Ticker;
+import feign.RetryableException;
+import feign.Retryer;
+import jfr.event.FeignCallEvent;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Тесты для {@link JfrFeignRetryer}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrFeignRetryerTest {
+    JfrFeignRetryer subj;
+
+    @Mock
+    Retryer delegate;
+    @Mock
+    Ticker ticker;
+
+    @BeforeEach
+    void setUp() {
+        subj = new JfrFeignRetryer(delegate, ticker);
+    }
+
+    @AfterEach
+    void reset() {
+        FeignCall.current.remove();
+    }
+
+    @Test
+    void continueOrPropagateNoCall() {
+        var e = mock(RetryableException.class);
+
+        subj.continueOrPropagate(e);
+
+        verify(delegate).continueOrPropagate(e);
+        verifyNoMoreInteractions(delegate, ticker);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void continueOrPropagate(boolean propagate) {
+        var call = FeignCall.begin(new FeignCallEvent());
+        long backoff = uid();
+        call.backoffNanos = backoff;
+        var e = mock(RetryableException.class);
+        long start = uid();
+        long duration = uid();
+        doReturn(start, start + duration).when(ticker).read();
+        if (propagate) {
+            doThrow(e).when(delegate).continueOrPropagate(e);
+            var actual = assertThrows(RetryableException.class, () -> subj.continueOrPropagate(e));
+            assertThat(actual).isSameAs(e);
+        } else {
+            subj.continueOrPropagate(e);
+        }
+
+        assertThat(call.backoffNanos).isEqualTo(backoff + duration);
+        verify(delegate).continueOrPropagate(e);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void testClone() {
+        var clone = mock(Retryer.class);
+        doReturn(clone).when(delegate).clone();
+
+        Retryer actual = subj.clone();
+
+        assertThat(actual).isInstanceOf(JfrFeignRetryer.class);
+        var retryer = (JfrFeignRetryer) actual;
+        assertThat(retryer).is(matching(matcher -> matcher
+                .add("delegate", retryer.delegate, clone)
+                .add("ticker", retryer.ticker, ticker)
+        ));
+    }
+}
@@ -0,0 +1,145 @@
+package jfr.jmx;
+
+import jfr.analysis.MethodKey;
+import jfr.analysis.MethodStatistic;
+import jfr.live.LiveWindow;
+import jfr.live.WindowStatistic;
+import jfr.live.WindowedStatistics;
+import jfr.logging.JfrLoggingServiceImpl;
+import jfr.logging.LoggingConfig;
+import jfr.stats.LatencyHistogram;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Тесты для {@link JfrStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrStatisticsTest {
+    JfrLoggingServiceImpl<?> service = new JfrLoggingServiceImpl<>(null, null);
+    WindowedStatistics statistics = mock(WindowedStatistics.class);
+    JfrStatistics subj = new JfrStatistics(service, statistics);
+
+    @Test
+    void config() {
+        long threshold = uid();
+        int sampling = uid() + 1;
+        int depth = uid();
+
+        subj.setThresholdNanos(threshold);
+        subj.setSampling(sampling);
+        subj.setCallPathDepth(depth);
+        subj.setLogErrorEnabled(true);
+        subj.setInclude("a\\..*");
+        subj.setExclude(null);
+
+        LoggingConfig actual = service.getConfig();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("thresholdNanos", subj.getThresholdNanos(), threshold)
+                .add("sampling", subj.getSampling(), sampling)
+                .add("callPathDepth", subj.getCallPathDepth(), depth)
+                .add("logErrorEnabled", subj.isLogErrorEnabled(), true)
+                .add("include", subj.getInclude(), "a\\..*")
+                .add("exclude", subj.getExclude(), "")
+                .add("config.thresholdNanos", actual.getThresholdNanos(), threshold)
+        ));
+    }
+
+    @Test
+    void configInvalid() {
+        LoggingConfig expected = service.getConfig();
+
+        assertThrows(IllegalArgumentException.class, () -> subj.setSampling(0));
+        assertThrows(IllegalArgumentException.class, () -> subj.setInclude("("));
+
+        assertThat(service.getConfig()).isSameAs(expected);
+    }
+
+    @Test
+    void reloadConfig() {
+        var environment = new MockEnvironment().withProperty("jfr.thresholdNanos", "7");
+        service.setEnvironment(environment);
+        subj.setThresholdNanos(uid());
+
+        boolean actual = subj.reloadConfig();
+
+        assertThat(actual).isTrue();
+        assertThat(subj.getThresholdNanos()).isEqualTo(7L);
+    }
+
+    @Test
+    void methods() {
+        var histogram = new LatencyHistogram();
+        histogram.record(1_000, 4);
+        var statistic = new WindowStatistic(new MethodStatistic(new MethodKey("MethodInvocation", "a.Service", "get"),
+                4, 4_000, 1_000, histogram.drain()), 1);
+        doReturn(List.of(statistic)).when(statistics).statistics(LiveWindow.FIVE_MINUTES);
+
+        TabularData actual = subj.methods("5m");
+
+        assertThat(actual.getTabularType()).isEqualTo(JfrStatistics.METHODS_TYPE);
+        CompositeData row = actual.get(new Object[]{"MethodInvocation", "a.Service", "get"});
+        assertThat(row).is(matching(matcher -> matcher
+                .add("count", row.get("count"), 4L)
+                .add("errors", row.get("errors"), 1L)
+                .add("errorRate", row.get("errorRate"), 0.25)
+                .add("sum", row.get("sum"), 4_000L)
+                .add("mean", row.get("mean"), 1_000L)
+                .add("max", row.get("max"), 1_000L)
+        ));
+    }
+
+    @Test
+    void methodsWithoutStatistics() {
+        var subj = new JfrStatistics(service, null);
+
+        assertThat(subj.getMethods().isEmpty()).isTrue();
+        assertThat(subj.getDropped()).isZero();
+        subj.resetStatistics();
+    }
+
+    @Test
+    void resetStatistics() {
+        long dropped = uid();
+        doReturn(dropped).when(statistics).dropped();
+
+        subj.resetStatistics();
+
+        verify(statistics).reset();
+        assertThat(subj.getDropped()).isEqualTo(dropped);
+    }
+
+    @Test
+    void register() throws Exception {
+        var name = new ObjectName(JfrStatistics.OBJECT_NAME);
+
+        subj.register();
+        try {
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ThresholdNanos"))
+                    .isEqualTo(service.getConfig().getThresholdNanos());
+        } finally {
+            subj.close();
+        }
+
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+    }
+}
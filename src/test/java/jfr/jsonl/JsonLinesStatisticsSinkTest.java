@@ -0,0 +1,233 @@
+package jfr.jsonl;
+
+import jfr.logging.DimensionalMethod;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Тесты для {@link JsonLinesStatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class JsonLinesStatisticsSinkTest {
+    static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+    Path file;
+    Clock clock;
+    JsonLinesStatisticsSink subj;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("statistics.jsonl");
+        clock = mock(Clock.class);
+        doReturn(NOW.toEpochMilli()).when(clock).millis();
+        subj = new JsonLinesStatisticsSink(file, 1000, 2, 1024, clock);
+        subj.open();
+    }
+
+    @Test
+    void constructorInvalid() {
+        assertThatThrownBy(() -> new JsonLinesStatisticsSink(file, 0, 1, 1024, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JsonLinesStatisticsSink(file, 1, 0, 1024, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JsonLinesStatisticsSink(file, 1, 1, 16, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acceptAndClose() throws IOException, NoSuchMethodException {
+        subj.accept(String.class, "find", 0x1f, 2, 5_000_000, 2_000_000, 3_000_000, 1);
+        subj.accept(Integer.class, String.class.getMethod("length"), 0, 1, 7, 7, 7, 0);
+        assertThat(file).isEmptyFile();
+
+        subj.close();
+
+        assertThat(Files.readString(file)).isEqualTo("""
+                {"ts":1735689600000,"class":"java.lang.String","method":"find","path":"1f","count":2,\
+                "sum":5000000,"min":2000000,"max":3000000,"errors":1}
+                {"ts":1735689600000,"class":"java.lang.Integer","method":"length","count":1,\
+                "sum":7,"min":7,"max":7,"errors":0}
+                """);
+        assertThat(subj.channel).isNull();
+    }
+
+    @Test
+    void acceptDimension() throws IOException {
+        subj.accept(String.class, new DimensionalMethod("find", "a\"b"), 0x1f, 1, 7, 7, 7, 0);
+
+        subj.close();
+
+        assertThat(Files.readString(file)).isEqualTo("""
+                {"ts":1735689600000,"class":"java.lang.String","method":"find","dimension":"a\\"b","path":"1f",\
+                "count":1,"sum":7,"min":7,"max":7,"errors":0}
+                """);
+    }
+
+    @Test
+    void flushDelayed() {
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+
+        subj.flush();
+
+        assertThat(file).isEmptyFile();
+        doReturn(NOW.toEpochMilli() + JsonLinesStatisticsSink.FLUSH_MILLIS).when(clock).millis();
+
+        subj.flush();
+
+        assertThat(file).isNotEmptyFile();
+        assertThat(subj.buffer.position()).isZero();
+    }
+
+    @Test
+    void flushHalfFull() {
+        while (subj.buffer.position() < subj.buffer.capacity() / 2) {
+            subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+        }
+
+        subj.flush();
+
+        assertThat(subj.size).isPositive();
+        assertThat(subj.buffer.position()).isZero();
+    }
+
+    @Test
+    void rotate() throws IOException {
+        for (int i = 0; i < 40; i++) {
+            subj.accept(String.class, "m" + i, 0, 1, i, i, i, 0);
+            subj.write();
+        }
+        subj.close();
+
+        assertThat(Files.size(file)).isLessThanOrEqualTo(1000);
+        assertThat(Files.size(subj.archive(1))).isLessThanOrEqualTo(1000);
+        assertThat(Files.readString(subj.archive(2))).startsWith("{\"ts\":1735689600000,\"class\":\"java.lang.String\"");
+        assertThat(subj.archive(3)).doesNotExist();
+        assertThat(Files.readString(file)).endsWith("\"method\":\"m39\",\"count\":1,\"sum\":39,\"min\":39,\"max\":39,\"errors\":0}\n");
+    }
+
+    @Test
+    void rotateFailed() throws IOException {
+        Files.writeString(subj.archive(1), "1");
+        Files.createDirectories(subj.archive(2).resolve("busy"));
+        for (int i = 0; i < 25; i++) {
+            subj.accept(String.class, "m" + i, 0, 1, i, i, i, 0);
+            subj.write();
+        }
+
+        assertThat(Files.size(file)).isGreaterThan(1000);
+        assertThat(subj.channel).isNotNull();
+        assertThat(subj.dropped()).isZero();
+
+        Files.delete(subj.archive(2).resolve("busy"));
+        subj.accept(String.class, "m25", 0, 1, 25, 25, 25, 0);
+        subj.close();
+
+        assertThat(Files.readString(subj.archive(1))).endsWith("\"method\":\"m24\",\"count\":1,\"sum\":24,\"min\":24,\"max\":24,\"errors\":0}\n");
+        assertThat(Files.readString(subj.archive(2))).isEqualTo("1");
+        assertThat(Files.readString(file)).startsWith("{\"ts\":1735689600000,\"class\":\"java.lang.String\",\"method\":\"m25\"");
+        assertThat(subj.dropped()).isZero();
+    }
+
+    @Test
+    void writeFailed() throws IOException {
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+        subj.channel.close();
+
+        subj.write();
+
+        assertThat(subj.dropped()).isEqualTo(2);
+        assertThat(subj.buffer.position()).isZero();
+        assertThat(subj.lines).isZero();
+        assertThat(file).isEmptyFile();
+    }
+
+    @Test
+    void writeReopen() throws IOException {
+        subj.channel.close();
+        subj.channel = null;
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+
+        subj.write();
+
+        assertThat(subj.channel).isNotNull();
+        assertThat(Files.readString(file)).contains("\"method\":\"find\"");
+        assertThat(subj.dropped()).isZero();
+    }
+
+    @Test
+    void writeClosed() {
+        subj.close();
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+
+        subj.write();
+
+        assertThat(subj.channel).isNull();
+        assertThat(subj.dropped()).isEqualTo(1);
+        assertThat(file).isEmptyFile();
+    }
+
+    @Test
+    void acceptTooLong() {
+        subj.accept(String.class, "m".repeat(1024), 0, 1, 1, 1, 1, 0);
+
+        assertThat(subj.dropped()).isEqualTo(1);
+        assertThat(subj.buffer.position()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 7, -7, 1234567890123L, Long.MIN_VALUE, Long.MAX_VALUE})
+    void putLong(long value) {
+        var buffer = ByteBuffer.allocate(32);
+
+        JsonLinesStatisticsSink.putLong(buffer, value);
+
+        assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII))
+                .isEqualTo(Long.toString(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 0xf, 0x10, 0x1234abcdL, -1})
+    void putHex(long value) {
+        var buffer = ByteBuffer.allocate(32);
+
+        JsonLinesStatisticsSink.putHex(buffer, value);
+
+        assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII))
+                .isEqualTo(Long.toHexString(value));
+    }
+
+    @Test
+    void putString() {
+        var buffer = ByteBuffer.allocate(64);
+
+        JsonLinesStatisticsSink.putString(buffer, "a\"b\\c\né中😀");
+
+        assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8))
+                .isEqualTo("a\\\"b\\\\c\\u000aé中😀");
+    }
+}
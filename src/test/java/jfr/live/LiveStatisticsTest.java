@@ -0,0 +1,126 @@
+package jfr.live;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jdk.jfr.consumer.RecordingStream;
+import jfr.event.FeignRequestEvent;
+import jfr.event.MethodInvocationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Тесты для {@link LiveStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("recording")
+public class LiveStatisticsTest {
+    LiveStatistics subj;
+
+    @Mock
+    RecordingStream stream;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        subj = mock(LiveStatistics.class, withSettings().name("subj").defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(new WindowedStatistics(Clock.systemUTC(), 10)));
+    }
+
+    @Test
+    void startClose() {
+        doReturn(stream).when(subj).newRecordingStream();
+
+        subj.start();
+        subj.start();
+
+        assertThat(subj.stream).isSameAs(stream);
+        InOrder inOrder = inOrder(stream);
+        inOrder.verify(stream).setMaxAge(LiveStatistics.MAX_AGE);
+        inOrder.verify(stream).startAsync();
+
+        subj.close();
+        subj.close();
+
+        assertThat(subj.stream).isNull();
+        inOrder.verify(stream).close();
+        verify(stream).enable(LiveStatistics.METHOD_INVOCATION);
+        verify(stream).enable(LiveStatistics.FEIGN_EVENT);
+        verify(stream).onEvent(eq(LiveStatistics.METHOD_INVOCATION), any());
+        verify(stream).onEvent(eq(LiveStatistics.FEIGN_EVENT), any());
+        verify(stream).onError(any());
+        verifyNoMoreInteractions(stream);
+    }
+
+    @Test
+    void accept() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            var invocation = new MethodInvocationEvent();
+            invocation.beanClass = getClass();
+            invocation.method = "run";
+            invocation.begin();
+            invocation.count = 2;
+            invocation.sum = 2_000;
+            invocation.max = 1_500;
+            invocation.commit();
+            var feign = new FeignRequestEvent();
+            feign.beanClass = getClass();
+            feign.method = "GET /users";
+            feign.begin();
+            feign.status = 503;
+            feign.commit();
+        });
+        long feignDuration = events.stream()
+                .filter(event -> event.getEventType().getName().equals(LiveStatistics.FEIGN_EVENT))
+                .findFirst().orElseThrow()
+                .getDuration().toNanos();
+        events.forEach(subj::accept);
+
+        assertThat(subj.statistics().statistics(LiveWindow.FIVE_MINUTES))
+                .extracting(s -> s.key().shortName(), s -> s.statistic().count(), s -> s.statistic().max(),
+                        WindowStatistic::errors)
+                .containsExactlyInAnyOrder(
+                        tuple("LiveStatisticsTest.run", 2L, 1_500L, 0L),
+                        tuple("LiveStatisticsTest.GET /users", 1L, feignDuration, 1L));
+    }
+
+    List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = dir.resolve("test.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(MethodInvocationEvent.class);
+            recording.enable(FeignRequestEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+}
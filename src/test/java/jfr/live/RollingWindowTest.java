@@ -0,0 +1,116 @@
+package jfr.live;
+
+import jfr.analysis.MethodKey;
+import org.junit.jupiter.api.Test;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link RollingWindow}.
+ *
+ * @author Roman_Erzhukov
+ */
+public class RollingWindowTest {
+    static final long SLOT = LiveWindow.SECOND.slotNanos();
+
+    RollingWindow subj = new RollingWindow(LiveWindow.SECOND);
+    MethodKey key = new MethodKey("MethodInvocation", "a.Service", "run");
+
+    @Test
+    void statistic() {
+        long start = 1_000 * SLOT;
+        subj.record(start, 2, 2_000, 1_500, 1);
+        subj.record(start + SLOT, 1, 3_000, 3_000, 0);
+        subj.record(start + 3 * SLOT, 0, 0, 0, 0);
+
+        WindowStatistic actual = subj.statistic(key, start + 3 * SLOT);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("key", actual.key(), key)
+                .add("count", actual.statistic().count(), 3L)
+                .add("sum", actual.statistic().sum(), 5_000L)
+                .add("max", actual.statistic().max(), 3_000L)
+                .add("histogram.count", actual.statistic().histogram().count(), 3L)
+                .add("errors", actual.errors(), 1L)
+        ));
+    }
+
+    @Test
+    void statisticMax() {
+        long start = 1_000 * SLOT;
+        subj.record(start, 100, 1_099_000, 100_000, 0);
+
+        WindowStatistic actual = subj.statistic(key, start);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual.statistic().histogram().count()).isEqualTo(100L);
+        assertThat(actual.statistic().percentile(50)).isLessThan(20_000L);
+        assertThat(actual.statistic().percentile(100)).isEqualTo(100_000L);
+    }
+
+    @Test
+    void recordConcurrent() throws InterruptedException {
+        long start = 1_000 * SLOT;
+        var threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    subj.record(start + j % 2 * SLOT, 1, 10, 10, 0);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        WindowStatistic actual = subj.statistic(key, start + SLOT);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual.statistic().count()).isEqualTo(40_000L);
+        assertThat(actual.statistic().histogram().count()).isEqualTo(40_000L);
+    }
+
+    @Test
+    void statisticExpired() {
+        long start = 1_000 * SLOT;
+        subj.record(start, 1, 1_000, 1_000, 0);
+        subj.record(start + SLOT, 1, 2_000, 2_000, 0);
+
+        WindowStatistic actual = subj.statistic(key, start + 4 * SLOT);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual.statistic().count()).isEqualTo(1L);
+        assertThat(subj.statistic(key, start + 5 * SLOT)).isNull();
+        assertThat(subj.statistic(key, start - SLOT)).isNull();
+    }
+
+    @Test
+    void recordReusesSlot() {
+        long start = 1_000 * SLOT;
+        subj.record(start, 1, 1_000, 1_000, 1);
+        subj.record(start + 4 * SLOT, 2, 4_000, 3_000, 0);
+        subj.record(start, 1, 1_000, 1_000, 1);
+
+        WindowStatistic actual = subj.statistic(key, start + 4 * SLOT);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.statistic().count(), 2L)
+                .add("histogram.count", actual.statistic().histogram().count(), 2L)
+                .add("errors", actual.errors(), 0L)
+        ));
+    }
+
+    @Test
+    void lastTime() {
+        assertThat(subj.lastTime()).isEqualTo(Long.MIN_VALUE);
+
+        subj.record(1_000 * SLOT + 1, 1, 1, 1, 0);
+        subj.record(1_002 * SLOT + 1, 1, 1, 1, 0);
+
+        assertThat(subj.lastTime()).isEqualTo(1_002 * SLOT);
+    }
+}
@@ -0,0 +1,128 @@
+package jfr.live;
+
+import jfr.analysis.MethodKey;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Тесты для {@link WindowedStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class WindowedStatisticsTest {
+    static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    static final long NOW_NANOS = NOW.getEpochSecond() * 1_000_000_000L;
+
+    WindowedStatistics subj = new WindowedStatistics(Clock.fixed(NOW, ZoneOffset.UTC), 2);
+
+    MethodKey first = new MethodKey("MethodInvocation", "a.Service", "first");
+    MethodKey second = new MethodKey("FeignEvent", "a.Client", "GET /second");
+
+    @Test
+    void recordStatistics() {
+        subj.record(first, NOW_NANOS - 1, 2, 2_000, 1_500, 0);
+        subj.record(first, NOW_NANOS - LiveWindow.MINUTE.length().toNanos(), 1, 5_000, 5_000, 1);
+        subj.record(second, NOW_NANOS - 1, 1, 3_000, 3_000, 1);
+
+        assertThat(subj.statistics(LiveWindow.SECOND))
+                .extracting(WindowStatistic::key, s -> s.statistic().count(), WindowStatistic::errors)
+                .containsExactlyInAnyOrder(tuple(first, 2L, 0L), tuple(second, 1L, 1L));
+        WindowStatistic actual = subj.statistic(first, LiveWindow.FIVE_MINUTES);
+        assertThat(actual).isNotNull();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.statistic().count(), 3L)
+                .add("sum", actual.statistic().sum(), 7_000L)
+                .add("errors", actual.errors(), 1L)
+        ));
+        assertThat(subj.statistic(new MethodKey("MethodInvocation", uidS(), uidS()), LiveWindow.MINUTE)).isNull();
+    }
+
+    @Test
+    void recordDropped() {
+        subj.record(first, NOW_NANOS, 1, 1, 1, 0);
+        subj.record(second, NOW_NANOS, 1, 1, 1, 0);
+
+        subj.record(new MethodKey("MethodInvocation", uidS(), uidS()), NOW_NANOS, 1, 1, 1, 0);
+
+        assertThat(subj.methods).containsOnlyKeys(first, second);
+        assertThat(subj.dropped()).isEqualTo(1L);
+    }
+
+    @Test
+    void evict() {
+        long later = NOW_NANOS + LiveWindow.FIVE_MINUTES.length().toNanos() + LiveWindow.FIVE_MINUTES.slotNanos();
+        subj.record(first, NOW_NANOS, 1, 1, 1, 0);
+        subj.record(second, later, 1, 1, 1, 0);
+        var third = new MethodKey("MethodInvocation", uidS(), uidS());
+
+        subj.record(third, later, 1, 1, 1, 0);
+
+        assertThat(subj.methods).containsOnlyKeys(second, third);
+        assertThat(subj.evictedAt).isEqualTo(later);
+        assertThat(subj.dropped()).isZero();
+    }
+
+    @Test
+    void evictThrottled() {
+        subj.evictedAt = NOW_NANOS;
+        subj.record(first, NOW_NANOS - LiveWindow.FIVE_MINUTES.length().toNanos() * 2, 1, 1, 1, 0);
+        subj.record(second, NOW_NANOS, 1, 1, 1, 0);
+
+        assertThat(subj.evict(NOW_NANOS + 1)).isFalse();
+        assertThat(subj.methods).containsOnlyKeys(first, second);
+    }
+
+    @Test
+    void reset() {
+        subj.record(first, NOW_NANOS, 1, 1, 1, 0);
+        subj.dropped.increment();
+
+        subj.reset();
+
+        assertThat(subj.methods).isEmpty();
+        assertThat(subj.dropped()).isZero();
+    }
+
+    @Test
+    void accept() throws NoSuchMethodException {
+        Method method = getClass().getDeclaredMethod("accept");
+
+        subj.accept(getClass(), method, 0, 3, 3_000, 500, 2_000, 1);
+
+        WindowStatistic actual = subj.statistic(
+                new MethodKey(LiveStatistics.METHOD_INVOCATION, getClass().getName(), "accept"), LiveWindow.SECOND);
+        assertThat(actual).isNotNull();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.statistic().count(), 3L)
+                .add("sum", actual.statistic().sum(), 3_000L)
+                .add("max", actual.statistic().max(), 2_000L)
+                .add("errors", actual.errors(), 1L)
+        ));
+        assertThat(subj.methods).containsOnlyKeys(subj.keys.get(getClass(), method));
+    }
+
+    @Test
+    void acceptOther() throws NoSuchMethodException {
+        subj.accept(getClass(), getClass().getDeclaredMethod("accept"), 0, 1, 1, 1, 1, 0);
+        subj.accept(getClass(), getClass().getDeclaredMethod("evict"), 0, 1, 1, 1, 1, 0);
+
+        subj.accept(getClass(), getClass().getDeclaredMethod("acceptOther"), 0, 1, 1, 1, 1, 0);
+
+        assertThat(subj.keys.size()).isEqualTo(2);
+        assertThat(subj.statistic(new MethodKey(LiveStatistics.METHOD_INVOCATION, "other", "other"), LiveWindow.SECOND))
+                .isNull();
+        assertThat(subj.dropped()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,46 @@
+package jfr.logging;
+
+import com.google.common.base.Ticker;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Тесты для {@link AsyncCall}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class AsyncCallTest {
+    @Mock
+    AsyncStatistics statistics;
+    @Mock
+    Ticker ticker;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void complete(boolean recorded) {
+        long start = uid();
+        long time = uid();
+        doReturn(start + time).when(ticker).read();
+        String method = uidS();
+        doReturn(recorded).when(statistics).record(getClass(), method, time, true);
+        var subj = new AsyncCall(statistics, ticker, start);
+
+        boolean actual = subj.complete(getClass(), method, true);
+
+        assertThat(actual).isEqualTo(recorded);
+        verify(statistics).record(getClass(), method, time, true);
+        verifyNoMoreInteractions(statistics);
+    }
+}
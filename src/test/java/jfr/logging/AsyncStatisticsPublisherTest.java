@@ -0,0 +1,157 @@
+package jfr.logging;
+
+import jfr.logging.LoggingContext.Key;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uidL;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Тесты для {@link AsyncStatisticsPublisher}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class AsyncStatisticsPublisherTest {
+    @Mock
+    StatisticsSink sink;
+    @Mock
+    Logger logger;
+
+    AsyncStatisticsPublisher subj;
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 1000})
+    void constructor(int capacity) {
+        subj = new AsyncStatisticsPublisher(capacity, 7, List.of(sink));
+
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("capacity", subj.capacity, Integer.highestOneBit(capacity * 2 - 1))
+                .add("batchSize", subj.batchSize, 7)
+                .add("sinks", subj.sinks, List.of(sink))
+        ));
+    }
+
+    @Test
+    void constructorInvalid() {
+        assertThatThrownBy(() -> new AsyncStatisticsPublisher(1, 1, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AsyncStatisticsPublisher(2, 0, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offerAndDrain() {
+        subj = new AsyncStatisticsPublisher(8, 8, List.of(sink));
+        String root = uidS();
+        String method = uidS();
+        long pathId = uidL();
+        List<?> args = List.of(uidS());
+        var statistics = new LinkedHashMap<Key, LoggingStatistic>();
+        statistics.put(Key.of(String.class, root), statistic(1, 3_000_000, 0));
+        statistics.put(Key.of(Integer.class, method, pathId), statistic(2, 5_000_000, 1));
+
+        assertThat(subj.offer(logger, String.class, root, args, statistics)).isTrue();
+        statistics.clear();
+        int actual = subj.drain();
+
+        assertThat(actual).isEqualTo(3);
+        assertThat(subj.head.get()).isEqualTo(3);
+        var inOrder = inOrder(logger, sink);
+        inOrder.verify(logger).debug("{} {} {} statistics: {}", "String", root, args, "00:00:00.008"
+                + "\n\tclass=Integer, method=" + method + ", count=2, sum=00:00:00.005, min=00:00:00.002"
+                + ", avg=00:00:00.002, max=00:00:00.003, errors=1, path=" + Long.toHexString(pathId)
+                + "\n\tclass=String, method=" + root + ", count=1, sum=00:00:00.003, min=00:00:00.003"
+                + ", avg=00:00:00.003, max=00:00:00.003");
+        inOrder.verify(sink).accept(String.class, root, 0, 1, 3_000_000, 3_000_000, 3_000_000, 0);
+        inOrder.verify(sink).accept(Integer.class, method, pathId, 2, 5_000_000, 2_000_000, 3_000_000, 1);
+        inOrder.verify(sink).flush();
+        verifyNoMoreInteractions(logger, sink);
+        assertThat(subj.drain()).isZero();
+    }
+
+    @Test
+    void drainBatch() {
+        subj = new AsyncStatisticsPublisher(8, 2, List.of(sink));
+        for (int i = 0; i < 3; i++) {
+            subj.offer(null, String.class, uidS(), null, Map.of(Key.of(String.class, uidS()), statistic(1, 1, 0)));
+        }
+
+        assertThat(subj.drain()).isEqualTo(2);
+        assertThat(subj.drain()).isEqualTo(2);
+        assertThat(subj.drain()).isEqualTo(2);
+        assertThat(subj.drain()).isZero();
+    }
+
+    @Test
+    void offerFull() {
+        subj = new AsyncStatisticsPublisher(4, 4, List.of(sink));
+        Map<Key, LoggingStatistic> statistics = Map.of(Key.of(String.class, uidS()), statistic(1, 1, 0));
+
+        assertThat(subj.offer(null, String.class, uidS(), null, statistics)).isTrue();
+        assertThat(subj.offer(null, String.class, uidS(), null, statistics)).isTrue();
+        assertThat(subj.offer(null, String.class, uidS(), null, statistics)).isFalse();
+        assertThat(subj.dropped()).isEqualTo(1);
+
+        subj.drain();
+
+        assertThat(subj.offer(null, String.class, uidS(), null, statistics)).isTrue();
+    }
+
+    @Test
+    void drainSinkFailure() {
+        subj = new AsyncStatisticsPublisher(4, 4, List.of(sink));
+        doThrow(new IllegalStateException()).when(sink).accept(String.class, "m", 0, 1, 1, 1, 1, 0);
+        doThrow(new IllegalStateException()).when(sink).flush();
+        subj.offer(null, String.class, "root", null, Map.of(Key.of(String.class, "m"), statistic(1, 1, 0)));
+
+        assertThat(subj.drain()).isEqualTo(2);
+
+        verify(sink).accept(String.class, "m", 0, 1, 1, 1, 1, 0);
+        verify(sink).flush();
+        verifyNoMoreInteractions(sink);
+    }
+
+    @Test
+    void startClose() {
+        subj = new AsyncStatisticsPublisher(4, 4, List.of(sink));
+        subj.start();
+        Thread consumer = subj.consumer;
+        assertThat(consumer).isNotNull();
+        assertThat(consumer.isDaemon()).isTrue();
+
+        subj.offer(null, String.class, "root", null, Map.of(Key.of(String.class, "m"), statistic(1, 1, 0)));
+        subj.close();
+
+        assertThat(consumer.isAlive()).isFalse();
+        assertThat(subj.consumer).isNull();
+        verify(sink).accept(String.class, "m", 0, 1, 1, 1, 1, 0);
+    }
+
+    static LoggingStatistic statistic(int count, long sum, int errors) {
+        return new LoggingStatistic()
+                .setCount(count)
+                .setSum(sum)
+                .setMin(sum / count - (count - 1) * 500_000L)
+                .setMax(sum / count + (count - 1) * 500_000L)
+                .setErrors(errors);
+    }
+}
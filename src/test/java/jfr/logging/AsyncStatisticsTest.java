@@ -0,0 +1,87 @@
+package jfr.logging;
+
+import jfr.logging.LoggingContext.Key;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link AsyncStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class AsyncStatisticsTest {
+    AsyncStatistics subj = new AsyncStatistics();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void record(boolean failed) {
+        String method = uidS();
+        long time = uid();
+        long time2 = uid();
+
+        assertThat(subj.record(getClass(), method, time, failed)).isTrue();
+        assertThat(subj.record(getClass(), method, time2, false)).isTrue();
+
+        assertThat(subj.statistics).containsOnlyKeys(Key.of(getClass(), method));
+        var actual = subj.statistics.get(Key.of(getClass(), method));
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.getCount(), 2)
+                .add("sum", actual.getSum(), time + time2)
+                .add("min", actual.getMin(), Math.min(time, time2))
+                .add("max", actual.getMax(), Math.max(time, time2))
+                .add("errors", actual.getErrors(), failed ? 1 : 0)
+        ));
+    }
+
+    @Test
+    void drainTo() {
+        String method = uidS();
+        String method2 = uidS();
+        long time = uid();
+        long time2 = uid();
+        subj.record(getClass(), method, time, false);
+        subj.record(getClass(), method2, time2, true);
+        var existing = new LoggingStatistic()
+                .setCount(1)
+                .setSum(time)
+                .setMin(time)
+                .setMax(time);
+        var target = new HashMap<Key, LoggingStatistic>();
+        target.put(Key.of(getClass(), method), existing);
+
+        subj.drainTo(target);
+
+        assertThat(subj.closed).isTrue();
+        assertThat(subj.statistics).isEmpty();
+        assertThat(target).containsOnlyKeys(Key.of(getClass(), method), Key.of(getClass(), method2));
+        assertThat(target.get(Key.of(getClass(), method))).isSameAs(existing);
+        assertThat(existing.getCount()).isEqualTo(2);
+        assertThat(existing.getSum()).isEqualTo(2 * time);
+        var actual = target.get(Key.of(getClass(), method2));
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.getCount(), 1)
+                .add("sum", actual.getSum(), time2)
+                .add("errors", actual.getErrors(), 1)
+        ));
+    }
+
+    @Test
+    void recordClosed() {
+        subj.drainTo(new HashMap<>());
+
+        assertThat(subj.record(getClass(), uidS(), uid(), false)).isFalse();
+
+        assertThat(subj.statistics).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package jfr.logging;
+
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Тесты для {@link Dimensions}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class DimensionsTest {
+    @Mock
+    DimensionExtractor extractor;
+    @Mock
+    LoggingJoinPoint joinPoint;
+    Object method;
+
+    Dimensions subj;
+
+    @BeforeEach
+    void setUp() {
+        subj = new Dimensions(extractor, 2);
+        method = uidS();
+        lenient().doReturn(method).when(joinPoint).method();
+    }
+
+    @Test
+    void constructorInvalid() {
+        assertThatThrownBy(() -> new Dimensions(extractor, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void methodWithoutDimension() {
+        doReturn(null).when(extractor).extract(joinPoint);
+
+        assertThat(subj.method(getClass(), joinPoint)).isSameAs(method);
+    }
+
+    @Test
+    void method() {
+        String value = uidS();
+        doReturn(value).when(extractor).extract(joinPoint);
+
+        Object actual = subj.method(getClass(), joinPoint);
+
+        assertThat(actual).isEqualTo(new DimensionalMethod(method, value));
+        assertThat(subj.method(getClass(), joinPoint)).isSameAs(actual);
+        assertThat(subj.method(String.class, joinPoint)).isEqualTo(actual).isNotSameAs(actual);
+    }
+
+    @Test
+    void methodOther() {
+        String first = uidS();
+        String second = uidS();
+        doReturn(first, second, uidS(), uidS(), first).when(extractor).extract(joinPoint);
+
+        assertThat(subj.method(getClass(), joinPoint)).isEqualTo(new DimensionalMethod(method, first));
+        assertThat(subj.method(getClass(), joinPoint)).isEqualTo(new DimensionalMethod(method, second));
+        Object other = subj.method(getClass(), joinPoint);
+        assertThat(other).isEqualTo(new DimensionalMethod(method, Dimensions.OTHER));
+        assertThat(subj.method(getClass(), joinPoint)).isSameAs(other);
+        assertThat(subj.method(getClass(), joinPoint)).isEqualTo(new DimensionalMethod(method, first));
+        assertThat(subj.methods.get(getClass()).get(method).values).hasSize(2);
+    }
+
+    @Test
+    void methodExtractorFailure() {
+        doThrow(new IllegalStateException()).when(extractor).extract(joinPoint);
+
+        assertThat(subj.method(getClass(), joinPoint)).isSameAs(method);
+        assertThat(subj.method(getClass(), joinPoint)).isSameAs(method);
+    }
+
+    @Test
+    void dimensionalMethodToString() {
+        assertThat(new DimensionalMethod("find", "tenant")).hasToString("find[tenant]");
+    }
+}
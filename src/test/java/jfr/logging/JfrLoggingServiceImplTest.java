@@ -19,7 +19,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
 
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -30,9 +33,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
@@ -139,24 +144,29 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
                 Stream.of(null, new RuntimeException(uidS()), new Exception(uidS()), new Error(uidS()), new Throwable(uidS())));
     }
 
-    @Test
-    void before() {
+    @ParameterizedTest
+    @MethodSource("booleans")
+    void before(boolean hasContext) {
         var context = mock(LoggingContext.class);
-        doReturn(context).when(subj).doBefore(any(), anyBoolean(), any(), any());
+        var expected = context.nonReentrant = newNonReentrant();
+        doReturn(hasContext ? context : null).when(subj).doBefore(any(), anyBoolean(), any(), any());
         var joinPoint = mock(LoggingJoinPoint.class);
         var event = mock(TestEventClass.class);
 
-        subj.before(joinPoint, event);
+        NonReentrantHandle actual = subj.before(joinPoint, event);
 
+        assertThat(actual).isEqualTo(hasContext ? expected : null);
         verify(subj).before(any(), any());
         verify(subj).doBefore(joinPoint, false, event, LoggerFactory.getLogger(JfrLoggingServiceImpl.class));
         verifyNoMoreInteractions(subj, context, joinPoint);
     }
 
     @ParameterizedTest
-    @MethodSource("booleans5")
-    void doBefore(boolean eventEnabled, boolean debugEnabled, boolean logErrorEnabled, boolean hasContext, boolean methodInvocationEvent) {
-        subj.logErrorEnabled = logErrorEnabled;
+    @MethodSource("booleans6")
+    void doBefore(boolean eventEnabled, boolean debugEnabled, boolean logErrorEnabled, boolean hasContext, boolean methodInvocationEvent,
+                  boolean hasSinks) {
+        LoggingConfig config = LoggingConfig.DEFAULT.withLogErrorEnabled(logErrorEnabled);
+        subj.sinks = hasSinks ? List.of(mock(StatisticsSink.class)) : List.of();
         lenient().doNothing().when(subj).removeContext();
         var event = mock(TestEventClass.class);
         doReturn(eventEnabled).when(event).isEnabled();
@@ -165,7 +175,12 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
         var joinPoint = mock(LoggingJoinPoint.class);
         var context = mock(LoggingContext.class);
         doReturn(hasContext ? context : null).when(subj).getContext();
-        lenient().doReturn(context).when(subj).createContext(any());
+        if (hasContext) {
+            lenient().doReturn(config).when(context).getConfig();
+        } else {
+            subj.config = config;
+        }
+        lenient().doReturn(context).when(subj).createContext(any(), any());
         Class<?> targetClass = getClass();
         lenient().doReturn(targetClass).when(joinPoint).targetClass();
         var logger = mock(Logger.class, "logger");
@@ -191,14 +206,16 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
         lenient().doAnswer(answer).when(context).before(any(), any());
         lenient().doAnswer(answer).when(context).beforeNonReentrant(any(), any());
         lenient().doNothing().when(subj).setContext(any());
-        boolean expected = (debugEnabled || eventEnabled) && (hasContext || methodInvocationEvent);
+        boolean expected = (debugEnabled || eventEnabled || hasSinks) && (hasContext || methodInvocationEvent);
 
         LoggingContext actual = subj.doBefore(joinPoint, methodInvocationEvent, event, log);
 
         assertThat(actual).as("actual").isEqualTo(expected ? context : null);
         verify(subj).doBefore(any(), anyBoolean(), any(), any());
+        verify(subj, times(debugEnabled || eventEnabled ? 0 : 1)).getSinks();
         verify(subj, times(expected ? 0 : 1)).removeContext();
-        verify(subj, times(expected && !hasContext ? 1 : 0)).createContext(joinPoint);
+        verify(subj, times(expected && !hasContext ? 1 : 0)).createContext(joinPoint, config);
+        verify(context, times(expected && hasContext ? 1 : 0)).getConfig();
         verify(joinPoint, times(expected ? 1 : 0)).targetClass();
         verify(loggerFactory, times(expected && debugEnabled ? 1 : 0)).apply(targetClass);
         verify(joinPoint, times(expected ? 1 : 0)).name();
@@ -211,21 +228,168 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
 
     @ParameterizedTest
     @MethodSource("booleans")
-    void createContext(boolean hasIdentityPoint) {
+    void doBeforeExcluded(boolean hasContext) {
+        LoggingConfig config = LoggingConfig.DEFAULT.withPatterns("", getClass().getName().replace(".", "\\."));
+        var event = mock(TestEventClass.class);
+        doReturn(true).when(event).isEnabled();
+        var log = mock(Logger.class, "log");
+        doReturn(true).when(log).isDebugEnabled();
+        var joinPoint = mock(LoggingJoinPoint.class);
+        var context = mock(LoggingContext.class);
+        doReturn(hasContext ? context : null).when(subj).getContext();
+        if (hasContext) {
+            doReturn(config).when(context).getConfig();
+        } else {
+            subj.config = config;
+        }
+        doReturn(getClass()).when(joinPoint).targetClass();
+
+        LoggingContext actual = subj.doBefore(joinPoint, true, event, log);
+
+        assertThat(actual).isNull();
+        verify(subj).doBefore(any(), anyBoolean(), any(), any());
+        verify(subj, never()).createContext(any(), any());
+        verify(subj, never()).setContext(any());
+        verify(subj, never()).removeContext();
+        verify(context, times(hasContext ? 1 : 0)).getConfig();
+        verifyNoMoreInteractions(context, loggerFactory);
+    }
+
+    @Test
+    void doBeforeDimensions() {
+        var dimensions = subj.dimensions = mock(Dimensions.class);
+        subj.config = LoggingConfig.DEFAULT;
+        doReturn(null).when(subj).getContext();
+        var context = mock(LoggingContext.class);
+        doReturn(context).when(subj).createContext(any(), any());
+        doNothing().when(subj).setContext(any());
+        var event = mock(TestEventClass.class);
+        doReturn(true).when(event).isEnabled();
+        var log = mock(Logger.class, "log");
+        var joinPoint = mock(LoggingJoinPoint.class);
+        doReturn(getClass()).when(joinPoint).targetClass();
+        doReturn(uidS()).when(joinPoint).name();
+        var method = new DimensionalMethod(uidS(), uidS());
+        doReturn(method).when(dimensions).method(getClass(), joinPoint);
+
+        LoggingContext actual = subj.doBefore(joinPoint, true, event, log);
+
+        assertThat(actual).isSameAs(context);
+        verify(context).before(argThat(callback -> callback.method == method), eq(ticker));
+        verify(joinPoint, never()).method();
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void createContext(boolean hasIdentityPoint, boolean sampled) {
         var joinPoint = mock(LoggingJoinPoint.class);
         Object identityPoint = uidS();
         doReturn(hasIdentityPoint ? identityPoint : null).when(joinPoint).identityPoint();
-        long threshold = subj.thresholdNanos = uid();
+        var config = mock(LoggingConfig.class);
+        doReturn(sampled).when(config).sample();
+        long threshold = uid();
+        lenient().doReturn(threshold).when(config).getThresholdNanos();
+        int callPathDepth = uid();
+        doReturn(callPathDepth).when(config).getCallPathDepth();
+        List<StatisticsSink> sinks = subj.sinks = List.of(mock(StatisticsSink.class));
+        var publisher = subj.publisher = mock(AsyncStatisticsPublisher.class);
 
-        LoggingContext actual = subj.createContext(joinPoint);
+        LoggingContext actual = subj.createContext(joinPoint, config);
 
         assertThat(actual).is(matching(matcher -> matcher
                 .add("identityPoint", actual.identityPoint, hasIdentityPoint ? identityPoint : joinPoint)
                 .add("logger", actual.logger, LoggerFactory.getLogger(LoggingContext.class))
-                .add("thresholdNanos", actual.thresholdNanos, threshold)
+                .add("thresholdNanos", actual.thresholdNanos, sampled ? threshold : Long.MAX_VALUE)
+                .add("callPathDepth", actual.callPathDepth, callPathDepth)
+                .add("sinks", actual.sinks, sinks)
+                .add("config", actual.config, config)
+                .add("publisher", actual.publisher, publisher)
+        ));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSinks() {
+        var sink = mock(StatisticsSink.class);
+        var sinkProvider = subj.sinkProvider = mock(ObjectProvider.class);
+        doReturn(Stream.of(sink)).when(sinkProvider).orderedStream();
+        var publisher = mock(AsyncStatisticsPublisher.class);
+        var publisherProvider = subj.publisherProvider = mock(ObjectProvider.class);
+        doReturn(publisher).when(publisherProvider).getIfAvailable();
+
+        assertThat(subj.getSinks()).containsExactly(sink);
+        assertThat(subj.getSinks()).containsExactly(sink);
+        assertThat(subj.publisher).isSameAs(publisher);
+        verify(sinkProvider).orderedStream();
+        verify(publisherProvider).getIfAvailable();
+        verifyNoMoreInteractions(sinkProvider, publisherProvider, sink, publisher);
+    }
+
+    @Test
+    void getSinksWithoutSpring() {
+        assertThat(subj.getSinks()).isEmpty();
+        assertThat(subj.publisher).isNull();
+    }
+
+    @Test
+    void updateConfig() {
+        long threshold = uid();
+
+        LoggingConfig actual = subj.updateConfig(config -> config.withThresholdNanos(threshold));
+
+        assertThat(actual.getThresholdNanos()).isEqualTo(threshold);
+        assertThat(subj.getConfig()).isSameAs(actual);
+    }
+
+    @Test
+    void setEnvironment() {
+        var environment = new MockEnvironment()
+                .withProperty("jfr.thresholdNanos", "5")
+                .withProperty("jfr.exclude", "a\\..*");
+
+        subj.setEnvironment(environment);
+
+        assertThat(subj.config).is(matching(matcher -> matcher
+                .add("environment", subj.environment, environment)
+                .add("thresholdNanos", subj.config.getThresholdNanos(), 5L)
+                .add("exclude", subj.config.getExclude(), "a\\..*")
+                .add("sampling", subj.config.getSampling(), 1)
         ));
     }
 
+    @Test
+    void refreshConfig() {
+        var environment = new MockEnvironment();
+        subj.setEnvironment(environment);
+        environment.setProperty("jfr.sampling", "10");
+
+        boolean actual = subj.refreshConfig();
+
+        assertThat(actual).isTrue();
+        assertThat(subj.config.getSampling()).isEqualTo(10);
+    }
+
+    @Test
+    void refreshConfigInvalid() {
+        var environment = new MockEnvironment();
+        subj.setEnvironment(environment);
+        LoggingConfig expected = subj.config;
+        environment.setProperty("jfr.sampling", "0");
+
+        boolean actual = subj.refreshConfig();
+
+        assertThat(actual).isFalse();
+        assertThat(subj.config).isSameAs(expected);
+    }
+
+    @Test
+    void refreshConfigWithoutEnvironment() {
+        LoggingConfig expected = subj.config;
+
+        assertThat(subj.refreshConfig()).isFalse();
+        assertThat(subj.config).isSameAs(expected);
+    }
+
     @ParameterizedTest
     @MethodSource("booleans")
     void afterReturning(boolean hasContext) {
@@ -239,6 +403,48 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
         verifyNoMoreInteractions(context);
     }
 
+    @ParameterizedTest
+    @MethodSource("booleans")
+    void attachRoot(boolean hasContext) {
+        var context = mock(LoggingContext.class);
+        doReturn(hasContext ? context : null).when(subj).getContext();
+        var event = new TestEventClass();
+
+        subj.attachRoot(event);
+
+        verify(context, times(hasContext ? 1 : 0)).attachRoot(event);
+        verifyNoMoreInteractions(context);
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans")
+    void beginAsync(boolean hasContext) {
+        var context = mock(LoggingContext.class);
+        doReturn(hasContext ? context : null).when(subj).getContext();
+        var call = new AsyncCall(new AsyncStatistics(), ticker, uid());
+        lenient().doReturn(call).when(context).beginAsync(ticker);
+
+        AsyncCall actual = subj.beginAsync();
+
+        assertThat(actual).isEqualTo(hasContext ? call : null);
+        verify(context, times(hasContext ? 1 : 0)).beginAsync(ticker);
+        verifyNoMoreInteractions(context);
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void afterReturningHandle(boolean hasContext, boolean hasHandle) {
+        var context = mock(LoggingContext.class);
+        doReturn(hasContext ? context : null).when(subj).getContext();
+        var handle = newNonReentrant();
+        Object retVal = uidS();
+
+        subj.afterReturning(hasHandle ? handle : null, retVal);
+
+        verify(context, times(hasContext && hasHandle ? 1 : 0)).afterReturningNonReentrant(handle, retVal);
+        verifyNoMoreInteractions(context);
+    }
+
     @ParameterizedTest
     @MethodSource("booleans")
     void doAfterReturning(boolean expected) {
@@ -268,6 +474,20 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
         verifyNoMoreInteractions(context);
     }
 
+    @ParameterizedTest
+    @MethodSource("booleans2")
+    void afterThrowingHandle(boolean hasContext, boolean hasHandle) {
+        var context = mock(LoggingContext.class);
+        doReturn(hasContext ? context : null).when(subj).getContext();
+        var handle = newNonReentrant();
+        var cause = new Throwable(uidS());
+
+        subj.afterThrowing(hasHandle ? handle : null, cause);
+
+        verify(context, times(hasContext && hasHandle ? 1 : 0)).afterThrowingNonReentrant(handle, cause);
+        verifyNoMoreInteractions(context);
+    }
+
     @ParameterizedTest
     @MethodSource("booleans")
     void doAfterThrowing(boolean expected) {
@@ -311,4 +531,8 @@ public class JfrLoggingServiceImplTest implements MethodSourceHelper {
 
         assertThat(JfrLoggingServiceImpl.context.get()).isNull();
     }
-}
\ No newline at end of file
+
+    static NonReentrantCallback newNonReentrant() {
+        return new NonReentrantCallback(mock(LoggingCallback.class), TestEventClass.class, null);
+    }
+}
@@ -22,12 +22,15 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static jfr.test.assertj.ConditionsHelper.isEqual;
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
 import static jfr.test.junit.UidExtension.uid;
 import static jfr.test.junit.UidExtension.uidL;
 import static jfr.test.junit.UidExtension.uidS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.condition.NestableCondition.nestable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -110,7 +113,7 @@ public class LoggingCallbackTest implements MethodSourceHelper {
         subj = newLoggingCallback(eventEnabled, loggerEnabled, logErrorEnabled);
         var stopWatch = mock(Stopwatch.class);
         subj.stopwatch = hasStopWatch ? stopWatch : null;
-        lenient().doNothing().when(subj).stop(any(), any());
+        lenient().doNothing().when(subj).stop(any(), any(), anyBoolean());
         doNothing().when(subj).logSuccess(any());
         var afterResult = mock(LoggingCallback.class);
         lenient().doReturn(afterResult).when(subj).after(any(), any());
@@ -122,7 +125,7 @@ public class LoggingCallbackTest implements MethodSourceHelper {
         assertThat(actual).isEqualTo(hasStopWatch ? afterResult : null);
         var inOrder = inOrder(subj, event);
         inOrder.verify(subj).afterReturning(any(), any());
-        inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).stop(context, eventEnabled ? event : null);
+        inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).stop(context, eventEnabled ? event : null, false);
         inOrder.verify(event, times(eventEnabled && !hasStopWatch ? 1 : 0)).commit();
         inOrder.verify(subj).logSuccess(retVal);
         inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).after(context, eventEnabled ? event : null);
@@ -153,7 +156,7 @@ public class LoggingCallbackTest implements MethodSourceHelper {
         subj = newLoggingCallback(eventEnabled, loggerEnabled, logErrorEnabled);
         var stopwatch = mock(Stopwatch.class);
         subj.stopwatch = hasStopWatch ? stopwatch : null;
-        lenient().doNothing().when(subj).stop(any(), any());
+        lenient().doNothing().when(subj).stop(any(), any(), anyBoolean());
         var context = mock(LoggingContext.class);
         var thrown = new Throwable(uidS());
         var afterResult = mock(LoggingCallback.class);
@@ -165,7 +168,7 @@ public class LoggingCallbackTest implements MethodSourceHelper {
         assertThat(actual).isEqualTo(hasStopWatch ? afterResult : null);
         var inOrder = inOrder(subj, event);
         inOrder.verify(subj).afterThrowing(any(), any());
-        inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).stop(context, eventEnabled ? event : null);
+        inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).stop(context, eventEnabled ? event : null, true);
         inOrder.verify(event, times(eventEnabled && !hasStopWatch ? 1 : 0)).end();
         inOrder.verify(subj).logFailure(thrown);
         inOrder.verify(subj, times(hasStopWatch ? 1 : 0)).after(context, eventEnabled ? event : null);
@@ -228,12 +231,17 @@ public class LoggingCallbackTest implements MethodSourceHelper {
     @ParameterizedTest
     @MethodSource("booleans3")
     void beginEvent(boolean eventEnabled, boolean loggerEnabled, boolean logErrorEnabled) {
-        this.event = mock(MethodInvocationEvent.class);
+        var event = mock(MethodInvocationEvent.class);
+        this.event = event;
         subj = newLoggingCallback(eventEnabled, loggerEnabled, logErrorEnabled);
+        long pathId = subj.pathId = uidL();
+        long parentPathId = subj.parentPathId = uidL();
         lenient().doAnswer(inv -> {
             assertThat(event).is(nestable("event",
                     isEqual("beanClass", event.beanClass, testClass),
-                    isEqual("method", event.method, name)
+                    isEqual("method", event.method, name),
+                    isEqual("pathId", event.pathId, pathId),
+                    isEqual("parentPathId", event.parentPathId, parentPathId)
             ));
             return null;
         }).when(event).begin();
@@ -262,8 +270,8 @@ public class LoggingCallbackTest implements MethodSourceHelper {
     }
 
     @ParameterizedTest
-    @MethodSource("booleans3")
-    void stop(boolean hasStopwatch, boolean running, boolean hasPrev) {
+    @MethodSource("booleans4")
+    void stop(boolean hasStopwatch, boolean running, boolean hasPrev, boolean failed) {
         var event = mock(MethodInvocationEvent.class);
         var stopwatch = mock(Stopwatch.class);
         lenient().doReturn(running).when(stopwatch).isRunning();
@@ -272,19 +280,56 @@ public class LoggingCallbackTest implements MethodSourceHelper {
         subj.prev = hasPrev ? prev : null;
         var context = mock(LoggingContext.class);
         var statistic = mock(LoggingStatistic.class);
-        lenient().doReturn(statistic).when(context).getStatistic(any(), any());
+        lenient().doReturn(statistic).when(context).getStatistic(any(), any(), anyLong());
+        long pathId = subj.pathId = uidL();
 
-        subj.stop(context, event);
+        subj.stop(context, event, failed);
 
         var inOrder = inOrder(stopwatch, prev, context, statistic);
         inOrder.verify(stopwatch, times(hasStopwatch ? 1 : 0)).isRunning();
         inOrder.verify(stopwatch, times(hasStopwatch && running ? 1 : 0)).stop();
         inOrder.verify(prev, times(hasStopwatch && running && hasPrev ? 1 : 0)).resume();
-        inOrder.verify(context, times(hasStopwatch && running ? 1 : 0)).getStatistic(testClass, method);
+        inOrder.verify(context, times(hasStopwatch && running ? 1 : 0)).getStatistic(testClass, method, pathId);
         inOrder.verify(statistic, times(hasStopwatch && running ? 1 : 0)).update(stopwatch, event);
+        inOrder.verify(statistic, times(hasStopwatch && running && failed ? 1 : 0)).addError();
         verifyNoMoreInteractions(event, context, stopwatch, prev, statistic);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3})
+    void enterPath(int depth) {
+        int maxDepth = 2;
+        var prev = mock(LoggingCallback.class);
+        prev.depth = depth - 1;
+        prev.prefixId = uidL();
+
+        subj.enterPath(depth == 0 ? null : prev, maxDepth);
+
+        long parentPathId = depth == 0 ? 0 : prev.prefixId;
+        long pathId = LoggingCallback.pathId(parentPathId, 31L * testClass.getName().hashCode() + name.hashCode());
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("depth", subj.depth, depth)
+                .add("parentPathId", subj.parentPathId, parentPathId)
+                .add("pathId", subj.pathId, pathId)
+                .add("prefixId", subj.prefixId, depth < maxDepth ? pathId : parentPathId)
+        ));
+        verifyNoMoreInteractions(prev);
+    }
+
+    @Test
+    void pathId() {
+        long methodId = uidL();
+        long parentPathId = uidL();
+
+        long actual = LoggingCallback.pathId(parentPathId, methodId);
+
+        assertThat(actual)
+                .isNotZero()
+                .isEqualTo(LoggingCallback.pathId(parentPathId, methodId))
+                .isNotEqualTo(LoggingCallback.pathId(parentPathId + 1, methodId))
+                .isNotEqualTo(LoggingCallback.pathId(parentPathId, methodId + 1));
+    }
+
     @Test
     void resume() {
         var stopwatch = subj.stopwatch = mock(Stopwatch.class);
@@ -331,20 +376,25 @@ public class LoggingCallbackTest implements MethodSourceHelper {
     }
 
     @ParameterizedTest
-    @MethodSource("booleans4")
-    void collectStatistic(boolean eventEnabled, boolean loggerEnabled, boolean logErrorEnabled, boolean hasEvent) {
+    @MethodSource("booleans5")
+    void collectStatistic(boolean eventEnabled, boolean loggerEnabled, boolean logErrorEnabled, boolean hasEvent,
+                          boolean async) {
         subj = newLoggingCallback(eventEnabled, loggerEnabled, logErrorEnabled);
         List<?> args = subj.args = List.of(uidS(), uid());
         var context = mock(LoggingContext.class);
         var event = mock(MethodInvocationEvent.class);
         var statistics = LogMessage.of(UidExtension::uidS);
         lenient().doReturn(statistics).when(context).toStatistics();
+        doReturn(async).when(context).publishAsync(loggerEnabled ? logger : null, testClass, method, args);
 
         subj.collectStatistic(context, hasEvent ? event : null);
 
         var inOrder = inOrder(logger, context);
-        inOrder.verify(context, times(loggerEnabled ? 1 : 0)).toStatistics();
-        inOrder.verify(logger, times(loggerEnabled ? 1 : 0)).debug("{} {} {} statistics: {}", testClass.getSimpleName(), method, args, statistics);
+        inOrder.verify(context).mergeAsync();
+        inOrder.verify(context).publishAsync(loggerEnabled ? logger : null, testClass, method, args);
+        inOrder.verify(context, times(loggerEnabled && !async ? 1 : 0)).toStatistics();
+        inOrder.verify(logger, times(loggerEnabled && !async ? 1 : 0)).debug("{} {} {} statistics: {}", testClass.getSimpleName(), method, args, statistics);
+        inOrder.verify(context, times(async ? 0 : 1)).publish();
         inOrder.verify(context, times(hasEvent ? 1 : 0)).commit(event);
         verifyNoMoreInteractions(logger, context, event);
     }
@@ -0,0 +1,36 @@
+package jfr.logging;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Тесты для {@link LoggingConfigRefresher}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(MockitoExtension.class)
+public class LoggingConfigRefresherTest {
+    @Mock
+    JfrLoggingServiceImpl<?> service;
+
+    @ParameterizedTest
+    @CsvSource({"jfr.thresholdNanos,true", "jfr.sampling,true", "server.port,false", "jfrx,false"})
+    void onApplicationEvent(String key, boolean expected) {
+        var subj = new LoggingConfigRefresher(service);
+
+        subj.onApplicationEvent(new EnvironmentChangeEvent(Set.of("logging.level.root", key)));
+
+        verify(service, times(expected ? 1 : 0)).refreshConfig();
+        verifyNoMoreInteractions(service);
+    }
+}
@@ -0,0 +1,124 @@
+package jfr.logging;
+
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.regex.PatternSyntaxException;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для {@link LoggingConfig}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class LoggingConfigTest {
+    @Test
+    void of() {
+        var environment = new MockEnvironment()
+                .withProperty("jfr.logErrorEnabled", "true")
+                .withProperty("jfr.thresholdNanos", "1000")
+                .withProperty("jfr.callPath.depth", "3")
+                .withProperty("jfr.sampling", "10")
+                .withProperty("jfr.include", "a\\..*")
+                .withProperty("jfr.exclude", ".*Repository");
+
+        LoggingConfig actual = LoggingConfig.of(environment);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("logErrorEnabled", actual.isLogErrorEnabled(), true)
+                .add("thresholdNanos", actual.getThresholdNanos(), 1000L)
+                .add("callPathDepth", actual.getCallPathDepth(), 3)
+                .add("sampling", actual.getSampling(), 10)
+                .add("include", actual.getInclude(), "a\\..*")
+                .add("exclude", actual.getExclude(), ".*Repository")
+        ));
+    }
+
+    @Test
+    void ofDefaults() {
+        LoggingConfig actual = LoggingConfig.of(new MockEnvironment());
+
+        assertThat(actual).usingRecursiveComparison()
+                .ignoringFields("included")
+                .isEqualTo(LoggingConfig.DEFAULT);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"-1,0,1,", "0,-1,1,", "0,0,0,", "0,0,1,["})
+    void invalid(long thresholdNanos, int callPathDepth, int sampling, String include) {
+        assertThrows(IllegalArgumentException.class, () -> new LoggingConfig(false, thresholdNanos, callPathDepth,
+                sampling, include == null ? "" : include, ""));
+    }
+
+    @Test
+    void invalidPattern() {
+        assertThrows(PatternSyntaxException.class, () -> LoggingConfig.DEFAULT.withPatterns("", "("));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            ",,a.Service,true",
+            "a\\..*,,a.Service,true",
+            "a\\..*,,b.Service,false",
+            ",.*Repository,a.Service,true",
+            ",.*Repository,a.UserRepository,false",
+            "a\\..*,.*Repository,a.UserRepository,false"
+    })
+    void matches(String include, String exclude, String className, boolean expected) {
+        var subj = LoggingConfig.DEFAULT.withPatterns(include == null ? "" : include, exclude == null ? "" : exclude);
+
+        assertThat(subj.matches(className)).isEqualTo(expected);
+    }
+
+    @Test
+    void includes() {
+        assertThat(LoggingConfig.DEFAULT.includes(getClass())).isTrue();
+        assertThat(LoggingConfig.DEFAULT.withPatterns("", "jfr\\.logging\\..*").includes(getClass())).isFalse();
+        assertThat(LoggingConfig.DEFAULT.withPatterns("jfr\\..*", "").includes(getClass())).isTrue();
+    }
+
+    @Test
+    void sample() {
+        assertThat(LoggingConfig.DEFAULT.sample()).isTrue();
+        var subj = LoggingConfig.DEFAULT.withSampling(4);
+        int sampled = 0;
+        for (int i = 0; i < 4000; i++) {
+            if (subj.sample()) {
+                sampled++;
+            }
+        }
+        assertThat(sampled).isBetween(700, 1300);
+    }
+
+    @Test
+    void with() {
+        long threshold = uid();
+        int depth = uid();
+        int sampling = uid() + 1;
+
+        LoggingConfig actual = LoggingConfig.DEFAULT
+                .withLogErrorEnabled(true)
+                .withThresholdNanos(threshold)
+                .withCallPathDepth(depth)
+                .withSampling(sampling)
+                .withPatterns("a", "b");
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("logErrorEnabled", actual.isLogErrorEnabled(), true)
+                .add("thresholdNanos", actual.getThresholdNanos(), threshold)
+                .add("callPathDepth", actual.getCallPathDepth(), depth)
+                .add("sampling", actual.getSampling(), sampling)
+                .add("include", actual.getInclude(), "a")
+                .add("exclude", actual.getExclude(), "b")
+        ));
+    }
+}
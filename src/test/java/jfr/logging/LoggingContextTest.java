@@ -22,8 +22,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.log.LogMessage;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -32,16 +34,22 @@ import java.util.stream.Stream;
 
 import static jfr.test.hamcrest.PropertiesMatcher.matching;
 import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidL;
 import static jfr.test.junit.UidExtension.uidS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -71,9 +79,6 @@ public class LoggingContextTest implements MethodSourceHelper {
     static class TestEvent3 extends NonReentrantMethodEvent {
     }
 
-    static class TestEvent4 extends NonReentrantMethodEvent {
-    }
-
     LoggingContext subj;
 
     @Mock
@@ -82,36 +87,53 @@ public class LoggingContextTest implements MethodSourceHelper {
     int pointValue;
     Object identityPoint;
     long thresholdNanos;
+    int callPathDepth;
+    @Mock
+    StatisticsSink sink;
 
     @BeforeEach
     void setUp() {
         pointValue = uid();
         identityPoint = String.valueOf(pointValue);
         thresholdNanos = uid();
+        newContext(0);
+    }
+
+    void newContext(int callPathDepth) {
+        this.callPathDepth = callPathDepth;
         subj = mock(LoggingContext.class, withSettings()
                 .name("subj")
                 .defaultAnswer(CALLS_REAL_METHODS)
-                .useConstructor(identityPoint, logger, thresholdNanos));
+                .useConstructor(identityPoint, logger, thresholdNanos, callPathDepth, List.of(sink), LoggingConfig.DEFAULT, null));
     }
 
     @ParameterizedTest
-    @ValueSource(booleans = {false, true})
-    void constructor(boolean hasIdentityPoint) {
+    @MethodSource("booleans3")
+    void constructor(boolean hasIdentityPoint, boolean sampled, boolean hasPublisher) {
         var joinPoint = mock(LoggingJoinPoint.class);
         doReturn(hasIdentityPoint ? identityPoint : null).when(joinPoint).identityPoint();
+        callPathDepth = uid();
+        LoggingConfig config = LoggingConfig.DEFAULT.withThresholdNanos(thresholdNanos).withCallPathDepth(callPathDepth);
+
+        var publisher = hasPublisher ? mock(AsyncStatisticsPublisher.class) : null;
 
-        subj = new LoggingContext(joinPoint, thresholdNanos);
+        subj = new LoggingContext(joinPoint, config, sampled, List.of(sink), publisher);
 
         assertThat(subj).is(matching(matcher -> matcher
                 .add("identityPoint", subj.identityPoint, hasIdentityPoint ? identityPoint : joinPoint)
                 .add("logger", subj.logger, LoggerFactory.getLogger(LoggingContext.class))
-                .add("thresholdNanos", subj.thresholdNanos, thresholdNanos)
+                .add("thresholdNanos", subj.thresholdNanos, sampled ? thresholdNanos : Long.MAX_VALUE)
+                .add("callPathDepth", subj.callPathDepth, callPathDepth)
+                .add("sinks", subj.sinks, List.of(sink))
+                .add("config", subj.getConfig(), config)
+                .add("publisher", subj.publisher, publisher)
         ));
     }
 
     @ParameterizedTest
-    @ValueSource(booleans = {false, true})
-    void before(boolean hasPrev) {
+    @MethodSource("booleans2")
+    void before(boolean hasPrev, boolean callPath) {
+        newContext(callPath ? uid() : 0);
         var prev = mock(LoggingCallback.class, "prev");
         var callback = mock(LoggingCallback.class, "callback");
         subj.callback = hasPrev ? prev : null;
@@ -120,37 +142,103 @@ public class LoggingContextTest implements MethodSourceHelper {
         subj.before(callback, ticker);
 
         assertThat(subj.callback).isEqualTo(callback);
-        verify(callback).before(hasPrev ? prev : null, ticker);
+        var inOrder = inOrder(callback);
+        inOrder.verify(callback, times(callPath ? 1 : 0)).enterPath(hasPrev ? prev : null, callPathDepth);
+        inOrder.verify(callback).before(hasPrev ? prev : null, ticker);
         verifyNoMoreInteractions(logger, callback, prev, ticker);
     }
 
     @ParameterizedTest
     @MethodSource("booleans2")
-    void beforeNonReentrant(boolean hasEventClass, boolean hasPredicate) {
+    void beforeNonReentrant(boolean hasOther, boolean hasPredicate) {
         var prev = mock(LoggingCallback.class, "prev");
         subj.callback = prev;
         var callback = mock(LoggingCallback.class, "callback");
-        var other = mock(LoggingCallback.class, "other");
+        var other = newNonReentrant(TestEvent2.class, null);
+        if (hasOther) {
+            subj.link(other);
+        }
         var event1 = new TestEvent1();
         var event = hasPredicate ? event1 : new TestEvent2();
-        subj.callbackByNoReentrantEventClass.put(hasEventClass ? event.getClass() : TestEvent3.class, other);
-        Predicate<LoggingJoinPoint> predicate1 = mock(Predicate.class, "predicate1");
-        Predicate<LoggingJoinPoint> predicate2 = mock(Predicate.class, "predicate2");
-        subj.predicateByNoReentrantEventClass.putAll(
-                Map.of(event.getClass(), predicate1, TestEvent4.class, predicate2));
-        Map<Class<? extends AbstractMethodEvent>, LoggingCallback> callbackByNoReentrantEventClass = hasEventClass
-                ? Map.of(event.getClass(), callback) : Map.of(event.getClass(), callback, TestEvent3.class, other);
-        Map<Class<? extends AbstractMethodEvent>, Predicate<LoggingJoinPoint>> predicateByNoReentrantEventClass =
-                Map.of(event.getClass(), hasPredicate ? event1 : predicate1, TestEvent4.class, predicate2);
-
-        subj.beforeNonReentrant(callback, event);
+        doNothing().when(subj).attachRoot(event);
 
-        assertThat(subj).is(matching(matcher -> matcher
-                .add("callbackByNoReentrantEventClass", subj.callbackByNoReentrantEventClass, callbackByNoReentrantEventClass)
-                .add("predicateByNoReentrantEventClass", subj.predicateByNoReentrantEventClass, predicateByNoReentrantEventClass)
+        NonReentrantCallback actual = subj.beforeNonReentrant(callback, event);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("callback", actual.callback, callback)
+                .add("eventClass", actual.eventClass, event.getClass())
+                .add("predicate", actual.predicate, hasPredicate ? event1 : null)
+                .add("context", actual.context, subj)
+                .add("prev", actual.prev, null)
+                .add("next", actual.next, hasOther ? other : null)
+                .add("nonReentrant", subj.nonReentrant, actual)
         ));
         verify(callback).before(null, null);
-        verifyNoMoreInteractions(callback, prev, predicate1, predicate2);
+        verify(subj).attachRoot(event);
+        verifyNoMoreInteractions(callback, prev);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void attachRoot(boolean hasRoot) {
+        var root = new LoggingCallback(mock(LoggingJoinPoint.class), null, null, false, uidS(), getClass(), uidS());
+        doReturn(hasRoot ? root : null).when(subj).root();
+        var event = new TestEvent2();
+
+        subj.attachRoot(event);
+
+        assertThat(event).is(matching(matcher -> matcher
+                .add("rootClass", event.rootClass, hasRoot ? getClass() : null)
+                .add("rootMethod", event.rootMethod, hasRoot ? root.name : null)
+        ));
+    }
+
+    @Test
+    void beginAsync() {
+        var ticker = mock(Ticker.class);
+        long start = uid();
+        doReturn(start).when(ticker).read();
+
+        AsyncCall actual = subj.beginAsync(ticker);
+        AsyncCall actual2 = subj.beginAsync(ticker);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("statistics", actual.statistics, subj.async)
+                .add("ticker", actual.ticker, ticker)
+                .add("start", actual.start, start)
+        ));
+        assertThat(subj.async).isNotNull();
+        assertThat(actual2.statistics).isSameAs(subj.async);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void mergeAsync(boolean hasAsync) {
+        var async = mock(AsyncStatistics.class);
+        subj.async = hasAsync ? async : null;
+
+        subj.mergeAsync();
+
+        verify(async, times(hasAsync ? 1 : 0)).drainTo(subj.statistics);
+        verifyNoMoreInteractions(async);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3})
+    void root(int depth) {
+        LoggingCallback expected = null;
+        for (int i = 0; i < depth; i++) {
+            var callback = mock(LoggingCallback.class, "callback" + i);
+            callback.prev = subj.callback;
+            subj.callback = callback;
+            if (expected == null) {
+                expected = callback;
+            }
+        }
+
+        LoggingCallback actual = subj.root();
+
+        assertThat(actual).isSameAs(expected);
     }
 
     @ParameterizedTest
@@ -172,28 +260,33 @@ public class LoggingContextTest implements MethodSourceHelper {
 
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
-    void afterReturningNonReentrant(boolean hasCallback) {
-        var callback = mock(LoggingCallback.class, "callback");
-        var other = mock(LoggingCallback.class, "other");
-        subj.callbackByNoReentrantEventClass.putAll(Map.of(TestEvent1.class, other, hasCallback ? TestEvent2.class : TestEvent3.class, callback));
-        Predicate<LoggingJoinPoint> predicate1 = mock(Predicate.class, "predicate1");
-        Predicate<LoggingJoinPoint> predicate2 = mock(Predicate.class, "predicate2");
-        subj.predicateByNoReentrantEventClass.putAll(Map.of(
-                TestEvent1.class, predicate1, hasCallback ? TestEvent2.class : TestEvent3.class, predicate2));
-        Map<Class<? extends AbstractMethodEvent>, LoggingCallback> callbackByNoReentrantEventClass = hasCallback
-                ? Map.of(TestEvent1.class, other) : Map.of(TestEvent1.class, other, TestEvent3.class, callback);
-        Map<Class<? extends AbstractMethodEvent>, Predicate<LoggingJoinPoint>> predicateByNoReentrantEventClass = hasCallback
-                ? Map.of(TestEvent1.class, predicate1) : Map.of(TestEvent1.class, predicate1, TestEvent3.class, predicate2);
+    void afterReturningNonReentrantByClass(boolean found) {
+        var nonReentrant = newNonReentrant(TestEvent2.class, null);
+        doReturn(found ? nonReentrant : null).when(subj).findNonReentrant(TestEvent2.class);
+        lenient().doNothing().when(subj).afterReturningNonReentrant(any(NonReentrantCallback.class), any());
         Object retVal = uidS();
 
         subj.afterReturningNonReentrant(TestEvent2.class, retVal);
 
-        assertThat(subj).is(matching(matcher -> matcher
-                .add("callbackByNoReentrantEventClass", subj.callbackByNoReentrantEventClass, callbackByNoReentrantEventClass)
-                .add("predicateByNoReentrantEventClass", subj.predicateByNoReentrantEventClass, predicateByNoReentrantEventClass)
-        ));
-        verify(callback, times(hasCallback ? 1 : 0)).afterReturning(subj, retVal);
-        verifyNoMoreInteractions(callback, predicate1, predicate2);
+        verify(subj).afterReturningNonReentrant(TestEvent2.class, retVal);
+        verify(subj).findNonReentrant(TestEvent2.class);
+        verify(subj, times(found ? 1 : 0)).afterReturningNonReentrant(nonReentrant, retVal);
+        verifyNoMoreInteractions(subj, nonReentrant.callback);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void afterReturningNonReentrant(boolean linked) {
+        var nonReentrant = newNonReentrant(TestEvent2.class, null);
+        doReturn(linked).when(subj).unlink(nonReentrant);
+        Object retVal = uidS();
+
+        subj.afterReturningNonReentrant(nonReentrant, retVal);
+
+        verify(subj).afterReturningNonReentrant(nonReentrant, retVal);
+        verify(subj).unlink(nonReentrant);
+        verify(nonReentrant.callback, times(linked ? 1 : 0)).afterReturning(subj, retVal);
+        verifyNoMoreInteractions(subj, nonReentrant.callback);
     }
 
     @ParameterizedTest
@@ -215,28 +308,33 @@ public class LoggingContextTest implements MethodSourceHelper {
 
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
-    void afterThrowingNonReentrant(boolean hasCallback) {
-        var callback = mock(LoggingCallback.class, "callback");
-        var other = mock(LoggingCallback.class, "other");
-        subj.callbackByNoReentrantEventClass.putAll(Map.of(TestEvent1.class, other, hasCallback ? TestEvent2.class : TestEvent3.class, callback));
-        Predicate<LoggingJoinPoint> predicate1 = mock(Predicate.class, "predicate1");
-        Predicate<LoggingJoinPoint> predicate2 = mock(Predicate.class, "predicate2");
-        subj.predicateByNoReentrantEventClass.putAll(Map.of(
-                TestEvent1.class, predicate1, hasCallback ? TestEvent2.class : TestEvent3.class, predicate2));
-        Map<Class<? extends AbstractMethodEvent>, LoggingCallback> callbackByNoReentrantEventClass = hasCallback
-                ? Map.of(TestEvent1.class, other) : Map.of(TestEvent1.class, other, TestEvent3.class, callback);
-        Map<Class<? extends AbstractMethodEvent>, Predicate<LoggingJoinPoint>> predicateByNoReentrantEventClass = hasCallback
-                ? Map.of(TestEvent1.class, predicate1) : Map.of(TestEvent1.class, predicate1, TestEvent3.class, predicate2);
+    void afterThrowingNonReentrantByClass(boolean found) {
+        var nonReentrant = newNonReentrant(TestEvent2.class, null);
+        doReturn(found ? nonReentrant : null).when(subj).findNonReentrant(TestEvent2.class);
+        lenient().doNothing().when(subj).afterThrowingNonReentrant(any(NonReentrantCallback.class), any());
         var cause = new Throwable(uidS());
 
         subj.afterThrowingNonReentrant(TestEvent2.class, cause);
 
-        assertThat(subj).is(matching(matcher -> matcher
-                .add("callbackByNoReentrantEventClass", subj.callbackByNoReentrantEventClass, callbackByNoReentrantEventClass)
-                .add("predicateByNoReentrantEventClass", subj.predicateByNoReentrantEventClass, predicateByNoReentrantEventClass)
-        ));
-        verify(callback, times(hasCallback ? 1 : 0)).afterThrowing(subj, cause);
-        verifyNoMoreInteractions(callback, predicate1, predicate2);
+        verify(subj).afterThrowingNonReentrant(TestEvent2.class, cause);
+        verify(subj).findNonReentrant(TestEvent2.class);
+        verify(subj, times(found ? 1 : 0)).afterThrowingNonReentrant(nonReentrant, cause);
+        verifyNoMoreInteractions(subj, nonReentrant.callback);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void afterThrowingNonReentrant(boolean linked) {
+        var nonReentrant = newNonReentrant(TestEvent2.class, null);
+        doReturn(linked).when(subj).unlink(nonReentrant);
+        var cause = new Throwable(uidS());
+
+        subj.afterThrowingNonReentrant(nonReentrant, cause);
+
+        verify(subj).afterThrowingNonReentrant(nonReentrant, cause);
+        verify(subj).unlink(nonReentrant);
+        verify(nonReentrant.callback, times(linked ? 1 : 0)).afterThrowing(subj, cause);
+        verifyNoMoreInteractions(subj, nonReentrant.callback);
     }
 
     @ParameterizedTest
@@ -268,11 +366,12 @@ public class LoggingContextTest implements MethodSourceHelper {
         var joinPoint = mock(LoggingJoinPoint.class);
         List<Predicate<LoggingJoinPoint>> predicates = Stream.generate(() -> (Predicate<LoggingJoinPoint>) mock(Predicate.class, "predicate" + uid()))
                 .limit(3).toList();
-        subj.predicateByNoReentrantEventClass.putAll(
-                Map.of(TestEvent1.class, predicates.get(0), TestEvent2.class, predicates.get(1), TestEvent3.class, predicates.get(2)));
-        LoggingCallback[] callback = Stream.generate(() -> mock(LoggingCallback.class, "callback" + uid())).limit(3).toArray(LoggingCallback[]::new);
-        subj.callbackByNoReentrantEventClass.putAll(
-                Map.of(TestEvent1.class, callback[0], TestEvent3.class, callback[1], TestEvent4.class, callback[2]));
+        NonReentrantCallback[] nonReentrant = {
+                newNonReentrant(TestEvent1.class, predicates.get(0)),
+                newNonReentrant(TestEvent2.class, predicates.get(1)),
+                newNonReentrant(TestEvent3.class, null),
+                newNonReentrant(TestEvent1.class, predicates.get(2))};
+        Stream.of(nonReentrant).forEach(subj::link);
         doReturn(false).when(predicates.get(0)).test(joinPoint);
         doReturn(true).when(predicates.get(1)).test(joinPoint);
         doReturn(true).when(predicates.get(2)).test(joinPoint);
@@ -280,13 +379,98 @@ public class LoggingContextTest implements MethodSourceHelper {
         subj.tryAfterNoReentrant(joinPoint);
 
         assertThat(subj).is(matching(matcher -> matcher
-                .add("predicateByNoReentrantEventClass", subj.predicateByNoReentrantEventClass, Map.of(TestEvent1.class, predicates.get(0)))
-                .add("callbackByNoReentrantEventClass", subj.callbackByNoReentrantEventClass,
-                        Map.of(TestEvent1.class, callback[0], TestEvent4.class, callback[2]))
+                .add("nonReentrant", subj.nonReentrant, nonReentrant[2])
+                .add("next", nonReentrant[2].next, nonReentrant[0])
+                .add("last", nonReentrant[0].next, null)
         ));
-        verify(subj).tryAfterNoReentrant(any());
-        verify(callback[1]).afterReturning(subj, null);
-        verifyNoMoreInteractions(subj, callback[0], callback[1], callback[2]);
+        IntStream.range(0, nonReentrant.length)
+                .forEach(i -> verify(nonReentrant[i].callback, times(i % 2)).afterReturning(subj, null));
+        Stream.of(nonReentrant).forEach(n -> verifyNoMoreInteractions(n.callback));
+    }
+
+    @Test
+    void findNonReentrant() {
+        NonReentrantCallback[] nonReentrant = {
+                newNonReentrant(TestEvent1.class, null),
+                newNonReentrant(TestEvent2.class, null),
+                newNonReentrant(TestEvent1.class, null)};
+        Stream.of(nonReentrant).forEach(subj::link);
+
+        assertSoftly(s -> {
+            s.assertThat(subj.findNonReentrant(TestEvent1.class)).as("TestEvent1").isSameAs(nonReentrant[2]);
+            s.assertThat(subj.findNonReentrant(TestEvent2.class)).as("TestEvent2").isSameAs(nonReentrant[1]);
+            s.assertThat(subj.findNonReentrant(TestEvent3.class)).as("TestEvent3").isNull();
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void unlink(int index) {
+        NonReentrantCallback[] nonReentrant = Stream.generate(() -> newNonReentrant(TestEvent1.class, null))
+                .limit(3).toArray(NonReentrantCallback[]::new);
+        Stream.of(nonReentrant).forEach(subj::link);
+        var removed = nonReentrant[index];
+        List<NonReentrantCallback> expected = Stream.of(nonReentrant[2], nonReentrant[1], nonReentrant[0])
+                .filter(n -> n != removed)
+                .toList();
+
+        boolean actual = subj.unlink(removed);
+        boolean again = subj.unlink(removed);
+
+        assertThat(removed).is(matching(matcher -> matcher
+                .add("actual", actual, true)
+                .add("again", again, false)
+                .add("context", removed.context, null)
+                .add("prev", removed.prev, null)
+                .add("next", removed.next, null)
+                .add("list", toList(subj.nonReentrant), expected)
+                .add("first.prev", subj.nonReentrant.prev, null)
+                .add("last.prev", expected.get(1).prev, expected.get(0))
+                .add("oldest", subj.oldestNonReentrant, expected.get(1))
+                .add("count", subj.nonReentrantCount, 2)
+        ));
+    }
+
+    @Test
+    void linkEvictsOldest() {
+        NonReentrantCallback[] nonReentrant = Stream.generate(() -> newNonReentrant(TestEvent1.class, null))
+                .limit(LoggingContext.MAX_NON_REENTRANT + 1).toArray(NonReentrantCallback[]::new);
+
+        Stream.of(nonReentrant).forEach(subj::link);
+
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("evicted.context", nonReentrant[0].context, null)
+                .add("evicted.next", nonReentrant[0].next, null)
+                .add("nonReentrant", subj.nonReentrant, nonReentrant[LoggingContext.MAX_NON_REENTRANT])
+                .add("oldest", subj.oldestNonReentrant, nonReentrant[1])
+                .add("oldest.next", nonReentrant[1].next, null)
+                .add("count", subj.nonReentrantCount, LoggingContext.MAX_NON_REENTRANT)
+                .add("size", toList(subj.nonReentrant).size(), LoggingContext.MAX_NON_REENTRANT)
+        ));
+        verifyNoMoreInteractions(nonReentrant[0].callback);
+    }
+
+    @Test
+    void unlinkOtherContext() {
+        var other = mock(LoggingContext.class, withSettings()
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(identityPoint, logger, thresholdNanos, callPathDepth, List.of(), LoggingConfig.DEFAULT, null));
+        var nonReentrant = newNonReentrant(TestEvent1.class, null);
+        other.link(nonReentrant);
+
+        boolean actual = subj.unlink(nonReentrant);
+
+        assertThat(actual).isFalse();
+        assertThat(nonReentrant.context).isSameAs(other);
+        assertThat(other.nonReentrant).isSameAs(nonReentrant);
+    }
+
+    static List<NonReentrantCallback> toList(NonReentrantCallback nonReentrant) {
+        return Stream.iterate(nonReentrant, Objects::nonNull, n -> n.next).toList();
+    }
+
+    NonReentrantCallback newNonReentrant(Class<? extends AbstractMethodEvent> eventClass, Predicate<LoggingJoinPoint> predicate) {
+        return new NonReentrantCallback(mock(LoggingCallback.class, "callback" + uid()), eventClass, predicate);
     }
 
     @ParameterizedTest
@@ -302,8 +486,8 @@ public class LoggingContextTest implements MethodSourceHelper {
     }
 
     @ParameterizedTest
-    @ValueSource(booleans = {false, true})
-    void getStatistic(boolean found) {
+    @MethodSource("booleans2")
+    void getStatistic(boolean found, boolean callPath) {
         class TestClass1 {
         }
         class TestClass2 {
@@ -318,14 +502,19 @@ public class LoggingContextTest implements MethodSourceHelper {
                 .setSum(sum)
                 .setMin(min)
                 .setMax(max);
-        Map<Key, LoggingStatistic> origin = Map.of(Key.of(TestClass1.class, name), newLoggingStatistic(),
-                Key.of(TestClass2.class, found ? name : uidS()), statistic);
+        long pathId = callPath ? uidL() : 0;
+        Map<Key, LoggingStatistic> origin = new HashMap<>();
+        origin.put(Key.of(TestClass1.class, name, pathId), newLoggingStatistic());
+        if (callPath) {
+            origin.put(Key.of(TestClass2.class, name, pathId + 1), newLoggingStatistic());
+        }
+        origin.put(Key.of(TestClass2.class, found ? name : uidS(), pathId), statistic);
         subj.statistics.putAll(origin);
 
-        LoggingStatistic actual = subj.getStatistic(TestClass2.class, name);
+        LoggingStatistic actual = subj.getStatistic(TestClass2.class, name, pathId);
 
         Map<? extends Key, LoggingStatistic> expectedStatistics = found ? origin
-                : Stream.concat(origin.entrySet().stream(), Stream.of(Pair.of(Key.of(TestClass2.class, name), actual)))
+                : Stream.concat(origin.entrySet().stream(), Stream.of(Pair.of(Key.of(TestClass2.class, name, pathId), actual)))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         assertThat(actual).is(matching(matcher -> matcher
                 .add("this", actual, found ? sameInstance(statistic) : not(sameInstance(statistic)))
@@ -383,6 +572,68 @@ public class LoggingContextTest implements MethodSourceHelper {
         return Stream.of(-1, 0, 1);
     }
 
+    @Test
+    void publish() {
+        class TestClass {
+        }
+        var statistic1 = mock(LoggingStatistic.class, "stat1");
+        var statistic2 = mock(LoggingStatistic.class, "stat2");
+        var method1 = uidS();
+        var method2 = uidS();
+        long pathId = uidL();
+        subj.statistics.put(Key.of(TestClass.class, method1), statistic1);
+        subj.statistics.put(Key.of(TestClass.class, method2, pathId), statistic2);
+
+        subj.publish();
+
+        verify(statistic1).publish(sink, TestClass.class, method1, 0);
+        verify(statistic2).publish(sink, TestClass.class, method2, pathId);
+        verify(sink).flush();
+        verifyNoMoreInteractions(statistic1, statistic2, sink);
+    }
+
+    @Test
+    void publishFailed() {
+        class TestClass {
+        }
+        var method1 = uidS();
+        var method2 = uidS();
+        subj.statistics.put(Key.of(TestClass.class, method1), new LoggingStatistic().setCount(1).setSum(3).setMin(3).setMax(3));
+        subj.statistics.put(Key.of(TestClass.class, method2), new LoggingStatistic().setCount(2).setSum(5).setMin(2).setMax(3));
+        doThrow(new IllegalStateException()).when(sink).accept(any(), eq(method1), anyLong(), anyInt(), anyLong(),
+                anyLong(), anyLong(), anyInt());
+        doThrow(new IllegalStateException()).when(sink).flush();
+
+        subj.publish();
+
+        verify(sink).accept(TestClass.class, method1, 0, 1, 3, 3, 3, 0);
+        verify(sink).accept(TestClass.class, method2, 0, 2, 5, 2, 3, 0);
+        verify(sink).flush();
+        verifyNoMoreInteractions(sink);
+    }
+
+    @ParameterizedTest
+    @MethodSource("booleans3")
+    void publishAsync(boolean hasPublisher, boolean hasLogger, boolean hasSinks) {
+        var publisher = mock(AsyncStatisticsPublisher.class);
+        subj = mock(LoggingContext.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(identityPoint, logger, thresholdNanos, callPathDepth, hasSinks ? List.of(sink) : List.of(),
+                        LoggingConfig.DEFAULT, hasPublisher ? publisher : null));
+        var rootLogger = mock(Logger.class);
+        var method = uidS();
+        List<?> args = List.of(uidS());
+        subj.statistics.put(Key.of(String.class, method), new LoggingStatistic());
+
+        boolean actual = subj.publishAsync(hasLogger ? rootLogger : null, String.class, method, args);
+
+        assertThat(actual).isEqualTo(hasPublisher);
+        verify(publisher, times(hasPublisher && (hasLogger || hasSinks) ? 1 : 0))
+                .offer(hasLogger ? rootLogger : null, String.class, method, args, subj.statistics);
+        verifyNoMoreInteractions(publisher, rootLogger, sink);
+    }
+
     @Test
     void toStatistics() {
         class TestClass1 {
@@ -65,6 +65,57 @@ public class LoggingStatisticTest {
                 Stream.of(-5, -2, -1, 0, 1, 2, 5));
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 1})
+    void add(int offset) {
+        long time = uid();
+        var subj = new LoggingStatistic()
+                .setCount(1)
+                .setSum(time + offset)
+                .setMin(time + offset)
+                .setMax(time + offset);
+
+        subj.add(time);
+
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("count", subj.getCount(), 2)
+                .add("sum", subj.getSum(), 2 * time + offset)
+                .add("min", subj.getMin(), Math.min(time, time + offset))
+                .add("max", subj.getMax(), Math.max(time, time + offset))
+                .add("event", subj.getEvent(), null)
+        ));
+    }
+
+    @Test
+    void merge() {
+        var event = mock(MethodInvocationEvent.class);
+        var subj = new LoggingStatistic()
+                .setCount(2)
+                .setSum(30)
+                .setMin(10)
+                .setMax(20)
+                .setErrors(1)
+                .setEvent(event);
+        var other = new LoggingStatistic()
+                .setCount(3)
+                .setSum(60)
+                .setMin(5)
+                .setMax(40)
+                .setErrors(2);
+
+        subj.merge(other);
+
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("count", subj.getCount(), 5)
+                .add("sum", subj.getSum(), 90L)
+                .add("min", subj.getMin(), 5L)
+                .add("max", subj.getMax(), 40L)
+                .add("errors", subj.getErrors(), 3)
+                .add("event", subj.getEvent(), event)
+        ));
+        verifyNoMoreInteractions(event);
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void commit(boolean hasEvent) {
@@ -97,6 +148,54 @@ public class LoggingStatisticTest {
         verifyNoMoreInteractions(event);
     }
 
+    @Test
+    void addError() {
+        int errors = uid();
+        var subj = new LoggingStatistic().setErrors(errors);
+
+        subj.addError();
+
+        assertThat(subj.getErrors()).isEqualTo(errors + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void publish(boolean called) {
+        int count = called ? uid() : 0;
+        long sum = uid();
+        long min = uid();
+        long max = uid();
+        int errors = uid();
+        var subj = new LoggingStatistic()
+                .setCount(count)
+                .setSum(sum)
+                .setMin(min)
+                .setMax(max)
+                .setErrors(errors);
+        var sink = mock(StatisticsSink.class);
+        Object method = uid();
+        long pathId = uid();
+
+        subj.publish(sink, getClass(), method, pathId);
+
+        verify(sink, times(called ? 1 : 0)).accept(getClass(), method, pathId, count, sum, min, max, errors);
+        verifyNoMoreInteractions(sink);
+    }
+
+    @Test
+    void appendToErrors() {
+        var subj = new LoggingStatistic()
+                .setCount(1)
+                .setMin(0)
+                .setMax(0)
+                .setErrors(2);
+        var sb = new StringBuilder();
+
+        subj.appendTo(sb, getClass(), uid());
+
+        assertThat(sb.toString()).endsWith(", errors=2");
+    }
+
     @Test
     void appendTo() {
         class TestClass {
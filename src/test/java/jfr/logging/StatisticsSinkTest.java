@@ -0,0 +1,32 @@
+package jfr.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link StatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+public class StatisticsSinkTest {
+    @Test
+    void name() throws NoSuchMethodException {
+        assertThat(StatisticsSink.name(getClass().getDeclaredMethod("name"))).isEqualTo("name");
+        assertThat(StatisticsSink.name("execute")).isEqualTo("execute");
+        assertThat(StatisticsSink.name(new DimensionalMethod(getClass().getDeclaredMethod("name"), "tenant")))
+                .isEqualTo("name");
+    }
+
+    @Test
+    void dimension() throws NoSuchMethodException {
+        assertThat(StatisticsSink.dimension(getClass().getDeclaredMethod("dimension"))).isNull();
+        assertThat(StatisticsSink.dimension(new DimensionalMethod("execute", "tenant"))).isEqualTo("tenant");
+    }
+
+    @Test
+    void nameDimension() {
+        assertThat(StatisticsSink.name("find", null)).isEqualTo("find");
+        assertThat(StatisticsSink.name("find", "tenant")).isEqualTo("find[tenant]");
+    }
+}
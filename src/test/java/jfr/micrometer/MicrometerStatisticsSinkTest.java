@@ -0,0 +1,106 @@
+package jfr.micrometer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jfr.logging.DimensionalMethod;
+import jfr.stats.MethodTable;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link MicrometerStatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class MicrometerStatisticsSinkTest {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    MicrometerStatisticsSink subj = new MicrometerStatisticsSink(registry, 2, false);
+
+    @Test
+    void accept() throws NoSuchMethodException {
+        Method method = getClass().getDeclaredMethod("accept");
+
+        subj.accept(getClass(), method, 0, 3, 3_000, 500, 2_000, 1);
+        subj.accept(getClass(), method, 0, 1, 1_000, 1_000, 1_000, 0);
+        subj.accept(getClass(), method, 0, 0, 0, 0, 0, 0);
+
+        String className = getClass().getName();
+        FunctionTimer timer = registry.get(MicrometerStatisticsSink.SELF_TIME)
+                .tags("class", className, "method", "accept")
+                .functionTimer();
+        TimeGauge max = registry.get(MicrometerStatisticsSink.MAX_TIME)
+                .tags("class", className, "method", "accept")
+                .timeGauge();
+        FunctionCounter errors = registry.get(MicrometerStatisticsSink.ERRORS)
+                .tags("class", className, "method", "accept")
+                .functionCounter();
+        double maxNanos = max.value(TimeUnit.NANOSECONDS);
+        assertThat(timer).is(matching(matcher -> matcher
+                .add("count", timer.count(), 4.0)
+                .add("totalTime", timer.totalTime(TimeUnit.NANOSECONDS), 4_000.0)
+                .add("max", maxNanos, 2_000.0)
+                .add("errors", errors.count(), 1.0)
+        ));
+        assertThat(max.value(TimeUnit.NANOSECONDS)).isEqualTo(2_000.0);
+        assertThat(subj.methods.size()).isEqualTo(1);
+    }
+
+    @Test
+    void acceptOther() {
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+
+        subj.accept(Integer.class, uidS(), 0, 2, 5, 2, 3, 1);
+
+        FunctionTimer actual = registry.get(MicrometerStatisticsSink.SELF_TIME)
+                .tags("class", MethodTable.OTHER, "method", MethodTable.OTHER)
+                .functionTimer();
+        assertThat(actual.count()).isEqualTo(2.0);
+        assertThat(registry.getMeters()).hasSize(9);
+    }
+
+    @Test
+    void acceptDimension() throws NoSuchMethodException {
+        subj = new MicrometerStatisticsSink(registry, 1, true);
+        Method method = getClass().getDeclaredMethod("acceptDimension");
+
+        subj.accept(getClass(), new DimensionalMethod(method, "a"), 0, 2, 2, 1, 1, 0);
+        subj.accept(getClass(), new DimensionalMethod(method, "b"), 0, 3, 3, 1, 1, 0);
+        subj.accept(getClass(), method, 0, 1, 1, 1, 1, 0);
+
+        String className = getClass().getName();
+        assertThat(registry.get(MicrometerStatisticsSink.SELF_TIME)
+                .tags("class", className, "method", "acceptDimension", "dimension", "a")
+                .functionTimer().count()).isEqualTo(2.0);
+        assertThat(registry.get(MicrometerStatisticsSink.SELF_TIME)
+                .tags("class", className, "method", "acceptDimension", "dimension", "b")
+                .functionTimer().count()).isEqualTo(3.0);
+        assertThat(registry.get(MicrometerStatisticsSink.SELF_TIME)
+                .tags("class", className, "method", "acceptDimension",
+                        "dimension", MicrometerStatisticsSink.NO_DIMENSION)
+                .functionTimer().count()).isEqualTo(1.0);
+        assertThat(registry.getMeters()).hasSize(9);
+        assertThat(subj.methods.size()).isEqualTo(1);
+    }
+
+    @Test
+    void close() {
+        subj.accept(String.class, uidS(), 0, 1, 1, 1, 1, 0);
+
+        subj.close();
+
+        assertThat(registry.getMeters()).isEmpty();
+        assertThat(subj.meters).isEmpty();
+    }
+}
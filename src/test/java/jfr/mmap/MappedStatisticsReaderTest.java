@@ -0,0 +1,117 @@
+package jfr.mmap;
+
+import jfr.mmap.MappedStatisticsReader.MappedMethod;
+import jfr.mmap.MappedStatisticsReader.Snapshot;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для {@link MappedStatisticsReader}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class MappedStatisticsReaderTest {
+    static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+    StringWriter out = new StringWriter();
+    StringWriter err = new StringWriter();
+
+    @Test
+    void run() throws IOException {
+        Path file = dir.resolve("stats");
+        var sink = new MappedStatisticsSink(file, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        sink.open();
+        sink.accept(String.class, "find", 0, 2, 5_000_000, 2_000_000, 3_000_000, 1);
+        sink.accept(Integer.class, "parse", 0, 1, 7_000_000, 7_000_000, 7_000_000, 0);
+        sink.close();
+
+        int actual = MappedStatisticsReader.run(new PrintWriter(out), new PrintWriter(err), "--top", "1", file.toString());
+
+        assertThat(actual).isZero();
+        assertThat(out.toString().lines()).containsExactly(
+                "pid " + ProcessHandle.current().pid() + ", started 2025-01-01T00:00:00Z, closed, 2 methods",
+                "       total      calls          avg          min          max   errors  method",
+                "00:00:00.007          1 00:00:00.007 00:00:00.007 00:00:00.007        0  java.lang.Integer#parse");
+        assertThat(err.toString()).isEmpty();
+    }
+
+    @Test
+    void runNoFile() {
+        int actual = MappedStatisticsReader.run(new PrintWriter(out), new PrintWriter(err), "--top", "1");
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(err.toString()).contains("No file specified", MappedStatisticsReader.USAGE);
+    }
+
+    @Test
+    void runNotStatistics() throws IOException {
+        Path file = Files.writeString(dir.resolve("other"), "x".repeat(MappedStatisticsSink.HEADER_SIZE));
+
+        int actual = MappedStatisticsReader.run(new PrintWriter(out), new PrintWriter(err), file.toString());
+
+        assertThat(actual).isEqualTo(1);
+        assertThat(err.toString()).contains("Unsupported statistics file");
+    }
+
+    @Test
+    void readTruncated() {
+        ByteBuffer buffer = header(10);
+
+        assertThatThrownBy(() -> MappedStatisticsReader.read(buffer)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void methodTorn() {
+        ByteBuffer buffer = header(1);
+        int slot = MappedStatisticsSink.HEADER_SIZE;
+        MappedStatisticsSink.LONG.set(buffer, slot + MappedStatisticsSink.SEQUENCE_OFFSET, 3L);
+        MappedStatisticsSink.LONG.set(buffer, slot + MappedStatisticsSink.COUNT_OFFSET, 5L);
+
+        MappedMethod actual = MappedStatisticsReader.method(buffer, slot, MappedStatisticsSink.SLOT_SIZE);
+
+        assertThat(actual).isEqualTo(new MappedMethod("", 5, 0, 0, 0, 0, true));
+    }
+
+    @Test
+    void write() {
+        var snapshot = new Snapshot(42, NOW, false, List.of(
+                new MappedMethod("a.B#c", 0, 0, 0, 0, 0, false),
+                new MappedMethod("a.B#d", 2, 4_000_000, 1_000_000, 3_000_000, 1, true)));
+
+        MappedStatisticsReader.write(snapshot, 10, new PrintWriter(out, true));
+
+        assertThat(out.toString().lines()).containsExactly(
+                "pid 42, started 2025-01-01T00:00:00Z, running or crashed, 2 methods",
+                "       total      calls          avg          min          max   errors  method",
+                "00:00:00.004          2 00:00:00.002 00:00:00.001 00:00:00.003        1  a.B#d *",
+                "00:00:00.000          0 00:00:00.000 00:00:00.000 00:00:00.000        0  a.B#c");
+    }
+
+    static ByteBuffer header(int slots) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MappedStatisticsSink.HEADER_SIZE + MappedStatisticsSink.SLOT_SIZE);
+        MappedStatisticsSink.INT.set(buffer, MappedStatisticsSink.MAGIC_OFFSET, MappedStatisticsSink.MAGIC);
+        MappedStatisticsSink.INT.set(buffer, MappedStatisticsSink.VERSION_OFFSET, MappedStatisticsSink.VERSION);
+        MappedStatisticsSink.INT.set(buffer, MappedStatisticsSink.SLOTS_OFFSET, slots);
+        MappedStatisticsSink.INT.set(buffer, MappedStatisticsSink.SLOT_SIZE_OFFSET, MappedStatisticsSink.SLOT_SIZE);
+        return buffer;
+    }
+}
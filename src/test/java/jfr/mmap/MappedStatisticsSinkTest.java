@@ -0,0 +1,166 @@
+package jfr.mmap;
+
+import jfr.logging.DimensionalMethod;
+import jfr.mmap.MappedStatisticsReader.MappedMethod;
+import jfr.mmap.MappedStatisticsReader.Snapshot;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для {@link MappedStatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class MappedStatisticsSinkTest {
+    static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+    Path file;
+    MappedStatisticsSink subj;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("stats/jfr-statistics");
+        subj = new MappedStatisticsSink(file, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        subj.open();
+    }
+
+    @Test
+    void constructorInvalid() {
+        assertThatThrownBy(() -> new MappedStatisticsSink(file, 0, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void open() throws IOException {
+        assertThat(Files.size(file)).isEqualTo(MappedStatisticsSink.HEADER_SIZE + 3L * MappedStatisticsSink.SLOT_SIZE);
+
+        Snapshot actual = MappedStatisticsReader.read(file);
+
+        assertThat(actual).isEqualTo(new Snapshot(ProcessHandle.current().pid(), NOW, false, List.of()));
+    }
+
+    @Test
+    void accept() throws IOException {
+        subj.accept(String.class, "find", 0x1f, 2, 5_000_000, 2_000_000, 3_000_000, 1);
+        subj.accept(String.class, "find", 0, 1, 1_000_000, 1_000_000, 1_000_000, 0);
+        subj.accept(Integer.class, "parse", 0, 1, 7, 7, 7, 0);
+        subj.accept(Long.class, "first", 0, 1, 10, 10, 10, 0);
+        subj.accept(Long.class, "second", 0, 1, 20, 20, 20, 2);
+        subj.accept(Long.class, "empty", 0, 0, 0, 0, 0, 0);
+
+        Snapshot actual = MappedStatisticsReader.read(file);
+
+        assertThat(actual.methods()).containsExactly(
+                new MappedMethod("java.lang.String#find", 3, 6_000_000, 1_000_000, 3_000_000, 1, false),
+                new MappedMethod("java.lang.Integer#parse", 1, 7, 7, 7, 0, false),
+                new MappedMethod("other#other", 2, 30, 10, 20, 2, false));
+    }
+
+    @Test
+    void acceptDimension() throws IOException {
+        subj = new MappedStatisticsSink(file, 3, Clock.fixed(NOW, ZoneOffset.UTC));
+        subj.open();
+        subj.accept(String.class, new DimensionalMethod("find", "a"), 0, 1, 1, 1, 1, 0);
+        subj.accept(String.class, new DimensionalMethod("find", "b"), 0, 1, 2, 2, 2, 0);
+        subj.accept(String.class, "find", 0, 1, 3, 3, 3, 0);
+
+        assertThat(MappedStatisticsReader.read(file).methods()).containsExactly(
+                new MappedMethod("java.lang.String#find[a]", 1, 1, 1, 1, 0, false),
+                new MappedMethod("java.lang.String#find[b]", 1, 2, 2, 2, 0, false),
+                new MappedMethod("java.lang.String#find", 1, 3, 3, 3, 0, false));
+    }
+
+    @Test
+    void acceptDimensionFull() throws IOException {
+        for (String dimension : List.of("a", "b", "c", "d")) {
+            subj.accept(String.class, new DimensionalMethod("find", dimension), 0, 1, 1, 1, 1, 0);
+        }
+
+        assertThat(MappedStatisticsReader.read(file).methods()).containsExactly(
+                new MappedMethod("java.lang.String#find[a]", 1, 1, 1, 1, 0, false),
+                new MappedMethod("java.lang.String#find[b]", 1, 1, 1, 1, 0, false),
+                new MappedMethod("other#other", 2, 2, 1, 1, 0, false));
+    }
+
+    @Test
+    void close() throws IOException {
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+
+        subj.close();
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+
+        Snapshot actual = MappedStatisticsReader.read(file);
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("closed", actual.closed(), true)
+                .add("count", actual.methods().get(0).count(), 1L)
+        ));
+        assertThat(subj.buffer).isNull();
+    }
+
+    @Test
+    void openAllocated() throws IOException {
+        subj = new MappedStatisticsSink(file, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        int slot = subj.methods.get(String.class, "find");
+
+        subj.open();
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+        subj.accept(Integer.class, "parse", 0, 1, 7, 7, 7, 0);
+
+        assertThat(slot).isEqualTo(MappedStatisticsSink.HEADER_SIZE);
+        assertThat(MappedStatisticsReader.read(file).methods()).containsExactly(
+                new MappedMethod("java.lang.String#find", 1, 1, 1, 1, 0, false),
+                new MappedMethod("java.lang.Integer#parse", 1, 7, 7, 7, 0, false));
+    }
+
+    @Test
+    void openAgain() throws IOException {
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+        subj.close();
+
+        subj.open();
+        subj.accept(String.class, "find", 0, 1, 2, 2, 2, 0);
+
+        assertThat(MappedStatisticsReader.read(file).methods()).containsExactly(
+                new MappedMethod("java.lang.String#find", 1, 2, 2, 2, 0, false));
+    }
+
+    @Test
+    void acceptLongName() throws IOException {
+        String method = "é".repeat(MappedStatisticsSink.MAX_NAME_LENGTH);
+
+        subj.accept(String.class, method, 0, 1, 1, 1, 1, 0);
+
+        String actual = MappedStatisticsReader.read(file).methods().get(0).name();
+        assertThat(actual).startsWith("java.lang.String#é");
+        assertThat(actual.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(MappedStatisticsSink.MAX_NAME_LENGTH);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"11, 10", "12, 12", "20, 12", "10, 10"})
+    void truncate(int maxLength, int expected) {
+        byte[] utf8 = ("a".repeat(10) + "é").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(MappedStatisticsSink.truncate(utf8, maxLength)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,104 @@
+package jfr.prometheus;
+
+import com.google.common.base.Ticker;
+import jfr.logging.DimensionalMethod;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link PrometheusStatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class PrometheusStatisticsSinkTest {
+    PrometheusStatisticsSink subj = new PrometheusStatisticsSink(1, Ticker.systemTicker());
+
+    @Test
+    void scrape() throws NoSuchMethodException {
+        subj.accept(getClass(), getClass().getDeclaredMethod("scrape"), 0, 3, 3_000_000, 500_000, 2_000_000, 1);
+        subj.accept(getClass(), getClass().getDeclaredMethod("scrape"), 0, 1, 20_000_000_000L, 20_000_000_000L, 20_000_000_000L, 0);
+        subj.accept(getClass(), getClass().getDeclaredMethod("scrape"), 0, 0, 0, 0, 0, 0);
+        subj.accept(String.class, uidS(), 0, 2, 100_000, 1, 1, 2);
+
+        String actual = subj.scrape();
+
+        String labels = "{class=\"" + getClass().getName() + "\",method=\"scrape\"";
+        assertThat(actual)
+                .startsWith("# HELP jfr_method_self_seconds ")
+                .contains("# TYPE jfr_method_self_seconds histogram\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"0.00025\"} 0\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"0.0005\"} 2\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"0.001\"} 2\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"0.0025\"} 3\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"10\"} 3\n")
+                .contains("jfr_method_self_seconds_bucket" + labels + ",le=\"+Inf\"} 4\n")
+                .contains("jfr_method_self_seconds_sum" + labels + "} 20.003\n")
+                .contains("jfr_method_self_seconds_count" + labels + "} 4\n")
+                .contains("# TYPE jfr_method_self_max_seconds gauge\n")
+                .contains("jfr_method_self_max_seconds" + labels + "} 20\n")
+                .contains("jfr_method_self_max_seconds{class=\"other\",method=\"other\"} 0.000000001\n")
+                .contains("# TYPE jfr_method_errors_total counter\n")
+                .contains("jfr_method_errors_total" + labels + "} 1\n")
+                .contains("jfr_method_self_seconds_bucket{class=\"other\",method=\"other\",le=\"0.0001\"} 2\n")
+                .endsWith("jfr_method_errors_total{class=\"other\",method=\"other\"} 2\n");
+        assertThat(subj.scrape()).isEqualTo(actual);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0,0", "100000,0", "100001,1", "1000000,3", "10000000000,15", "10000000001,16"})
+    void bucket(long nanos, int expected) {
+        assertThat(PrometheusStatisticsSink.bucket(nanos)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0,0", "1,0.000000001", "100000,0.0001", "1500000000,1.5", "123456789,0.123456789"})
+    void appendSeconds(long nanos, String expected) {
+        var out = new StringBuilder();
+
+        assertThat(PrometheusStatisticsSink.appendSeconds(out, nanos)).isSameAs(out);
+        assertThat(out).hasToString(expected);
+    }
+
+    @Test
+    void escape() {
+        assertThat(PrometheusStatisticsSink.escape(new StringBuilder(), "a\\b\"c\nd"))
+                .hasToString("a\\\\b\\\"c\\nd");
+    }
+
+    @Test
+    void counters() {
+        var actual = new PrometheusStatisticsSink.Counters("a.\"Service\"", "get", null, Ticker.systemTicker());
+
+        assertThat(actual.labels).isEqualTo("class=\"a.\\\"Service\\\"\",method=\"get\"");
+        assertThat(actual.buckets).hasSize(PrometheusStatisticsSink.BOUNDS.length + 1).doesNotContainNull();
+    }
+
+    @Test
+    void countersDimension() {
+        var actual = new PrometheusStatisticsSink.Counters("a.Service", "get", "\"a\"", Ticker.systemTicker());
+
+        assertThat(actual.labels).isEqualTo("class=\"a.Service\",method=\"get\",dimension=\"\\\"a\\\"\"");
+    }
+
+    @Test
+    void scrapeDimension() throws NoSuchMethodException {
+        var method = getClass().getDeclaredMethod("scrapeDimension");
+        subj.accept(getClass(), new DimensionalMethod(method, "a"), 0, 1, 1, 1, 1, 0);
+        subj.accept(getClass(), new DimensionalMethod(method, "b"), 0, 1, 1, 1, 1, 1);
+
+        String actual = subj.scrape();
+
+        String labels = "{class=\"" + getClass().getName() + "\",method=\"scrapeDimension\"";
+        assertThat(actual)
+                .contains("jfr_method_errors_total" + labels + ",dimension=\"a\"} 0\n")
+                .contains("jfr_method_errors_total" + labels + ",dimension=\"b\"} 1\n")
+                .doesNotContain("other");
+    }
+}
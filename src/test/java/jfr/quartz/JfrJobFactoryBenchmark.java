@@ -0,0 +1,169 @@
+package jfr.quartz;
+
+import com.google.common.base.Ticker;
+import jfr.event.QuartzJobEvent;
+import jfr.logging.JfrLoggingServiceImpl;
+import jfr.logging.LoggingJoinPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.scheduling.quartz.SpringBeanJobFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Накладные расходы {@link JfrJobFactory} на срабатывание короткой задачи.
+ *
+ * <p>{@code legacy} повторяет прежнюю реализацию: поиск фабрики Spring, лямбда, {@link LoggingJoinPoint}
+ * и список аргументов на каждое срабатывание, с той же записью статистики и занятости пула. Запуск: {@code main} из IDE или после
+ * {@code mvn test-compile} {@code java -cp <classpath тестов> org.openjdk.jmh.Main JfrJobFactoryBenchmark -prof gc}.
+ * Результаты — в README.</p>
+ *
+ * @author Roman_Erzhukov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JfrJobFactoryBenchmark {
+    StaticListableBeanFactory beanFactory;
+    JfrLoggingServiceImpl<?> loggingService;
+    QuartzJobStatistics statistics;
+    JfrJobFactory subj;
+    Scheduler scheduler;
+    TriggerFiredBundle bundle;
+
+    /**
+     * Короткая задача.
+     */
+    public static class NoopJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("jobFactory", new SpringBeanJobFactory());
+        loggingService = new JfrLoggingServiceImpl<>(Ticker.systemTicker(), LoggerFactory::getLogger);
+        statistics = new QuartzJobStatistics(Ticker.systemTicker());
+        subj = new JfrJobFactory(beanFactory, loggingService, statistics);
+        scheduler = (Scheduler) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Scheduler.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "scheduler";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        subj.pools.put(scheduler, new JfrJobFactory.Pool("scheduler", "benchmark", 10, new AtomicInteger()));
+        JobDetail jobDetail = JobBuilder.newJob(NoopJob.class)
+                .withIdentity("job", "benchmark")
+                .build();
+        var trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity("trigger", "benchmark")
+                .build();
+        var now = new Date();
+        bundle = new TriggerFiredBundle(jobDetail, trigger, null, false, now, now, null, null);
+    }
+
+    @Benchmark
+    public Object current() throws SchedulerException {
+        Job job = subj.newJob(bundle, scheduler);
+        JobExecutionContext context = new JobExecutionContextImpl(scheduler, bundle, job);
+        job.execute(context);
+        return context;
+    }
+
+    @Benchmark
+    public Object legacy() throws SchedulerException {
+        Job job = beanFactory.getBean(SpringBeanJobFactory.class).newJob(bundle, scheduler);
+        JobKey jobKey = bundle.getJobDetail().getKey();
+        TriggerKey triggerKey = bundle.getTrigger().getKey();
+        long fireDelay = JfrJobFactory.fireDelay(bundle.getFireTime(), bundle.getScheduledFireTime());
+        boolean misfire = subj.misfired.remove(triggerKey);
+        JfrJobFactory.Pool pool = subj.pools.computeIfAbsent(scheduler, JfrJobFactory.Pool::of);
+        Job wrapper = context -> legacyExecute(job, context, jobKey, triggerKey, fireDelay, misfire, pool);
+        JobExecutionContext context = new JobExecutionContextImpl(scheduler, bundle, wrapper);
+        wrapper.execute(context);
+        return context;
+    }
+
+    /**
+     * Прежний {@code JfrJobFactory.execute}: точка вызова, лямбда и список аргументов на каждое срабатывание.
+     */
+    void legacyExecute(Job job, JobExecutionContext context, JobKey jobKey, TriggerKey triggerKey,
+                       long fireDelay, boolean misfire, JfrJobFactory.Pool pool) {
+        QuartzJobEvent event = new QuartzJobEvent();
+        boolean enabled = event.isEnabled();
+        int busy = pool.busy().incrementAndGet();
+        if (enabled) {
+            event.beanClass = job.getClass();
+            event.method = jobKey.toString();
+            event.triggerKey = triggerKey.toString();
+            event.fireDelay = fireDelay;
+            event.misfire = misfire;
+            event.poolSize = pool.size();
+            event.poolBusy = busy;
+            event.begin();
+        }
+        long start = statistics.start();
+        boolean failed = true;
+        String execute = "execute";
+        var joinPoint = LoggingJoinPoint.of(null, job.getClass(), jobKey, execute, List.of(context));
+        try {
+            loggingService.proceedCallback(joinPoint, () -> {
+                job.execute(context);
+                return null;
+            });
+            failed = false;
+        } catch (Throwable t) {
+            throw new RuntimeException(t.getMessage(), t);
+        } finally {
+            pool.busy().decrementAndGet();
+            statistics.record(jobKey, job.getClass(), fireDelay, misfire, failed, start);
+            if (enabled) {
+                event.commit();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JfrJobFactoryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -1,43 +1,61 @@
 package jfr.quartz;
 
+import jfr.event.QuartzJobEvent;
 import jfr.logging.JfrLoggingService;
 import jfr.logging.JoinPointCallback;
 import jfr.logging.LoggingJoinPoint;
+import jfr.test.junit.MethodSourceHelper;
 import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.quartz.Job;
+import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
 import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerMetaData;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.TriggerFiredBundle;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.scheduling.quartz.SpringBeanJobFactory;
 
-import java.util.List;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
-import static java.util.Arrays.stream;
 import static jfr.test.assertj.ConditionsHelper.isEqual;
 import static jfr.test.assertj.ConditionsHelper.match;
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
 import static jfr.test.junit.UidExtension.uidS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.condition.NestableCondition.nestable;
-import static org.assertj.core.util.Arrays.array;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
 
 /**
  * Тесты для {@link JfrJobFactory}.
@@ -45,8 +63,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
  * @author Roman_Erzhukov
  */
 @ExtendWith({MockitoExtension.class, UidExtension.class})
-public class JfrJobFactoryTest {
-    @InjectMocks
+public class JfrJobFactoryTest implements MethodSourceHelper {
     JfrJobFactory subj;
 
     @Mock
@@ -55,23 +72,144 @@ public class JfrJobFactoryTest {
     @Mock
     JfrLoggingService loggingService;
 
-    @MethodSource
+    @Mock
+    QuartzJobStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        subj = mock(JfrJobFactory.class, withSettings()
+                .name("subj")
+                .defaultAnswer(CALLS_REAL_METHODS)
+                .useConstructor(beanFactory, loggingService, statistics));
+    }
+
     @ParameterizedTest
-    void newJob(Throwable thrown) throws Throwable {
+    @MethodSource("booleans2")
+    void newJob(boolean misfire, boolean hasPool) throws Exception {
         var delegate = mock(SpringBeanJobFactory.class);
-        doReturn(delegate).when(beanFactory).getBean(SpringBeanJobFactory.class);
+        doReturn(delegate).when(subj).getDelegate();
         var bundle = mock(TriggerFiredBundle.class);
         var scheduler = mock(Scheduler.class);
         var job = mock(Job.class);
         doReturn(job).when(delegate).newJob(bundle, scheduler);
+        var jobKey = new JobKey(uidS(), uidS());
+        var jobDetail = mock(JobDetail.class);
+        doReturn(jobDetail).when(bundle).getJobDetail();
+        doReturn(jobKey).when(jobDetail).getKey();
+        var triggerKey = new TriggerKey(uidS(), uidS());
+        var trigger = mock(OperableTrigger.class);
+        doReturn(trigger).when(bundle).getTrigger();
+        doReturn(triggerKey).when(trigger).getKey();
+        long scheduled = uid();
+        long delay = uid();
+        doReturn(new Date(scheduled + delay)).when(bundle).getFireTime();
+        doReturn(new Date(scheduled)).when(bundle).getScheduledFireTime();
+        if (misfire) {
+            subj.misfired.add(triggerKey);
+        }
+        var pool = new JfrJobFactory.Pool(uidS(), uidS(), uid(), new AtomicInteger());
+        if (hasPool) {
+            subj.pools.put(scheduler, pool);
+        } else {
+            var metaData = mock(SchedulerMetaData.class);
+            doReturn(metaData).when(scheduler).getMetaData();
+            doReturn(pool.schedulerName()).when(metaData).getSchedulerName();
+            doReturn(pool.instanceId()).when(metaData).getSchedulerInstanceId();
+            doReturn(pool.size()).when(metaData).getThreadPoolSize();
+        }
+
+        Job actual = subj.newJob(bundle, scheduler);
+
+        assertThat(actual).isInstanceOf(JfrJob.class);
+        var jfrJob = (JfrJob) actual;
+        assertThat(jfrJob).is(matching(matcher -> matcher
+                .add("factory", jfrJob.factory, subj)
+                .add("job", jfrJob.job, job)
+                .add("jobKey", jfrJob.jobKey, jobKey)
+                .add("name", jfrJob.name, jobKey.toString())
+                .add("triggerKey", jfrJob.triggerKey, triggerKey)
+                .add("fireTime", jfrJob.fireTime, scheduled + delay)
+                .add("fireDelay", jfrJob.fireDelay, TimeUnit.MILLISECONDS.toNanos(delay))
+                .add("misfire", jfrJob.misfire, misfire)
+                .add("pool", jfrJob.pool.size(), pool.size())
+                .add("schedulerName", jfrJob.pool.schedulerName(), pool.schedulerName())
+                .add("context", jfrJob.context, null)
+        ));
+        assertThat(subj.misfired).isEmpty();
+        assertThat(subj.names).containsEntry(jobKey, jfrJob.name);
+        assertThat(((JfrJob) subj.newJob(bundle, scheduler)).name).isSameAs(jfrJob.name);
+        verifyNoMoreInteractions(beanFactory, loggingService, job, statistics);
+    }
+
+    @Test
+    void newJobWithoutFireTime() throws Exception {
+        var delegate = mock(SpringBeanJobFactory.class);
+        doReturn(delegate).when(subj).getDelegate();
+        var bundle = mock(TriggerFiredBundle.class);
+        var scheduler = mock(Scheduler.class);
+        doReturn(mock(Job.class)).when(delegate).newJob(bundle, scheduler);
+        var jobDetail = mock(JobDetail.class);
+        doReturn(jobDetail).when(bundle).getJobDetail();
+        doReturn(new JobKey(uidS(), uidS())).when(jobDetail).getKey();
+        var trigger = mock(OperableTrigger.class);
+        doReturn(trigger).when(bundle).getTrigger();
+        doReturn(new TriggerKey(uidS(), uidS())).when(trigger).getKey();
+        subj.pools.put(scheduler, new JfrJobFactory.Pool(uidS(), uidS(), uid(), new AtomicInteger()));
+        long before = System.currentTimeMillis();
+
+        var actual = (JfrJob) subj.newJob(bundle, scheduler);
+
+        assertThat(actual.fireTime).isBetween(before, System.currentTimeMillis());
+        assertThat(actual.fireDelay).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getDelegate(boolean cached) {
+        var expected = mock(SpringBeanJobFactory.class);
+        if (cached) {
+            subj.delegate = expected;
+        } else {
+            doReturn(expected).when(beanFactory).getBean(SpringBeanJobFactory.class);
+        }
+
+        assertThat(subj.getDelegate()).isSameAs(expected);
+        assertThat(subj.getDelegate()).isSameAs(expected);
+
+        verify(beanFactory, times(cached ? 0 : 1)).getBean(SpringBeanJobFactory.class);
+        verifyNoMoreInteractions(beanFactory);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void execute(boolean enabled, boolean hasHistory, Throwable thrown) throws Throwable {
+        var history = mock(JobHistoryWriter.class);
+        subj.setHistory(hasHistory ? history : null);
+        var event = mock(QuartzJobEvent.class);
+        doReturn(event).when(subj).newEvent();
+        doReturn(enabled).when(event).isEnabled();
+        var job = mock(Job.class);
         var context = mock(JobExecutionContext.class);
+        var jobKey = new JobKey(uidS(), uidS());
+        var triggerKey = new TriggerKey(uidS(), uidS());
+        long fireDelay = uid();
+        boolean misfire = uid() % 2 == 0;
+        var pool = new JfrJobFactory.Pool(uidS(), uidS(), uid(), new AtomicInteger());
+        long fireTime = uid();
+        var jfrJob = new JfrJob(subj, job, jobKey, jobKey.toString(), triggerKey, fireTime, fireDelay, misfire, pool);
+        jfrJob.context = context;
+        long start = uid();
+        doReturn(start).when(statistics).start();
+        long runTime = uid();
+        doReturn(runTime).when(statistics).record(jobKey, job.getClass(), fireDelay, misfire, thrown != null, start);
         doAnswer(inv -> {
             LoggingJoinPoint joinPoint = inv.getArgument(0);
             JoinPointCallback callback = inv.getArgument(1);
             verify(job, never()).execute(any());
+            assertThat(pool.busy().get()).isEqualTo(1);
 
             assertThat(callback.proceed()).isNull();
-            assertThat(joinPoint).isEqualTo(LoggingJoinPoint.of(null, job.getClass(), "execute", "execute", List.of(context)));
+            assertThat(joinPoint).isSameAs(jfrJob);
             if (thrown != null) {
                 throw thrown;
             }
@@ -79,15 +217,10 @@ public class JfrJobFactoryTest {
         }).when(loggingService).proceedCallback(any(), any());
         boolean unchecked = thrown instanceof RuntimeException || thrown instanceof Error;
 
-        Job actual = subj.newJob(bundle, scheduler);
-
-        verify(delegate).newJob(any(), any());
-        verifyNoMoreInteractions(delegate, loggingService, bundle, scheduler, job, context);
-
         if (thrown == null) {
-            actual.execute(context);
+            subj.execute(jfrJob);
         } else {
-            var t = assertThrows(Throwable.class, () -> actual.execute(context));
+            var t = assertThrows(Throwable.class, () -> subj.execute(jfrJob));
             assertThat(t).is(nestable("Throwable",
                     match("this", t, unchecked ? sameInstance(t) : not(sameInstance(thrown))),
                     isEqual("class", t.getClass(), unchecked ? thrown.getClass() : RuntimeException.class),
@@ -95,13 +228,128 @@ public class JfrJobFactoryTest {
                     isEqual("cause", t.getCause(), unchecked ? thrown.getCause() : thrown)
             ));
         }
-        var inOrder = inOrder(job, loggingService);
-        inOrder.verify(loggingService).proceedCallback(any(), any());
-        inOrder.verify(job).execute(any());
-        verifyNoMoreInteractions(beanFactory, loggingService, delegate, bundle, scheduler, job, context);
+
+        assertThat(pool.busy().get()).isZero();
+        if (enabled) {
+            assertThat(event).is(matching(matcher -> matcher
+                    .add("beanClass", event.beanClass, job.getClass())
+                    .add("method", event.method, jobKey.toString())
+                    .add("triggerKey", event.triggerKey, triggerKey.toString())
+                    .add("fireDelay", event.fireDelay, fireDelay)
+                    .add("misfire", event.misfire, misfire)
+                    .add("poolSize", event.poolSize, pool.size())
+                    .add("poolBusy", event.poolBusy, 1)
+                    .add("exception", event.exception, thrown == null ? null : thrown.getClass())
+                    .add("message", event.message, thrown == null ? null : thrown.getMessage())
+            ));
+        }
+        var inOrder = inOrder(event, statistics, loggingService, job);
+        inOrder.verify(event).isEnabled();
+        if (enabled) {
+            inOrder.verify(event).begin();
+        }
+        inOrder.verify(statistics).start();
+        inOrder.verify(loggingService).proceedCallback(jfrJob, jfrJob);
+        inOrder.verify(job).execute(context);
+        inOrder.verify(statistics).record(jobKey, job.getClass(), fireDelay, misfire, thrown != null, start);
+        if (enabled) {
+            inOrder.verify(event).commit();
+        }
+        if (hasHistory) {
+            verify(history).offer(new JobHistoryRecord(pool.schedulerName(), pool.instanceId(), jobKey, triggerKey,
+                    job.getClass(), fireTime, fireDelay, runTime, misfire, thrown != null));
+        }
+        verifyNoMoreInteractions(beanFactory, loggingService, job, context, event, statistics, history);
     }
 
-    static Stream<Throwable> newJob() {
-        return stream(array(null, new RuntimeException(uidS()), new Exception(uidS()), new Error(uidS()), new Throwable(uidS())));
+    static Stream<Arguments> execute() {
+        return MethodSourceHelper.join(MethodSourceHelper.booleans2(),
+                Stream.of(null, new RuntimeException(uidS()), new Exception(uidS()), new Error(uidS()), new Throwable(uidS())));
+    }
+
+    @Test
+    void fireDelay() {
+        long scheduled = uid();
+        long delay = uid();
+
+        assertThat(JfrJobFactory.fireDelay(new Date(scheduled + delay), new Date(scheduled)))
+                .isEqualTo(TimeUnit.MILLISECONDS.toNanos(delay));
+        assertThat(JfrJobFactory.fireDelay(new Date(scheduled), new Date(scheduled + delay))).isZero();
+        assertThat(JfrJobFactory.fireDelay(null, new Date(scheduled))).isZero();
+        assertThat(JfrJobFactory.fireDelay(new Date(scheduled), null)).isZero();
+    }
+
+    @Test
+    void name() {
+        var jobKey = new JobKey(uidS(), uidS());
+
+        String actual = subj.name(jobKey);
+
+        assertThat(actual).isEqualTo(jobKey.toString());
+        assertThat(subj.name(new JobKey(jobKey.getName(), jobKey.getGroup()))).isSameAs(actual);
+    }
+
+    @Test
+    void nameFull() {
+        for (int i = 0; i < JfrJobFactory.MAX_KEYS; i++) {
+            subj.name(new JobKey(uidS()));
+        }
+        var jobKey = new JobKey(uidS());
+
+        assertThat(subj.name(jobKey)).isEqualTo(jobKey.toString());
+        assertThat(subj.names).containsOnlyKeys(jobKey);
+    }
+
+    @Test
+    void triggerMisfiredFull() {
+        for (int i = 0; i < JfrJobFactory.MAX_KEYS; i++) {
+            subj.misfired.add(new TriggerKey(uidS()));
+        }
+        var trigger = mock(Trigger.class);
+        var triggerKey = new TriggerKey(uidS(), uidS());
+        doReturn(triggerKey).when(trigger).getKey();
+
+        subj.triggerMisfired(trigger);
+
+        assertThat(subj.misfired).containsExactly(triggerKey);
+    }
+
+    @Test
+    void triggerMisfired() {
+        var trigger = mock(Trigger.class);
+        var triggerKey = new TriggerKey(uidS(), uidS());
+        doReturn(triggerKey).when(trigger).getKey();
+
+        subj.triggerMisfired(trigger);
+
+        assertThat(subj.misfired).containsExactly(triggerKey);
+        assertThat(subj.vetoJobExecution(trigger, mock(JobExecutionContext.class))).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void pool(boolean thrown) throws SchedulerException {
+        var scheduler = mock(Scheduler.class);
+        String name = uidS();
+        String instanceId = uidS();
+        int size = uid();
+        if (thrown) {
+            doThrow(new SchedulerException(uidS())).when(scheduler).getMetaData();
+        } else {
+            var metaData = mock(SchedulerMetaData.class);
+            doReturn(metaData).when(scheduler).getMetaData();
+            doReturn(name).when(metaData).getSchedulerName();
+            doReturn(instanceId).when(metaData).getSchedulerInstanceId();
+            doReturn(size).when(metaData).getThreadPoolSize();
+        }
+
+        var actual = JfrJobFactory.Pool.of(scheduler);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("schedulerName", actual.schedulerName(), thrown ? null : name)
+                .add("instanceId", actual.instanceId(), thrown ? null : instanceId)
+                .add("size", actual.size(), thrown ? -1 : size)
+                .add("busy", actual.busy().get(), 0)
+        ));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package jfr.quartz;
+
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Тесты для {@link JfrJob}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class JfrJobTest {
+    JfrJob subj;
+
+    @Mock
+    JfrJobFactory factory;
+    @Mock
+    Job job;
+    JobKey jobKey;
+
+    @BeforeEach
+    void setUp() {
+        jobKey = new JobKey(uidS(), uidS());
+        subj = new JfrJob(factory, job, jobKey, jobKey.toString(), new TriggerKey(uidS()), uid(), uid(), false,
+                new JfrJobFactory.Pool(uidS(), uidS(), uid(), new AtomicInteger()));
+    }
+
+    @Test
+    void execute() {
+        var context = mock(JobExecutionContext.class);
+        doAnswer(inv -> {
+            assertThat(subj.context).isSameAs(context);
+            return null;
+        }).when(factory).execute(subj);
+
+        subj.execute(context);
+
+        verify(factory).execute(subj);
+        verifyNoMoreInteractions(factory, job, context);
+    }
+
+    @Test
+    void proceed() throws JobExecutionException {
+        var context = subj.context = mock(JobExecutionContext.class);
+
+        Object actual = subj.proceed();
+
+        assertThat(actual).isNull();
+        verify(job).execute(context);
+        verifyNoMoreInteractions(factory, job, context);
+    }
+
+    @Test
+    void loggingJoinPoint() {
+        var context = subj.context = mock(JobExecutionContext.class);
+
+        assertThat(subj).is(matching(matcher -> matcher
+                .add("identityPoint", subj.identityPoint(), null)
+                .add("targetClass", subj.targetClass(), job.getClass())
+                .add("name", subj.name(), jobKey.toString())
+                .add("method", subj.method(), jobKey.toString())
+                .add("args", subj.args(), List.of(context))
+        ));
+    }
+}
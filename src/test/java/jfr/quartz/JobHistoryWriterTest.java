@@ -0,0 +1,157 @@
+package jfr.quartz;
+
+import jfr.test.junit.UidExtension;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Тесты для {@link JobHistoryWriter} на встроенной базе H2.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class JobHistoryWriterTest {
+    JobHistoryWriter subj;
+    JdbcDataSource dataSource;
+    Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + uidS() + ";DB_CLOSE_DELAY=-1");
+        connection = dataSource.getConnection();
+        try (InputStream in = getClass().getResourceAsStream("/jfr/quartz/jfr_job_history.sql");
+             Statement statement = connection.createStatement()) {
+            for (String sql : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!sql.replaceAll("--.*", "").isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (subj != null) {
+            subj.close();
+        }
+        connection.close();
+    }
+
+    @Test
+    void write() throws SQLException {
+        subj = new JobHistoryWriter(dataSource, JobHistoryWriter.DEFAULT_TABLE, 10, 10);
+        var record = newRecord();
+
+        subj.write(List.of(record, newRecord()));
+
+        List<Map<String, Object>> rows = select();
+        assertThat(rows).hasSize(2);
+        Map<String, Object> row = rows.stream()
+                .filter(r -> record.jobKey().getName().equals(r.get("JOB_NAME")))
+                .findFirst()
+                .orElseThrow();
+        assertThat(row).containsAllEntriesOf(Map.of(
+                "SCHED_NAME", record.schedulerName(),
+                "INSTANCE_ID", record.instanceId(),
+                "JOB_GROUP", record.jobKey().getGroup(),
+                "JOB_NAME", record.jobKey().getName(),
+                "TRIGGER_GROUP", record.triggerKey().getGroup(),
+                "TRIGGER_NAME", record.triggerKey().getName(),
+                "JOB_CLASS", getClass().getName(),
+                "FIRE_DELAY", record.fireDelay(),
+                "RUN_TIME", record.runTime(),
+                "MISFIRE", record.misfire()
+        ));
+        assertThat(row.get("FAILED")).isEqualTo(record.failed());
+        assertThat(((Timestamp) row.get("FIRE_TIME")).getTime()).isEqualTo(record.fireTime());
+    }
+
+    @Test
+    void writeFailed() throws SQLException {
+        subj = new JobHistoryWriter(dataSource, uidS(), 10, 10);
+
+        subj.write(List.of(newRecord()));
+
+        assertThat(select()).isEmpty();
+    }
+
+    @Test
+    void offerRun() throws SQLException {
+        subj = new JobHistoryWriter(dataSource, JobHistoryWriter.DEFAULT_TABLE, 100, 7);
+        subj.start();
+
+        IntStream.range(0, 50).forEach(i -> assertThat(subj.offer(newRecord())).isTrue());
+
+        await().until(() -> select().size() == 50);
+        assertThat(subj.getDropped()).isZero();
+    }
+
+    @Test
+    void offerOverflow() {
+        subj = new JobHistoryWriter(dataSource, JobHistoryWriter.DEFAULT_TABLE, 2, 10);
+
+        assertThat(subj.offer(newRecord())).isTrue();
+        assertThat(subj.offer(newRecord())).isTrue();
+        assertThat(subj.offer(newRecord())).isFalse();
+
+        assertThat(subj.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void close() throws SQLException {
+        subj = new JobHistoryWriter(dataSource, JobHistoryWriter.DEFAULT_TABLE, 100, 10);
+        IntStream.range(0, 20).forEach(i -> subj.offer(newRecord()));
+        subj.start();
+
+        subj.close();
+
+        assertThat(subj.thread.isAlive()).isFalse();
+        assertThat(select()).hasSize(20);
+        assertThat(subj.offer(newRecord())).isFalse();
+    }
+
+    JobHistoryRecord newRecord() {
+        return new JobHistoryRecord(uidS(), uidS(), new JobKey(uidS(), uidS()), new TriggerKey(uidS(), uidS()),
+                getClass(), System.currentTimeMillis(), uid(), uid(), uid() % 2 == 0, uid() % 2 == 1);
+    }
+
+    List<Map<String, Object>> select() throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select * from " + JobHistoryWriter.DEFAULT_TABLE + "")) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 1; i <= columns; i++) {
+                    row.put(rs.getMetaData().getColumnName(i), rs.getObject(i));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,103 @@
+package jfr.quartz;
+
+import com.google.common.base.Ticker;
+import jfr.stats.LatencyHistogram;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.JobKey;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static jfr.test.junit.UidExtension.uid;
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Тесты для {@link QuartzJobStatistics}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith({MockitoExtension.class, UidExtension.class})
+public class QuartzJobStatisticsTest {
+    QuartzJobStatistics subj;
+
+    @Mock
+    Ticker ticker;
+
+    @BeforeEach
+    void setUp() {
+        subj = new QuartzJobStatistics(ticker);
+    }
+
+    @Test
+    void start() {
+        long expected = uid();
+        doReturn(expected).when(ticker).read();
+
+        assertThat(subj.start()).isEqualTo(expected);
+    }
+
+    @Test
+    void record() {
+        var jobKey = new JobKey(uidS(), uidS());
+        long start = uid();
+        long runTime = uid();
+        doReturn(start + runTime).when(ticker).read();
+        long fireDelay = uid();
+
+        assertThat(subj.record(jobKey, getClass(), fireDelay, true, false, start)).isEqualTo(runTime);
+        subj.record(new JobKey(jobKey.getName(), jobKey.getGroup()), getClass(), 0, false, true, start);
+
+        assertThat(subj.jobs).hasSize(1);
+        var actual = subj.jobs.get(jobKey);
+        LatencyHistogram.Snapshot delays = actual.fireDelay.drain();
+        LatencyHistogram.Snapshot runs = actual.runTime.drain();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("jobKey", actual.jobKey, jobKey.toString())
+                .add("jobClass", actual.jobClass, getClass())
+                .add("errors", actual.errors.sum(), 1L)
+                .add("misfires", actual.misfires.sum(), 1L)
+                .add("fireDelay.count", delays.count(), 2L)
+                .add("fireDelay.max", delays.max(), fireDelay)
+                .add("runTime.count", runs.count(), 2L)
+                .add("runTime.max", runs.max(), runTime)
+        ));
+    }
+
+    @Test
+    void commit() {
+        var actual = new QuartzJobStatistics.JobStatistic(new JobKey(uidS()), getClass());
+        actual.record(uid(), uid(), true, true);
+
+        assertThat(actual.commit()).isTrue();
+
+        assertThat(actual.commit()).isFalse();
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("fireDelay", actual.fireDelay.drain().count(), 0L)
+                .add("runTime", actual.runTime.drain().count(), 0L)
+                .add("errors", actual.errors.sum(), 0L)
+                .add("misfires", actual.misfires.sum(), 0L)
+        ));
+    }
+
+    @Test
+    void run() {
+        var idle = new JobKey(uidS());
+        var active = new JobKey(uidS());
+        subj.record(idle, getClass(), 0, false, false, 0);
+        subj.record(active, getClass(), 0, false, false, 0);
+
+        subj.run();
+
+        assertThat(subj.jobs).containsOnlyKeys(idle, active);
+        subj.record(active, getClass(), 0, false, false, 0);
+
+        subj.run();
+
+        assertThat(subj.jobs).containsOnlyKeys(active);
+    }
+}
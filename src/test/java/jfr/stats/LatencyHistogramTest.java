@@ -0,0 +1,130 @@
+package jfr.stats;
+
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.IntStream;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link LatencyHistogram}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class LatencyHistogramTest {
+    LatencyHistogram subj = new LatencyHistogram();
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 3, 4, 5, 7, 8, 9, 1000, 1_000_000, 123_456_789, Long.MAX_VALUE - 1, Long.MAX_VALUE})
+    void bucket(long value) {
+        int bucket = LatencyHistogram.bucket(value);
+
+        assertThat(bucket).isBetween(0, LatencyHistogram.BUCKETS - 1);
+        assertThat(value).isLessThanOrEqualTo(LatencyHistogram.upperBound(bucket));
+        if (bucket > 0) {
+            assertThat(value).isGreaterThan(LatencyHistogram.upperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    void upperBound() {
+        IntStream.range(1, LatencyHistogram.BUCKETS).forEach(bucket ->
+                assertThat(LatencyHistogram.upperBound(bucket)).isGreaterThan(LatencyHistogram.upperBound(bucket - 1)));
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void recordDrain() {
+        IntStream.rangeClosed(1, 100).forEach(i -> subj.record(i * 1000L));
+        subj.record(-1);
+
+        LatencyHistogram.Snapshot actual = subj.drain();
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.count(), 101L)
+                .add("sum", actual.sum(), 5_050_000L)
+                .add("max", actual.max(), 100_000L)
+                .add("mean", actual.mean(), 50_000L)
+        ));
+        assertThat(actual.percentile(50)).isBetween(50_000L, 62_500L);
+        assertThat(actual.percentile(99)).isBetween(99_000L, 100_000L);
+        assertThat(actual.percentile(100)).isEqualTo(100_000L);
+
+        LatencyHistogram.Snapshot empty = subj.drain();
+
+        assertThat(empty).is(matching(matcher -> matcher
+                .add("count", empty.count(), 0L)
+                .add("sum", empty.sum(), 0L)
+                .add("max", empty.max(), 0L)
+                .add("mean", empty.mean(), 0L)
+                .add("percentile", empty.percentile(99), 0L)
+        ));
+    }
+
+    @Test
+    void snapshot() {
+        subj.record(1000, 3);
+        subj.record(5000);
+
+        LatencyHistogram.Snapshot actual = subj.snapshot();
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.count(), 4L)
+                .add("sum", actual.sum(), 8000L)
+                .add("max", actual.max(), 5000L)
+        ));
+        assertThat(subj.drain().counts()).isEqualTo(actual.counts());
+    }
+
+    @Test
+    void recordTimes() {
+        subj.record(1000, 3);
+        subj.record(-1, 2);
+        subj.record(5000, 0);
+
+        LatencyHistogram.Snapshot actual = subj.drain();
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.count(), 5L)
+                .add("sum", actual.sum(), 3000L)
+                .add("max", actual.max(), 1000L)
+        ));
+        assertThat(actual.percentile(40)).isEqualTo(0L);
+        assertThat(actual.percentile(100)).isEqualTo(1000L);
+    }
+
+    @Test
+    void merge() {
+        IntStream.rangeClosed(1, 50).forEach(i -> subj.record(i * 1000L));
+        LatencyHistogram.Snapshot first = subj.drain();
+        IntStream.rangeClosed(51, 100).forEach(i -> subj.record(i * 1000L));
+        LatencyHistogram.Snapshot second = subj.drain();
+
+        LatencyHistogram.Snapshot actual = first.merge(second);
+
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("count", actual.count(), 100L)
+                .add("sum", actual.sum(), 5_050_000L)
+                .add("max", actual.max(), 100_000L)
+        ));
+        assertThat(actual.percentile(50)).isBetween(50_000L, 62_500L);
+        assertThat(first.count()).isEqualTo(50L);
+    }
+
+    @Test
+    void variance() {
+        subj.record(1000, 50);
+        subj.record(2000, 50);
+
+        LatencyHistogram.Snapshot actual = subj.drain();
+
+        assertThat(Math.sqrt(actual.variance())).isBetween(400.0, 600.0);
+        assertThat(new LatencyHistogram().drain().variance()).isZero();
+    }
+}
@@ -0,0 +1,141 @@
+package jfr.stats;
+
+import jfr.logging.DimensionalMethod;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static jfr.test.junit.UidExtension.uidS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для {@link MethodTable}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class MethodTableTest {
+    List<String> created = new ArrayList<>();
+    MethodTable<String> subj = new MethodTable<>(2, (beanClass, method, dimension) -> {
+        String result = beanClass + "." + method + (dimension == null ? "" : "/" + dimension);
+        created.add(result);
+        return result;
+    });
+
+    @Test
+    void get() throws NoSuchMethodException {
+        String method = uidS();
+
+        String actual = subj.get(String.class, method);
+
+        assertThat(actual).isEqualTo("java.lang.String." + method);
+        assertThat(subj.get(String.class, method)).isSameAs(actual);
+        assertThat(subj.get(getClass(), getClass().getDeclaredMethod("get")))
+                .isEqualTo(getClass().getName() + ".get");
+        assertThat(created).hasSize(2);
+        assertThat(subj.values()).containsExactlyElementsOf(created);
+        assertThat(subj.size()).isEqualTo(2);
+        assertThat(subj.other).isNull();
+    }
+
+    @Test
+    void getOther() {
+        String first = subj.get(String.class, uidS());
+        subj.get(Integer.class, uidS());
+
+        String actual = subj.get(Long.class, uidS());
+
+        assertThat(actual).isEqualTo("other.other").isSameAs(subj.other);
+        assertThat(subj.get(Long.class, uidS())).isSameAs(actual);
+        assertThat(subj.get(String.class, first.substring("java.lang.String.".length()))).isEqualTo(first);
+        assertThat(subj.values()).hasSize(3).last().isEqualTo(actual);
+        assertThat(subj.size()).isEqualTo(2);
+    }
+
+    @Test
+    void getOverloaded() throws NoSuchMethodException {
+        Method first = getClass().getDeclaredMethod("overloaded");
+        Method second = getClass().getDeclaredMethod("overloaded", int.class);
+
+        String actual = subj.get(getClass(), first);
+
+        assertThat(actual).isEqualTo(getClass().getName() + ".overloaded");
+        assertThat(subj.get(getClass(), second)).isSameAs(actual);
+        assertThat(subj.get(getClass(), "overloaded")).isSameAs(actual);
+        assertThat(created).hasSize(1);
+        assertThat(subj.size()).isEqualTo(1);
+    }
+
+    @Test
+    void getOverloadedOther() throws NoSuchMethodException {
+        String first = subj.get(getClass(), getClass().getDeclaredMethod("overloaded"));
+        subj.get(String.class, uidS());
+
+        String actual = subj.get(getClass(), getClass().getDeclaredMethod("overloaded", int.class));
+
+        assertThat(actual).isSameAs(first);
+        assertThat(subj.other).isNull();
+    }
+
+    @Test
+    void getDimension() throws NoSuchMethodException {
+        Method method = getClass().getDeclaredMethod("overloaded");
+        var first = new DimensionalMethod(method, "a");
+        subj.get(String.class, uidS());
+
+        String actual = subj.get(getClass(), first);
+
+        assertThat(actual).isEqualTo(getClass().getName() + ".overloaded/a");
+        assertThat(subj.get(getClass(), first)).isSameAs(actual);
+        assertThat(subj.get(getClass(), new DimensionalMethod(getClass().getDeclaredMethod("overloaded", int.class), "a")))
+                .isSameAs(actual);
+        assertThat(subj.get(getClass(), new DimensionalMethod(method, "b")))
+                .isEqualTo(getClass().getName() + ".overloaded/b");
+        assertThat(subj.get(getClass(), method)).isEqualTo(getClass().getName() + ".overloaded");
+        assertThat(created).hasSize(4);
+        assertThat(subj.size()).isEqualTo(2);
+        assertThat(subj.other).isNull();
+    }
+
+    @Test
+    void getDimensionOther() throws NoSuchMethodException {
+        subj.get(String.class, uidS());
+        subj.get(Integer.class, uidS());
+
+        var method = new DimensionalMethod(getClass().getDeclaredMethod("overloaded"), "a");
+
+        String actual = subj.get(getClass(), method);
+
+        assertThat(actual).isEqualTo("other.other").isSameAs(subj.other);
+        assertThat(subj.methods.get(getClass())).containsOnlyKeys(method);
+        assertThat(subj.get(getClass(), new DimensionalMethod(getClass().getDeclaredMethod("overloaded"), "b")))
+                .isSameAs(actual);
+        assertThat(subj.size()).isEqualTo(2);
+    }
+
+    @Test
+    void getMaxValues() throws NoSuchMethodException {
+        subj = new MethodTable<>(2, 2, (beanClass, method, dimension) -> method + "/" + dimension);
+        Method method = getClass().getDeclaredMethod("overloaded");
+        subj.get(getClass(), new DimensionalMethod(method, "a"));
+        subj.get(getClass(), new DimensionalMethod(method, "b"));
+
+        String actual = subj.get(getClass(), new DimensionalMethod(method, "c"));
+
+        assertThat(actual).isEqualTo("other/null").isSameAs(subj.other);
+        assertThat(subj.get(String.class, uidS())).isSameAs(actual);
+        assertThat(subj.get(getClass(), new DimensionalMethod(method, "a"))).isEqualTo("overloaded/a");
+        assertThat(subj.values()).hasSize(3);
+        assertThat(subj.size()).isEqualTo(1);
+    }
+
+    void overloaded() {
+    }
+
+    void overloaded(int value) {
+    }
+}
@@ -0,0 +1,78 @@
+package jfr.stats;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для {@link WindowMax}.
+ *
+ * @author Roman_Erzhukov
+ */
+public class WindowMaxTest {
+    long now = 1_000;
+    Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return now;
+        }
+    };
+    WindowMax subj = new WindowMax(ticker, Duration.ofNanos(300), 3);
+
+    @Test
+    void poll() {
+        assertThat(subj.poll()).isZero();
+
+        subj.record(5);
+        subj.record(3);
+
+        assertThat(subj.poll()).isEqualTo(5);
+        assertThat(subj.poll()).as("poll does not reset").isEqualTo(5);
+    }
+
+    @Test
+    void rotate() {
+        subj.record(5);
+        now += 100;
+        subj.record(3);
+
+        assertThat(subj.poll()).isEqualTo(5);
+        now += 100;
+        assertThat(subj.poll()).isEqualTo(5);
+        now += 100;
+        assertThat(subj.poll()).as("5 expired").isEqualTo(3);
+        now += 100;
+        assertThat(subj.poll()).as("3 expired").isZero();
+        assertThat(subj.rotatedAt).isEqualTo(1_400);
+    }
+
+    @Test
+    void rotateExpired() {
+        subj.record(5);
+        now += 1_050;
+
+        assertThat(subj.poll()).isZero();
+        assertThat(subj.rotatedAt).isEqualTo(now);
+        subj.record(2);
+        assertThat(subj.poll()).isEqualTo(2);
+    }
+
+    @Test
+    void defaults() {
+        var actual = new WindowMax(ticker);
+
+        assertThat(actual.rotateNanos).isEqualTo(Duration.ofSeconds(40).toNanos());
+    }
+
+    @Test
+    void invalid() {
+        assertThatThrownBy(() -> new WindowMax(ticker, Duration.ofNanos(2), 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WindowMax(ticker, Duration.ofNanos(300), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
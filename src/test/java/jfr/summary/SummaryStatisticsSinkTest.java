@@ -0,0 +1,80 @@
+package jfr.summary;
+
+import jfr.stats.MethodTable;
+import jfr.test.junit.UidExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static jfr.test.hamcrest.PropertiesMatcher.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для {@link SummaryStatisticsSink}.
+ *
+ * @author Roman_Erzhukov
+ */
+@ExtendWith(UidExtension.class)
+public class SummaryStatisticsSinkTest {
+    SummaryStatisticsSink subj = new SummaryStatisticsSink(60, 3, 2);
+
+    @Test
+    void constructorInvalid() {
+        assertThatThrownBy(() -> new SummaryStatisticsSink(0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SummaryStatisticsSink(1, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void accept() {
+        subj.accept(String.class, "find", 0, 2, 5_000_000, 2_000_000, 3_000_000, 1);
+        subj.accept(String.class, "find", 0x1f, 1, 10_000_000, 10_000_000, 10_000_000, 0);
+        subj.accept(String.class, "empty", 0, 0, 0, 0, 0, 0);
+
+        SummaryStatisticsSink.Counters actual = subj.methods.get(String.class, "find");
+        assertThat(actual).is(matching(matcher -> matcher
+                .add("beanClass", actual.beanClass, "String")
+                .add("method", actual.method, "find")
+                .add("count", actual.count.sum(), 3L)
+                .add("sum", actual.sum.sum(), 15_000_000L)
+                .add("max", actual.max.get(), 10_000_000L)
+                .add("errors", actual.errors.sum(), 1L)
+        ));
+        assertThat(subj.methods.size()).isEqualTo(1);
+    }
+
+    @Test
+    void summary() {
+        subj.intervalStart = System.nanoTime() - 61_000_000_000L;
+        subj.accept(String.class, "find", 0, 3, 15_000_000, 2_000_000, 10_000_000, 1);
+        subj.accept(Integer.class, "parse", 0, 3, 3_000_000, 1_000_000, 1_000_000, 0);
+        subj.accept(Long.class, "slow", 0, 1, 100_000_000, 100_000_000, 100_000_000, 0);
+        subj.accept(Long.class, "rest", 0, 1, 1, 1, 1, 0);
+
+        String actual = subj.summary();
+
+        assertThat(actual).isNotNull();
+        List<String> lines = actual.lines().toList();
+        assertThat(lines.get(0)).matches("Bean methods for 00:01:01\\.\\d{3}: 4 methods, 8 calls, total 00:00:00\\.118");
+        assertThat(lines.subList(1, lines.size())).containsExactly(
+                "\t       total      calls          avg          max   errors  method",
+                "\t00:00:00.100          1 00:00:00.100 00:00:00.100        0  Long.slow",
+                "\t00:00:00.015          3 00:00:00.005 00:00:00.010        1  String.find");
+        assertThat(subj.summary()).isNull();
+        assertThat(subj.methods.values()).extracting(counters -> counters.method)
+                .containsExactly("find", "parse", "slow", MethodTable.OTHER);
+    }
+
+    @Test
+    void startClose() {
+        subj.start();
+        assertThat(subj.scheduler).isNotNull();
+        subj.accept(String.class, "find", 0, 1, 1, 1, 1, 0);
+
+        subj.close();
+
+        assertThat(subj.scheduler).isNull();
+        assertThat(subj.methods.get(String.class, "find").count.sum()).isZero();
+    }
+}
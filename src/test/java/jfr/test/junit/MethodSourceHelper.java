@@ -76,6 +76,15 @@ public interface MethodSourceHelper {
         return join(booleans3(), booleans2());
     }
 
+    /**
+     * Возвращает поток из 6 логических значений (false, true).
+     *
+     * @return Поток логических значений
+     */
+    static Stream<Arguments> booleans6() {
+        return join(booleans3(), booleans3());
+    }
+
     /**
      * Возвращает поток логических значений (false, true, null).
      *